@@ -23,7 +23,7 @@ public class CodedInputStreamNewInstanceIterable extends Recipe {
     @NlsRewrite.Description
     @Override
     public String getDescription() {
-        return "Removes the isArray check and unsafe nio implementation, and only copies the bytes and reads as a plain array";
+        return "Removes the isArray check and unsafe nio implementation, and reads the buffers with the GWT-safe IterableByteBufferDecoder";
     }
 
     @Override
@@ -42,9 +42,12 @@ public class CodedInputStreamNewInstanceIterable extends Recipe {
             @Override
             public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext executionContext) {
                 if (matcher.matches(method, cisClassDecl)) {
-                    String iterable = method.getParameters().size() == 1 ? "input" : "bufs";
+                    // IterableByteBufferDecoder is not part of protobuf-java, see the README
+                    String body = method.getParameters().size() == 1
+                            ? "return newInstance(input, false);\n"
+                            : "return new IterableByteBufferDecoder(bufs, bufferIsImmutable);\n";
                     final JavaTemplate replacementTemplate = JavaTemplate
-                            .builder("return newInstance(new com.google.protobuf.gwt.IterableByteBufferInputStream(" + iterable + ");\n")
+                            .builder(body)
                             .build();
 
                     return replacementTemplate.apply(getCursor(), method.getCoordinates().replaceBody());
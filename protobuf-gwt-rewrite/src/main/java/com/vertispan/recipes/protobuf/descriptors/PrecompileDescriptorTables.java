@@ -0,0 +1,342 @@
+package com.vertispan.recipes.protobuf.descriptors;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumDescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumValueDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.MethodDescriptorProto;
+import com.google.protobuf.DescriptorProtos.OneofDescriptorProto;
+import com.google.protobuf.DescriptorProtos.ServiceDescriptorProto;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.NlsRewrite;
+import org.openrewrite.ScanningRecipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Statement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the type references in each generated file's embedded descriptor at build time, and passes
+ * them to {@code Descriptors.FileDescriptor.internalBuildGeneratedFileFrom(String[], FileDescriptor[], int[])}
+ * so that they don't have to be looked up by name when the descriptor is built in the browser. See that
+ * method for the format of the table.
+ */
+public class PrecompileDescriptorTables extends ScanningRecipe<Map<String, FileDescriptorProto>> {
+    private static final MethodMatcher matcher = new MethodMatcher(
+            "com.google.protobuf.Descriptors.FileDescriptor internalBuildGeneratedFileFrom(java.lang.String[], *)");
+
+    // Must match Descriptors.FileDescriptor.LINK_FILE_SHIFT
+    private static final int LINK_FILE_SHIFT = 20;
+    private static final int MAX_FILE_INDEX = (1 << (31 - LINK_FILE_SHIFT)) - 1;
+    private static final int MAX_TYPE_INDEX = (1 << LINK_FILE_SHIFT) - 1;
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    @NlsRewrite.DisplayName
+    @Override
+    public String getDisplayName() {
+        return "Precompile generated descriptor link tables";
+    }
+
+    @NlsRewrite.Description
+    @Override
+    public String getDescription() {
+        return "Resolves the message and enum types referenced by each generated file's descriptor at build time, "
+                + "and passes them as a table of indexes to FileDescriptor.internalBuildGeneratedFileFrom";
+    }
+
+    @Override
+    public Map<String, FileDescriptorProto> getInitialValue(ExecutionContext ctx) {
+        return new HashMap<>();
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getScanner(Map<String, FileDescriptorProto> files) {
+        return new JavaIsoVisitor<>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext executionContext) {
+                if (matcher.matches(method) && method.getArguments().size() == 2) {
+                    FileDescriptorProto file = readDescriptor(method, getCursor());
+                    if (file != null) {
+                        files.put(file.getName(), file);
+                    }
+                }
+                return super.visitMethodInvocation(method, executionContext);
+            }
+        };
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor(Map<String, FileDescriptorProto> files) {
+        return new JavaIsoVisitor<>() {
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext executionContext) {
+                J.MethodInvocation m = super.visitMethodInvocation(method, executionContext);
+                if (!matcher.matches(m) || m.getArguments().size() != 2) {
+                    return m;
+                }
+                FileDescriptorProto file = readDescriptor(m, getCursor());
+                if (file == null || !hasValidNames(file) || !hasDependencies(m.getArguments().get(1), file)) {
+                    // Leave it to be looked up and validated at runtime
+                    return m;
+                }
+                String table = linkTable(file, files).stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(", "));
+                return JavaTemplate.builder("#{any(java.lang.String[])}, "
+                                + "#{any(com.google.protobuf.Descriptors.FileDescriptor[])}, "
+                                + "new int[] {" + table + "}")
+                        .build()
+                        .apply(getCursor(), m.getCoordinates().replaceArguments(),
+                                m.getArguments().get(0), m.getArguments().get(1));
+            }
+        };
+    }
+
+    /**
+     * Reads the FileDescriptorProto that protoc embeds as an array of latin-1 string literals, either
+     * passed directly or through a local variable.
+     */
+    private static FileDescriptorProto readDescriptor(J.MethodInvocation method, Cursor cursor) {
+        Expression data = method.getArguments().get(0);
+        if (data instanceof J.Identifier) {
+            data = findLocalInitializer(((J.Identifier) data).getSimpleName(), cursor);
+        }
+        if (!(data instanceof J.NewArray) || ((J.NewArray) data).getInitializer() == null) {
+            return null;
+        }
+        StringBuilder descriptorData = new StringBuilder();
+        for (Expression part : ((J.NewArray) data).getInitializer()) {
+            if (!appendLiteral(part, descriptorData)) {
+                return null;
+            }
+        }
+        byte[] bytes = new byte[descriptorData.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) descriptorData.charAt(i);
+        }
+        try {
+            return FileDescriptorProto.parseFrom(bytes);
+        } catch (InvalidProtocolBufferException e) {
+            return null;
+        }
+    }
+
+    private static Expression findLocalInitializer(String name, Cursor cursor) {
+        J.Block block = cursor.firstEnclosing(J.Block.class);
+        if (block == null) {
+            return null;
+        }
+        for (Statement statement : block.getStatements()) {
+            if (statement instanceof J.VariableDeclarations) {
+                for (J.VariableDeclarations.NamedVariable variable : ((J.VariableDeclarations) statement).getVariables()) {
+                    if (variable.getSimpleName().equals(name)) {
+                        return variable.getInitializer();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Appends a string literal, or a concatenation of them as protoc splits long lines. */
+    private static boolean appendLiteral(Expression expression, StringBuilder out) {
+        if (expression instanceof J.Literal && ((J.Literal) expression).getValue() instanceof String) {
+            out.append((String) ((J.Literal) expression).getValue());
+            return true;
+        }
+        if (expression instanceof J.Binary && ((J.Binary) expression).getOperator() == J.Binary.Type.Addition) {
+            J.Binary binary = (J.Binary) expression;
+            return appendLiteral(binary.getLeft(), out) && appendLiteral(binary.getRight(), out);
+        }
+        if (expression instanceof J.Parentheses) {
+            return appendLiteral((Expression) ((J.Parentheses<?>) expression).getTree(), out);
+        }
+        return false;
+    }
+
+    /** Checks that gencode passes one FileDescriptor per import, which the table's file indexes refer to. */
+    private static boolean hasDependencies(Expression dependencies, FileDescriptorProto file) {
+        return dependencies instanceof J.NewArray
+                && ((J.NewArray) dependencies).getInitializer() != null
+                && ((J.NewArray) dependencies).getInitializer().stream()
+                        .filter(e -> !(e instanceof J.Empty))
+                        .count() == file.getDependencyCount();
+    }
+
+    /** The runtime skips validating the names of a file with a link table, so it is done here instead. */
+    private static boolean hasValidNames(FileDescriptorProto file) {
+        for (DescriptorProto message : file.getMessageTypeList()) {
+            if (!hasValidNames(message)) {
+                return false;
+            }
+        }
+        for (EnumDescriptorProto enumType : file.getEnumTypeList()) {
+            if (!hasValidNames(enumType)) {
+                return false;
+            }
+        }
+        for (ServiceDescriptorProto service : file.getServiceList()) {
+            if (!isIdentifier(service.getName())) {
+                return false;
+            }
+            for (MethodDescriptorProto method : service.getMethodList()) {
+                if (!isIdentifier(method.getName())) {
+                    return false;
+                }
+            }
+        }
+        for (FieldDescriptorProto extension : file.getExtensionList()) {
+            if (!isIdentifier(extension.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasValidNames(DescriptorProto message) {
+        if (!isIdentifier(message.getName())) {
+            return false;
+        }
+        for (DescriptorProto nestedType : message.getNestedTypeList()) {
+            if (!hasValidNames(nestedType)) {
+                return false;
+            }
+        }
+        for (EnumDescriptorProto enumType : message.getEnumTypeList()) {
+            if (!hasValidNames(enumType)) {
+                return false;
+            }
+        }
+        for (FieldDescriptorProto field : message.getFieldList()) {
+            if (!isIdentifier(field.getName())) {
+                return false;
+            }
+        }
+        for (FieldDescriptorProto extension : message.getExtensionList()) {
+            if (!isIdentifier(extension.getName())) {
+                return false;
+            }
+        }
+        for (OneofDescriptorProto oneof : message.getOneofDeclList()) {
+            if (!isIdentifier(oneof.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasValidNames(EnumDescriptorProto enumType) {
+        if (!isIdentifier(enumType.getName())) {
+            return false;
+        }
+        for (EnumValueDescriptorProto value : enumType.getValueList()) {
+            if (!isIdentifier(value.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIdentifier(String name) {
+        return IDENTIFIER.matcher(name).matches();
+    }
+
+    /**
+     * Builds the table entries in the order that Descriptors cross-links the file, with -1 for any type
+     * that isn't declared in the file or one of its direct imports.
+     */
+    static List<Integer> linkTable(FileDescriptorProto file, Map<String, FileDescriptorProto> files) {
+        Map<String, Integer> entries = new HashMap<>();
+        addEntries(file, 0, entries);
+        for (int i = 0; i < file.getDependencyCount() && i + 1 <= MAX_FILE_INDEX; i++) {
+            FileDescriptorProto dependency = files.get(file.getDependency(i));
+            if (dependency != null) {
+                addEntries(dependency, i + 1, entries);
+            }
+        }
+
+        List<Integer> table = new ArrayList<>();
+        for (DescriptorProto message : file.getMessageTypeList()) {
+            linkMessage(message, entries, table);
+        }
+        for (ServiceDescriptorProto service : file.getServiceList()) {
+            for (MethodDescriptorProto method : service.getMethodList()) {
+                table.add(entry(method.getInputType(), entries));
+                table.add(entry(method.getOutputType(), entries));
+            }
+        }
+        for (FieldDescriptorProto extension : file.getExtensionList()) {
+            linkField(extension, entries, table);
+        }
+        return table;
+    }
+
+    private static void linkMessage(DescriptorProto message, Map<String, Integer> entries, List<Integer> table) {
+        for (DescriptorProto nestedType : message.getNestedTypeList()) {
+            linkMessage(nestedType, entries, table);
+        }
+        for (FieldDescriptorProto field : message.getFieldList()) {
+            linkField(field, entries, table);
+        }
+        for (FieldDescriptorProto extension : message.getExtensionList()) {
+            linkField(extension, entries, table);
+        }
+    }
+
+    private static void linkField(FieldDescriptorProto field, Map<String, Integer> entries, List<Integer> table) {
+        if (field.hasExtendee()) {
+            table.add(entry(field.getExtendee(), entries));
+        }
+        if (field.hasTypeName()) {
+            table.add(entry(field.getTypeName(), entries));
+        }
+    }
+
+    private static int entry(String typeName, Map<String, Integer> entries) {
+        // protoc always writes fully-qualified names, but relative ones are left to the runtime
+        if (!typeName.startsWith(".")) {
+            return -1;
+        }
+        return entries.getOrDefault(typeName.substring(1), -1);
+    }
+
+    /** Lists the file's message and enum types in the order of FileDescriptor.getLinkedType(). */
+    private static void addEntries(FileDescriptorProto file, int fileIndex, Map<String, Integer> entries) {
+        String prefix = file.getPackage().isEmpty() ? "" : file.getPackage() + ".";
+        List<String> names = new ArrayList<>();
+        for (DescriptorProto message : file.getMessageTypeList()) {
+            addTypeNames(prefix, message, names);
+        }
+        for (EnumDescriptorProto enumType : file.getEnumTypeList()) {
+            names.add(prefix + enumType.getName());
+        }
+        for (int i = 0; i < names.size() && i <= MAX_TYPE_INDEX; i++) {
+            entries.putIfAbsent(names.get(i), (fileIndex << LINK_FILE_SHIFT) | i);
+        }
+    }
+
+    private static void addTypeNames(String prefix, DescriptorProto message, List<String> names) {
+        String name = prefix + message.getName();
+        names.add(name);
+        for (DescriptorProto nestedType : message.getNestedTypeList()) {
+            addTypeNames(name + ".", nestedType, names);
+        }
+        for (EnumDescriptorProto enumType : message.getEnumTypeList()) {
+            names.add(name + "." + enumType.getName());
+        }
+    }
+}
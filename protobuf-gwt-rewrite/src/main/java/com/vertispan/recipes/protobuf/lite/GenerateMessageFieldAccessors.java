@@ -0,0 +1,424 @@
+package com.vertispan.recipes.protobuf.lite;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.NlsRewrite;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Statement;
+import org.openrewrite.java.tree.TypeTree;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates the {@code com.google.protobuf.gwt.MessageFieldAccessor} that protobuf-gwt needs for each lite message,
+ * since GWT can't look up the fields named in the message's {@code BUILD_MESSAGE_INFO} table by reflection. The
+ * accessor is added as a nested class of the message, and registered from a static initializer after the default
+ * instance, which is what a plugin for protoc's {@code class_scope} insertion point would emit.
+ */
+public class GenerateMessageFieldAccessors extends Recipe {
+    private static final String ACCESSOR_NAME = "GwtFieldAccessor";
+
+    // Field types and flags of the RawMessageInfo format, as in LiteMessageSchema
+    private static final int MESSAGE = 9;
+    private static final int ENUM = 12;
+    private static final int GROUP = 17;
+    private static final int MESSAGE_LIST = 27;
+    private static final int ENUM_LIST = 30;
+    private static final int ENUM_LIST_PACKED = 44;
+    private static final int GROUP_LIST = 49;
+    private static final int MAP = 50;
+    private static final int FIRST_ONEOF = 51;
+    private static final int FIELD_TYPE_MASK = 0xFF;
+    private static final int LEGACY_ENUM_IS_CLOSED_BIT = 0x800;
+    private static final int HAS_HAS_BIT = 0x1000;
+
+    @NlsRewrite.DisplayName
+    @Override
+    public String getDisplayName() {
+        return "Generate MessageFieldAccessors for lite messages";
+    }
+
+    @NlsRewrite.Description
+    @Override
+    public String getDescription() {
+        return "Adds a MessageFieldAccessor to each message generated by protoc's lite generator, and registers it "
+                + "from the message's static initializer, so that protobuf-gwt can parse and serialize the message";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return new JavaIsoVisitor<>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext executionContext) {
+                J.ClassDeclaration c = super.visitClassDeclaration(classDecl, executionContext);
+                if (!isLiteMessage(c) || hasAccessor(c)) {
+                    return c;
+                }
+                String accessor = accessorSource(c);
+                if (accessor == null) {
+                    // Not in the shape protoc generates, leave it to be written by hand
+                    return c;
+                }
+                c = JavaTemplate.builder(accessor)
+                        .contextSensitive()
+                        .build()
+                        .apply(updateCursor(c), c.getBody().getCoordinates().lastStatement());
+                return JavaTemplate.builder("static {\n"
+                                + "com.google.protobuf.gwt.MessageFieldAccessor.register("
+                                + c.getSimpleName() + ".class, new " + ACCESSOR_NAME + "());\n"
+                                + "}")
+                        .contextSensitive()
+                        .build()
+                        .apply(updateCursor(c), c.getBody().getCoordinates().lastStatement());
+            }
+
+            /** Writes the accessor class, or returns null if the message info can't be read. */
+            private String accessorSource(J.ClassDeclaration c) {
+                Map<String, Expression> locals = findMessageInfoLocals(c);
+                Expression info = locals.get("info");
+                Expression objects = locals.get("objects");
+                StringBuilder infoString = new StringBuilder();
+                if (info == null || objects == null || !appendLiteral(info, infoString)) {
+                    return null;
+                }
+                List<Expression> objectList = new ArrayList<>();
+                if (objects instanceof J.NewArray && ((J.NewArray) objects).getInitializer() != null) {
+                    for (Expression object : ((J.NewArray) objects).getInitializer()) {
+                        if (!(object instanceof J.Empty)) {
+                            objectList.add(object);
+                        }
+                    }
+                } else if (!(objects instanceof J.Literal && ((J.Literal) objects).getValue() == null)) {
+                    return null;
+                }
+
+                Map<String, String> fieldTypes = new LinkedHashMap<>();
+                for (Expression object : objectList) {
+                    if (object instanceof J.Literal && ((J.Literal) object).getValue() instanceof String) {
+                        String name = (String) ((J.Literal) object).getValue();
+                        String type = fieldType(c, name);
+                        if (type == null) {
+                            return null;
+                        }
+                        fieldTypes.putIfAbsent(name, type);
+                    }
+                }
+                Map<String, List<Integer>> messageFields = messageFields(infoString.toString(), objectList, fieldTypes);
+                if (messageFields == null) {
+                    return null;
+                }
+                return writeAccessor(c.getSimpleName(), fieldTypes, messageFields);
+            }
+
+            /** Returns the declared type of the named instance field, or null if there is none. */
+            private String fieldType(J.ClassDeclaration c, String name) {
+                for (Statement statement : c.getBody().getStatements()) {
+                    if (statement instanceof J.VariableDeclarations
+                            && !((J.VariableDeclarations) statement).hasModifier(J.Modifier.Type.Static)) {
+                        J.VariableDeclarations field = (J.VariableDeclarations) statement;
+                        TypeTree type = field.getTypeExpression();
+                        for (J.VariableDeclarations.NamedVariable variable : field.getVariables()) {
+                            if (variable.getSimpleName().equals(name) && type != null
+                                    && variable.getDimensionsAfterName().isEmpty()) {
+                                return type.print(getCursor()).trim();
+                            }
+                        }
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    private static boolean isLiteMessage(J.ClassDeclaration c) {
+        if (c.getExtends() == null) {
+            return false;
+        }
+        JavaType.FullyQualified type = c.getExtends().getType() instanceof JavaType.FullyQualified
+                ? (JavaType.FullyQualified) c.getExtends().getType()
+                : null;
+        if (type != null && !(type instanceof JavaType.Unknown)) {
+            String name = type.getFullyQualifiedName();
+            return name.equals("com.google.protobuf.GeneratedMessageLite")
+                    || name.equals("com.google.protobuf.GeneratedMessageLite$ExtendableMessage")
+                    || name.equals("com.google.protobuf.GeneratedMessageLite.ExtendableMessage");
+        }
+        // Without the runtime on the classpath, go by the name as written
+        String name = c.getExtends().toString().replaceAll("\\s", "").replace("com.google.protobuf.", "");
+        return name.startsWith("GeneratedMessageLite<") || name.startsWith("GeneratedMessageLite.ExtendableMessage<");
+    }
+
+    /** Checks for a member class that already implements the accessor, generated or written by hand. */
+    private static boolean hasAccessor(J.ClassDeclaration c) {
+        for (Statement statement : c.getBody().getStatements()) {
+            if (statement instanceof J.ClassDeclaration) {
+                J.ClassDeclaration member = (J.ClassDeclaration) statement;
+                if (member.getSimpleName().equals(ACCESSOR_NAME) || member.getExtends() != null
+                        && member.getExtends().toString().contains("MessageFieldAccessor")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Finds the {@code objects} and {@code info} locals that dynamicMethod passes to newMessageInfo. */
+    private static Map<String, Expression> findMessageInfoLocals(J.ClassDeclaration c) {
+        Map<String, Expression> locals = new LinkedHashMap<>();
+        for (Statement statement : c.getBody().getStatements()) {
+            if (statement instanceof J.MethodDeclaration
+                    && ((J.MethodDeclaration) statement).getSimpleName().equals("dynamicMethod")
+                    && ((J.MethodDeclaration) statement).getBody() != null) {
+                new JavaIsoVisitor<Map<String, Expression>>() {
+                    @Override
+                    public J.VariableDeclarations.NamedVariable visitVariable(
+                            J.VariableDeclarations.NamedVariable variable, Map<String, Expression> found) {
+                        if (variable.getInitializer() != null) {
+                            found.putIfAbsent(variable.getSimpleName(), variable.getInitializer());
+                        }
+                        return variable;
+                    }
+                }.visit(((J.MethodDeclaration) statement).getBody(), locals);
+            }
+        }
+        return locals;
+    }
+
+    /** Appends a string literal, or a concatenation of them as protoc splits long lines. */
+    private static boolean appendLiteral(Expression expression, StringBuilder out) {
+        if (expression instanceof J.Literal && ((J.Literal) expression).getValue() instanceof String) {
+            out.append((String) ((J.Literal) expression).getValue());
+            return true;
+        }
+        if (expression instanceof J.Binary && ((J.Binary) expression).getOperator() == J.Binary.Type.Addition) {
+            J.Binary binary = (J.Binary) expression;
+            return appendLiteral(binary.getLeft(), out) && appendLiteral(binary.getRight(), out);
+        }
+        if (expression instanceof J.Parentheses) {
+            return appendLiteral((Expression) ((J.Parentheses<?>) expression).getTree(), out);
+        }
+        return false;
+    }
+
+    /**
+     * Walks the message info the same way as LiteMessageSchema, and returns the numbers of the message and group
+     * fields grouped by the message type to return from getMessageDefaultInstance. Returns null if the info doesn't
+     * match the objects.
+     */
+    private static Map<String, List<Integer>> messageFields(String infoString, List<Expression> objects,
+                                                            Map<String, String> fieldTypes) {
+        InfoReader info = new InfoReader(infoString);
+        Map<String, List<Integer>> messageFields = new LinkedHashMap<>();
+        try {
+            info.next(); // flags
+            int fieldCount = info.next();
+            int oneofCount = 0;
+            int hasBitsCount = 0;
+            if (fieldCount != 0) {
+                oneofCount = info.next();
+                hasBitsCount = info.next();
+                for (int i = 0; i < 6; i++) {
+                    // min and max field number, entry count, map and repeated field counts, checked fields
+                    info.next();
+                }
+            }
+            int objectsPosition = oneofCount * 2 + hasBitsCount;
+            for (int i = 0; i < fieldCount; i++) {
+                int number = info.next();
+                int typeWithExtraBits = info.next();
+                int type = typeWithExtraBits & FIELD_TYPE_MASK;
+                String messageType = null;
+                if (type >= FIRST_ONEOF) {
+                    info.next(); // oneof index
+                    int oneofType = type - FIRST_ONEOF;
+                    if (oneofType == MESSAGE || oneofType == GROUP) {
+                        messageType = classLiteralType(objects.get(objectsPosition++));
+                    } else if (oneofType == ENUM && (typeWithExtraBits & LEGACY_ENUM_IS_CLOSED_BIT) != 0) {
+                        objectsPosition++;
+                    }
+                } else {
+                    Expression name = objects.get(objectsPosition++);
+                    if (type == MESSAGE || type == GROUP) {
+                        messageType = fieldTypes.get((String) ((J.Literal) name).getValue());
+                    } else if (type == MESSAGE_LIST || type == GROUP_LIST) {
+                        messageType = classLiteralType(objects.get(objectsPosition++));
+                    } else if (type == ENUM || type == ENUM_LIST || type == ENUM_LIST_PACKED) {
+                        if ((typeWithExtraBits & LEGACY_ENUM_IS_CLOSED_BIT) != 0) {
+                            objectsPosition++;
+                        }
+                    } else if (type == MAP) {
+                        objectsPosition++;
+                        if ((typeWithExtraBits & LEGACY_ENUM_IS_CLOSED_BIT) != 0) {
+                            objectsPosition++;
+                        }
+                    }
+                    if ((typeWithExtraBits & HAS_HAS_BIT) != 0 && type <= GROUP) {
+                        info.next(); // has bit index
+                    }
+                }
+                boolean isMessage = type == MESSAGE || type == GROUP || type == MESSAGE_LIST || type == GROUP_LIST
+                        || type == FIRST_ONEOF + MESSAGE || type == FIRST_ONEOF + GROUP;
+                if (isMessage) {
+                    if (messageType == null) {
+                        return null;
+                    }
+                    messageFields.computeIfAbsent(messageType, t -> new ArrayList<>()).add(number);
+                }
+            }
+        } catch (IndexOutOfBoundsException | ClassCastException e) {
+            return null;
+        }
+        return messageFields;
+    }
+
+    /** Returns {@code Foo} for the expression {@code Foo.class}, or null for anything else. */
+    private static String classLiteralType(Expression expression) {
+        if (expression instanceof J.FieldAccess && ((J.FieldAccess) expression).getSimpleName().equals("class")) {
+            return ((J.FieldAccess) expression).getTarget().toString().trim();
+        }
+        return null;
+    }
+
+    private static String writeAccessor(String messageType, Map<String, String> fieldTypes,
+                                        Map<String, List<Integer>> messageFields) {
+        List<String> names = new ArrayList<>(fieldTypes.keySet());
+        StringBuilder out = new StringBuilder();
+        out.append("private static final class ").append(ACCESSOR_NAME)
+                .append(" extends com.google.protobuf.gwt.MessageFieldAccessor<").append(messageType).append("> {\n");
+        out.append(ACCESSOR_NAME).append("() {\n");
+        out.append("super(");
+        for (int i = 0; i < names.size(); i++) {
+            out.append(i == 0 ? "" : ", ").append('"').append(names.get(i)).append('"');
+        }
+        out.append(");\n");
+        out.append("}\n");
+
+        String[][] primitives = {
+                {"int", "Int"}, {"long", "Long"}, {"float", "Float"}, {"double", "Double"}, {"boolean", "Boolean"}
+        };
+        for (String[] primitive : primitives) {
+            List<Integer> slots = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (fieldTypes.get(names.get(i)).equals(primitive[0])) {
+                    slots.add(i);
+                }
+            }
+            writeGetterAndSetter(out, messageType, primitive[0], primitive[1], slots, names, null);
+        }
+        List<Integer> objectSlots = new ArrayList<>();
+        List<String> casts = new ArrayList<>();
+        boolean unchecked = false;
+        for (int i = 0; i < names.size(); i++) {
+            String type = fieldTypes.get(names.get(i));
+            if (!isPrimitive(type, primitives)) {
+                objectSlots.add(i);
+                boolean isObject = type.equals("java.lang.Object") || type.equals("Object");
+                casts.add(isObject ? "" : "(" + type + ") ");
+                unchecked |= type.contains("<");
+            }
+        }
+        if (unchecked) {
+            out.append("@java.lang.SuppressWarnings(\"unchecked\")\n");
+        }
+        writeGetterAndSetter(out, messageType, "java.lang.Object", "Object", objectSlots, names, casts);
+
+        if (!messageFields.isEmpty()) {
+            out.append("@java.lang.Override\n");
+            out.append("public com.google.protobuf.MessageLite getMessageDefaultInstance(int fieldNumber) {\n");
+            out.append("switch (fieldNumber) {\n");
+            for (Map.Entry<String, List<Integer>> entry : messageFields.entrySet()) {
+                for (int number : entry.getValue()) {
+                    out.append("case ").append(number).append(":\n");
+                }
+                out.append("return ").append(entry.getKey()).append(".getDefaultInstance();\n");
+            }
+            out.append("default:\n");
+            out.append("return super.getMessageDefaultInstance(fieldNumber);\n");
+            out.append("}\n");
+            out.append("}\n");
+        }
+        out.append("}");
+        return out.toString();
+    }
+
+    private static boolean isPrimitive(String type, String[][] primitives) {
+        for (String[] primitive : primitives) {
+            if (primitive[0].equals(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the getter and setter for one kind of value, each a switch over the slots, with {@code casts} holding
+     * the cast to apply to each set value, if any. The setter is written first, so that an unchecked warning
+     * suppression written just before this applies to it.
+     */
+    private static void writeGetterAndSetter(StringBuilder out, String messageType, String type, String suffix,
+                                             List<Integer> slots, List<String> names, List<String> casts) {
+        if (slots.isEmpty()) {
+            return;
+        }
+        out.append("@java.lang.Override\n");
+        out.append("public void set").append(suffix).append("(").append(messageType)
+                .append(" message, int slot, ").append(type).append(" value) {\n");
+        out.append("switch (slot) {\n");
+        for (int i = 0; i < slots.size(); i++) {
+            int slot = slots.get(i);
+            out.append("case ").append(slot).append(":\n");
+            out.append("message.").append(names.get(slot)).append(" = ")
+                    .append(casts == null ? "" : casts.get(i)).append("value;\n");
+            out.append("break;\n");
+        }
+        out.append("default:\n");
+        out.append("super.set").append(suffix).append("(message, slot, value);\n");
+        out.append("}\n");
+        out.append("}\n");
+
+        out.append("@java.lang.Override\n");
+        out.append("public ").append(type).append(" get").append(suffix).append("(").append(messageType)
+                .append(" message, int slot) {\n");
+        out.append("switch (slot) {\n");
+        for (int slot : slots) {
+            out.append("case ").append(slot).append(":\n");
+            out.append("return message.").append(names.get(slot)).append(";\n");
+        }
+        out.append("default:\n");
+        out.append("return super.get").append(suffix).append("(message, slot);\n");
+        out.append("}\n");
+        out.append("}\n");
+    }
+
+    /** Decodes the sequence of ints packed into the RawMessageInfo string. */
+    private static final class InfoReader {
+        private final String info;
+        private int position;
+
+        InfoReader(String info) {
+            this.info = info;
+        }
+
+        int next() {
+            int value = info.charAt(position++);
+            if (value < 0xD800) {
+                return value;
+            }
+            int result = value & 0x1FFF;
+            int shift = 13;
+            while ((value = info.charAt(position++)) >= 0xD800) {
+                result |= (value & 0x1FFF) << shift;
+                shift += 13;
+            }
+            return result | (value << shift);
+        }
+    }
+}
@@ -0,0 +1,549 @@
+package com.vertispan.recipes.protobuf.reflection;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.NlsRewrite;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Statement;
+import org.openrewrite.java.tree.TypeTree;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the {@code com.google.protobuf.gwt.MessageReflectionAccessor} that backs the reflection API of each
+ * message in full gencode, since GWT can't look up the accessor methods by name like {@code FieldAccessorTable}
+ * does. The fields are read from the {@code _FIELD_NUMBER} constants, which protoc writes in the order of the
+ * descriptor, and the kind of each field from its accessor methods. The accessor is added as a nested class of the
+ * message, and registered from a static initializer, which is what a plugin for protoc's {@code class_scope}
+ * insertion point would emit.
+ */
+public class GenerateMessageReflectionAccessors extends Recipe {
+    private static final String ACCESSOR_NAME = "GwtReflectionAccessor";
+    private static final String FIELD_NUMBER_SUFFIX = "_FIELD_NUMBER";
+
+    @NlsRewrite.DisplayName
+    @Override
+    public String getDisplayName() {
+        return "Generate MessageReflectionAccessors for messages";
+    }
+
+    @NlsRewrite.Description
+    @Override
+    public String getDescription() {
+        return "Adds a MessageReflectionAccessor to each message generated by protoc's java generator, and registers "
+                + "it from the message's static initializer, so that the reflection API works in protobuf-gwt";
+    }
+
+    @Override
+    public TreeVisitor<?, ExecutionContext> getVisitor() {
+        return new JavaIsoVisitor<>() {
+            @Override
+            public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext executionContext) {
+                J.ClassDeclaration c = super.visitClassDeclaration(classDecl, executionContext);
+                if (!isMessage(c) || hasAccessor(c)) {
+                    return c;
+                }
+                String accessor = accessorSource(c);
+                if (accessor == null) {
+                    // Not in the shape protoc generates, leave it to be written by hand
+                    return c;
+                }
+                c = JavaTemplate.builder(accessor)
+                        .contextSensitive()
+                        .build()
+                        .apply(updateCursor(c), c.getBody().getCoordinates().lastStatement());
+                return JavaTemplate.builder("static {\n"
+                                + "com.google.protobuf.gwt.MessageReflectionAccessor.register("
+                                + c.getSimpleName() + ".class, new " + ACCESSOR_NAME + "());\n"
+                                + "}")
+                        .contextSensitive()
+                        .build()
+                        .apply(updateCursor(c), c.getBody().getCoordinates().lastStatement());
+            }
+
+            /** Writes the accessor class, or returns null if a field's accessor methods can't be found. */
+            private String accessorSource(J.ClassDeclaration c) {
+                Methods methods = new Methods();
+                List<String> fieldNumberConstants = new ArrayList<>();
+                List<String> oneofs = new ArrayList<>();
+                for (Statement statement : c.getBody().getStatements()) {
+                    if (statement instanceof J.MethodDeclaration) {
+                        J.MethodDeclaration method = (J.MethodDeclaration) statement;
+                        TypeTree returnType = method.getReturnTypeExpression();
+                        if (returnType != null) {
+                            methods.add(method, returnType.print(new Cursor(getCursor(), returnType)).trim());
+                        }
+                    } else if (statement instanceof J.VariableDeclarations) {
+                        J.VariableDeclarations field = (J.VariableDeclarations) statement;
+                        for (J.VariableDeclarations.NamedVariable variable : field.getVariables()) {
+                            String name = variable.getSimpleName();
+                            if (!field.hasModifier(J.Modifier.Type.Static) && name.endsWith("Case_")) {
+                                String oneof = name.substring(0, name.length() - "Case_".length());
+                                oneofs.add(Character.toUpperCase(oneof.charAt(0)) + oneof.substring(1));
+                            } else if (field.hasModifier(J.Modifier.Type.Static) && name.endsWith(FIELD_NUMBER_SUFFIX)) {
+                                fieldNumberConstants.add(name);
+                            } else if (field.hasModifier(J.Modifier.Type.Static) && field.getTypeExpression() != null
+                                    && field.getTypeExpression().toString().contains("GeneratedExtension")) {
+                                // Declared in the scope of this message, but extends another one
+                                fieldNumberConstants.remove(constantName(name) + FIELD_NUMBER_SUFFIX);
+                            }
+                        }
+                    }
+                }
+
+                List<Field> fields = new ArrayList<>();
+                for (String constant : fieldNumberConstants) {
+                    Field field = methods.findField(constant);
+                    if (field == null) {
+                        return null;
+                    }
+                    fields.add(field);
+                }
+                for (String oneof : oneofs) {
+                    if (!methods.getters.containsKey(oneof + "Case")) {
+                        return null;
+                    }
+                }
+                return new AccessorWriter(c.getSimpleName(), fields, oneofs).write();
+            }
+        };
+    }
+
+    private static boolean isMessage(J.ClassDeclaration c) {
+        if (c.getExtends() == null) {
+            return false;
+        }
+        JavaType.FullyQualified type = c.getExtends().getType() instanceof JavaType.FullyQualified
+                ? (JavaType.FullyQualified) c.getExtends().getType()
+                : null;
+        if (type != null && !(type instanceof JavaType.Unknown)) {
+            String name = type.getFullyQualifiedName();
+            return name.equals("com.google.protobuf.GeneratedMessage")
+                    || name.equals("com.google.protobuf.GeneratedMessage$ExtendableMessage")
+                    || name.equals("com.google.protobuf.GeneratedMessage.ExtendableMessage");
+        }
+        // Without the runtime on the classpath, go by the name as written
+        String name = c.getExtends().toString().replaceAll("\\s", "").replace("com.google.protobuf.", "");
+        return name.equals("GeneratedMessage") || name.startsWith("GeneratedMessage.ExtendableMessage<");
+    }
+
+    /** Checks for a member class that already implements the accessor, generated or written by hand. */
+    private static boolean hasAccessor(J.ClassDeclaration c) {
+        for (Statement statement : c.getBody().getStatements()) {
+            if (statement instanceof J.ClassDeclaration) {
+                J.ClassDeclaration member = (J.ClassDeclaration) statement;
+                if (member.getSimpleName().equals(ACCESSOR_NAME) || member.getExtends() != null
+                        && member.getExtends().toString().contains("MessageReflectionAccessor")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Returns {@code FOO_BAR} for the camel case name {@code fooBar} of an extension. */
+    private static String constantName(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+    }
+
+    private enum Kind {
+        PRIMITIVE, STRING, BYTES, MESSAGE, OPEN_ENUM, CLOSED_ENUM, MAP
+    }
+
+    private static final class Field {
+        final String name;
+        final Kind kind;
+        final String type;
+        final boolean repeated;
+        final boolean hasPresence;
+
+        Field(String name, Kind kind, String type, boolean repeated, boolean hasPresence) {
+            this.name = name;
+            this.kind = kind;
+            this.type = type;
+            this.repeated = repeated;
+            this.hasPresence = hasPresence;
+        }
+    }
+
+    /** Writes each method of the accessor as a switch over the fields, or the oneofs, that it applies to. */
+    private static final class AccessorWriter {
+        private final String messageType;
+        private final String builderType;
+        private final List<Field> fields;
+        private final List<String> oneofs;
+        private final StringBuilder out = new StringBuilder();
+
+        AccessorWriter(String messageType, List<Field> fields, List<String> oneofs) {
+            this.messageType = messageType;
+            this.builderType = messageType + ".Builder";
+            this.fields = fields;
+            this.oneofs = oneofs;
+        }
+
+        String write() {
+            out.append("private static final class ").append(ACCESSOR_NAME)
+                    .append(" extends com.google.protobuf.gwt.MessageReflectionAccessor<")
+                    .append(messageType).append(", ").append(builderType).append("> {\n");
+            for (String target : new String[] {"message", "builder"}) {
+                String type = target.equals("message") ? messageType : builderType;
+                begin("java.lang.Object get(" + type + " " + target + ", int fieldIndex)");
+                for (int i = 0; i < fields.size(); i++) {
+                    Field field = fields.get(i);
+                    if (field.kind != Kind.MAP) {
+                        caseReturn(i, getValue(field, target));
+                    }
+                }
+                end("throw unsupported(\"get\", fieldIndex);");
+            }
+            if (fields.stream().anyMatch(f -> f.kind == Kind.STRING && !f.repeated)) {
+                begin("java.lang.Object getRaw(" + messageType + " message, int fieldIndex)");
+                for (int i = 0; i < fields.size(); i++) {
+                    Field field = fields.get(i);
+                    if (field.kind == Kind.STRING && !field.repeated) {
+                        caseReturn(i, "message.get" + field.name + "Bytes()");
+                    }
+                }
+                end("return get(message, fieldIndex);");
+            }
+            for (String target : new String[] {"message", "builder"}) {
+                String type = target.equals("message") ? messageType : builderType;
+                begin("boolean has(" + type + " " + target + ", int fieldIndex)");
+                for (int i = 0; i < fields.size(); i++) {
+                    Field field = fields.get(i);
+                    if (!field.repeated) {
+                        caseReturn(i, hasValue(field, target));
+                    }
+                }
+                end("throw unsupported(\"has\", fieldIndex);");
+            }
+            begin("void set(" + builderType + " builder, int fieldIndex, java.lang.Object value)");
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                if (field.kind == Kind.MAP) {
+                    continue;
+                }
+                out.append("case ").append(i).append(":\n");
+                if (field.repeated) {
+                    out.append("builder.clear").append(field.name).append("();\n");
+                    out.append("addAllRepeated(builder, fieldIndex, value);\n");
+                } else if (field.kind == Kind.OPEN_ENUM) {
+                    out.append("builder.set").append(field.name).append("Value(enumNumber(value));\n");
+                } else {
+                    out.append("builder.set").append(field.name).append("(").append(convert(field)).append(");\n");
+                }
+                out.append("break;\n");
+            }
+            end("throw unsupported(\"set\", fieldIndex);");
+            begin("void clear(" + builderType + " builder, int fieldIndex)");
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                if (field.kind != Kind.MAP) {
+                    out.append("case ").append(i).append(":\n");
+                    out.append("builder.clear").append(field.name).append("();\n");
+                    out.append("break;\n");
+                }
+            }
+            end("throw unsupported(\"clear\", fieldIndex);");
+
+            if (fields.stream().anyMatch(f -> f.repeated && f.kind != Kind.MAP)) {
+                writeRepeatedMethods();
+            }
+            if (fields.stream().anyMatch(f -> f.kind == Kind.MESSAGE || f.kind == Kind.MAP)) {
+                writeBuilderMethods();
+            }
+            if (!oneofs.isEmpty()) {
+                writeOneofMethods();
+            }
+            out.append("}");
+            return out.toString();
+        }
+
+        private void writeRepeatedMethods() {
+            for (String target : new String[] {"message", "builder"}) {
+                String type = target.equals("message") ? messageType : builderType;
+                begin("int getRepeatedCount(" + type + " " + target + ", int fieldIndex)");
+                for (int i = 0; i < fields.size(); i++) {
+                    Field field = fields.get(i);
+                    if (field.repeated && field.kind != Kind.MAP) {
+                        caseReturn(i, target + ".get" + field.name + "Count()");
+                    }
+                }
+                end("return super.getRepeatedCount(" + target + ", fieldIndex);");
+            }
+            for (String target : new String[] {"message", "builder"}) {
+                String type = target.equals("message") ? messageType : builderType;
+                begin("java.lang.Object getRepeated(" + type + " " + target + ", int fieldIndex, int index)");
+                for (int i = 0; i < fields.size(); i++) {
+                    Field field = fields.get(i);
+                    if (field.repeated && field.kind != Kind.MAP) {
+                        caseReturn(i, element(field, target));
+                    }
+                }
+                end("return super.getRepeated(" + target + ", fieldIndex, index);");
+            }
+            begin("void setRepeated(" + builderType + " builder, int fieldIndex, int index, java.lang.Object value)");
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                if (field.repeated && field.kind != Kind.MAP) {
+                    out.append("case ").append(i).append(":\n");
+                    if (field.kind == Kind.OPEN_ENUM) {
+                        out.append("builder.set").append(field.name).append("Value(index, enumNumber(value));\n");
+                    } else {
+                        out.append("builder.set").append(field.name).append("(index, ").append(convert(field))
+                                .append(");\n");
+                    }
+                    out.append("break;\n");
+                }
+            }
+            end("super.setRepeated(builder, fieldIndex, index, value);");
+            begin("void addRepeated(" + builderType + " builder, int fieldIndex, java.lang.Object value)");
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                if (field.repeated && field.kind != Kind.MAP) {
+                    out.append("case ").append(i).append(":\n");
+                    if (field.kind == Kind.OPEN_ENUM) {
+                        out.append("builder.add").append(field.name).append("Value(enumNumber(value));\n");
+                    } else {
+                        out.append("builder.add").append(field.name).append("(").append(convert(field)).append(");\n");
+                    }
+                    out.append("break;\n");
+                }
+            }
+            end("super.addRepeated(builder, fieldIndex, value);");
+        }
+
+        private void writeBuilderMethods() {
+            begin("com.google.protobuf.Message.Builder newBuilder(int fieldIndex)");
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                if (field.kind == Kind.MESSAGE) {
+                    caseReturn(i, field.type + ".newBuilder()");
+                } else if (field.kind == Kind.MAP) {
+                    caseReturn(i, field.name + "DefaultEntryHolder.defaultEntry.newBuilderForType()");
+                }
+            }
+            end("return super.newBuilder(fieldIndex);");
+            if (fields.stream().anyMatch(f -> f.kind == Kind.MESSAGE && !f.repeated)) {
+                begin("com.google.protobuf.Message.Builder getBuilder(" + builderType + " builder, int fieldIndex)");
+                for (int i = 0; i < fields.size(); i++) {
+                    Field field = fields.get(i);
+                    if (field.kind == Kind.MESSAGE && !field.repeated) {
+                        caseReturn(i, "builder.get" + field.name + "Builder()");
+                    }
+                }
+                end("return super.getBuilder(builder, fieldIndex);");
+            }
+            if (fields.stream().anyMatch(f -> f.kind == Kind.MESSAGE && f.repeated)) {
+                begin("com.google.protobuf.Message.Builder getRepeatedBuilder(" + builderType
+                        + " builder, int fieldIndex, int index)");
+                for (int i = 0; i < fields.size(); i++) {
+                    Field field = fields.get(i);
+                    if (field.kind == Kind.MESSAGE && field.repeated) {
+                        caseReturn(i, "builder.get" + field.name + "Builder(index)");
+                    }
+                }
+                end("return super.getRepeatedBuilder(builder, fieldIndex, index);");
+            }
+        }
+
+        private void writeOneofMethods() {
+            for (String target : new String[] {"message", "builder"}) {
+                String type = target.equals("message") ? messageType : builderType;
+                begin("int getOneofFieldNumber(" + type + " " + target + ", int oneofIndex)");
+                for (int i = 0; i < oneofs.size(); i++) {
+                    caseReturn(i, target + ".get" + oneofs.get(i) + "Case().getNumber()");
+                }
+                end("return super.getOneofFieldNumber(" + target + ", oneofIndex);");
+            }
+            begin("void clearOneof(" + builderType + " builder, int oneofIndex)");
+            for (int i = 0; i < oneofs.size(); i++) {
+                out.append("case ").append(i).append(":\n");
+                out.append("builder.clear").append(oneofs.get(i)).append("();\n");
+                out.append("break;\n");
+            }
+            end("super.clearOneof(builder, oneofIndex);");
+        }
+
+        private String getValue(Field field, String target) {
+            String get = target + ".get" + field.name;
+            switch (field.kind) {
+                case CLOSED_ENUM:
+                    return field.repeated ? "enumValues(" + get + "List())" : get + "().getValueDescriptor()";
+                case OPEN_ENUM:
+                    return field.repeated
+                            ? "enumValues(" + field.type + ".getDescriptor(), " + get + "ValueList())"
+                            : "enumValue(" + field.type + ".getDescriptor(), " + get + "Value())";
+                default:
+                    return field.repeated ? get + "List()" : get + "()";
+            }
+        }
+
+        private String element(Field field, String target) {
+            String get = target + ".get" + field.name;
+            switch (field.kind) {
+                case CLOSED_ENUM:
+                    return get + "(index).getValueDescriptor()";
+                case OPEN_ENUM:
+                    return "enumValue(" + field.type + ".getDescriptor(), " + get + "Value(index))";
+                default:
+                    return get + "(index)";
+            }
+        }
+
+        private String hasValue(Field field, String target) {
+            String get = target + ".get" + field.name + "()";
+            if (field.hasPresence) {
+                return target + ".has" + field.name + "()";
+            }
+            switch (field.kind) {
+                case STRING:
+                case BYTES:
+                    return "!" + get + ".isEmpty()";
+                case OPEN_ENUM:
+                    return target + ".get" + field.name + "Value() != 0";
+                case CLOSED_ENUM:
+                    return get + ".getNumber() != 0";
+                default:
+                    switch (field.type) {
+                        case "boolean":
+                            return get;
+                        case "float":
+                            return "java.lang.Float.floatToIntBits(" + get + ") != 0";
+                        case "double":
+                            return "java.lang.Double.doubleToLongBits(" + get + ") != 0";
+                        default:
+                            return get + " != 0";
+                    }
+            }
+        }
+
+        /** Returns the value passed to a setter, converted to the type of the field or element. */
+        private String convert(Field field) {
+            switch (field.kind) {
+                case MESSAGE:
+                    return "message(" + field.type + ".getDefaultInstance(), value)";
+                case CLOSED_ENUM:
+                    return field.type + ".valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value)";
+                case PRIMITIVE:
+                    String boxed = field.type.equals("int") ? "Integer"
+                            : Character.toUpperCase(field.type.charAt(0)) + field.type.substring(1);
+                    return "(java.lang." + boxed + ") value";
+                default:
+                    return "(" + field.type + ") value";
+            }
+        }
+
+        private void begin(String signature) {
+            out.append("@java.lang.Override\n");
+            out.append("public ").append(signature).append(" {\n");
+            out.append("switch (").append(signature.contains("oneofIndex") ? "oneofIndex" : "fieldIndex")
+                    .append(") {\n");
+        }
+
+        private void caseReturn(int index, String value) {
+            out.append("case ").append(index).append(":\n");
+            out.append("return ").append(value).append(";\n");
+        }
+
+        private void end(String defaultStatement) {
+            out.append("default:\n");
+            out.append(defaultStatement).append("\n");
+            out.append("}\n");
+            out.append("}\n");
+        }
+    }
+
+    /** The accessor methods of a message, by name without the {@code get} or {@code has} prefix. */
+    private static final class Methods {
+        final Map<String, String> getters = new LinkedHashMap<>();
+        final Map<String, String> indexedGetters = new HashMap<>();
+        final Set<String> hazzers = new HashSet<>();
+
+        void add(J.MethodDeclaration method, String returnType) {
+            String name = method.getSimpleName();
+            long parameters = method.getParameters().stream().filter(p -> !(p instanceof J.Empty)).count();
+            if (name.startsWith("get") && parameters == 0) {
+                getters.put(name.substring(3), returnType);
+            } else if (name.startsWith("get") && parameters == 1) {
+                indexedGetters.put(name.substring(3), returnType);
+            } else if (name.startsWith("has") && parameters == 0 && returnType.equals("boolean")) {
+                hazzers.add(name.substring(3));
+            }
+        }
+
+        /**
+         * Finds the accessor methods of the field with the given {@code _FIELD_NUMBER} constant. protoc names both
+         * from the field, so once the underscores are removed they only differ in case. Returns null if there are
+         * none.
+         */
+        Field findField(String constant) {
+            String key = constant.substring(0, constant.length() - FIELD_NUMBER_SUFFIX.length()).replace("_", "");
+            String singular = null;
+            for (String getter : getters.keySet()) {
+                String name;
+                if ((name = withoutSuffix(getter, "Map", key)) != null) {
+                    return new Field(name, Kind.MAP, null, true, false);
+                }
+                if ((name = withoutSuffix(getter, "List", key)) != null
+                        && getters.containsKey(name + "Count") && indexedGetters.containsKey(name)) {
+                    String type = indexedGetters.get(name);
+                    Kind kind = kind(type, getters.containsKey(name + "ValueList"),
+                            indexedGetters.containsKey(name + "OrBuilder"));
+                    return new Field(name, kind, type, true, false);
+                }
+                if (withoutSuffix(getter, "", key) != null) {
+                    singular = getter;
+                }
+            }
+            if (singular == null) {
+                return null;
+            }
+            String type = getters.get(singular);
+            Kind kind = kind(type, getters.containsKey(singular + "Value"), getters.containsKey(singular + "OrBuilder"));
+            return new Field(singular, kind, type, false, hazzers.contains(singular));
+        }
+
+        private static String withoutSuffix(String getter, String suffix, String key) {
+            if (!getter.endsWith(suffix)) {
+                return null;
+            }
+            String name = getter.substring(0, getter.length() - suffix.length());
+            return name.toUpperCase(Locale.ROOT).equals(key) ? name : null;
+        }
+
+        private static Kind kind(String type, boolean hasValueGetter, boolean hasOrBuilderGetter) {
+            switch (type) {
+                case "int":
+                case "long":
+                case "float":
+                case "double":
+                case "boolean":
+                    return Kind.PRIMITIVE;
+                case "java.lang.String":
+                case "String":
+                    return Kind.STRING;
+                case "com.google.protobuf.ByteString":
+                case "ByteString":
+                    return Kind.BYTES;
+                default:
+                    if (hasOrBuilderGetter) {
+                        return Kind.MESSAGE;
+                    }
+                    return hasValueGetter ? Kind.OPEN_ENUM : Kind.CLOSED_ENUM;
+            }
+        }
+    }
+}
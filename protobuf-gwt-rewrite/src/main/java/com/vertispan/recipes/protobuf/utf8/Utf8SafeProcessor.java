@@ -19,7 +19,7 @@ public class Utf8SafeProcessor extends Recipe {
     @NlsRewrite.Description
     @Override
     public String getDescription() {
-        return "Rewrites Utf8.processor to always be a safe instance";
+        return "Rewrites Utf8.processor to use the browser's TextDecoder where available, otherwise a safe instance";
     }
 
     @Override
@@ -42,7 +42,9 @@ public class Utf8SafeProcessor extends Recipe {
             @Override
             public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext executionContext) {
                 if (multiVariable.getVariables().size() == 1 && multiVariable.getVariables().get(0).getSimpleName().equals("processor")) {
-                    JavaTemplate build = JavaTemplate.builder("private static final Processor processor = new SafeProcessor();").build();
+                    // TextDecoderProcessor is not part of protobuf-java, see the README
+                    JavaTemplate build = JavaTemplate.builder("private static final Processor processor =\n" +
+                            "TextDecoderProcessor.isAvailable() ? new TextDecoderProcessor() : new SafeProcessor();").build();
                     return build.apply(getCursor(), multiVariable.getCoordinates().replace());
                 }
                 return super.visitVariableDeclarations(multiVariable, executionContext);
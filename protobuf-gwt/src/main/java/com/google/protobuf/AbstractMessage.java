@@ -73,6 +73,9 @@ public abstract class AbstractMessage
   }
 
   public final String toString() {
+    if (!com.google.protobuf.gwt.DescriptorSupport.ENABLED) {
+      return super.toString();
+    }
     return TextFormat.Printer.getOutputModePrinter()
         .printToString(this, TextFormat.Printer.FieldReporterLevel.ABSTRACT_TO_STRING);
   }
@@ -97,6 +100,11 @@ public abstract class AbstractMessage
    * was loaded separately (such that the reference identity of the descriptors does not match) will
    * always return false even if there is otherwise no skew between the descriptors and the contents
    * of the instances.
+   *
+   * When protobuf.descriptors is DISABLED, the fields can't be enumerated, so the serialized bytes
+   * are compared instead. Map fields are then only equal if their entries were added in the same
+   * order, and unknown fields only if they were read in the same order, since neither is sorted
+   * when written. hashCode() is computed from the same bytes.
    */
   public boolean equals(final Object other) {
     if (other == this) {
@@ -106,25 +114,150 @@ public abstract class AbstractMessage
       return false;
     }
     final Message otherMessage = (Message) other;
-    if (getDescriptorForType() != otherMessage.getDescriptorForType()) {
+    final Descriptors.Descriptor descriptor = getDescriptorForType();
+    if (descriptor != otherMessage.getDescriptorForType()) {
       return false;
     }
-    return compareFields(getAllFields(), otherMessage.getAllFields())
+    if (!com.google.protobuf.gwt.DescriptorSupport.ENABLED) {
+      // Without the descriptor's fields, compare the encoded messages instead
+      return toByteString().equals(otherMessage.toByteString());
+    }
+    if (descriptor.isExtendable()) {
+      // Only getAllFields() includes the extensions
+      return compareFields(getAllFields(), otherMessage.getAllFields())
+          && getUnknownFields().equals(otherMessage.getUnknownFields());
+    }
+    return equalsFieldsByIndex(descriptor, otherMessage)
         && getUnknownFields().equals(otherMessage.getUnknownFields());
   }
 
   public int hashCode() {
     int hash = memoizedHashCode;
     if (hash == 0) {
+      final Descriptors.Descriptor descriptor = getDescriptorForType();
       hash = 41;
-      hash = (19 * hash) + getDescriptorForType().hashCode();
-      hash = hashFields(hash, getAllFields());
+      hash = (19 * hash) + descriptor.hashCode();
+      if (!com.google.protobuf.gwt.DescriptorSupport.ENABLED) {
+        hash = (53 * hash) + toByteString().hashCode();
+      } else if (descriptor.isExtendable()) {
+        hash = hashFields(hash, getAllFields());
+      } else {
+        hash = hashFieldsByIndex(hash, descriptor);
+      }
       hash = (29 * hash) + getUnknownFields().hashCode();
       memoizedHashCode = hash;
     }
     return hash;
   }
 
+  /**
+   * Compares the fields of this message, other than extensions, with those of a message of the same
+   * type. A message that can compare its storage directly, without boxing each value, overrides
+   * this, and falls back to {@link #compareFieldsByIndex} for other implementations of the type.
+   */
+  boolean equalsFieldsByIndex(Descriptors.Descriptor descriptor, Message other) {
+    return compareFieldsByIndex(descriptor, this, other);
+  }
+
+  /**
+   * Hashes the fields of this message, other than extensions, the same way as {@link
+   * #hashFieldsByIndex(int, Descriptors.Descriptor, Message)}.
+   */
+  int hashFieldsByIndex(int hash, Descriptors.Descriptor descriptor) {
+    return hashFieldsByIndex(hash, descriptor, this);
+  }
+
+  /**
+   * Compares the fields of two messages of the same type one at a time, in the order of the
+   * descriptor, rather than first collecting each into a map with {@link #getAllFields()}. Unlike
+   * {@link #compareFields}, this doesn't see extensions.
+   */
+  static boolean compareFieldsByIndex(Descriptors.Descriptor descriptor, Message a, Message b) {
+    final List<FieldDescriptor> fields = descriptor.getFields();
+    for (int i = 0; i < fields.size(); i++) {
+      final FieldDescriptor field = fields.get(i);
+      if (field.isRepeated()) {
+        final int count = a.getRepeatedFieldCount(field);
+        if (count != b.getRepeatedFieldCount(field)) {
+          return false;
+        }
+        if (count == 0) {
+          continue;
+        }
+        if (field.isMapField()) {
+          if (!compareMapField(a.getField(field), b.getField(field))) {
+            return false;
+          }
+          continue;
+        }
+        final boolean isBytes = field.getType() == FieldDescriptor.Type.BYTES;
+        for (int j = 0; j < count; j++) {
+          final Object value1 = a.getRepeatedField(field, j);
+          final Object value2 = b.getRepeatedField(field, j);
+          if (isBytes ? !compareBytes(value1, value2) : !value1.equals(value2)) {
+            return false;
+          }
+        }
+      } else {
+        final boolean has = a.hasField(field);
+        if (has != b.hasField(field)) {
+          return false;
+        }
+        if (!has) {
+          continue;
+        }
+        final Object value1 = a.getField(field);
+        final Object value2 = b.getField(field);
+        if (field.getType() == FieldDescriptor.Type.BYTES
+            ? !compareBytes(value1, value2)
+            : !value1.equals(value2)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Hashes the fields of a message one at a time, in the order of the descriptor, in the same way
+   * {@link #hashFields} hashes each entry of {@link #getAllFields()}. Extensions are not included.
+   */
+  static int hashFieldsByIndex(int hash, Descriptors.Descriptor descriptor, Message message) {
+    final List<FieldDescriptor> fields = descriptor.getFields();
+    for (int i = 0; i < fields.size(); i++) {
+      final FieldDescriptor field = fields.get(i);
+      if (field.isRepeated()) {
+        final int count = message.getRepeatedFieldCount(field);
+        if (count == 0) {
+          continue;
+        }
+        hash = (37 * hash) + field.getNumber();
+        if (field.isMapField()) {
+          hash = (53 * hash) + hashMapField(message.getField(field));
+          continue;
+        }
+        // The same as List.hashCode() and Internal.hashEnumList(), without getting the list
+        final boolean isEnum = field.getType() == FieldDescriptor.Type.ENUM;
+        int listHash = 1;
+        for (int j = 0; j < count; j++) {
+          final Object value = message.getRepeatedField(field, j);
+          listHash =
+              (31 * listHash) + (isEnum ? Internal.hashEnum((EnumLite) value) : value.hashCode());
+        }
+        hash = (53 * hash) + listHash;
+      } else if (message.hasField(field)) {
+        hash = (37 * hash) + field.getNumber();
+        final Object value = message.getField(field);
+        if (field.getType() == FieldDescriptor.Type.ENUM) {
+          hash = (53 * hash) + Internal.hashEnum((EnumLite) value);
+        } else {
+          hash = (53 * hash) + value.hashCode();
+        }
+      }
+    }
+    return hash;
+  }
+
   private static ByteString toByteString(Object value) {
     if (value instanceof byte[]) {
       return ByteString.copyFrom((byte[]) value);
@@ -137,7 +270,7 @@ public abstract class AbstractMessage
    * Compares two bytes fields. The parameters must be either a byte array or a ByteString object.
    * They can be of different type though.
    */
-  private static boolean compareBytes(Object a, Object b) {
+  static boolean compareBytes(Object a, Object b) {
     if (a instanceof byte[] && b instanceof byte[]) {
       return Arrays.equals((byte[]) a, (byte[]) b);
     }
@@ -174,7 +307,7 @@ public abstract class AbstractMessage
 
   /** Compares two map fields. The parameters must be a list of MapEntry messages. */
   @SuppressWarnings({"rawtypes", "unchecked"})
-  private static boolean compareMapField(Object a, Object b) {
+  static boolean compareMapField(Object a, Object b) {
     Map ma = convertMapEntryListToMap((List) a);
     Map mb = convertMapEntryListToMap((List) b);
     return MapFieldLite.equals(ma, mb);
@@ -231,7 +364,7 @@ public abstract class AbstractMessage
 
   /** Calculates the hash code of a map field. {@code value} must be a list of MapEntry messages. */
   @SuppressWarnings("unchecked")
-  private static int hashMapField(Object value) {
+  static int hashMapField(Object value) {
     return MapFieldLite.calculateHashCodeForMap(convertMapEntryListToMap((List) value));
   }
 
@@ -295,7 +428,16 @@ public abstract class AbstractMessage
       throw new UnsupportedOperationException("clearOneof() is not implemented.");
     }
 
+    /**
+     * Clears each field found by {@link #getAllFields()}.
+     *
+     * @throws UnsupportedOperationException if protobuf.descriptors is DISABLED. Generated builders
+     *     override this through {@link GeneratedMessage.Builder#clear()}, so still work.
+     */
     public BuilderType clear() {
+      if (!com.google.protobuf.gwt.DescriptorSupport.ENABLED) {
+        throw com.google.protobuf.gwt.DescriptorSupport.unsupported("clear()");
+      }
       for (final Map.Entry<FieldDescriptor, Object> entry : getAllFields().entrySet()) {
         clearField(entry.getKey());
       }
@@ -306,7 +448,17 @@ public abstract class AbstractMessage
       return mergeFrom((Message) other);
     }
 
+    /**
+     * Merges the fields of {@code other} found by {@link Message#getAllFields()}.
+     *
+     * @throws UnsupportedOperationException if protobuf.descriptors is DISABLED. Generated builders
+     *     override this to merge messages of their own type, so only other types, such as a
+     *     {@code DynamicMessage}, throw.
+     */
     public BuilderType mergeFrom(final Message other) {
+      if (!com.google.protobuf.gwt.DescriptorSupport.ENABLED) {
+        throw com.google.protobuf.gwt.DescriptorSupport.unsupported("mergeFrom(Message)");
+      }
       return mergeFrom(other, other.getAllFields());
     }
 
@@ -359,6 +511,9 @@ public abstract class AbstractMessage
     public BuilderType mergeFrom(
         final CodedInputStream input, final ExtensionRegistryLite extensionRegistry)
         throws IOException {
+      if (!com.google.protobuf.gwt.DescriptorSupport.ENABLED) {
+        throw com.google.protobuf.gwt.DescriptorSupport.unsupported("mergeFrom(CodedInputStream)");
+      }
       boolean discardUnknown = input.shouldDiscardUnknownFields();
       final UnknownFieldSet.Builder unknownFields =
           discardUnknown ? null : getUnknownFieldSetBuilder();
@@ -394,6 +549,9 @@ public abstract class AbstractMessage
     }
 
     public String toString() {
+      if (!com.google.protobuf.gwt.DescriptorSupport.ENABLED) {
+        return super.toString();
+      }
       return TextFormat.Printer.getOutputModePrinter()
           .printToString(this, TextFormat.Printer.FieldReporterLevel.ABSTRACT_BUILDER_TO_STRING);
     }
@@ -401,6 +559,10 @@ public abstract class AbstractMessage
     /** Construct an UninitializedMessageException reporting missing fields in the given message. */
     protected static UninitializedMessageException newUninitializedMessageException(
         Message message) {
+      if (!com.google.protobuf.gwt.DescriptorSupport.ENABLED) {
+        // Can't name the missing fields, like the lite runtime
+        return new UninitializedMessageException(message);
+      }
       return new UninitializedMessageException(MessageReflection.findMissingFields(message));
     }
 
@@ -605,5 +605,96 @@ private static final long serialVersionUID = 0L;
     return DEFAULT_INSTANCE;
   }
 
+  private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<Any, Any.Builder> {
+    @java.lang.Override
+    public java.lang.Object get(Any message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getTypeUrl();
+        case 1:
+          return message.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object get(Any.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getTypeUrl();
+        case 1:
+          return builder.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object getRaw(Any message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getTypeUrlBytes();
+        default:
+          return get(message, fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(Any message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return !message.getTypeUrl().isEmpty();
+        case 1:
+          return !message.getValue().isEmpty();
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(Any.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return !builder.getTypeUrl().isEmpty();
+        case 1:
+          return !builder.getValue().isEmpty();
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void set(Any.Builder builder, int fieldIndex, java.lang.Object value) {
+      switch (fieldIndex) {
+        case 0:
+          builder.setTypeUrl((java.lang.String) value);
+          break;
+        case 1:
+          builder.setValue((com.google.protobuf.ByteString) value);
+          break;
+        default:
+          throw unsupported("set", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void clear(Any.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          builder.clearTypeUrl();
+          break;
+        case 1:
+          builder.clearValue();
+          break;
+        default:
+          throw unsupported("clear", fieldIndex);
+      }
+    }
+  }
+
+  static {
+    com.google.protobuf.gwt.MessageReflectionAccessor.register(Any.class, new GwtReflectionAccessor());
+  }
 }
 
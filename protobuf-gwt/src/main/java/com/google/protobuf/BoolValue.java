@@ -410,5 +410,72 @@ private static final long serialVersionUID = 0L;
     return DEFAULT_INSTANCE;
   }
 
+  private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<BoolValue, BoolValue.Builder> {
+    @java.lang.Override
+    public java.lang.Object get(BoolValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object get(BoolValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(BoolValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getValue();
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(BoolValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getValue();
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void set(BoolValue.Builder builder, int fieldIndex, java.lang.Object value) {
+      switch (fieldIndex) {
+        case 0:
+          builder.setValue((java.lang.Boolean) value);
+          break;
+        default:
+          throw unsupported("set", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void clear(BoolValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          builder.clearValue();
+          break;
+        default:
+          throw unsupported("clear", fieldIndex);
+      }
+    }
+  }
+
+  static {
+    com.google.protobuf.gwt.MessageReflectionAccessor.register(BoolValue.class, new GwtReflectionAccessor());
+  }
 }
 
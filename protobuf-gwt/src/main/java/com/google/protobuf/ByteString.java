@@ -13,6 +13,8 @@ import static java.lang.Integer.toHexString;
 import static java.lang.System.identityHashCode;
 
 import com.google.protobuf.gwt.StaticImpls;
+import elemental2.core.Int8Array;
+import elemental2.core.Uint8Array;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -33,6 +35,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import jsinterop.base.Js;
 
 /**
  * Immutable sequence of bytes. Provides conversions to and from {@code byte[]}, {@link
@@ -462,6 +465,29 @@ public abstract class ByteString implements Iterable<Byte>, Serializable {
     return copyFrom(bytes, bytes.remaining());
   }
 
+  /**
+   * Copies the bytes visible through the given JS {@link Uint8Array} into a {@code ByteString} that
+   * keeps them in a typed array, so that {@link #asUint8Array()} can return them without a copy.
+   *
+   * @param bytes source array
+   * @return new {@code ByteString}
+   */
+  public static ByteString copyFrom(Uint8Array bytes) {
+    if (bytes.length == 0) {
+      return EMPTY;
+    }
+    final Uint8Array copy = Js.uncheckedCast(bytes.slice(0, bytes.length));
+    return new TypedArrayByteString(copy);
+  }
+
+  /**
+   * Wraps the given typed array into a {@code ByteString}, which must not be modified afterwards.
+   * Intended for internal usage within the library.
+   */
+  static ByteString wrap(Uint8Array bytes) {
+    return new TypedArrayByteString(bytes);
+  }
+
   /**
    * Encodes {@code text} into a sequence of bytes using the named charset and returns the result as
    * a {@code ByteString}.
@@ -810,6 +836,23 @@ public abstract class ByteString implements Iterable<Byte>, Serializable {
    */
   public abstract ByteBuffer asReadOnlyByteBuffer();
 
+  /**
+   * Returns the contents of this byte string as a JS {@link Uint8Array}, such as to build a {@code
+   * Blob} from it. A byte string backed by a typed array, such as a {@code bytes} field parsed from
+   * a typed array input, returns a view of its own bytes, which must not be modified; any other
+   * byte string returns a new copy.
+   *
+   * @return the bytes as a typed array
+   */
+  public Uint8Array asUint8Array() {
+    final int size = size();
+    final Uint8Array copy = new Uint8Array(size);
+    for (int i = 0; i < size; i++) {
+      copy.setAt(i, (double) (internalByteAt(i) & 0xFF));
+    }
+    return copy;
+  }
+
   /**
    * Constructs a list of read-only {@code java.nio.ByteBuffer} objects such that the concatenation
    * of their contents is equal to the contents of this byte string. The result uses the same
@@ -1825,4 +1868,167 @@ public abstract class ByteString implements Iterable<Byte>, Serializable {
       return slice;
     }
   }
+
+  /**
+   * A leaf {@link ByteString} backed by a JS {@link Uint8Array}, such as a {@code bytes} field read
+   * from a typed array input. Substrings are {@code subarray} views of the same buffer, and the
+   * bytes can be handed back to JS with {@link #asUint8Array()} without a copy.
+   */
+  private static final class TypedArrayByteString extends ByteString.LeafByteString {
+    private static final long serialVersionUID = 1L;
+
+    private final Uint8Array bytes;
+
+    TypedArrayByteString(Uint8Array bytes) {
+      this.bytes = checkNotNull(bytes, "bytes");
+    }
+
+    // =================================================================
+
+    public byte byteAt(int index) {
+      checkIndex(index, size());
+      return internalByteAt(index);
+    }
+
+    byte internalByteAt(int index) {
+      return (byte) bytes.getAt(index).intValue();
+    }
+
+    public int size() {
+      return bytes.length;
+    }
+
+    public ByteString substring(int beginIndex, int endIndex) {
+      final int length = checkRange(beginIndex, endIndex, size());
+      if (length == 0) {
+        return ByteString.EMPTY;
+      }
+      final Uint8Array view = Js.uncheckedCast(bytes.subarray(beginIndex, endIndex));
+      return new TypedArrayByteString(view);
+    }
+
+    protected void copyToInternal(
+        byte[] target, int sourceOffset, int targetOffset, int numberToCopy) {
+      for (int i = 0; i < numberToCopy; i++) {
+        target[targetOffset + i] = internalByteAt(sourceOffset + i);
+      }
+    }
+
+    public void copyTo(ByteBuffer target) {
+      target.put(toByteArray());
+    }
+
+    public Uint8Array asUint8Array() {
+      return bytes;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+      out.write(toByteArray());
+    }
+
+    boolean equalsRange(ByteString other, int offset, int length) {
+      return substring(0, length).equals(other.substring(offset, offset + length));
+    }
+
+    void writeToInternal(OutputStream out, int sourceOffset, int numberToWrite) throws IOException {
+      out.write(substring(sourceOffset, sourceOffset + numberToWrite).toByteArray());
+    }
+
+    void writeTo(ByteOutput output) throws IOException {
+      if (output instanceof CodedOutputStream) {
+        // Typed array encoders copy the bytes across in a single native call
+        ((CodedOutputStream) output).writeRawTypedArray(bytes);
+      } else {
+        output.writeLazy(toByteArray(), 0, size());
+      }
+    }
+
+    public ByteBuffer asReadOnlyByteBuffer() {
+      return StaticImpls.asReadOnlyBuffer(StaticImpls.wrap(toByteArray()));
+    }
+
+    public List<ByteBuffer> asReadOnlyByteBufferList() {
+      return Collections.singletonList(asReadOnlyByteBuffer());
+    }
+
+    protected String toStringInternal(Charset charset) {
+      if (Internal.UTF_8.equals(charset)) {
+        return Utf8.decodeUtf8Lossy(
+            new Int8Array(bytes.buffer, bytes.byteOffset, bytes.length), 0, size());
+      }
+      return new String(toByteArray(), charset);
+    }
+
+    public boolean isValidUtf8() {
+      return Utf8.isValidUtf8(toByteArray());
+    }
+
+    protected int partialIsValidUtf8(int state, int offset, int length) {
+      byte[] copy = substring(offset, offset + length).toByteArray();
+      return Utf8.partialIsValidUtf8(state, copy, 0, length);
+    }
+
+    public boolean equals(Object other) {
+      if (other == this) {
+        return true;
+      }
+      if (!(other instanceof ByteString)) {
+        return false;
+      }
+      ByteString otherString = ((ByteString) other);
+      if (size() != otherString.size()) {
+        return false;
+      }
+      if (size() == 0) {
+        return true;
+      }
+      if (other instanceof RopeByteString) {
+        return other.equals(this);
+      }
+
+      // If we know the hash codes and they are not equal, we know the byte strings are not equal.
+      int thisHash = peekCachedHashCode();
+      int thatHash = otherString.peekCachedHashCode();
+      if (thisHash != 0 && thatHash != 0 && thisHash != thatHash) {
+        return false;
+      }
+
+      if (other instanceof TypedArrayByteString) {
+        final Uint8Array otherBytes = ((TypedArrayByteString) other).bytes;
+        if (otherBytes.buffer == bytes.buffer && otherBytes.byteOffset == bytes.byteOffset) {
+          // Views of the same bytes, as when both were read from the same input
+          return true;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+          if (bytes.getAt(i).intValue() != otherBytes.getAt(i).intValue()) {
+            return false;
+          }
+        }
+        return true;
+      }
+      for (int i = 0; i < size(); i++) {
+        if (internalByteAt(i) != otherString.internalByteAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    protected int partialHash(int h, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        h = h * 31 + internalByteAt(i);
+      }
+      return h;
+    }
+
+    public InputStream newInput() {
+      return new ByteArrayInputStream(toByteArray());
+    }
+
+    public CodedInputStream newCodedInput() {
+      // Read the typed array in place, and let aliased reads share it
+      return CodedInputStream.newInstance(
+          bytes.buffer, bytes.byteOffset, bytes.length, /* bufferIsImmutable= */ true);
+    }
+  }
 }
@@ -410,5 +410,72 @@ private static final long serialVersionUID = 0L;
     return DEFAULT_INSTANCE;
   }
 
+  private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<BytesValue, BytesValue.Builder> {
+    @java.lang.Override
+    public java.lang.Object get(BytesValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object get(BytesValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(BytesValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return !message.getValue().isEmpty();
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(BytesValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return !builder.getValue().isEmpty();
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void set(BytesValue.Builder builder, int fieldIndex, java.lang.Object value) {
+      switch (fieldIndex) {
+        case 0:
+          builder.setValue((com.google.protobuf.ByteString) value);
+          break;
+        default:
+          throw unsupported("set", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void clear(BytesValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          builder.clearValue();
+          break;
+        default:
+          throw unsupported("clear", fieldIndex);
+      }
+    }
+  }
+
+  static {
+    com.google.protobuf.gwt.MessageReflectionAccessor.register(BytesValue.class, new GwtReflectionAccessor());
+  }
 }
 
@@ -9,23 +9,33 @@ package com.google.protobuf;
 
 import static com.google.protobuf.Internal.EMPTY_BYTE_ARRAY;
 import static com.google.protobuf.Internal.EMPTY_BYTE_BUFFER;
-import static com.google.protobuf.Internal.UTF_8;
 import static com.google.protobuf.Internal.checkNotNull;
 import static com.google.protobuf.WireFormat.FIXED32_SIZE;
 import static com.google.protobuf.WireFormat.FIXED64_SIZE;
 import static com.google.protobuf.WireFormat.MAX_VARINT_SIZE;
 
+import com.google.protobuf.gwt.LongBits;
 import com.google.protobuf.gwt.SafeUtil;
 import com.google.protobuf.gwt.StaticImpls;
+import com.google.protobuf.gwt.TypedArrays;
+import elemental2.core.ArrayBuffer;
+import elemental2.core.DataView;
+import elemental2.core.Float32Array;
+import elemental2.core.Float64Array;
+import elemental2.core.Int32Array;
+import elemental2.core.Int8Array;
+import elemental2.core.Uint8Array;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import jsinterop.base.Js;
 
 /**
  * Reads and decodes protocol message fields.
@@ -57,6 +67,9 @@ public abstract class CodedInputStream {
   /** Used to adapt to the experimental {@link Reader} interface. */
   Object wrapper;
 
+  /** Visible for subclasses. See readRawVarint64LowBits() */
+  int lastVarint64HighBits;
+
   /** Create a new CodedInputStream wrapping the given InputStream. */
   public static CodedInputStream newInstance(final InputStream input) {
     return newInstance(input, DEFAULT_BUFFER_SIZE);
@@ -76,13 +89,13 @@ public abstract class CodedInputStream {
 
   /** Create a new CodedInputStream wrapping the given {@code Iterable <ByteBuffer>}. */
   public static CodedInputStream newInstance(final Iterable<ByteBuffer> input) {
-    return newInstance(new com.google.protobuf.gwt.IterableByteBufferInputStream(input));
+    return newInstance(input, false);
   }
 
   /** Create a new CodedInputStream wrapping the given {@code Iterable <ByteBuffer>}. */
   static CodedInputStream newInstance(
       final Iterable<ByteBuffer> bufs, final boolean bufferIsImmutable) {
-    return newInstance(new com.google.protobuf.gwt.IterableByteBufferInputStream(bufs));
+    return new IterableByteBufferDecoder(bufs, bufferIsImmutable);
   }
 
   /** Create a new CodedInputStream wrapping the given byte array. */
@@ -119,6 +132,41 @@ public abstract class CodedInputStream {
     return result;
   }
 
+  /**
+   * Create a new CodedInputStream wrapping the given JS {@link ArrayBuffer}. The buffer is read in
+   * place rather than being copied into a {@code byte[]}, so it must not be modified while the
+   * CodedInputStream is in use.
+   */
+  public static CodedInputStream newInstance(final ArrayBuffer buf) {
+    return newInstance(buf, 0, buf.byteLength);
+  }
+
+  /** Create a new CodedInputStream wrapping the given slice of a JS {@link ArrayBuffer}. */
+  public static CodedInputStream newInstance(final ArrayBuffer buf, final int off, final int len) {
+    return newInstance(buf, off, len, /* bufferIsImmutable= */ false);
+  }
+
+  /**
+   * Create a new CodedInputStream wrapping the bytes visible through the given {@link Uint8Array},
+   * such as the body of a fetch or XHR response. The underlying buffer is read in place.
+   */
+  public static CodedInputStream newInstance(final Uint8Array buf) {
+    return newInstance(buf.buffer, buf.byteOffset, buf.byteLength);
+  }
+
+  /** Create a new CodedInputStream wrapping the given slice of a JS {@link ArrayBuffer}. */
+  static CodedInputStream newInstance(
+      final ArrayBuffer buf, final int off, final int len, final boolean bufferIsImmutable) {
+    TypedArrayDecoder result = new TypedArrayDecoder(buf, off, len, bufferIsImmutable);
+    try {
+      // See newInstance(byte[], int, int, boolean) for why the limit is pushed.
+      result.pushLimit(len);
+    } catch (InvalidProtocolBufferException ex) {
+      throw new IllegalArgumentException(ex);
+    }
+    return result;
+  }
+
   /**
    * Create a new CodedInputStream wrapping the given ByteBuffer. The data starting from the
    * ByteBuffer's current position to its limit will be read. The returned CodedInputStream may or
@@ -408,6 +456,83 @@ public abstract class CodedInputStream {
   /** Read an {@code sint64} field value from the stream. */
   public abstract long readSInt64() throws IOException;
 
+  // -----------------------------------------------------------------
+  // Variants of the 64-bit integer reads for fields with a jstype of JS_NUMBER or JS_STRING, which
+  // convert straight from the wire bits with LongBits and never create a long.
+
+  /**
+   * Read an {@code int64} field value from the stream as a JS number, which is exact for
+   * magnitudes up to 2^53. See {@link LongBits#toNumber}.
+   */
+  public final double readInt64Number() throws IOException {
+    final int low = readRawVarint64LowBits();
+    return LongBits.toNumber(low, lastVarint64HighBits);
+  }
+
+  /** Read an {@code int64} field value from the stream as a decimal string. */
+  public final String readInt64String() throws IOException {
+    final int low = readRawVarint64LowBits();
+    return LongBits.toDecimalString(low, lastVarint64HighBits);
+  }
+
+  /** Read a {@code uint64} field value from the stream as a JS number. */
+  public final double readUInt64Number() throws IOException {
+    final int low = readRawVarint64LowBits();
+    return LongBits.toUnsignedNumber(low, lastVarint64HighBits);
+  }
+
+  /** Read a {@code uint64} field value from the stream as a decimal string. */
+  public final String readUInt64String() throws IOException {
+    final int low = readRawVarint64LowBits();
+    return LongBits.toUnsignedDecimalString(low, lastVarint64HighBits);
+  }
+
+  /** Read an {@code sint64} field value from the stream as a JS number. */
+  public final double readSInt64Number() throws IOException {
+    final int low = readZigZagVarint64LowBits();
+    return LongBits.toNumber(low, lastVarint64HighBits);
+  }
+
+  /** Read an {@code sint64} field value from the stream as a decimal string. */
+  public final String readSInt64String() throws IOException {
+    final int low = readZigZagVarint64LowBits();
+    return LongBits.toDecimalString(low, lastVarint64HighBits);
+  }
+
+  /** Read a {@code fixed64} field value from the stream as a JS number. */
+  public final double readFixed64Number() throws IOException {
+    final int low = readRawLittleEndian32();
+    return LongBits.toUnsignedNumber(low, readRawLittleEndian32());
+  }
+
+  /** Read a {@code fixed64} field value from the stream as a decimal string. */
+  public final String readFixed64String() throws IOException {
+    final int low = readRawLittleEndian32();
+    return LongBits.toUnsignedDecimalString(low, readRawLittleEndian32());
+  }
+
+  /** Read an {@code sfixed64} field value from the stream as a JS number. */
+  public final double readSFixed64Number() throws IOException {
+    final int low = readRawLittleEndian32();
+    return LongBits.toNumber(low, readRawLittleEndian32());
+  }
+
+  /** Read an {@code sfixed64} field value from the stream as a decimal string. */
+  public final String readSFixed64String() throws IOException {
+    final int low = readRawLittleEndian32();
+    return LongBits.toDecimalString(low, readRawLittleEndian32());
+  }
+
+  /**
+   * Like {@link #readRawVarint64LowBits()}, but ZigZag decodes the value, leaving its high 32 bits
+   * in {@link #lastVarint64HighBits}.
+   */
+  private int readZigZagVarint64LowBits() throws IOException {
+    final int low = LongBits.decodeZigZag(readRawVarint64LowBits(), lastVarint64HighBits);
+    lastVarint64HighBits = LongBits.getLastHighBits();
+    return low;
+  }
+
   // =================================================================
 
   /** Read a raw Varint from the stream. If larger than 32 bits, discard the upper bits. */
@@ -420,17 +545,236 @@ public abstract class CodedInputStream {
   /* Visible for testing */
   abstract long readRawVarint64SlowPath() throws IOException;
 
+  /**
+   * Read a raw Varint of up to 64 bits from the stream without using {@code long} arithmetic,
+   * which is emulated and comparatively slow in GWT. Returns the low 32 bits of the value; the
+   * high 32 bits can then be obtained from {@link #getLastVarint64HighBits()}.
+   */
+  public abstract int readRawVarint64LowBits() throws IOException;
+
+  /**
+   * Returns the high 32 bits of the value read by the most recent call to {@link
+   * #readRawVarint64LowBits()}.
+   */
+  public final int getLastVarint64HighBits() {
+    return lastVarint64HighBits;
+  }
+
+  /** Variant of readRawVarint64LowBits for when uncomfortably close to the limit. */
+  final int readRawVarint64LowBitsSlowPath() throws IOException {
+    int low = 0;
+    int b;
+    for (int shift = 0; shift < 28; shift += 7) {
+      low |= ((b = readRawByte()) & 0x7F) << shift;
+      if (b >= 0) {
+        lastVarint64HighBits = 0;
+        return low;
+      }
+    }
+    // The fifth byte straddles both halves
+    low |= ((b = readRawByte()) & 0x7F) << 28;
+    int high = (b & 0x7F) >>> 4;
+    if (b >= 0) {
+      lastVarint64HighBits = high;
+      return low;
+    }
+    for (int shift = 3; shift < 32; shift += 7) {
+      high |= ((b = readRawByte()) & 0x7F) << shift;
+      if (b >= 0) {
+        lastVarint64HighBits = high;
+        return low;
+      }
+    }
+    throw InvalidProtocolBufferException.malformedVarint();
+  }
+
   /** Read a 32-bit little-endian integer from the stream. */
   public abstract int readRawLittleEndian32() throws IOException;
 
   /** Read a 64-bit little-endian integer from the stream. */
   public abstract long readRawLittleEndian64() throws IOException;
 
+  /**
+   * Read {@code count} consecutive {@code double} values from the stream, such as the body of a
+   * packed repeated {@code double} field, into {@code dest} starting at index {@code offset}.
+   */
+  public void readRawDoubles(final Float64Array dest, final int offset, final int count)
+      throws IOException {
+    for (int i = 0; i < count; i++) {
+      dest.setAt(offset + i, readDouble());
+    }
+  }
+
+  /**
+   * Read {@code count} consecutive {@code float} values from the stream, such as the body of a
+   * packed repeated {@code float} field, into {@code dest} starting at index {@code offset}.
+   */
+  public void readRawFloats(final Float32Array dest, final int offset, final int count)
+      throws IOException {
+    for (int i = 0; i < count; i++) {
+      dest.setAt(offset + i, (double) readFloat());
+    }
+  }
+
+  /**
+   * Read {@code count} consecutive {@code fixed32} or {@code sfixed32} values from the stream, such
+   * as the body of a packed repeated field of either type, into {@code dest} starting at index
+   * {@code offset}.
+   */
+  public void readRawFixed32s(final Int32Array dest, final int offset, final int count)
+      throws IOException {
+    for (int i = 0; i < count; i++) {
+      dest.setAt(offset + i, (double) readRawLittleEndian32());
+    }
+  }
+
+  /**
+   * Read a packed repeated {@code double} field value, including its length prefix, from the
+   * stream. If aliasing is enabled on a typed array input, the result is a view of the values in
+   * the input's buffer, or of an aligned copy of them if they don't start on a multiple of 8 bytes
+   * into the buffer.
+   */
+  public Float64Array readPackedDoubles() throws IOException {
+    final int length = readRawVarint32();
+    if (length % FIXED64_SIZE != 0) {
+      throw InvalidProtocolBufferException.parseFailure();
+    }
+    final int oldLimit = pushLimit(length);
+    final Float64Array result;
+    final int count = length / FIXED64_SIZE;
+    final Int8Array bytes = readRawBytesAligned(length, FIXED64_SIZE);
+    if (bytes != null) {
+      result = new Float64Array(bytes.buffer, bytes.byteOffset, count);
+    } else if (checkRawBytesAvailable(length)) {
+      result = new Float64Array(count);
+      readRawDoubles(result, 0, count);
+    } else {
+      final DataView view = readRawBytesView(length);
+      result = new Float64Array(count);
+      for (int i = 0; i < count; i++) {
+        result.setAt(i, view.getFloat64(i * FIXED64_SIZE, true));
+      }
+    }
+    popLimit(oldLimit);
+    return result;
+  }
+
+  /**
+   * Read a packed repeated {@code float} field value, including its length prefix, from the
+   * stream. Like {@link #readPackedDoubles()}, the result may be a view of the input.
+   */
+  public Float32Array readPackedFloats() throws IOException {
+    final int length = readRawVarint32();
+    if (length % FIXED32_SIZE != 0) {
+      throw InvalidProtocolBufferException.parseFailure();
+    }
+    final int oldLimit = pushLimit(length);
+    final Float32Array result;
+    final int count = length / FIXED32_SIZE;
+    final Int8Array bytes = readRawBytesAligned(length, FIXED32_SIZE);
+    if (bytes != null) {
+      result = new Float32Array(bytes.buffer, bytes.byteOffset, count);
+    } else if (checkRawBytesAvailable(length)) {
+      result = new Float32Array(count);
+      readRawFloats(result, 0, count);
+    } else {
+      final DataView view = readRawBytesView(length);
+      result = new Float32Array(count);
+      for (int i = 0; i < count; i++) {
+        result.setAt(i, view.getFloat32(i * FIXED32_SIZE, true));
+      }
+    }
+    popLimit(oldLimit);
+    return result;
+  }
+
+  /**
+   * Read a packed repeated {@code fixed32} or {@code sfixed32} field value, including its length
+   * prefix, from the stream. Like {@link #readPackedDoubles()}, the result may be a view of the
+   * input.
+   */
+  public Int32Array readPackedFixed32s() throws IOException {
+    final int length = readRawVarint32();
+    if (length % FIXED32_SIZE != 0) {
+      throw InvalidProtocolBufferException.parseFailure();
+    }
+    final int oldLimit = pushLimit(length);
+    final Int32Array result;
+    final int count = length / FIXED32_SIZE;
+    final Int8Array bytes = readRawBytesAligned(length, FIXED32_SIZE);
+    if (bytes != null) {
+      result = new Int32Array(bytes.buffer, bytes.byteOffset, count);
+    } else if (checkRawBytesAvailable(length)) {
+      result = new Int32Array(count);
+      readRawFixed32s(result, 0, count);
+    } else {
+      final DataView view = readRawBytesView(length);
+      result = new Int32Array(count);
+      for (int i = 0; i < count; i++) {
+        result.setAt(i, (double) view.getInt32(i * FIXED32_SIZE, true));
+      }
+    }
+    popLimit(oldLimit);
+    return result;
+  }
+
+  /**
+   * Returns whether the next {@code size} bytes are in the input, so that a typed array can be
+   * allocated for them before they are read. Throws {@link
+   * InvalidProtocolBufferException#truncatedMessage()} if they are known not to be. Decoders that
+   * can't tell without reading the bytes return false, and the caller should then read them with
+   * {@link #readRawBytesView}, since the size may be corrupt.
+   */
+  boolean checkRawBytesAvailable(final int size) throws IOException {
+    return false;
+  }
+
+  /**
+   * Reads the next {@code length} bytes into a new buffer, through {@link #readRawBytes} so that a
+   * corrupt length fails as a truncated message rather than as a huge allocation.
+   */
+  private DataView readRawBytesView(final int length) throws IOException {
+    return new DataView(TypedArrays.copyOfRange(readRawBytes(length), 0, length).buffer);
+  }
+
+  /**
+   * Reads the next {@code length} bytes as a view that shares the input's storage, if the input is
+   * a typed array with aliasing enabled, and the platform is little-endian like the wire format.
+   * Otherwise returns {@code null} without reading anything, and the caller should copy the bytes
+   * out as usual.
+   */
+  Int8Array readRawBytesAliased(final int length) throws IOException {
+    return null;
+  }
+
+  /**
+   * Like {@link #readRawBytesAliased}, but the bytes start on a multiple of {@code elementSize}
+   * into their buffer, so a typed array of that element size can be made over them. If the bytes
+   * in the input are not aligned, they are copied into a new buffer that is.
+   */
+  private Int8Array readRawBytesAligned(final int length, final int elementSize)
+      throws IOException {
+    final Int8Array bytes = readRawBytesAliased(length);
+    if (bytes == null || bytes.byteOffset % elementSize == 0) {
+      return bytes;
+    }
+    final Int8Array copy = new Int8Array(length);
+    copy.set(bytes, 0);
+    return copy;
+  }
+
   // -----------------------------------------------------------------
 
   /**
    * Enables {@link ByteString} aliasing of the underlying buffer, trading off on buffer pinning for
    * data copies. Only valid for buffer-backed streams.
+   *
+   * <p>On a typed array input this also lets packed fixed-width fields be read as typed array views
+   * of the buffer rather than copies, see {@link #readPackedDoubles()} and the {@code
+   * addAllPacked} methods of the typed array lists. The buffer must then not be modified while the
+   * views are in use. {@link #readBytes()} only returns byte strings whose {@link
+   * ByteString#asUint8Array()} is a view of the buffer when reading from another such byte string,
+   * since a {@link ByteString} must not change.
    */
   public abstract void enableAliasing(boolean enabled);
 
@@ -599,6 +943,26 @@ public abstract class CodedInputStream {
     return (n >>> 1) ^ -(n & 1);
   }
 
+  /**
+   * Joins the two 32-bit halves of a value read by {@link #readRawVarint64LowBits()} into a {@code
+   * long}, skipping the emulated long arithmetic for values that fit in a non-negative int.
+   */
+  static long joinVarint64(final int low, final int high) {
+    if (high == 0 && low >= 0) {
+      return low;
+    }
+    return ((long) high << 32) | (low & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Like {@link #decodeZigZag64(long)}, but operating on the two 32-bit halves of the encoded value
+   * as read by {@link #readRawVarint64LowBits()}.
+   */
+  static long decodeZigZag64(final int low, final int high) {
+    final int decodedLow = LongBits.decodeZigZag(low, high);
+    return joinVarint64(decodedLow, LongBits.getLastHighBits());
+  }
+
   /**
    * Like {@link #readRawVarint32(InputStream)}, but expects that the caller has already read one
    * byte. This allows the caller to determine if EOF has been reached before attempting to read.
@@ -776,19 +1140,22 @@ public abstract class CodedInputStream {
     // -----------------------------------------------------------------
 
     public double readDouble() throws IOException {
-      return Double.longBitsToDouble(readRawLittleEndian64());
+      final int low = readRawLittleEndian32();
+      return TypedArrays.longBitsToDouble(low, readRawLittleEndian32());
     }
 
     public float readFloat() throws IOException {
-      return Float.intBitsToFloat(readRawLittleEndian32());
+      return TypedArrays.intBitsToFloat(readRawLittleEndian32());
     }
 
     public long readUInt64() throws IOException {
-      return readRawVarint64();
+      final int low = readRawVarint64LowBits();
+      return joinVarint64(low, lastVarint64HighBits);
     }
 
     public long readInt64() throws IOException {
-      return readRawVarint64();
+      final int low = readRawVarint64LowBits();
+      return joinVarint64(low, lastVarint64HighBits);
     }
 
     public int readInt32() throws IOException {
@@ -804,7 +1171,7 @@ public abstract class CodedInputStream {
     }
 
     public boolean readBool() throws IOException {
-      return readRawVarint64() != 0;
+      return (readRawVarint64LowBits() | lastVarint64HighBits) != 0;
     }
 
     public String readString() throws IOException {
@@ -812,7 +1179,7 @@ public abstract class CodedInputStream {
       if (size > 0 && size <= (limit - pos)) {
         // Fast path:  We already have the bytes in a contiguous buffer, so
         //   just copy directly from it.
-        final String result = new String(buffer, pos, size, UTF_8);
+        final String result = Utf8.decodeUtf8Lossy(buffer, pos, size);
         pos += size;
         return result;
       }
@@ -977,7 +1344,8 @@ public abstract class CodedInputStream {
     }
 
     public long readSInt64() throws IOException {
-      return decodeZigZag64(readRawVarint64());
+      final int low = readRawVarint64LowBits();
+      return decodeZigZag64(low, lastVarint64HighBits);
     }
 
     // =================================================================
@@ -1122,6 +1490,50 @@ public abstract class CodedInputStream {
       return readRawVarint64SlowPath();
     }
 
+    public int readRawVarint64LowBits() throws IOException {
+      // Same approach as readRawVarint64, but accumulating each half in an int
+      fastpath:
+      {
+        int tempPos = pos;
+
+        if (limit == tempPos) {
+          break fastpath;
+        }
+
+        final byte[] buffer = this.buffer;
+        int b;
+        if ((b = buffer[tempPos++]) >= 0) {
+          pos = tempPos;
+          lastVarint64HighBits = 0;
+          return b;
+        } else if (limit - tempPos < 9) {
+          break fastpath;
+        }
+        int low = b & 0x7F;
+        for (int shift = 7; shift < 28; shift += 7) {
+          low |= ((b = buffer[tempPos++]) & 0x7F) << shift;
+          if (b >= 0) {
+            pos = tempPos;
+            lastVarint64HighBits = 0;
+            return low;
+          }
+        }
+        // The fifth byte straddles both halves
+        low |= ((b = buffer[tempPos++]) & 0x7F) << 28;
+        int high = (b & 0x7F) >>> 4;
+        for (int shift = 3; b < 0; shift += 7) {
+          if (shift > 31) {
+            break fastpath; // Will throw malformedVarint()
+          }
+          high |= ((b = buffer[tempPos++]) & 0x7F) << shift;
+        }
+        pos = tempPos;
+        lastVarint64HighBits = high;
+        return low;
+      }
+      return readRawVarint64LowBitsSlowPath();
+    }
+
     long readRawVarint64SlowPath() throws IOException {
       long result = 0;
       for (int shift = 0; shift < 64; shift += 7) {
@@ -1225,6 +1637,14 @@ public abstract class CodedInputStream {
       return pos == limit;
     }
 
+    @Override
+    boolean checkRawBytesAvailable(final int size) throws IOException {
+      if (size > limit - pos) {
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+      return true;
+    }
+
     public int getTotalBytesRead() {
       return pos - startPos;
     }
@@ -1268,75 +1688,32 @@ public abstract class CodedInputStream {
   }
 
   /**
-   * Implementation of {@link CodedInputStream} that uses an {@link InputStream} as the data source.
+   * A {@link CodedInputStream} implementation that reads directly from a JS {@link ArrayBuffer},
+   * without first copying it into a {@code byte[]}. The buffer is read through an {@link Int8Array}
+   * view, so each element is already a sign-extended byte as the varint decoding expects.
    */
-  private static final class StreamDecoder extends CodedInputStream {
-    private final InputStream input;
-    private final byte[] buffer;
-
-    /** bufferSize represents how many bytes are currently filled in the buffer */
-    private int bufferSize;
-
+  private static final class TypedArrayDecoder extends CodedInputStream {
+    private final Int8Array buffer;
+    private final DataView view;
+    private final boolean immutable;
+    private int limit;
     private int bufferSizeAfterLimit;
     private int pos;
+    private int startPos;
     private int lastTag;
-
-    /**
-     * The total number of bytes read before the current buffer. The total bytes read up to the
-     * current position can be computed as {@code totalBytesRetired + pos}. This value may be
-     * negative if reading started in the middle of the current buffer (e.g. if the constructor that
-     * takes a byte array and an offset was used).
-     */
-    private int totalBytesRetired;
+    private boolean enableAliasing;
 
     /** The absolute position of the end of the current message. */
     private int currentLimit = Integer.MAX_VALUE;
 
-    private StreamDecoder(final InputStream input, int bufferSize) {
-      checkNotNull(input, "input");
-      this.input = input;
-      this.buffer = new byte[bufferSize];
-      this.bufferSize = 0;
+    private TypedArrayDecoder(
+        final ArrayBuffer buffer, final int offset, final int len, boolean immutable) {
+      this.buffer = new Int8Array(buffer, offset, len);
+      this.view = new DataView(buffer, offset, len);
+      limit = len;
       pos = 0;
-      totalBytesRetired = 0;
-    }
-
-    /*
-     * The following wrapper methods exist so that InvalidProtocolBufferExceptions thrown by the
-     * InputStream can be differentiated from ones thrown by CodedInputStream itself. Each call to
-     * an InputStream method that can throw IOException must be wrapped like this. We do this
-     * because we sometimes need to modify IPBE instances after they are thrown far away from where
-     * they are thrown (ex. to add unfinished messages) and we use this signal elsewhere in the
-     * exception catch chain to know when to perform these operations directly or to wrap the
-     * exception in their own IPBE so the extra information can be communicated without trampling
-     * downstream information.
-     */
-    private static int read(InputStream input, byte[] data, int offset, int length)
-        throws IOException {
-      try {
-        return input.read(data, offset, length);
-      } catch (InvalidProtocolBufferException e) {
-        e.setThrownFromInputStream();
-        throw e;
-      }
-    }
-
-    private static long skip(InputStream input, long length) throws IOException {
-      try {
-        return input.skip(length);
-      } catch (InvalidProtocolBufferException e) {
-        e.setThrownFromInputStream();
-        throw e;
-      }
-    }
-
-    private static int available(InputStream input) throws IOException {
-      try {
-        return input.available();
-      } catch (InvalidProtocolBufferException e) {
-        e.setThrownFromInputStream();
-        throw e;
-      }
+      startPos = pos;
+      this.immutable = immutable;
     }
 
     public int readTag() throws IOException {
@@ -1445,19 +1822,35 @@ public abstract class CodedInputStream {
     // -----------------------------------------------------------------
 
     public double readDouble() throws IOException {
-      return Double.longBitsToDouble(readRawLittleEndian64());
+      int tempPos = pos;
+
+      if (limit - tempPos < FIXED64_SIZE) {
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+
+      pos = tempPos + FIXED64_SIZE;
+      return view.getFloat64(tempPos, true);
     }
 
     public float readFloat() throws IOException {
-      return Float.intBitsToFloat(readRawLittleEndian32());
+      int tempPos = pos;
+
+      if (limit - tempPos < FIXED32_SIZE) {
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+
+      pos = tempPos + FIXED32_SIZE;
+      return (float) view.getFloat32(tempPos, true);
     }
 
     public long readUInt64() throws IOException {
-      return readRawVarint64();
+      final int low = readRawVarint64LowBits();
+      return joinVarint64(low, lastVarint64HighBits);
     }
 
     public long readInt64() throws IOException {
-      return readRawVarint64();
+      final int low = readRawVarint64LowBits();
+      return joinVarint64(low, lastVarint64HighBits);
     }
 
     public int readInt32() throws IOException {
@@ -1473,60 +1866,41 @@ public abstract class CodedInputStream {
     }
 
     public boolean readBool() throws IOException {
-      return readRawVarint64() != 0;
+      return (readRawVarint64LowBits() | lastVarint64HighBits) != 0;
     }
 
     public String readString() throws IOException {
       final int size = readRawVarint32();
-      if (size > 0 && size <= (bufferSize - pos)) {
-        // Fast path:  We already have the bytes in a contiguous buffer, so
-        //   just copy directly from it.
-        final String result = new String(buffer, pos, size, UTF_8);
+      if (size > 0 && size <= (limit - pos)) {
+        final String result = Utf8.decodeUtf8Lossy(buffer, pos, size);
         pos += size;
         return result;
       }
+
       if (size == 0) {
         return "";
       }
       if (size < 0) {
         throw InvalidProtocolBufferException.negativeSize();
       }
-      if (size <= bufferSize) {
-        refillBuffer(size);
-        String result = new String(buffer, pos, size, UTF_8);
-        pos += size;
-        return result;
-      }
-      // Slow path:  Build a byte array first then copy it.
-      return new String(readRawBytesSlowPath(size, /* ensureNoLeakedReferences= */ false), UTF_8);
+      throw InvalidProtocolBufferException.truncatedMessage();
     }
 
     public String readStringRequireUtf8() throws IOException {
       final int size = readRawVarint32();
-      final byte[] bytes;
-      final int oldPos = pos;
-      final int tempPos;
-      if (size <= (bufferSize - oldPos) && size > 0) {
-        // Fast path:  We already have the bytes in a contiguous buffer, so
-        //   just copy directly from it.
-        bytes = buffer;
-        pos = oldPos + size;
-        tempPos = oldPos;
-      } else if (size == 0) {
+      if (size > 0 && size <= (limit - pos)) {
+        String result = Utf8.decodeUtf8(buffer, pos, size);
+        pos += size;
+        return result;
+      }
+
+      if (size == 0) {
         return "";
-      } else if (size < 0) {
+      }
+      if (size <= 0) {
         throw InvalidProtocolBufferException.negativeSize();
-      } else if (size <= bufferSize) {
-        refillBuffer(size);
-        bytes = buffer;
-        tempPos = 0;
-        pos = tempPos + size;
-      } else {
-        // Slow path:  Build a byte array first then copy it.
-        bytes = readRawBytesSlowPath(size, /* ensureNoLeakedReferences= */ false);
-        tempPos = 0;
       }
-      return Utf8.decodeUtf8(bytes, tempPos, size);
+      throw InvalidProtocolBufferException.truncatedMessage();
     }
 
     public void readGroup(
@@ -1594,58 +1968,44 @@ public abstract class CodedInputStream {
 
     public ByteString readBytes() throws IOException {
       final int size = readRawVarint32();
-      if (size <= (bufferSize - pos) && size > 0) {
-        // Fast path:  We already have the bytes in a contiguous buffer, so
-        //   just copy directly from it.
-        final ByteString result = ByteString.copyFrom(buffer, pos, size);
+      if (size > 0 && size <= (limit - pos)) {
+        // Keep the bytes in a typed array, as a view of the input when aliasing is enabled and the
+        // input can't change underneath it, and otherwise as a native copy, rather than copying
+        // them one at a time into a byte[].
+        final Uint8Array view = new Uint8Array(buffer.buffer, buffer.byteOffset + pos, size);
+        final Uint8Array bytes =
+            immutable && enableAliasing ? view : Js.uncheckedCast(view.slice(0, size));
+        final ByteString result = ByteString.wrap(bytes);
         pos += size;
         return result;
       }
       if (size == 0) {
         return ByteString.EMPTY;
       }
-      if (size < 0) {
-        throw InvalidProtocolBufferException.negativeSize();
-      }
-      return readBytesSlowPath(size);
+      // Slow path:  Build a byte array first then copy it.
+      return ByteString.wrap(readRawBytes(size));
     }
 
     public byte[] readByteArray() throws IOException {
       final int size = readRawVarint32();
-      if (size <= (bufferSize - pos) && size > 0) {
-        // Fast path: We already have the bytes in a contiguous buffer, so
-        // just copy directly from it.
-        final byte[] result = Arrays.copyOfRange(buffer, pos, pos + size);
-        pos += size;
-        return result;
-      } else if (size < 0) {
-        throw InvalidProtocolBufferException.negativeSize();
-      } else {
-        // Slow path: Build a byte array first then copy it.
-        // TODO: Do we want to protect from malicious input streams here?
-        return readRawBytesSlowPath(size, /* ensureNoLeakedReferences= */ false);
-      }
+      return readRawBytes(size);
     }
 
     public ByteBuffer readByteBuffer() throws IOException {
       final int size = readRawVarint32();
-      if (size <= (bufferSize - pos) && size > 0) {
-        // Fast path: We already have the bytes in a contiguous buffer.
-        ByteBuffer result = StaticImpls.wrap(Arrays.copyOfRange(buffer, pos, pos + size));
+      if (size > 0 && size <= (limit - pos)) {
+        ByteBuffer result = StaticImpls.wrap(TypedArrays.copyOfRange(buffer, pos, pos + size));
         pos += size;
         return result;
       }
+
       if (size == 0) {
-        return Internal.EMPTY_BYTE_BUFFER;
+        return EMPTY_BYTE_BUFFER;
       }
       if (size < 0) {
         throw InvalidProtocolBufferException.negativeSize();
       }
-      // Slow path: Build a byte array first then copy it.
-
-      // We must copy as the byte array was handed off to the InputStream and a malicious
-      // implementation could retain a reference.
-      return StaticImpls.wrap(readRawBytesSlowPath(size, /* ensureNoLeakedReferences= */ true));
+      throw InvalidProtocolBufferException.truncatedMessage();
     }
 
     public int readUInt32() throws IOException {
@@ -1669,44 +2029,45 @@ public abstract class CodedInputStream {
     }
 
     public long readSInt64() throws IOException {
-      return decodeZigZag64(readRawVarint64());
+      final int low = readRawVarint64LowBits();
+      return decodeZigZag64(low, lastVarint64HighBits);
     }
 
     // =================================================================
 
     public int readRawVarint32() throws IOException {
-      // See implementation notes for readRawVarint64
+      // See implementation notes for ArrayDecoder.readRawVarint64
       fastpath:
       {
         int tempPos = pos;
 
-        if (bufferSize == tempPos) {
+        if (limit == tempPos) {
           break fastpath;
         }
 
-        final byte[] buffer = this.buffer;
+        final Int8Array buffer = this.buffer;
         int x;
-        if ((x = buffer[tempPos++]) >= 0) {
+        if ((x = TypedArrays.getByte(buffer, tempPos++)) >= 0) {
           pos = tempPos;
           return x;
-        } else if (bufferSize - tempPos < 9) {
+        } else if (limit - tempPos < 9) {
           break fastpath;
-        } else if ((x ^= (buffer[tempPos++] << 7)) < 0) {
+        } else if ((x ^= (TypedArrays.getByte(buffer, tempPos++) << 7)) < 0) {
           x ^= (~0 << 7);
-        } else if ((x ^= (buffer[tempPos++] << 14)) >= 0) {
+        } else if ((x ^= (TypedArrays.getByte(buffer, tempPos++) << 14)) >= 0) {
           x ^= (~0 << 7) ^ (~0 << 14);
-        } else if ((x ^= (buffer[tempPos++] << 21)) < 0) {
+        } else if ((x ^= (TypedArrays.getByte(buffer, tempPos++) << 21)) < 0) {
           x ^= (~0 << 7) ^ (~0 << 14) ^ (~0 << 21);
         } else {
-          int y = buffer[tempPos++];
+          int y = TypedArrays.getByte(buffer, tempPos++);
           x ^= y << 28;
           x ^= (~0 << 7) ^ (~0 << 14) ^ (~0 << 21) ^ (~0 << 28);
           if (y < 0
-              && buffer[tempPos++] < 0
-              && buffer[tempPos++] < 0
-              && buffer[tempPos++] < 0
-              && buffer[tempPos++] < 0
-              && buffer[tempPos++] < 0) {
+              && TypedArrays.getByte(buffer, tempPos++) < 0
+              && TypedArrays.getByte(buffer, tempPos++) < 0
+              && TypedArrays.getByte(buffer, tempPos++) < 0
+              && TypedArrays.getByte(buffer, tempPos++) < 0
+              && TypedArrays.getByte(buffer, tempPos++) < 0) {
             break fastpath; // Will throw malformedVarint()
           }
         }
@@ -1717,7 +2078,7 @@ public abstract class CodedInputStream {
     }
 
     private void skipRawVarint() throws IOException {
-      if (bufferSize - pos >= MAX_VARINT_SIZE) {
+      if (limit - pos >= MAX_VARINT_SIZE) {
         skipRawVarintFastPath();
       } else {
         skipRawVarintSlowPath();
@@ -1726,7 +2087,7 @@ public abstract class CodedInputStream {
 
     private void skipRawVarintFastPath() throws IOException {
       for (int i = 0; i < MAX_VARINT_SIZE; i++) {
-        if (buffer[pos++] >= 0) {
+        if (TypedArrays.getByte(buffer, pos++) >= 0) {
           return;
         }
       }
@@ -1743,46 +2104,36 @@ public abstract class CodedInputStream {
     }
 
     public long readRawVarint64() throws IOException {
-      // Implementation notes:
-      //
-      // Optimized for one-byte values, expected to be common.
-      // The particular code below was selected from various candidates
-      // empirically, by winning VarintBenchmark.
-      //
-      // Sign extension of (signed) Java bytes is usually a nuisance, but
-      // we exploit it here to more easily obtain the sign of bytes read.
-      // Instead of cleaning up the sign extension bits by masking eagerly,
-      // we delay until we find the final (positive) byte, when we clear all
-      // accumulated bits with one xor.  We depend on javac to constant fold.
+      // See implementation notes for ArrayDecoder.readRawVarint64
       fastpath:
       {
         int tempPos = pos;
 
-        if (bufferSize == tempPos) {
+        if (limit == tempPos) {
           break fastpath;
         }
 
-        final byte[] buffer = this.buffer;
+        final Int8Array buffer = this.buffer;
         long x;
         int y;
-        if ((y = buffer[tempPos++]) >= 0) {
+        if ((y = TypedArrays.getByte(buffer, tempPos++)) >= 0) {
           pos = tempPos;
           return y;
-        } else if (bufferSize - tempPos < 9) {
+        } else if (limit - tempPos < 9) {
           break fastpath;
-        } else if ((y ^= (buffer[tempPos++] << 7)) < 0) {
+        } else if ((y ^= (TypedArrays.getByte(buffer, tempPos++) << 7)) < 0) {
           x = y ^ (~0 << 7);
-        } else if ((y ^= (buffer[tempPos++] << 14)) >= 0) {
+        } else if ((y ^= (TypedArrays.getByte(buffer, tempPos++) << 14)) >= 0) {
           x = y ^ ((~0 << 7) ^ (~0 << 14));
-        } else if ((y ^= (buffer[tempPos++] << 21)) < 0) {
+        } else if ((y ^= (TypedArrays.getByte(buffer, tempPos++) << 21)) < 0) {
           x = y ^ ((~0 << 7) ^ (~0 << 14) ^ (~0 << 21));
-        } else if ((x = y ^ ((long) buffer[tempPos++] << 28)) >= 0L) {
+        } else if ((x = y ^ ((long) TypedArrays.getByte(buffer, tempPos++) << 28)) >= 0L) {
           x ^= (~0L << 7) ^ (~0L << 14) ^ (~0L << 21) ^ (~0L << 28);
-        } else if ((x ^= ((long) buffer[tempPos++] << 35)) < 0L) {
+        } else if ((x ^= ((long) TypedArrays.getByte(buffer, tempPos++) << 35)) < 0L) {
           x ^= (~0L << 7) ^ (~0L << 14) ^ (~0L << 21) ^ (~0L << 28) ^ (~0L << 35);
-        } else if ((x ^= ((long) buffer[tempPos++] << 42)) >= 0L) {
+        } else if ((x ^= ((long) TypedArrays.getByte(buffer, tempPos++) << 42)) >= 0L) {
           x ^= (~0L << 7) ^ (~0L << 14) ^ (~0L << 21) ^ (~0L << 28) ^ (~0L << 35) ^ (~0L << 42);
-        } else if ((x ^= ((long) buffer[tempPos++] << 49)) < 0L) {
+        } else if ((x ^= ((long) TypedArrays.getByte(buffer, tempPos++) << 49)) < 0L) {
           x ^=
               (~0L << 7)
                   ^ (~0L << 14)
@@ -1792,7 +2143,7 @@ public abstract class CodedInputStream {
                   ^ (~0L << 42)
                   ^ (~0L << 49);
         } else {
-          x ^= ((long) buffer[tempPos++] << 56);
+          x ^= ((long) TypedArrays.getByte(buffer, tempPos++) << 56);
           x ^=
               (~0L << 7)
                   ^ (~0L << 14)
@@ -1803,7 +2154,7 @@ public abstract class CodedInputStream {
                   ^ (~0L << 49)
                   ^ (~0L << 56);
           if (x < 0L) {
-            if (buffer[tempPos++] < 0L) {
+            if (TypedArrays.getByte(buffer, tempPos++) < 0L) {
               break fastpath; // Will throw malformedVarint()
             }
           }
@@ -1814,6 +2165,50 @@ public abstract class CodedInputStream {
       return readRawVarint64SlowPath();
     }
 
+    public int readRawVarint64LowBits() throws IOException {
+      // Same approach as readRawVarint64, but accumulating each half in an int
+      fastpath:
+      {
+        int tempPos = pos;
+
+        if (limit == tempPos) {
+          break fastpath;
+        }
+
+        final Int8Array buffer = this.buffer;
+        int b;
+        if ((b = TypedArrays.getByte(buffer, tempPos++)) >= 0) {
+          pos = tempPos;
+          lastVarint64HighBits = 0;
+          return b;
+        } else if (limit - tempPos < 9) {
+          break fastpath;
+        }
+        int low = b & 0x7F;
+        for (int shift = 7; shift < 28; shift += 7) {
+          low |= ((b = TypedArrays.getByte(buffer, tempPos++)) & 0x7F) << shift;
+          if (b >= 0) {
+            pos = tempPos;
+            lastVarint64HighBits = 0;
+            return low;
+          }
+        }
+        // The fifth byte straddles both halves
+        low |= ((b = TypedArrays.getByte(buffer, tempPos++)) & 0x7F) << 28;
+        int high = (b & 0x7F) >>> 4;
+        for (int shift = 3; b < 0; shift += 7) {
+          if (shift > 31) {
+            break fastpath; // Will throw malformedVarint()
+          }
+          high |= ((b = TypedArrays.getByte(buffer, tempPos++)) & 0x7F) << shift;
+        }
+        pos = tempPos;
+        lastVarint64HighBits = high;
+        return low;
+      }
+      return readRawVarint64LowBitsSlowPath();
+    }
+
     long readRawVarint64SlowPath() throws IOException {
       long result = 0;
       for (int shift = 0; shift < 64; shift += 7) {
@@ -1829,54 +2224,106 @@ public abstract class CodedInputStream {
     public int readRawLittleEndian32() throws IOException {
       int tempPos = pos;
 
-      if (bufferSize - tempPos < FIXED32_SIZE) {
-        refillBuffer(FIXED32_SIZE);
-        tempPos = pos;
+      if (limit - tempPos < FIXED32_SIZE) {
+        throw InvalidProtocolBufferException.truncatedMessage();
       }
 
-      final byte[] buffer = this.buffer;
       pos = tempPos + FIXED32_SIZE;
-      return ((buffer[tempPos] & 0xff)
-          | ((buffer[tempPos + 1] & 0xff) << 8)
-          | ((buffer[tempPos + 2] & 0xff) << 16)
-          | ((buffer[tempPos + 3] & 0xff) << 24));
+      return view.getInt32(tempPos, true);
     }
 
     public long readRawLittleEndian64() throws IOException {
       int tempPos = pos;
 
-      if (bufferSize - tempPos < FIXED64_SIZE) {
-        refillBuffer(FIXED64_SIZE);
-        tempPos = pos;
+      if (limit - tempPos < FIXED64_SIZE) {
+        throw InvalidProtocolBufferException.truncatedMessage();
       }
 
-      final byte[] buffer = this.buffer;
       pos = tempPos + FIXED64_SIZE;
-      return (((buffer[tempPos] & 0xffL))
-          | ((buffer[tempPos + 1] & 0xffL) << 8)
-          | ((buffer[tempPos + 2] & 0xffL) << 16)
-          | ((buffer[tempPos + 3] & 0xffL) << 24)
-          | ((buffer[tempPos + 4] & 0xffL) << 32)
-          | ((buffer[tempPos + 5] & 0xffL) << 40)
-          | ((buffer[tempPos + 6] & 0xffL) << 48)
-          | ((buffer[tempPos + 7] & 0xffL) << 56));
+      return (view.getInt32(tempPos, true) & 0xffffffffL)
+          | ((long) view.getInt32(tempPos + FIXED32_SIZE, true) << 32);
     }
 
-    // -----------------------------------------------------------------
+    @Override
+    public void readRawDoubles(final Float64Array dest, final int offset, final int count)
+        throws IOException {
+      final int size = readRawArrayBodySize(count, FIXED64_SIZE);
+      if (TypedArrays.LITTLE_ENDIAN) {
+        TypedArrays.copyBytes(buffer, pos, dest, offset * FIXED64_SIZE, size);
+      } else {
+        for (int i = 0; i < count; i++) {
+          dest.setAt(offset + i, view.getFloat64(pos + i * FIXED64_SIZE, true));
+        }
+      }
+      pos += size;
+    }
+
+    @Override
+    public void readRawFloats(final Float32Array dest, final int offset, final int count)
+        throws IOException {
+      final int size = readRawArrayBodySize(count, FIXED32_SIZE);
+      if (TypedArrays.LITTLE_ENDIAN) {
+        TypedArrays.copyBytes(buffer, pos, dest, offset * FIXED32_SIZE, size);
+      } else {
+        for (int i = 0; i < count; i++) {
+          dest.setAt(offset + i, view.getFloat32(pos + i * FIXED32_SIZE, true));
+        }
+      }
+      pos += size;
+    }
+
+    @Override
+    Int8Array readRawBytesAliased(final int length) throws IOException {
+      if (!enableAliasing || !TypedArrays.LITTLE_ENDIAN) {
+        return null;
+      }
+      final int size = readRawArrayBodySize(length, 1);
+      final Int8Array bytes = Js.uncheckedCast(buffer.subarray(pos, pos + size));
+      pos += size;
+      return bytes;
+    }
+
+    @Override
+    public void readRawFixed32s(final Int32Array dest, final int offset, final int count)
+        throws IOException {
+      final int size = readRawArrayBodySize(count, FIXED32_SIZE);
+      if (TypedArrays.LITTLE_ENDIAN) {
+        TypedArrays.copyBytes(buffer, pos, dest, offset * FIXED32_SIZE, size);
+      } else {
+        for (int i = 0; i < count; i++) {
+          dest.setAt(offset + i, (double) view.getInt32(pos + i * FIXED32_SIZE, true));
+        }
+      }
+      pos += size;
+    }
+
+    /**
+     * Checks that {@code count} fixed-width elements of {@code elementSize} bytes remain in the
+     * buffer, and returns their total size.
+     */
+    private int readRawArrayBodySize(final int count, final int elementSize) throws IOException {
+      if (count < 0) {
+        throw InvalidProtocolBufferException.negativeSize();
+      }
+      if (count > (limit - pos) / elementSize) {
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+      return count * elementSize;
+    }
 
     public void enableAliasing(boolean enabled) {
-      // TODO: Ideally we should throw here. Do nothing for backward compatibility.
+      this.enableAliasing = enabled;
     }
 
     public void resetSizeCounter() {
-      totalBytesRetired = -pos;
+      startPos = pos;
     }
 
     public int pushLimit(int byteLimit) throws InvalidProtocolBufferException {
       if (byteLimit < 0) {
         throw InvalidProtocolBufferException.negativeSize();
       }
-      byteLimit += totalBytesRetired + pos;
+      byteLimit += getTotalBytesRead();
       if (byteLimit < 0) {
         // Check for for integer overflow in byteLimit
         throw InvalidProtocolBufferException.sizeLimitExceeded();
@@ -1893,12 +2340,12 @@ public abstract class CodedInputStream {
     }
 
     private void recomputeBufferSizeAfterLimit() {
-      bufferSize += bufferSizeAfterLimit;
-      final int bufferEnd = totalBytesRetired + bufferSize;
+      limit += bufferSizeAfterLimit;
+      final int bufferEnd = limit - startPos;
       if (bufferEnd > currentLimit) {
         // Limit is in current buffer.
         bufferSizeAfterLimit = bufferEnd - currentLimit;
-        bufferSize -= bufferSizeAfterLimit;
+        limit -= bufferSizeAfterLimit;
       } else {
         bufferSizeAfterLimit = 0;
       }
@@ -1914,385 +2361,1940 @@ public abstract class CodedInputStream {
         return -1;
       }
 
-      final int currentAbsolutePosition = totalBytesRetired + pos;
-      return currentLimit - currentAbsolutePosition;
+      return currentLimit - getTotalBytesRead();
     }
 
     public boolean isAtEnd() throws IOException {
-      return pos == bufferSize && !tryRefillBuffer(1);
+      return pos == limit;
+    }
+
+    @Override
+    boolean checkRawBytesAvailable(final int size) throws IOException {
+      if (size > limit - pos) {
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+      return true;
     }
 
     public int getTotalBytesRead() {
-      return totalBytesRetired + pos;
+      return pos - startPos;
     }
 
-    private interface RefillCallback {
-      void onRefill();
+    public byte readRawByte() throws IOException {
+      if (pos == limit) {
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+      return TypedArrays.getByte(buffer, pos++);
     }
 
-    private RefillCallback refillCallback = null;
+    public byte[] readRawBytes(final int length) throws IOException {
+      if (length > 0 && length <= (limit - pos)) {
+        final int tempPos = pos;
+        pos += length;
+        return TypedArrays.copyOfRange(buffer, tempPos, pos);
+      }
 
-    /**
-     * Reads more bytes from the input, making at least {@code n} bytes available in the buffer.
-     * Caller must ensure that the requested space is not yet available, and that the requested
-     * space is less than BUFFER_SIZE.
-     *
-     * @throws InvalidProtocolBufferException The end of the stream or the current limit was
-     *     reached.
-     */
-    private void refillBuffer(int n) throws IOException {
-      if (!tryRefillBuffer(n)) {
-        // We have to distinguish the exception between sizeLimitExceeded and truncatedMessage. So
-        // we just throw an sizeLimitExceeded exception here if it exceeds the sizeLimit
-        if (n > sizeLimit - totalBytesRetired - pos) {
-          throw InvalidProtocolBufferException.sizeLimitExceeded();
+      if (length <= 0) {
+        if (length == 0) {
+          return Internal.EMPTY_BYTE_ARRAY;
         } else {
-          throw InvalidProtocolBufferException.truncatedMessage();
+          throw InvalidProtocolBufferException.negativeSize();
         }
       }
+      throw InvalidProtocolBufferException.truncatedMessage();
     }
 
-    /**
-     * Tries to read more bytes from the input, making at least {@code n} bytes available in the
-     * buffer. Caller must ensure that the requested space is not yet available, and that the
-     * requested space is less than BUFFER_SIZE.
-     *
-     * @return {@code true} If the bytes could be made available; {@code false} 1. Current at the
-     *     end of the stream 2. The current limit was reached 3. The total size limit was reached
-     */
-    private boolean tryRefillBuffer(int n) throws IOException {
-      if (pos + n <= bufferSize) {
-        throw new IllegalStateException(
-            "refillBuffer() called when " + n + " bytes were already available in buffer");
-      }
-
-      // Check whether the size of total message needs to read is bigger than the size limit.
+    public void skipRawBytes(final int length) throws IOException {
+      if (length >= 0 && length <= (limit - pos)) {
+        // We have all the bytes we need already.
+        pos += length;
+        return;
+      }
+
+      if (length < 0) {
+        throw InvalidProtocolBufferException.negativeSize();
+      }
+      throw InvalidProtocolBufferException.truncatedMessage();
+    }
+  }
+
+  /**
+   * Implementation of {@link CodedInputStream} that uses an {@link InputStream} as the data source.
+   */
+  private static final class StreamDecoder extends CodedInputStream {
+    private final InputStream input;
+    private final byte[] buffer;
+
+    /** bufferSize represents how many bytes are currently filled in the buffer */
+    private int bufferSize;
+
+    private int bufferSizeAfterLimit;
+    private int pos;
+    private int lastTag;
+
+    /**
+     * The total number of bytes read before the current buffer. The total bytes read up to the
+     * current position can be computed as {@code totalBytesRetired + pos}. This value may be
+     * negative if reading started in the middle of the current buffer (e.g. if the constructor that
+     * takes a byte array and an offset was used).
+     */
+    private int totalBytesRetired;
+
+    /** The absolute position of the end of the current message. */
+    private int currentLimit = Integer.MAX_VALUE;
+
+    private StreamDecoder(final InputStream input, int bufferSize) {
+      checkNotNull(input, "input");
+      this.input = input;
+      this.buffer = new byte[bufferSize];
+      this.bufferSize = 0;
+      pos = 0;
+      totalBytesRetired = 0;
+    }
+
+    /*
+     * The following wrapper methods exist so that InvalidProtocolBufferExceptions thrown by the
+     * InputStream can be differentiated from ones thrown by CodedInputStream itself. Each call to
+     * an InputStream method that can throw IOException must be wrapped like this. We do this
+     * because we sometimes need to modify IPBE instances after they are thrown far away from where
+     * they are thrown (ex. to add unfinished messages) and we use this signal elsewhere in the
+     * exception catch chain to know when to perform these operations directly or to wrap the
+     * exception in their own IPBE so the extra information can be communicated without trampling
+     * downstream information.
+     */
+    private static int read(InputStream input, byte[] data, int offset, int length)
+        throws IOException {
+      try {
+        return input.read(data, offset, length);
+      } catch (InvalidProtocolBufferException e) {
+        e.setThrownFromInputStream();
+        throw e;
+      }
+    }
+
+    private static long skip(InputStream input, long length) throws IOException {
+      try {
+        return input.skip(length);
+      } catch (InvalidProtocolBufferException e) {
+        e.setThrownFromInputStream();
+        throw e;
+      }
+    }
+
+    private static int available(InputStream input) throws IOException {
+      try {
+        return input.available();
+      } catch (InvalidProtocolBufferException e) {
+        e.setThrownFromInputStream();
+        throw e;
+      }
+    }
+
+    public int readTag() throws IOException {
+      if (isAtEnd()) {
+        lastTag = 0;
+        return 0;
+      }
+
+      lastTag = readRawVarint32();
+      if (WireFormat.getTagFieldNumber(lastTag) == 0) {
+        // If we actually read zero (or any tag number corresponding to field
+        // number zero), that's not a valid tag.
+        throw InvalidProtocolBufferException.invalidTag();
+      }
+      return lastTag;
+    }
+
+    public void checkLastTagWas(final int value) throws InvalidProtocolBufferException {
+      if (lastTag != value) {
+        throw InvalidProtocolBufferException.invalidEndTag();
+      }
+    }
+
+    public int getLastTag() {
+      return lastTag;
+    }
+
+    public boolean skipField(final int tag) throws IOException {
+      switch (WireFormat.getTagWireType(tag)) {
+        case WireFormat.WIRETYPE_VARINT:
+          skipRawVarint();
+          return true;
+        case WireFormat.WIRETYPE_FIXED64:
+          skipRawBytes(FIXED64_SIZE);
+          return true;
+        case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+          skipRawBytes(readRawVarint32());
+          return true;
+        case WireFormat.WIRETYPE_START_GROUP:
+          skipMessage();
+          checkLastTagWas(
+              WireFormat.makeTag(WireFormat.getTagFieldNumber(tag), WireFormat.WIRETYPE_END_GROUP));
+          return true;
+        case WireFormat.WIRETYPE_END_GROUP:
+          checkValidEndTag();
+          return false;
+        case WireFormat.WIRETYPE_FIXED32:
+          skipRawBytes(FIXED32_SIZE);
+          return true;
+        default:
+          throw InvalidProtocolBufferException.invalidWireType();
+      }
+    }
+
+    public boolean skipField(final int tag, final CodedOutputStream output) throws IOException {
+      switch (WireFormat.getTagWireType(tag)) {
+        case WireFormat.WIRETYPE_VARINT:
+          {
+            long value = readInt64();
+            output.writeUInt32NoTag(tag);
+            output.writeUInt64NoTag(value);
+            return true;
+          }
+        case WireFormat.WIRETYPE_FIXED64:
+          {
+            long value = readRawLittleEndian64();
+            output.writeUInt32NoTag(tag);
+            output.writeFixed64NoTag(value);
+            return true;
+          }
+        case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+          {
+            ByteString value = readBytes();
+            output.writeUInt32NoTag(tag);
+            output.writeBytesNoTag(value);
+            return true;
+          }
+        case WireFormat.WIRETYPE_START_GROUP:
+          {
+            output.writeUInt32NoTag(tag);
+            skipMessage(output);
+            int endtag =
+                WireFormat.makeTag(
+                    WireFormat.getTagFieldNumber(tag), WireFormat.WIRETYPE_END_GROUP);
+            checkLastTagWas(endtag);
+            output.writeUInt32NoTag(endtag);
+            return true;
+          }
+        case WireFormat.WIRETYPE_END_GROUP:
+          {
+            checkValidEndTag();
+            return false;
+          }
+        case WireFormat.WIRETYPE_FIXED32:
+          {
+            int value = readRawLittleEndian32();
+            output.writeUInt32NoTag(tag);
+            output.writeFixed32NoTag(value);
+            return true;
+          }
+        default:
+          throw InvalidProtocolBufferException.invalidWireType();
+      }
+    }
+
+    // -----------------------------------------------------------------
+
+    public double readDouble() throws IOException {
+      final int low = readRawLittleEndian32();
+      return TypedArrays.longBitsToDouble(low, readRawLittleEndian32());
+    }
+
+    public float readFloat() throws IOException {
+      return TypedArrays.intBitsToFloat(readRawLittleEndian32());
+    }
+
+    public long readUInt64() throws IOException {
+      final int low = readRawVarint64LowBits();
+      return joinVarint64(low, lastVarint64HighBits);
+    }
+
+    public long readInt64() throws IOException {
+      final int low = readRawVarint64LowBits();
+      return joinVarint64(low, lastVarint64HighBits);
+    }
+
+    public int readInt32() throws IOException {
+      return readRawVarint32();
+    }
+
+    public long readFixed64() throws IOException {
+      return readRawLittleEndian64();
+    }
+
+    public int readFixed32() throws IOException {
+      return readRawLittleEndian32();
+    }
+
+    public boolean readBool() throws IOException {
+      return (readRawVarint64LowBits() | lastVarint64HighBits) != 0;
+    }
+
+    public String readString() throws IOException {
+      final int size = readRawVarint32();
+      if (size > 0 && size <= (bufferSize - pos)) {
+        // Fast path:  We already have the bytes in a contiguous buffer, so
+        //   just copy directly from it.
+        final String result = Utf8.decodeUtf8Lossy(buffer, pos, size);
+        pos += size;
+        return result;
+      }
+      if (size == 0) {
+        return "";
+      }
+      if (size < 0) {
+        throw InvalidProtocolBufferException.negativeSize();
+      }
+      if (size <= bufferSize) {
+        refillBuffer(size);
+        String result = Utf8.decodeUtf8Lossy(buffer, pos, size);
+        pos += size;
+        return result;
+      }
+      // Slow path:  Build a byte array first then copy it.
+      return Utf8.decodeUtf8Lossy(
+          readRawBytesSlowPath(size, /* ensureNoLeakedReferences= */ false), 0, size);
+    }
+
+    public String readStringRequireUtf8() throws IOException {
+      final int size = readRawVarint32();
+      final byte[] bytes;
+      final int oldPos = pos;
+      final int tempPos;
+      if (size <= (bufferSize - oldPos) && size > 0) {
+        // Fast path:  We already have the bytes in a contiguous buffer, so
+        //   just copy directly from it.
+        bytes = buffer;
+        pos = oldPos + size;
+        tempPos = oldPos;
+      } else if (size == 0) {
+        return "";
+      } else if (size < 0) {
+        throw InvalidProtocolBufferException.negativeSize();
+      } else if (size <= bufferSize) {
+        refillBuffer(size);
+        bytes = buffer;
+        tempPos = 0;
+        pos = tempPos + size;
+      } else {
+        // Slow path:  Build a byte array first then copy it.
+        bytes = readRawBytesSlowPath(size, /* ensureNoLeakedReferences= */ false);
+        tempPos = 0;
+      }
+      return Utf8.decodeUtf8(bytes, tempPos, size);
+    }
+
+    public void readGroup(
+        final int fieldNumber,
+        final MessageLite.Builder builder,
+        final ExtensionRegistryLite extensionRegistry)
+        throws IOException {
+      checkRecursionLimit();
+      ++groupDepth;
+      builder.mergeFrom(this, extensionRegistry);
+      checkLastTagWas(WireFormat.makeTag(fieldNumber, WireFormat.WIRETYPE_END_GROUP));
+      --groupDepth;
+    }
+
+    public <T extends MessageLite> T readGroup(
+        final int fieldNumber,
+        final Parser<T> parser,
+        final ExtensionRegistryLite extensionRegistry)
+        throws IOException {
+      checkRecursionLimit();
+      ++groupDepth;
+      T result = parser.parsePartialFrom(this, extensionRegistry);
+      checkLastTagWas(WireFormat.makeTag(fieldNumber, WireFormat.WIRETYPE_END_GROUP));
+      --groupDepth;
+      return result;
+    }
+
+    @Deprecated
+    public void readUnknownGroup(final int fieldNumber, final MessageLite.Builder builder)
+        throws IOException {
+      readGroup(fieldNumber, builder, ExtensionRegistryLite.getEmptyRegistry());
+    }
+
+    public void readMessage(
+        final MessageLite.Builder builder, final ExtensionRegistryLite extensionRegistry)
+        throws IOException {
+      final int length = readRawVarint32();
+      checkRecursionLimit();
+      final int oldLimit = pushLimit(length);
+      ++messageDepth;
+      builder.mergeFrom(this, extensionRegistry);
+      checkLastTagWas(0);
+      --messageDepth;
+      if (getBytesUntilLimit() != 0) {
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+      popLimit(oldLimit);
+    }
+
+    public <T extends MessageLite> T readMessage(
+        final Parser<T> parser, final ExtensionRegistryLite extensionRegistry) throws IOException {
+      int length = readRawVarint32();
+      checkRecursionLimit();
+      final int oldLimit = pushLimit(length);
+      ++messageDepth;
+      T result = parser.parsePartialFrom(this, extensionRegistry);
+      checkLastTagWas(0);
+      --messageDepth;
+      if (getBytesUntilLimit() != 0) {
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+      popLimit(oldLimit);
+      return result;
+    }
+
+    public ByteString readBytes() throws IOException {
+      final int size = readRawVarint32();
+      if (size <= (bufferSize - pos) && size > 0) {
+        // Fast path:  We already have the bytes in a contiguous buffer, so
+        //   just copy directly from it.
+        final ByteString result = ByteString.copyFrom(buffer, pos, size);
+        pos += size;
+        return result;
+      }
+      if (size == 0) {
+        return ByteString.EMPTY;
+      }
+      if (size < 0) {
+        throw InvalidProtocolBufferException.negativeSize();
+      }
+      return readBytesSlowPath(size);
+    }
+
+    public byte[] readByteArray() throws IOException {
+      final int size = readRawVarint32();
+      if (size <= (bufferSize - pos) && size > 0) {
+        // Fast path: We already have the bytes in a contiguous buffer, so
+        // just copy directly from it.
+        final byte[] result = Arrays.copyOfRange(buffer, pos, pos + size);
+        pos += size;
+        return result;
+      } else if (size < 0) {
+        throw InvalidProtocolBufferException.negativeSize();
+      } else {
+        // Slow path: Build a byte array first then copy it.
+        // TODO: Do we want to protect from malicious input streams here?
+        return readRawBytesSlowPath(size, /* ensureNoLeakedReferences= */ false);
+      }
+    }
+
+    public ByteBuffer readByteBuffer() throws IOException {
+      final int size = readRawVarint32();
+      if (size <= (bufferSize - pos) && size > 0) {
+        // Fast path: We already have the bytes in a contiguous buffer.
+        ByteBuffer result = StaticImpls.wrap(Arrays.copyOfRange(buffer, pos, pos + size));
+        pos += size;
+        return result;
+      }
+      if (size == 0) {
+        return Internal.EMPTY_BYTE_BUFFER;
+      }
+      if (size < 0) {
+        throw InvalidProtocolBufferException.negativeSize();
+      }
+      // Slow path: Build a byte array first then copy it.
+
+      // We must copy as the byte array was handed off to the InputStream and a malicious
+      // implementation could retain a reference.
+      return StaticImpls.wrap(readRawBytesSlowPath(size, /* ensureNoLeakedReferences= */ true));
+    }
+
+    public int readUInt32() throws IOException {
+      return readRawVarint32();
+    }
+
+    public int readEnum() throws IOException {
+      return readRawVarint32();
+    }
+
+    public int readSFixed32() throws IOException {
+      return readRawLittleEndian32();
+    }
+
+    public long readSFixed64() throws IOException {
+      return readRawLittleEndian64();
+    }
+
+    public int readSInt32() throws IOException {
+      return decodeZigZag32(readRawVarint32());
+    }
+
+    public long readSInt64() throws IOException {
+      final int low = readRawVarint64LowBits();
+      return decodeZigZag64(low, lastVarint64HighBits);
+    }
+
+    // =================================================================
+
+    public int readRawVarint32() throws IOException {
+      // See implementation notes for readRawVarint64
+      fastpath:
+      {
+        int tempPos = pos;
+
+        if (bufferSize == tempPos) {
+          break fastpath;
+        }
+
+        final byte[] buffer = this.buffer;
+        int x;
+        if ((x = buffer[tempPos++]) >= 0) {
+          pos = tempPos;
+          return x;
+        } else if (bufferSize - tempPos < 9) {
+          break fastpath;
+        } else if ((x ^= (buffer[tempPos++] << 7)) < 0) {
+          x ^= (~0 << 7);
+        } else if ((x ^= (buffer[tempPos++] << 14)) >= 0) {
+          x ^= (~0 << 7) ^ (~0 << 14);
+        } else if ((x ^= (buffer[tempPos++] << 21)) < 0) {
+          x ^= (~0 << 7) ^ (~0 << 14) ^ (~0 << 21);
+        } else {
+          int y = buffer[tempPos++];
+          x ^= y << 28;
+          x ^= (~0 << 7) ^ (~0 << 14) ^ (~0 << 21) ^ (~0 << 28);
+          if (y < 0
+              && buffer[tempPos++] < 0
+              && buffer[tempPos++] < 0
+              && buffer[tempPos++] < 0
+              && buffer[tempPos++] < 0
+              && buffer[tempPos++] < 0) {
+            break fastpath; // Will throw malformedVarint()
+          }
+        }
+        pos = tempPos;
+        return x;
+      }
+      return (int) readRawVarint64SlowPath();
+    }
+
+    private void skipRawVarint() throws IOException {
+      if (bufferSize - pos >= MAX_VARINT_SIZE) {
+        skipRawVarintFastPath();
+      } else {
+        skipRawVarintSlowPath();
+      }
+    }
+
+    private void skipRawVarintFastPath() throws IOException {
+      for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+        if (buffer[pos++] >= 0) {
+          return;
+        }
+      }
+      throw InvalidProtocolBufferException.malformedVarint();
+    }
+
+    private void skipRawVarintSlowPath() throws IOException {
+      for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+        if (readRawByte() >= 0) {
+          return;
+        }
+      }
+      throw InvalidProtocolBufferException.malformedVarint();
+    }
+
+    public long readRawVarint64() throws IOException {
+      // Implementation notes:
+      //
+      // Optimized for one-byte values, expected to be common.
+      // The particular code below was selected from various candidates
+      // empirically, by winning VarintBenchmark.
+      //
+      // Sign extension of (signed) Java bytes is usually a nuisance, but
+      // we exploit it here to more easily obtain the sign of bytes read.
+      // Instead of cleaning up the sign extension bits by masking eagerly,
+      // we delay until we find the final (positive) byte, when we clear all
+      // accumulated bits with one xor.  We depend on javac to constant fold.
+      fastpath:
+      {
+        int tempPos = pos;
+
+        if (bufferSize == tempPos) {
+          break fastpath;
+        }
+
+        final byte[] buffer = this.buffer;
+        long x;
+        int y;
+        if ((y = buffer[tempPos++]) >= 0) {
+          pos = tempPos;
+          return y;
+        } else if (bufferSize - tempPos < 9) {
+          break fastpath;
+        } else if ((y ^= (buffer[tempPos++] << 7)) < 0) {
+          x = y ^ (~0 << 7);
+        } else if ((y ^= (buffer[tempPos++] << 14)) >= 0) {
+          x = y ^ ((~0 << 7) ^ (~0 << 14));
+        } else if ((y ^= (buffer[tempPos++] << 21)) < 0) {
+          x = y ^ ((~0 << 7) ^ (~0 << 14) ^ (~0 << 21));
+        } else if ((x = y ^ ((long) buffer[tempPos++] << 28)) >= 0L) {
+          x ^= (~0L << 7) ^ (~0L << 14) ^ (~0L << 21) ^ (~0L << 28);
+        } else if ((x ^= ((long) buffer[tempPos++] << 35)) < 0L) {
+          x ^= (~0L << 7) ^ (~0L << 14) ^ (~0L << 21) ^ (~0L << 28) ^ (~0L << 35);
+        } else if ((x ^= ((long) buffer[tempPos++] << 42)) >= 0L) {
+          x ^= (~0L << 7) ^ (~0L << 14) ^ (~0L << 21) ^ (~0L << 28) ^ (~0L << 35) ^ (~0L << 42);
+        } else if ((x ^= ((long) buffer[tempPos++] << 49)) < 0L) {
+          x ^=
+              (~0L << 7)
+                  ^ (~0L << 14)
+                  ^ (~0L << 21)
+                  ^ (~0L << 28)
+                  ^ (~0L << 35)
+                  ^ (~0L << 42)
+                  ^ (~0L << 49);
+        } else {
+          x ^= ((long) buffer[tempPos++] << 56);
+          x ^=
+              (~0L << 7)
+                  ^ (~0L << 14)
+                  ^ (~0L << 21)
+                  ^ (~0L << 28)
+                  ^ (~0L << 35)
+                  ^ (~0L << 42)
+                  ^ (~0L << 49)
+                  ^ (~0L << 56);
+          if (x < 0L) {
+            if (buffer[tempPos++] < 0L) {
+              break fastpath; // Will throw malformedVarint()
+            }
+          }
+        }
+        pos = tempPos;
+        return x;
+      }
+      return readRawVarint64SlowPath();
+    }
+
+    public int readRawVarint64LowBits() throws IOException {
+      // Same approach as readRawVarint64, but accumulating each half in an int
+      fastpath:
+      {
+        int tempPos = pos;
+
+        if (bufferSize == tempPos) {
+          break fastpath;
+        }
+
+        final byte[] buffer = this.buffer;
+        int b;
+        if ((b = buffer[tempPos++]) >= 0) {
+          pos = tempPos;
+          lastVarint64HighBits = 0;
+          return b;
+        } else if (bufferSize - tempPos < 9) {
+          break fastpath;
+        }
+        int low = b & 0x7F;
+        for (int shift = 7; shift < 28; shift += 7) {
+          low |= ((b = buffer[tempPos++]) & 0x7F) << shift;
+          if (b >= 0) {
+            pos = tempPos;
+            lastVarint64HighBits = 0;
+            return low;
+          }
+        }
+        // The fifth byte straddles both halves
+        low |= ((b = buffer[tempPos++]) & 0x7F) << 28;
+        int high = (b & 0x7F) >>> 4;
+        for (int shift = 3; b < 0; shift += 7) {
+          if (shift > 31) {
+            break fastpath; // Will throw malformedVarint()
+          }
+          high |= ((b = buffer[tempPos++]) & 0x7F) << shift;
+        }
+        pos = tempPos;
+        lastVarint64HighBits = high;
+        return low;
+      }
+      return readRawVarint64LowBitsSlowPath();
+    }
+
+    long readRawVarint64SlowPath() throws IOException {
+      long result = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        final byte b = readRawByte();
+        result |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return result;
+        }
+      }
+      throw InvalidProtocolBufferException.malformedVarint();
+    }
+
+    public int readRawLittleEndian32() throws IOException {
+      int tempPos = pos;
+
+      if (bufferSize - tempPos < FIXED32_SIZE) {
+        refillBuffer(FIXED32_SIZE);
+        tempPos = pos;
+      }
+
+      final byte[] buffer = this.buffer;
+      pos = tempPos + FIXED32_SIZE;
+      return ((buffer[tempPos] & 0xff)
+          | ((buffer[tempPos + 1] & 0xff) << 8)
+          | ((buffer[tempPos + 2] & 0xff) << 16)
+          | ((buffer[tempPos + 3] & 0xff) << 24));
+    }
+
+    public long readRawLittleEndian64() throws IOException {
+      int tempPos = pos;
+
+      if (bufferSize - tempPos < FIXED64_SIZE) {
+        refillBuffer(FIXED64_SIZE);
+        tempPos = pos;
+      }
+
+      final byte[] buffer = this.buffer;
+      pos = tempPos + FIXED64_SIZE;
+      return (((buffer[tempPos] & 0xffL))
+          | ((buffer[tempPos + 1] & 0xffL) << 8)
+          | ((buffer[tempPos + 2] & 0xffL) << 16)
+          | ((buffer[tempPos + 3] & 0xffL) << 24)
+          | ((buffer[tempPos + 4] & 0xffL) << 32)
+          | ((buffer[tempPos + 5] & 0xffL) << 40)
+          | ((buffer[tempPos + 6] & 0xffL) << 48)
+          | ((buffer[tempPos + 7] & 0xffL) << 56));
+    }
+
+    // -----------------------------------------------------------------
+
+    public void enableAliasing(boolean enabled) {
+      // TODO: Ideally we should throw here. Do nothing for backward compatibility.
+    }
+
+    public void resetSizeCounter() {
+      totalBytesRetired = -pos;
+    }
+
+    public int pushLimit(int byteLimit) throws InvalidProtocolBufferException {
+      if (byteLimit < 0) {
+        throw InvalidProtocolBufferException.negativeSize();
+      }
+      byteLimit += totalBytesRetired + pos;
+      if (byteLimit < 0) {
+        // Check for for integer overflow in byteLimit
+        throw InvalidProtocolBufferException.sizeLimitExceeded();
+      }
+      final int oldLimit = currentLimit;
+      if (byteLimit > oldLimit) {
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+      currentLimit = byteLimit;
+
+      recomputeBufferSizeAfterLimit();
+
+      return oldLimit;
+    }
+
+    private void recomputeBufferSizeAfterLimit() {
+      bufferSize += bufferSizeAfterLimit;
+      final int bufferEnd = totalBytesRetired + bufferSize;
+      if (bufferEnd > currentLimit) {
+        // Limit is in current buffer.
+        bufferSizeAfterLimit = bufferEnd - currentLimit;
+        bufferSize -= bufferSizeAfterLimit;
+      } else {
+        bufferSizeAfterLimit = 0;
+      }
+    }
+
+    public void popLimit(final int oldLimit) {
+      currentLimit = oldLimit;
+      recomputeBufferSizeAfterLimit();
+    }
+
+    public int getBytesUntilLimit() {
+      if (currentLimit == Integer.MAX_VALUE) {
+        return -1;
+      }
+
+      final int currentAbsolutePosition = totalBytesRetired + pos;
+      return currentLimit - currentAbsolutePosition;
+    }
+
+    public boolean isAtEnd() throws IOException {
+      return pos == bufferSize && !tryRefillBuffer(1);
+    }
+
+    @Override
+    boolean checkRawBytesAvailable(final int size) throws IOException {
+      // Bytes past the buffer may not have arrived yet, so only the buffered ones are known
+      return size <= bufferSize - pos;
+    }
+
+    public int getTotalBytesRead() {
+      return totalBytesRetired + pos;
+    }
+
+    private interface RefillCallback {
+      void onRefill();
+    }
+
+    private RefillCallback refillCallback = null;
+
+    /**
+     * Reads more bytes from the input, making at least {@code n} bytes available in the buffer.
+     * Caller must ensure that the requested space is not yet available, and that the requested
+     * space is less than BUFFER_SIZE.
+     *
+     * @throws InvalidProtocolBufferException The end of the stream or the current limit was
+     *     reached.
+     */
+    private void refillBuffer(int n) throws IOException {
+      if (!tryRefillBuffer(n)) {
+        // We have to distinguish the exception between sizeLimitExceeded and truncatedMessage. So
+        // we just throw an sizeLimitExceeded exception here if it exceeds the sizeLimit
+        if (n > sizeLimit - totalBytesRetired - pos) {
+          throw InvalidProtocolBufferException.sizeLimitExceeded();
+        } else {
+          throw InvalidProtocolBufferException.truncatedMessage();
+        }
+      }
+    }
+
+    /**
+     * Tries to read more bytes from the input, making at least {@code n} bytes available in the
+     * buffer. Caller must ensure that the requested space is not yet available, and that the
+     * requested space is less than BUFFER_SIZE.
+     *
+     * @return {@code true} If the bytes could be made available; {@code false} 1. Current at the
+     *     end of the stream 2. The current limit was reached 3. The total size limit was reached
+     */
+    private boolean tryRefillBuffer(int n) throws IOException {
+      if (pos + n <= bufferSize) {
+        throw new IllegalStateException(
+            "refillBuffer() called when " + n + " bytes were already available in buffer");
+      }
+
+      // Check whether the size of total message needs to read is bigger than the size limit.
       // We shouldn't throw an exception here as isAtEnd() function needs to get this function's
       // return as the result.
       if (n > sizeLimit - totalBytesRetired - pos) {
         return false;
       }
 
-      // Shouldn't throw the exception here either.
-      if (totalBytesRetired + pos + n > currentLimit) {
-        // Oops, we hit a limit.
-        return false;
+      // Shouldn't throw the exception here either.
+      if (totalBytesRetired + pos + n > currentLimit) {
+        // Oops, we hit a limit.
+        return false;
+      }
+
+      if (refillCallback != null) {
+        refillCallback.onRefill();
+      }
+
+      int tempPos = pos;
+      if (tempPos > 0) {
+        if (bufferSize > tempPos) {
+          System.arraycopy(buffer, tempPos, buffer, 0, bufferSize - tempPos);
+        }
+        totalBytesRetired += tempPos;
+        bufferSize -= tempPos;
+        pos = 0;
+      }
+
+      // Here we should refill the buffer as many bytes as possible.
+      int bytesRead =
+          read(
+              input,
+              buffer,
+              bufferSize,
+              Math.min(
+                  //  the size of allocated but unused bytes in the buffer
+                  buffer.length - bufferSize,
+                  //  do not exceed the total bytes limit
+                  sizeLimit - totalBytesRetired - bufferSize));
+      if (bytesRead == 0 || bytesRead < -1 || bytesRead > buffer.length) {
+        throw new IllegalStateException(
+            input.getClass()
+                + "#read(byte[]) returned invalid result: "
+                + bytesRead
+                + "\nThe InputStream implementation is buggy.");
+      }
+      if (bytesRead > 0) {
+        bufferSize += bytesRead;
+        recomputeBufferSizeAfterLimit();
+        return (bufferSize >= n) || tryRefillBuffer(n);
+      }
+
+      return false;
+    }
+
+    public byte readRawByte() throws IOException {
+      if (pos == bufferSize) {
+        refillBuffer(1);
+      }
+      return buffer[pos++];
+    }
+
+    public byte[] readRawBytes(final int size) throws IOException {
+      final int tempPos = pos;
+      if (size <= (bufferSize - tempPos) && size > 0) {
+        pos = tempPos + size;
+        return Arrays.copyOfRange(buffer, tempPos, tempPos + size);
+      } else {
+        // TODO: Do we want to protect from malicious input streams here?
+        return readRawBytesSlowPath(size, /* ensureNoLeakedReferences= */ false);
+      }
+    }
+
+    /**
+     * Exactly like readRawBytes, but caller must have already checked the fast path: (size <=
+     * (bufferSize - pos) && size > 0)
+     *
+     * <p>If ensureNoLeakedReferences is true, the value is guaranteed to have not escaped to
+     * untrusted code.
+     */
+    private byte[] readRawBytesSlowPath(final int size, boolean ensureNoLeakedReferences)
+        throws IOException {
+      // Attempt to read the data in one byte array when it's safe to do.
+      byte[] result = readRawBytesSlowPathOneChunk(size);
+      if (result != null) {
+        return ensureNoLeakedReferences ? com.google.protobuf.gwt.StaticImpls.clone(result) : result;
+      }
+
+      final int originalBufferPos = pos;
+      final int bufferedBytes = bufferSize - pos;
+
+      // Mark the current buffer consumed.
+      totalBytesRetired += bufferSize;
+      pos = 0;
+      bufferSize = 0;
+
+      // Determine the number of bytes we need to read from the input stream.
+      int sizeLeft = size - bufferedBytes;
+
+      // The size is very large. For security reasons we read them in small
+      // chunks.
+      List<byte[]> chunks = readRawBytesSlowPathRemainingChunks(sizeLeft);
+
+      // OK, got everything.  Now concatenate it all into one buffer.
+      final byte[] bytes = new byte[size];
+
+      // Start by copying the leftover bytes from this.buffer.
+      System.arraycopy(buffer, originalBufferPos, bytes, 0, bufferedBytes);
+
+      // And now all the chunks.
+      int tempPos = bufferedBytes;
+      for (final byte[] chunk : chunks) {
+        System.arraycopy(chunk, 0, bytes, tempPos, chunk.length);
+        tempPos += chunk.length;
+      }
+
+      // Done.
+      return bytes;
+    }
+
+    /**
+     * Attempts to read the data in one byte array when it's safe to do. Returns null if the size to
+     * read is too large and needs to be allocated in smaller chunks for security reasons.
+     *
+     * <p>Returns a byte[] that may have escaped to user code via InputStream APIs.
+     */
+    private byte[] readRawBytesSlowPathOneChunk(final int size) throws IOException {
+      if (size == 0) {
+        return Internal.EMPTY_BYTE_ARRAY;
+      }
+      if (size < 0) {
+        throw InvalidProtocolBufferException.negativeSize();
+      }
+
+      // Integer-overflow-conscious check that the message size so far has not exceeded sizeLimit.
+      int currentMessageSize = totalBytesRetired + pos + size;
+      if (currentMessageSize - sizeLimit > 0) {
+        throw InvalidProtocolBufferException.sizeLimitExceeded();
+      }
+
+      // Verify that the message size so far has not exceeded currentLimit.
+      if (currentMessageSize > currentLimit) {
+        // Read to the end of the stream anyway.
+        skipRawBytes(currentLimit - totalBytesRetired - pos);
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+
+      final int bufferedBytes = bufferSize - pos;
+      // Determine the number of bytes we need to read from the input stream.
+      int sizeLeft = size - bufferedBytes;
+      // TODO: Consider using a value larger than DEFAULT_BUFFER_SIZE.
+      if (sizeLeft < DEFAULT_BUFFER_SIZE || sizeLeft <= available(input)) {
+        // Either the bytes we need are known to be available, or the required buffer is
+        // within an allowed threshold - go ahead and allocate the buffer now.
+        final byte[] bytes = new byte[size];
+
+        // Copy all of the buffered bytes to the result buffer.
+        System.arraycopy(buffer, pos, bytes, 0, bufferedBytes);
+        totalBytesRetired += bufferSize;
+        pos = 0;
+        bufferSize = 0;
+
+        // Fill the remaining bytes from the input stream.
+        int tempPos = bufferedBytes;
+        while (tempPos < bytes.length) {
+          int n = read(input, bytes, tempPos, size - tempPos);
+          if (n == -1) {
+            throw InvalidProtocolBufferException.truncatedMessage();
+          }
+          totalBytesRetired += n;
+          tempPos += n;
+        }
+
+        return bytes;
+      }
+
+      return null;
+    }
+
+    /**
+     * Reads the remaining data in small chunks from the input stream.
+     *
+     * <p>Returns a byte[] that may have escaped to user code via InputStream APIs.
+     */
+    private List<byte[]> readRawBytesSlowPathRemainingChunks(int sizeLeft) throws IOException {
+      // The size is very large.  For security reasons, we can't allocate the
+      // entire byte array yet.  The size comes directly from the input, so a
+      // maliciously-crafted message could provide a bogus very large size in
+      // order to trick the app into allocating a lot of memory.  We avoid this
+      // by allocating and reading only a small chunk at a time, so that the
+      // malicious message must actually *be* extremely large to cause
+      // problems.  Meanwhile, we limit the allowed size of a message elsewhere.
+      final List<byte[]> chunks = new ArrayList<>();
+
+      while (sizeLeft > 0) {
+        // TODO: Consider using a value larger than DEFAULT_BUFFER_SIZE.
+        final byte[] chunk = new byte[Math.min(sizeLeft, DEFAULT_BUFFER_SIZE)];
+        int tempPos = 0;
+        while (tempPos < chunk.length) {
+          final int n = input.read(chunk, tempPos, chunk.length - tempPos);
+          if (n == -1) {
+            throw InvalidProtocolBufferException.truncatedMessage();
+          }
+          totalBytesRetired += n;
+          tempPos += n;
+        }
+        sizeLeft -= chunk.length;
+        chunks.add(chunk);
+      }
+
+      return chunks;
+    }
+
+    /**
+     * Like readBytes, but caller must have already checked the fast path: (size <= (bufferSize -
+     * pos) && size > 0 || size == 0)
+     */
+    private ByteString readBytesSlowPath(final int size) throws IOException {
+      final byte[] result = readRawBytesSlowPathOneChunk(size);
+      if (result != null) {
+        // We must copy as the byte array was handed off to the InputStream and a malicious
+        // implementation could retain a reference.
+        return ByteString.copyFrom(result);
+      }
+
+      final int originalBufferPos = pos;
+      final int bufferedBytes = bufferSize - pos;
+
+      // Mark the current buffer consumed.
+      totalBytesRetired += bufferSize;
+      pos = 0;
+      bufferSize = 0;
+
+      // Determine the number of bytes we need to read from the input stream.
+      int sizeLeft = size - bufferedBytes;
+
+      // The size is very large. For security reasons we read them in small
+      // chunks.
+      List<byte[]> chunks = readRawBytesSlowPathRemainingChunks(sizeLeft);
+
+      // OK, got everything.  Now concatenate it all into one buffer.
+      final byte[] bytes = new byte[size];
+
+      // Start by copying the leftover bytes from this.buffer.
+      System.arraycopy(buffer, originalBufferPos, bytes, 0, bufferedBytes);
+
+      // And now all the chunks.
+      int tempPos = bufferedBytes;
+      for (final byte[] chunk : chunks) {
+        System.arraycopy(chunk, 0, bytes, tempPos, chunk.length);
+        tempPos += chunk.length;
+      }
+
+      return ByteString.wrap(bytes);
+    }
+
+    public void skipRawBytes(final int size) throws IOException {
+      if (size <= (bufferSize - pos) && size >= 0) {
+        // We have all the bytes we need already.
+        pos += size;
+      } else {
+        skipRawBytesSlowPath(size);
+      }
+    }
+
+    /**
+     * Exactly like skipRawBytes, but caller must have already checked the fast path: (size <=
+     * (bufferSize - pos) && size >= 0)
+     */
+    private void skipRawBytesSlowPath(final int size) throws IOException {
+      if (size < 0) {
+        throw InvalidProtocolBufferException.negativeSize();
+      }
+
+      if (totalBytesRetired + pos + size > currentLimit) {
+        // Read to the end of the stream anyway.
+        skipRawBytes(currentLimit - totalBytesRetired - pos);
+        // Then fail.
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+
+      int totalSkipped = 0;
+      if (refillCallback == null) {
+        // Skipping more bytes than are in the buffer.  First skip what we have.
+        totalBytesRetired += pos;
+        totalSkipped = bufferSize - pos;
+        bufferSize = 0;
+        pos = 0;
+
+        try {
+          while (totalSkipped < size) {
+            int toSkip = size - totalSkipped;
+            long skipped = skip(input, toSkip);
+            if (skipped < 0 || skipped > toSkip) {
+              throw new IllegalStateException(
+                  input.getClass()
+                      + "#skip returned invalid result: "
+                      + skipped
+                      + "\nThe InputStream implementation is buggy.");
+            } else if (skipped == 0) {
+              // The API contract of skip() permits an inputstream to skip zero bytes for any reason
+              // it wants. In particular, ByteArrayInputStream will just return zero over and over
+              // when it's at the end of its input. In order to actually confirm that we've hit the
+              // end of input, we need to issue a read call via the other path.
+              break;
+            }
+            totalSkipped += (int) skipped;
+          }
+        } finally {
+          totalBytesRetired += totalSkipped;
+          recomputeBufferSizeAfterLimit();
+        }
+      }
+      if (totalSkipped < size) {
+        // Skipping more bytes than are in the buffer.  First skip what we have.
+        int tempPos = bufferSize - pos;
+        pos = bufferSize;
+
+        // Keep refilling the buffer until we get to the point we wanted to skip to.
+        // This has the side effect of ensuring the limits are updated correctly.
+        refillBuffer(1);
+        while (size - tempPos > bufferSize) {
+          tempPos += bufferSize;
+          pos = bufferSize;
+          refillBuffer(1);
+        }
+
+        pos = size - tempPos;
+      }
+    }
+  }
+
+  /**
+   * A {@link CodedInputStream} implementation that reads directly from a sequence of {@link
+   * ByteBuffer}s, such as the chunks of a streamed response, rather than copying them through an
+   * {@link InputStream}. Buffers are taken from the iterator only as they are needed, and values
+   * that straddle two buffers are assembled a byte at a time. The positions and limits of the
+   * buffers themselves are never modified.
+   */
+  private static final class IterableByteBufferDecoder extends CodedInputStream {
+    /** The {@link Iterator} over the input buffers. */
+    private final Iterator<ByteBuffer> iterator;
+
+    /** Buffers taken from {@link #iterator} to check that enough input remains, but not yet read. */
+    private final ArrayDeque<ByteBuffer> pendingByteBuffers = new ArrayDeque<>();
+
+    private final boolean immutable;
+    private boolean enableAliasing;
+
+    /** The buffer currently being read. */
+    private ByteBuffer currentByteBuffer;
+
+    /** The position of the next byte to read from {@link #currentByteBuffer}. */
+    private int currentByteBufferPos;
+
+    /** The position in {@link #currentByteBuffer} at which this decoder started reading it. */
+    private int currentByteBufferStartPos;
+
+    /**
+     * The position in {@link #currentByteBuffer} at which reading must stop - its limit, or the end
+     * of the current message if that comes first.
+     */
+    private int currentByteBufferLimit;
+
+    /** The number of bytes read from buffers before {@link #currentByteBuffer}. */
+    private int totalBytesRead;
+
+    /** The value of {@link #totalBytesRead} when the size counter was last reset. */
+    private int startOffset;
+
+    private int lastTag;
+
+    /** The absolute position of the end of the current message. */
+    private int currentLimit = Integer.MAX_VALUE;
+
+    private IterableByteBufferDecoder(Iterable<ByteBuffer> inputBufs, boolean immutable) {
+      iterator = inputBufs.iterator();
+      this.immutable = immutable;
+      currentByteBuffer = EMPTY_BYTE_BUFFER;
+    }
+
+    /**
+     * Moves on to the next non-empty buffer, once {@link #currentByteBuffer} has been read up to
+     * {@link #currentByteBufferLimit}. Returns false if the end of the current message or of the
+     * input has been reached.
+     */
+    private boolean nextByteBuffer() {
+      if (getTotalBytesRead() == currentLimit) {
+        return false;
+      }
+      while (!pendingByteBuffers.isEmpty() || iterator.hasNext()) {
+        totalBytesRead += currentByteBufferPos - currentByteBufferStartPos;
+        currentByteBuffer =
+            pendingByteBuffers.isEmpty() ? iterator.next() : pendingByteBuffers.removeFirst();
+        currentByteBufferPos = currentByteBuffer.position();
+        currentByteBufferStartPos = currentByteBufferPos;
+        recomputeByteBufferLimit();
+        if (currentByteBufferPos < currentByteBufferLimit) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /** As {@link #nextByteBuffer()}, but running out of input is an error. */
+    private void requireNextByteBuffer() throws InvalidProtocolBufferException {
+      if (!nextByteBuffer()) {
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+    }
+
+    /**
+     * Checks that {@code size} more bytes can be read before the end of the current message and of
+     * the input, so that a large allocation is not made for a value that is truncated. Any buffers
+     * this needs to look at are kept to be read next.
+     */
+    private void checkAvailable(final int size) throws InvalidProtocolBufferException {
+      if (size > currentLimit - getTotalBytesRead()) {
+        throw InvalidProtocolBufferException.truncatedMessage();
+      }
+      int available = currentByteBufferLimit - currentByteBufferPos;
+      for (ByteBuffer pending : pendingByteBuffers) {
+        available += pending.remaining();
+      }
+      while (available < size) {
+        if (!iterator.hasNext()) {
+          throw InvalidProtocolBufferException.truncatedMessage();
+        }
+        final ByteBuffer next = iterator.next();
+        pendingByteBuffers.addLast(next);
+        available += next.remaining();
+      }
+    }
+
+    /** Returns a view of the given range of {@link #currentByteBuffer}. */
+    private ByteBuffer slice(final int begin, final int end) {
+      final ByteBuffer duplicate = currentByteBuffer.duplicate();
+      Java8Compatibility.position(duplicate, begin);
+      Java8Compatibility.limit(duplicate, end);
+      return duplicate.slice();
+    }
+
+    /** Copies {@code length} bytes from the current buffer, which must already hold them. */
+    private void readFromCurrentByteBuffer(final byte[] bytes, final int offset, final int length) {
+      final ByteBuffer duplicate = currentByteBuffer.duplicate();
+      Java8Compatibility.position(duplicate, currentByteBufferPos);
+      duplicate.get(bytes, offset, length);
+      currentByteBufferPos += length;
+    }
+
+    public int readTag() throws IOException {
+      if (isAtEnd()) {
+        lastTag = 0;
+        return 0;
+      }
+
+      lastTag = readRawVarint32();
+      if (WireFormat.getTagFieldNumber(lastTag) == 0) {
+        // If we actually read zero (or any tag number corresponding to field
+        // number zero), that's not a valid tag.
+        throw InvalidProtocolBufferException.invalidTag();
+      }
+      return lastTag;
+    }
+
+    public void checkLastTagWas(final int value) throws InvalidProtocolBufferException {
+      if (lastTag != value) {
+        throw InvalidProtocolBufferException.invalidEndTag();
+      }
+    }
+
+    public int getLastTag() {
+      return lastTag;
+    }
+
+    public boolean skipField(final int tag) throws IOException {
+      switch (WireFormat.getTagWireType(tag)) {
+        case WireFormat.WIRETYPE_VARINT:
+          skipRawVarint();
+          return true;
+        case WireFormat.WIRETYPE_FIXED64:
+          skipRawBytes(FIXED64_SIZE);
+          return true;
+        case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+          skipRawBytes(readRawVarint32());
+          return true;
+        case WireFormat.WIRETYPE_START_GROUP:
+          skipMessage();
+          checkLastTagWas(
+              WireFormat.makeTag(WireFormat.getTagFieldNumber(tag), WireFormat.WIRETYPE_END_GROUP));
+          return true;
+        case WireFormat.WIRETYPE_END_GROUP:
+          checkValidEndTag();
+          return false;
+        case WireFormat.WIRETYPE_FIXED32:
+          skipRawBytes(FIXED32_SIZE);
+          return true;
+        default:
+          throw InvalidProtocolBufferException.invalidWireType();
+      }
+    }
+
+    public boolean skipField(final int tag, final CodedOutputStream output) throws IOException {
+      switch (WireFormat.getTagWireType(tag)) {
+        case WireFormat.WIRETYPE_VARINT:
+          {
+            long value = readInt64();
+            output.writeUInt32NoTag(tag);
+            output.writeUInt64NoTag(value);
+            return true;
+          }
+        case WireFormat.WIRETYPE_FIXED64:
+          {
+            long value = readRawLittleEndian64();
+            output.writeUInt32NoTag(tag);
+            output.writeFixed64NoTag(value);
+            return true;
+          }
+        case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+          {
+            ByteString value = readBytes();
+            output.writeUInt32NoTag(tag);
+            output.writeBytesNoTag(value);
+            return true;
+          }
+        case WireFormat.WIRETYPE_START_GROUP:
+          {
+            output.writeUInt32NoTag(tag);
+            skipMessage(output);
+            int endtag =
+                WireFormat.makeTag(
+                    WireFormat.getTagFieldNumber(tag), WireFormat.WIRETYPE_END_GROUP);
+            checkLastTagWas(endtag);
+            output.writeUInt32NoTag(endtag);
+            return true;
+          }
+        case WireFormat.WIRETYPE_END_GROUP:
+          {
+            checkValidEndTag();
+            return false;
+          }
+        case WireFormat.WIRETYPE_FIXED32:
+          {
+            int value = readRawLittleEndian32();
+            output.writeUInt32NoTag(tag);
+            output.writeFixed32NoTag(value);
+            return true;
+          }
+        default:
+          throw InvalidProtocolBufferException.invalidWireType();
+      }
+    }
+
+    // -----------------------------------------------------------------
+
+    public double readDouble() throws IOException {
+      final int low = readRawLittleEndian32();
+      return TypedArrays.longBitsToDouble(low, readRawLittleEndian32());
+    }
+
+    public float readFloat() throws IOException {
+      return TypedArrays.intBitsToFloat(readRawLittleEndian32());
+    }
+
+    public long readUInt64() throws IOException {
+      final int low = readRawVarint64LowBits();
+      return joinVarint64(low, lastVarint64HighBits);
+    }
+
+    public long readInt64() throws IOException {
+      final int low = readRawVarint64LowBits();
+      return joinVarint64(low, lastVarint64HighBits);
+    }
+
+    public int readInt32() throws IOException {
+      return readRawVarint32();
+    }
+
+    public long readFixed64() throws IOException {
+      return readRawLittleEndian64();
+    }
+
+    public int readFixed32() throws IOException {
+      return readRawLittleEndian32();
+    }
+
+    public boolean readBool() throws IOException {
+      return (readRawVarint64LowBits() | lastVarint64HighBits) != 0;
+    }
+
+    public String readString() throws IOException {
+      final int size = readRawVarint32();
+      if (size > 0 && size <= currentByteBufferLimit - currentByteBufferPos) {
+        final byte[] bytes = new byte[size];
+        readFromCurrentByteBuffer(bytes, 0, size);
+        return Utf8.decodeUtf8Lossy(bytes, 0, size);
+      }
+
+      if (size == 0) {
+        return "";
+      }
+      // Slow path:  The string straddles two or more buffers.
+      return Utf8.decodeUtf8Lossy(readRawBytes(size), 0, size);
+    }
+
+    public String readStringRequireUtf8() throws IOException {
+      final int size = readRawVarint32();
+      if (size > 0 && size <= currentByteBufferLimit - currentByteBufferPos) {
+        String result = Utf8.decodeUtf8(currentByteBuffer, currentByteBufferPos, size);
+        currentByteBufferPos += size;
+        return result;
+      }
+
+      if (size == 0) {
+        return "";
+      }
+      // Slow path:  The string straddles two or more buffers.
+      return Utf8.decodeUtf8(readRawBytes(size), 0, size);
+    }
+
+    public void readGroup(
+        final int fieldNumber,
+        final MessageLite.Builder builder,
+        final ExtensionRegistryLite extensionRegistry)
+        throws IOException {
+      checkRecursionLimit();
+      ++groupDepth;
+      builder.mergeFrom(this, extensionRegistry);
+      checkLastTagWas(WireFormat.makeTag(fieldNumber, WireFormat.WIRETYPE_END_GROUP));
+      --groupDepth;
+    }
+
+    public <T extends MessageLite> T readGroup(
+        final int fieldNumber,
+        final Parser<T> parser,
+        final ExtensionRegistryLite extensionRegistry)
+        throws IOException {
+      checkRecursionLimit();
+      ++groupDepth;
+      T result = parser.parsePartialFrom(this, extensionRegistry);
+      checkLastTagWas(WireFormat.makeTag(fieldNumber, WireFormat.WIRETYPE_END_GROUP));
+      --groupDepth;
+      return result;
+    }
+
+    @Deprecated
+    public void readUnknownGroup(final int fieldNumber, final MessageLite.Builder builder)
+        throws IOException {
+      readGroup(fieldNumber, builder, ExtensionRegistryLite.getEmptyRegistry());
+    }
+
+    public void readMessage(
+        final MessageLite.Builder builder, final ExtensionRegistryLite extensionRegistry)
+        throws IOException {
+      final int length = readRawVarint32();
+      checkRecursionLimit();
+      final int oldLimit = pushLimit(length);
+      ++messageDepth;
+      builder.mergeFrom(this, extensionRegistry);
+      checkLastTagWas(0);
+      --messageDepth;
+      if (getBytesUntilLimit() != 0) {
+        throw InvalidProtocolBufferException.truncatedMessage();
       }
+      popLimit(oldLimit);
+    }
 
-      if (refillCallback != null) {
-        refillCallback.onRefill();
+    public <T extends MessageLite> T readMessage(
+        final Parser<T> parser, final ExtensionRegistryLite extensionRegistry) throws IOException {
+      int length = readRawVarint32();
+      checkRecursionLimit();
+      final int oldLimit = pushLimit(length);
+      ++messageDepth;
+      T result = parser.parsePartialFrom(this, extensionRegistry);
+      checkLastTagWas(0);
+      --messageDepth;
+      if (getBytesUntilLimit() != 0) {
+        throw InvalidProtocolBufferException.truncatedMessage();
       }
+      popLimit(oldLimit);
+      return result;
+    }
 
-      int tempPos = pos;
-      if (tempPos > 0) {
-        if (bufferSize > tempPos) {
-          System.arraycopy(buffer, tempPos, buffer, 0, bufferSize - tempPos);
+    public ByteString readBytes() throws IOException {
+      final int size = readRawVarint32();
+      if (size > 0 && size <= currentByteBufferLimit - currentByteBufferPos) {
+        if (immutable && enableAliasing) {
+          final ByteString result =
+              ByteString.wrap(slice(currentByteBufferPos, currentByteBufferPos + size));
+          currentByteBufferPos += size;
+          return result;
         }
-        totalBytesRetired += tempPos;
-        bufferSize -= tempPos;
-        pos = 0;
+        final byte[] bytes = new byte[size];
+        readFromCurrentByteBuffer(bytes, 0, size);
+        return ByteString.wrap(bytes);
       }
+      if (size == 0) {
+        return ByteString.EMPTY;
+      }
+      if (size > 0 && immutable && enableAliasing) {
+        // Alias each buffer the value spans, and join them into a rope.
+        checkAvailable(size);
+        final List<ByteString> pieces = new ArrayList<>();
+        int remaining = size;
+        while (remaining > 0) {
+          if (currentByteBufferPos == currentByteBufferLimit) {
+            requireNextByteBuffer();
+          }
+          final int bytesToRead = Math.min(remaining, currentByteBufferLimit - currentByteBufferPos);
+          pieces.add(
+              ByteString.wrap(slice(currentByteBufferPos, currentByteBufferPos + bytesToRead)));
+          currentByteBufferPos += bytesToRead;
+          remaining -= bytesToRead;
+        }
+        return ByteString.copyFrom(pieces);
+      }
+      // Slow path:  Build a byte array first then copy it.
+      return ByteString.wrap(readRawBytes(size));
+    }
 
-      // Here we should refill the buffer as many bytes as possible.
-      int bytesRead =
-          read(
-              input,
-              buffer,
-              bufferSize,
-              Math.min(
-                  //  the size of allocated but unused bytes in the buffer
-                  buffer.length - bufferSize,
-                  //  do not exceed the total bytes limit
-                  sizeLimit - totalBytesRetired - bufferSize));
-      if (bytesRead == 0 || bytesRead < -1 || bytesRead > buffer.length) {
-        throw new IllegalStateException(
-            input.getClass()
-                + "#read(byte[]) returned invalid result: "
-                + bytesRead
-                + "\nThe InputStream implementation is buggy.");
+    public byte[] readByteArray() throws IOException {
+      final int size = readRawVarint32();
+      return readRawBytes(size);
+    }
+
+    public ByteBuffer readByteBuffer() throws IOException {
+      final int size = readRawVarint32();
+      if (size > 0 && size <= currentByteBufferLimit - currentByteBufferPos) {
+        if (!immutable && enableAliasing) {
+          final ByteBuffer result = slice(currentByteBufferPos, currentByteBufferPos + size);
+          currentByteBufferPos += size;
+          return result;
+        }
       }
-      if (bytesRead > 0) {
-        bufferSize += bytesRead;
-        recomputeBufferSizeAfterLimit();
-        return (bufferSize >= n) || tryRefillBuffer(n);
+
+      if (size == 0) {
+        return EMPTY_BYTE_BUFFER;
       }
+      return StaticImpls.wrap(readRawBytes(size));
+    }
 
-      return false;
+    public int readUInt32() throws IOException {
+      return readRawVarint32();
     }
 
-    public byte readRawByte() throws IOException {
-      if (pos == bufferSize) {
-        refillBuffer(1);
+    public int readEnum() throws IOException {
+      return readRawVarint32();
+    }
+
+    public int readSFixed32() throws IOException {
+      return readRawLittleEndian32();
+    }
+
+    public long readSFixed64() throws IOException {
+      return readRawLittleEndian64();
+    }
+
+    public int readSInt32() throws IOException {
+      return decodeZigZag32(readRawVarint32());
+    }
+
+    public long readSInt64() throws IOException {
+      final int low = readRawVarint64LowBits();
+      return decodeZigZag64(low, lastVarint64HighBits);
+    }
+
+    // =================================================================
+
+    public int readRawVarint32() throws IOException {
+      // See implementation notes for readRawVarint64
+      fastpath:
+      {
+        int tempPos = currentByteBufferPos;
+
+        if (currentByteBufferLimit == tempPos) {
+          break fastpath;
+        }
+
+        final ByteBuffer buffer = currentByteBuffer;
+        int x;
+        if ((x = buffer.get(tempPos++)) >= 0) {
+          currentByteBufferPos = tempPos;
+          return x;
+        } else if (currentByteBufferLimit - tempPos < 9) {
+          break fastpath;
+        } else if ((x ^= (buffer.get(tempPos++) << 7)) < 0) {
+          x ^= (~0 << 7);
+        } else if ((x ^= (buffer.get(tempPos++) << 14)) >= 0) {
+          x ^= (~0 << 7) ^ (~0 << 14);
+        } else if ((x ^= (buffer.get(tempPos++) << 21)) < 0) {
+          x ^= (~0 << 7) ^ (~0 << 14) ^ (~0 << 21);
+        } else {
+          int y = buffer.get(tempPos++);
+          x ^= y << 28;
+          x ^= (~0 << 7) ^ (~0 << 14) ^ (~0 << 21) ^ (~0 << 28);
+          if (y < 0
+              && buffer.get(tempPos++) < 0
+              && buffer.get(tempPos++) < 0
+              && buffer.get(tempPos++) < 0
+              && buffer.get(tempPos++) < 0
+              && buffer.get(tempPos++) < 0) {
+            break fastpath; // Will throw malformedVarint()
+          }
+        }
+        currentByteBufferPos = tempPos;
+        return x;
       }
-      return buffer[pos++];
+      return (int) readRawVarint64SlowPath();
     }
 
-    public byte[] readRawBytes(final int size) throws IOException {
-      final int tempPos = pos;
-      if (size <= (bufferSize - tempPos) && size > 0) {
-        pos = tempPos + size;
-        return Arrays.copyOfRange(buffer, tempPos, tempPos + size);
+    private void skipRawVarint() throws IOException {
+      if (currentByteBufferLimit - currentByteBufferPos >= MAX_VARINT_SIZE) {
+        skipRawVarintFastPath();
       } else {
-        // TODO: Do we want to protect from malicious input streams here?
-        return readRawBytesSlowPath(size, /* ensureNoLeakedReferences= */ false);
+        skipRawVarintSlowPath();
       }
     }
 
-    /**
-     * Exactly like readRawBytes, but caller must have already checked the fast path: (size <=
-     * (bufferSize - pos) && size > 0)
-     *
-     * <p>If ensureNoLeakedReferences is true, the value is guaranteed to have not escaped to
-     * untrusted code.
-     */
-    private byte[] readRawBytesSlowPath(final int size, boolean ensureNoLeakedReferences)
-        throws IOException {
-      // Attempt to read the data in one byte array when it's safe to do.
-      byte[] result = readRawBytesSlowPathOneChunk(size);
-      if (result != null) {
-        return ensureNoLeakedReferences ? com.google.protobuf.gwt.StaticImpls.clone(result) : result;
+    private void skipRawVarintFastPath() throws IOException {
+      for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+        if (currentByteBuffer.get(currentByteBufferPos++) >= 0) {
+          return;
+        }
       }
+      throw InvalidProtocolBufferException.malformedVarint();
+    }
 
-      final int originalBufferPos = pos;
-      final int bufferedBytes = bufferSize - pos;
+    private void skipRawVarintSlowPath() throws IOException {
+      for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+        if (readRawByte() >= 0) {
+          return;
+        }
+      }
+      throw InvalidProtocolBufferException.malformedVarint();
+    }
 
-      // Mark the current buffer consumed.
-      totalBytesRetired += bufferSize;
-      pos = 0;
-      bufferSize = 0;
+    public long readRawVarint64() throws IOException {
+      // Implementation notes:
+      //
+      // Optimized for one-byte values, expected to be common.
+      // The particular code below was selected from various candidates
+      // empirically, by winning VarintBenchmark.
+      //
+      // Sign extension of (signed) Java bytes is usually a nuisance, but
+      // we exploit it here to more easily obtain the sign of bytes read.
+      // Instead of cleaning up the sign extension bits by masking eagerly,
+      // we delay until we find the final (positive) byte, when we clear all
+      // accumulated bits with one xor.  We depend on javac to constant fold.
+      fastpath:
+      {
+        int tempPos = currentByteBufferPos;
 
-      // Determine the number of bytes we need to read from the input stream.
-      int sizeLeft = size - bufferedBytes;
+        if (currentByteBufferLimit == tempPos) {
+          break fastpath;
+        }
 
-      // The size is very large. For security reasons we read them in small
-      // chunks.
-      List<byte[]> chunks = readRawBytesSlowPathRemainingChunks(sizeLeft);
+        final ByteBuffer buffer = currentByteBuffer;
+        long x;
+        int y;
+        if ((y = buffer.get(tempPos++)) >= 0) {
+          currentByteBufferPos = tempPos;
+          return y;
+        } else if (currentByteBufferLimit - tempPos < 9) {
+          break fastpath;
+        } else if ((y ^= (buffer.get(tempPos++) << 7)) < 0) {
+          x = y ^ (~0 << 7);
+        } else if ((y ^= (buffer.get(tempPos++) << 14)) >= 0) {
+          x = y ^ ((~0 << 7) ^ (~0 << 14));
+        } else if ((y ^= (buffer.get(tempPos++) << 21)) < 0) {
+          x = y ^ ((~0 << 7) ^ (~0 << 14) ^ (~0 << 21));
+        } else if ((x = y ^ ((long) buffer.get(tempPos++) << 28)) >= 0L) {
+          x ^= (~0L << 7) ^ (~0L << 14) ^ (~0L << 21) ^ (~0L << 28);
+        } else if ((x ^= ((long) buffer.get(tempPos++) << 35)) < 0L) {
+          x ^= (~0L << 7) ^ (~0L << 14) ^ (~0L << 21) ^ (~0L << 28) ^ (~0L << 35);
+        } else if ((x ^= ((long) buffer.get(tempPos++) << 42)) >= 0L) {
+          x ^= (~0L << 7) ^ (~0L << 14) ^ (~0L << 21) ^ (~0L << 28) ^ (~0L << 35) ^ (~0L << 42);
+        } else if ((x ^= ((long) buffer.get(tempPos++) << 49)) < 0L) {
+          x ^=
+              (~0L << 7)
+                  ^ (~0L << 14)
+                  ^ (~0L << 21)
+                  ^ (~0L << 28)
+                  ^ (~0L << 35)
+                  ^ (~0L << 42)
+                  ^ (~0L << 49);
+        } else {
+          x ^= ((long) buffer.get(tempPos++) << 56);
+          x ^=
+              (~0L << 7)
+                  ^ (~0L << 14)
+                  ^ (~0L << 21)
+                  ^ (~0L << 28)
+                  ^ (~0L << 35)
+                  ^ (~0L << 42)
+                  ^ (~0L << 49)
+                  ^ (~0L << 56);
+          if (x < 0L) {
+            if (buffer.get(tempPos++) < 0L) {
+              break fastpath; // Will throw malformedVarint()
+            }
+          }
+        }
+        currentByteBufferPos = tempPos;
+        return x;
+      }
+      return readRawVarint64SlowPath();
+    }
 
-      // OK, got everything.  Now concatenate it all into one buffer.
-      final byte[] bytes = new byte[size];
+    public int readRawVarint64LowBits() throws IOException {
+      // Same approach as readRawVarint64, but accumulating each half in an int
+      fastpath:
+      {
+        int tempPos = currentByteBufferPos;
+
+        if (currentByteBufferLimit == tempPos) {
+          break fastpath;
+        }
 
-      // Start by copying the leftover bytes from this.buffer.
-      System.arraycopy(buffer, originalBufferPos, bytes, 0, bufferedBytes);
+        final ByteBuffer buffer = currentByteBuffer;
+        int b;
+        if ((b = buffer.get(tempPos++)) >= 0) {
+          currentByteBufferPos = tempPos;
+          lastVarint64HighBits = 0;
+          return b;
+        } else if (currentByteBufferLimit - tempPos < 9) {
+          break fastpath;
+        }
+        int low = b & 0x7F;
+        for (int shift = 7; shift < 28; shift += 7) {
+          low |= ((b = buffer.get(tempPos++)) & 0x7F) << shift;
+          if (b >= 0) {
+            currentByteBufferPos = tempPos;
+            lastVarint64HighBits = 0;
+            return low;
+          }
+        }
+        // The fifth byte straddles both halves
+        low |= ((b = buffer.get(tempPos++)) & 0x7F) << 28;
+        int high = (b & 0x7F) >>> 4;
+        for (int shift = 3; b < 0; shift += 7) {
+          if (shift > 31) {
+            break fastpath; // Will throw malformedVarint()
+          }
+          high |= ((b = buffer.get(tempPos++)) & 0x7F) << shift;
+        }
+        currentByteBufferPos = tempPos;
+        lastVarint64HighBits = high;
+        return low;
+      }
+      return readRawVarint64LowBitsSlowPath();
+    }
 
-      // And now all the chunks.
-      int tempPos = bufferedBytes;
-      for (final byte[] chunk : chunks) {
-        System.arraycopy(chunk, 0, bytes, tempPos, chunk.length);
-        tempPos += chunk.length;
+    long readRawVarint64SlowPath() throws IOException {
+      long result = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        final byte b = readRawByte();
+        result |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return result;
+        }
       }
+      throw InvalidProtocolBufferException.malformedVarint();
+    }
 
-      // Done.
-      return bytes;
+    public int readRawLittleEndian32() throws IOException {
+      int tempPos = currentByteBufferPos;
+
+      if (currentByteBufferLimit - tempPos >= FIXED32_SIZE) {
+        final ByteBuffer buffer = currentByteBuffer;
+        currentByteBufferPos = tempPos + FIXED32_SIZE;
+        return ((buffer.get(tempPos) & 0xff)
+            | ((buffer.get(tempPos + 1) & 0xff) << 8)
+            | ((buffer.get(tempPos + 2) & 0xff) << 16)
+            | ((buffer.get(tempPos + 3) & 0xff) << 24));
+      }
+      // The value straddles two buffers
+      return ((readRawByte() & 0xff)
+          | ((readRawByte() & 0xff) << 8)
+          | ((readRawByte() & 0xff) << 16)
+          | ((readRawByte() & 0xff) << 24));
     }
 
-    /**
-     * Attempts to read the data in one byte array when it's safe to do. Returns null if the size to
-     * read is too large and needs to be allocated in smaller chunks for security reasons.
-     *
-     * <p>Returns a byte[] that may have escaped to user code via InputStream APIs.
-     */
-    private byte[] readRawBytesSlowPathOneChunk(final int size) throws IOException {
-      if (size == 0) {
-        return Internal.EMPTY_BYTE_ARRAY;
+    public long readRawLittleEndian64() throws IOException {
+      int tempPos = currentByteBufferPos;
+
+      if (currentByteBufferLimit - tempPos >= FIXED64_SIZE) {
+        final ByteBuffer buffer = currentByteBuffer;
+        currentByteBufferPos = tempPos + FIXED64_SIZE;
+        return ((buffer.get(tempPos) & 0xffL)
+            | ((buffer.get(tempPos + 1) & 0xffL) << 8)
+            | ((buffer.get(tempPos + 2) & 0xffL) << 16)
+            | ((buffer.get(tempPos + 3) & 0xffL) << 24)
+            | ((buffer.get(tempPos + 4) & 0xffL) << 32)
+            | ((buffer.get(tempPos + 5) & 0xffL) << 40)
+            | ((buffer.get(tempPos + 6) & 0xffL) << 48)
+            | ((buffer.get(tempPos + 7) & 0xffL) << 56));
       }
-      if (size < 0) {
+      // The value straddles two buffers
+      return (readRawLittleEndian32() & 0xffffffffL) | ((long) readRawLittleEndian32() << 32);
+    }
+
+    public void enableAliasing(boolean enabled) {
+      this.enableAliasing = enabled;
+    }
+
+    public void resetSizeCounter() {
+      startOffset = totalBytesRead + currentByteBufferPos - currentByteBufferStartPos;
+    }
+
+    public int pushLimit(int byteLimit) throws InvalidProtocolBufferException {
+      if (byteLimit < 0) {
         throw InvalidProtocolBufferException.negativeSize();
       }
-
-      // Integer-overflow-conscious check that the message size so far has not exceeded sizeLimit.
-      int currentMessageSize = totalBytesRetired + pos + size;
-      if (currentMessageSize - sizeLimit > 0) {
+      byteLimit += getTotalBytesRead();
+      if (byteLimit < 0) {
+        // Check for for integer overflow in byteLimit
         throw InvalidProtocolBufferException.sizeLimitExceeded();
       }
-
-      // Verify that the message size so far has not exceeded currentLimit.
-      if (currentMessageSize > currentLimit) {
-        // Read to the end of the stream anyway.
-        skipRawBytes(currentLimit - totalBytesRetired - pos);
+      final int oldLimit = currentLimit;
+      if (byteLimit > oldLimit) {
         throw InvalidProtocolBufferException.truncatedMessage();
       }
+      currentLimit = byteLimit;
 
-      final int bufferedBytes = bufferSize - pos;
-      // Determine the number of bytes we need to read from the input stream.
-      int sizeLeft = size - bufferedBytes;
-      // TODO: Consider using a value larger than DEFAULT_BUFFER_SIZE.
-      if (sizeLeft < DEFAULT_BUFFER_SIZE || sizeLeft <= available(input)) {
-        // Either the bytes we need are known to be available, or the required buffer is
-        // within an allowed threshold - go ahead and allocate the buffer now.
-        final byte[] bytes = new byte[size];
-
-        // Copy all of the buffered bytes to the result buffer.
-        System.arraycopy(buffer, pos, bytes, 0, bufferedBytes);
-        totalBytesRetired += bufferSize;
-        pos = 0;
-        bufferSize = 0;
-
-        // Fill the remaining bytes from the input stream.
-        int tempPos = bufferedBytes;
-        while (tempPos < bytes.length) {
-          int n = read(input, bytes, tempPos, size - tempPos);
-          if (n == -1) {
-            throw InvalidProtocolBufferException.truncatedMessage();
-          }
-          totalBytesRetired += n;
-          tempPos += n;
-        }
-
-        return bytes;
-      }
+      recomputeByteBufferLimit();
 
-      return null;
+      return oldLimit;
     }
 
-    /**
-     * Reads the remaining data in small chunks from the input stream.
-     *
-     * <p>Returns a byte[] that may have escaped to user code via InputStream APIs.
-     */
-    private List<byte[]> readRawBytesSlowPathRemainingChunks(int sizeLeft) throws IOException {
-      // The size is very large.  For security reasons, we can't allocate the
-      // entire byte array yet.  The size comes directly from the input, so a
-      // maliciously-crafted message could provide a bogus very large size in
-      // order to trick the app into allocating a lot of memory.  We avoid this
-      // by allocating and reading only a small chunk at a time, so that the
-      // malicious message must actually *be* extremely large to cause
-      // problems.  Meanwhile, we limit the allowed size of a message elsewhere.
-      final List<byte[]> chunks = new ArrayList<>();
-
-      while (sizeLeft > 0) {
-        // TODO: Consider using a value larger than DEFAULT_BUFFER_SIZE.
-        final byte[] chunk = new byte[Math.min(sizeLeft, DEFAULT_BUFFER_SIZE)];
-        int tempPos = 0;
-        while (tempPos < chunk.length) {
-          final int n = input.read(chunk, tempPos, chunk.length - tempPos);
-          if (n == -1) {
-            throw InvalidProtocolBufferException.truncatedMessage();
-          }
-          totalBytesRetired += n;
-          tempPos += n;
-        }
-        sizeLeft -= chunk.length;
-        chunks.add(chunk);
+    private void recomputeByteBufferLimit() {
+      currentByteBufferLimit = currentByteBuffer.limit();
+      final int bytesUntilLimit = currentLimit - getTotalBytesRead();
+      if (bytesUntilLimit < currentByteBufferLimit - currentByteBufferPos) {
+        // Limit is in current buffer.
+        currentByteBufferLimit = currentByteBufferPos + bytesUntilLimit;
       }
+    }
 
-      return chunks;
+    public void popLimit(final int oldLimit) {
+      currentLimit = oldLimit;
+      recomputeByteBufferLimit();
     }
 
-    /**
-     * Like readBytes, but caller must have already checked the fast path: (size <= (bufferSize -
-     * pos) && size > 0 || size == 0)
-     */
-    private ByteString readBytesSlowPath(final int size) throws IOException {
-      final byte[] result = readRawBytesSlowPathOneChunk(size);
-      if (result != null) {
-        // We must copy as the byte array was handed off to the InputStream and a malicious
-        // implementation could retain a reference.
-        return ByteString.copyFrom(result);
+    public int getBytesUntilLimit() {
+      if (currentLimit == Integer.MAX_VALUE) {
+        return -1;
       }
 
-      final int originalBufferPos = pos;
-      final int bufferedBytes = bufferSize - pos;
+      return currentLimit - getTotalBytesRead();
+    }
 
-      // Mark the current buffer consumed.
-      totalBytesRetired += bufferSize;
-      pos = 0;
-      bufferSize = 0;
+    public boolean isAtEnd() throws IOException {
+      return currentByteBufferPos == currentByteBufferLimit && !nextByteBuffer();
+    }
 
-      // Determine the number of bytes we need to read from the input stream.
-      int sizeLeft = size - bufferedBytes;
+    @Override
+    boolean checkRawBytesAvailable(final int size) throws IOException {
+      checkAvailable(size);
+      return true;
+    }
 
-      // The size is very large. For security reasons we read them in small
-      // chunks.
-      List<byte[]> chunks = readRawBytesSlowPathRemainingChunks(sizeLeft);
+    public int getTotalBytesRead() {
+      return totalBytesRead - startOffset + currentByteBufferPos - currentByteBufferStartPos;
+    }
 
-      // OK, got everything.  Now concatenate it all into one buffer.
-      final byte[] bytes = new byte[size];
+    public byte readRawByte() throws IOException {
+      if (currentByteBufferPos == currentByteBufferLimit) {
+        requireNextByteBuffer();
+      }
+      return currentByteBuffer.get(currentByteBufferPos++);
+    }
 
-      // Start by copying the leftover bytes from this.buffer.
-      System.arraycopy(buffer, originalBufferPos, bytes, 0, bufferedBytes);
+    public byte[] readRawBytes(final int length) throws IOException {
+      if (length > 0 && length <= currentByteBufferLimit - currentByteBufferPos) {
+        final byte[] bytes = new byte[length];
+        readFromCurrentByteBuffer(bytes, 0, length);
+        return bytes;
+      }
 
-      // And now all the chunks.
-      int tempPos = bufferedBytes;
-      for (final byte[] chunk : chunks) {
-        System.arraycopy(chunk, 0, bytes, tempPos, chunk.length);
-        tempPos += chunk.length;
+      if (length <= 0) {
+        if (length == 0) {
+          return Internal.EMPTY_BYTE_ARRAY;
+        } else {
+          throw InvalidProtocolBufferException.negativeSize();
+        }
       }
 
-      return ByteString.wrap(bytes);
+      // The bytes straddle two or more buffers, copy from each in turn.
+      checkAvailable(length);
+      final byte[] bytes = new byte[length];
+      int offset = 0;
+      while (offset < length) {
+        if (currentByteBufferPos == currentByteBufferLimit) {
+          requireNextByteBuffer();
+        }
+        final int bytesToRead =
+            Math.min(length - offset, currentByteBufferLimit - currentByteBufferPos);
+        readFromCurrentByteBuffer(bytes, offset, bytesToRead);
+        offset += bytesToRead;
+      }
+      return bytes;
     }
 
-    public void skipRawBytes(final int size) throws IOException {
-      if (size <= (bufferSize - pos) && size >= 0) {
+    public void skipRawBytes(final int length) throws IOException {
+      if (length >= 0 && length <= currentByteBufferLimit - currentByteBufferPos) {
         // We have all the bytes we need already.
-        pos += size;
-      } else {
-        skipRawBytesSlowPath(size);
+        currentByteBufferPos += length;
+        return;
       }
-    }
 
-    /**
-     * Exactly like skipRawBytes, but caller must have already checked the fast path: (size <=
-     * (bufferSize - pos) && size >= 0)
-     */
-    private void skipRawBytesSlowPath(final int size) throws IOException {
-      if (size < 0) {
+      if (length < 0) {
         throw InvalidProtocolBufferException.negativeSize();
       }
-
-      if (totalBytesRetired + pos + size > currentLimit) {
-        // Read to the end of the stream anyway.
-        skipRawBytes(currentLimit - totalBytesRetired - pos);
-        // Then fail.
+      if (length > currentLimit - getTotalBytesRead()) {
         throw InvalidProtocolBufferException.truncatedMessage();
       }
-
-      int totalSkipped = 0;
-      if (refillCallback == null) {
-        // Skipping more bytes than are in the buffer.  First skip what we have.
-        totalBytesRetired += pos;
-        totalSkipped = bufferSize - pos;
-        bufferSize = 0;
-        pos = 0;
-
-        try {
-          while (totalSkipped < size) {
-            int toSkip = size - totalSkipped;
-            long skipped = skip(input, toSkip);
-            if (skipped < 0 || skipped > toSkip) {
-              throw new IllegalStateException(
-                  input.getClass()
-                      + "#skip returned invalid result: "
-                      + skipped
-                      + "\nThe InputStream implementation is buggy.");
-            } else if (skipped == 0) {
-              // The API contract of skip() permits an inputstream to skip zero bytes for any reason
-              // it wants. In particular, ByteArrayInputStream will just return zero over and over
-              // when it's at the end of its input. In order to actually confirm that we've hit the
-              // end of input, we need to issue a read call via the other path.
-              break;
-            }
-            totalSkipped += (int) skipped;
-          }
-        } finally {
-          totalBytesRetired += totalSkipped;
-          recomputeBufferSizeAfterLimit();
-        }
-      }
-      if (totalSkipped < size) {
-        // Skipping more bytes than are in the buffer.  First skip what we have.
-        int tempPos = bufferSize - pos;
-        pos = bufferSize;
-
-        // Keep refilling the buffer until we get to the point we wanted to skip to.
-        // This has the side effect of ensuring the limits are updated correctly.
-        refillBuffer(1);
-        while (size - tempPos > bufferSize) {
-          tempPos += bufferSize;
-          pos = bufferSize;
-          refillBuffer(1);
+      int remaining = length;
+      while (remaining > 0) {
+        if (currentByteBufferPos == currentByteBufferLimit) {
+          requireNextByteBuffer();
         }
-
-        pos = size - tempPos;
+        final int bytesToSkip = Math.min(remaining, currentByteBufferLimit - currentByteBufferPos);
+        currentByteBufferPos += bytesToSkip;
+        remaining -= bytesToSkip;
       }
     }
   }
@@ -14,8 +14,15 @@ import static com.google.protobuf.WireFormat.MAX_VARINT_SIZE;
 import static java.lang.Math.max;
 
 import com.google.protobuf.Utf8.UnpairedSurrogateException;
+import com.google.protobuf.gwt.LongBits;
 import com.google.protobuf.gwt.SafeUtil;
 import com.google.protobuf.gwt.StaticImpls;
+import com.google.protobuf.gwt.TypedArrays;
+import com.google.protobuf.gwt.Uint8ArrayOutput;
+import elemental2.core.DataView;
+import elemental2.core.Int8Array;
+import elemental2.core.TypedArray;
+import elemental2.core.Uint8Array;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
@@ -106,6 +113,32 @@ public abstract class CodedOutputStream extends ByteOutput {
     return new ArrayEncoder(flatArray, offset, length);
   }
 
+  /**
+   * Create a new {@code CodedOutputStream} that writes directly to the given typed array. If more
+   * bytes are written than fit in the array, {@link OutOfSpaceException} will be thrown.
+   */
+  public static CodedOutputStream newInstance(final Uint8Array array) {
+    return newInstance(array, 0, array.length);
+  }
+
+  /**
+   * Create a new {@code CodedOutputStream} that writes directly to the given range of a typed
+   * array. If more bytes are written than fit in the range, {@link OutOfSpaceException} will be
+   * thrown.
+   */
+  public static CodedOutputStream newInstance(
+      final Uint8Array array, final int offset, final int length) {
+    return new TypedArrayEncoder(array, offset, length);
+  }
+
+  /**
+   * Create a new {@code CodedOutputStream} that appends directly to the backing array of the given
+   * output, growing it as needed. The bytes are only added to the output by {@link #flush()}.
+   */
+  public static CodedOutputStream newInstance(final Uint8ArrayOutput output) {
+    return new TypedArrayEncoder(output);
+  }
+
   /**
    * Configures serialization to be deterministic.
    *
@@ -219,12 +252,14 @@ public abstract class CodedOutputStream extends ByteOutput {
   }
 
   /** Write a {@code float} field, including tag, to the stream. */
-  public final void writeFloat(final int fieldNumber, final float value) throws IOException {
+  // Not final, so the typed array encoder can write it through a DataView.
+  public void writeFloat(final int fieldNumber, final float value) throws IOException {
     writeFixed32(fieldNumber, StaticImpls.floatToRawIntBits(value));
   }
 
   /** Write a {@code double} field, including tag, to the stream. */
-  public final void writeDouble(final int fieldNumber, final double value) throws IOException {
+  // Not final, so the typed array encoder can write it through a DataView.
+  public void writeDouble(final int fieldNumber, final double value) throws IOException {
     writeFixed64(fieldNumber, Numbers.doubleToRawLongBits(value));
   }
 
@@ -303,6 +338,30 @@ public abstract class CodedOutputStream extends ByteOutput {
   // Abstract to avoid overhead of additional virtual method calls.
   public abstract void writeRawBytes(final ByteBuffer value) throws IOException;
 
+  /**
+   * Write the elements of a typed array as little-endian values, which is the body of a packed
+   * repeated field of a fixed-width type: a {@link elemental2.core.Float64Array} for {@code
+   * double}, a {@link elemental2.core.Float32Array} for {@code float}, an {@link
+   * elemental2.core.Int32Array} for {@code fixed32} and {@code sfixed32}, or an {@code Int32Array}
+   * of low and high halves for {@code fixed64} and {@code sfixed64}, as returned by {@link
+   * Int32PairArrayList#asInt32Array()}. Writing to a typed array is a single copy.
+   */
+  public void writeRawTypedArray(final TypedArray values) throws IOException {
+    final Int8Array bytes = TypedArrays.littleEndianBytes(values);
+    write(TypedArrays.copyOfRange(bytes, 0, bytes.length), 0, bytes.length);
+  }
+
+  /**
+   * Write a packed repeated field of a fixed-width type, including tag and length, whose values
+   * are the elements of a typed array. See {@link #writeRawTypedArray}.
+   */
+  public final void writePackedTypedArray(final int fieldNumber, final TypedArray values)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    writeUInt32NoTag(values.byteLength);
+    writeRawTypedArray(values);
+  }
+
   /** Write an embedded message field, including tag, to the stream. */
   // Abstract to avoid overhead of additional virtual method calls.
   public abstract void writeMessage(final int fieldNumber, final MessageLite value)
@@ -372,12 +431,14 @@ public abstract class CodedOutputStream extends ByteOutput {
   }
 
   /** Write a {@code float} field to the stream. */
-  public final void writeFloatNoTag(final float value) throws IOException {
+  // Not final, so the typed array encoder can write it through a DataView.
+  public void writeFloatNoTag(final float value) throws IOException {
     writeFixed32NoTag(StaticImpls.floatToRawIntBits(value));
   }
 
   /** Write a {@code double} field to the stream. */
-  public final void writeDoubleNoTag(final double value) throws IOException {
+  // Not final, so the typed array encoder can write it through a DataView.
+  public void writeDoubleNoTag(final double value) throws IOException {
     writeFixed64NoTag(Numbers.doubleToRawLongBits(value));
   }
 
@@ -412,6 +473,187 @@ public abstract class CodedOutputStream extends ByteOutput {
   // Abstract to avoid overhead of additional virtual method calls.
   public abstract void writeMessageNoTag(final MessageLite value) throws IOException;
 
+  // -----------------------------------------------------------------
+  // Variants of the 64-bit integer writes for fields with a jstype of JS_NUMBER or JS_STRING, which
+  // take the value as a JS number or a decimal string and split it into its two 32-bit halves with
+  // LongBits, so that no long is created. Signed and unsigned values give the same bits either way.
+
+  /**
+   * Write a {@code uint64} field to the stream, given as its low and high 32 bits, without using
+   * {@code long} arithmetic.
+   */
+  public final void writeUInt64BitsNoTag(int low, int high) throws IOException {
+    if (high == 0) {
+      writeUInt32NoTag(low);
+      return;
+    }
+    do {
+      write((byte) ((low & 0x7F) | 0x80));
+      low = (low >>> 7) | (high << 25);
+      high >>>= 7;
+    } while (high != 0 || (low & ~0x7F) != 0);
+    write((byte) low);
+  }
+
+  /** Write an {@code sint64} field to the stream, given as its low and high 32 bits. */
+  public final void writeSInt64BitsNoTag(final int low, final int high) throws IOException {
+    // ZigZag encoding, as in encodeZigZag64(long)
+    final int sign = high >> 31;
+    writeUInt64BitsNoTag((low << 1) ^ sign, ((high << 1) | (low >>> 31)) ^ sign);
+  }
+
+  /** Write a {@code fixed64} field to the stream, given as its low and high 32 bits. */
+  // Not final, so the typed array encoder can write it through a DataView.
+  public void writeFixed64BitsNoTag(final int low, final int high) throws IOException {
+    writeFixed32NoTag(low);
+    writeFixed32NoTag(high);
+  }
+
+  /**
+   * Write an {@code int64} field, including tag, to the stream, given as a JS number. See {@link
+   * LongBits#splitNumber}.
+   */
+  public final void writeInt64Number(final int fieldNumber, final double value)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    writeInt64NumberNoTag(value);
+  }
+
+  /** Write an {@code int64} field, including tag, to the stream, given as a decimal string. */
+  public final void writeInt64String(final int fieldNumber, final String value)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    writeInt64StringNoTag(value);
+  }
+
+  /** Write an {@code int64} field to the stream, given as a JS number. */
+  public final void writeInt64NumberNoTag(final double value) throws IOException {
+    final int low = LongBits.splitNumber(value);
+    writeUInt64BitsNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /** Write an {@code int64} field to the stream, given as a decimal string. */
+  public final void writeInt64StringNoTag(final String value) throws IOException {
+    final int low = LongBits.splitDecimalString(value);
+    writeUInt64BitsNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /**
+   * Write a {@code uint64} field, including tag, to the stream, given as a JS number. See {@link
+   * LongBits#splitNumber}.
+   */
+  public final void writeUInt64Number(final int fieldNumber, final double value)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    writeUInt64NumberNoTag(value);
+  }
+
+  /** Write a {@code uint64} field, including tag, to the stream, given as a decimal string. */
+  public final void writeUInt64String(final int fieldNumber, final String value)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    writeUInt64StringNoTag(value);
+  }
+
+  /** Write a {@code uint64} field to the stream, given as a JS number. */
+  public final void writeUInt64NumberNoTag(final double value) throws IOException {
+    final int low = LongBits.splitNumber(value);
+    writeUInt64BitsNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /** Write a {@code uint64} field to the stream, given as a decimal string. */
+  public final void writeUInt64StringNoTag(final String value) throws IOException {
+    final int low = LongBits.splitDecimalString(value);
+    writeUInt64BitsNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /**
+   * Write an {@code sint64} field, including tag, to the stream, given as a JS number. See {@link
+   * LongBits#splitNumber}.
+   */
+  public final void writeSInt64Number(final int fieldNumber, final double value)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    writeSInt64NumberNoTag(value);
+  }
+
+  /** Write an {@code sint64} field, including tag, to the stream, given as a decimal string. */
+  public final void writeSInt64String(final int fieldNumber, final String value)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+    writeSInt64StringNoTag(value);
+  }
+
+  /** Write an {@code sint64} field to the stream, given as a JS number. */
+  public final void writeSInt64NumberNoTag(final double value) throws IOException {
+    final int low = LongBits.splitNumber(value);
+    writeSInt64BitsNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /** Write an {@code sint64} field to the stream, given as a decimal string. */
+  public final void writeSInt64StringNoTag(final String value) throws IOException {
+    final int low = LongBits.splitDecimalString(value);
+    writeSInt64BitsNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /**
+   * Write a {@code fixed64} field, including tag, to the stream, given as a JS number. See {@link
+   * LongBits#splitNumber}.
+   */
+  public final void writeFixed64Number(final int fieldNumber, final double value)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_FIXED64);
+    writeFixed64NumberNoTag(value);
+  }
+
+  /** Write a {@code fixed64} field, including tag, to the stream, given as a decimal string. */
+  public final void writeFixed64String(final int fieldNumber, final String value)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_FIXED64);
+    writeFixed64StringNoTag(value);
+  }
+
+  /** Write a {@code fixed64} field to the stream, given as a JS number. */
+  public final void writeFixed64NumberNoTag(final double value) throws IOException {
+    final int low = LongBits.splitNumber(value);
+    writeFixed64BitsNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /** Write a {@code fixed64} field to the stream, given as a decimal string. */
+  public final void writeFixed64StringNoTag(final String value) throws IOException {
+    final int low = LongBits.splitDecimalString(value);
+    writeFixed64BitsNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /**
+   * Write an {@code sfixed64} field, including tag, to the stream, given as a JS number. See {@link
+   * LongBits#splitNumber}.
+   */
+  public final void writeSFixed64Number(final int fieldNumber, final double value)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_FIXED64);
+    writeSFixed64NumberNoTag(value);
+  }
+
+  /** Write an {@code sfixed64} field, including tag, to the stream, given as a decimal string. */
+  public final void writeSFixed64String(final int fieldNumber, final String value)
+      throws IOException {
+    writeTag(fieldNumber, WireFormat.WIRETYPE_FIXED64);
+    writeSFixed64StringNoTag(value);
+  }
+
+  /** Write an {@code sfixed64} field to the stream, given as a JS number. */
+  public final void writeSFixed64NumberNoTag(final double value) throws IOException {
+    final int low = LongBits.splitNumber(value);
+    writeFixed64BitsNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /** Write an {@code sfixed64} field to the stream, given as a decimal string. */
+  public final void writeSFixed64StringNoTag(final String value) throws IOException {
+    final int low = LongBits.splitDecimalString(value);
+    writeFixed64BitsNoTag(low, LongBits.getLastHighBits());
+  }
+
   // =================================================================
 
   @ExperimentalApi
@@ -733,6 +975,129 @@ public abstract class CodedOutputStream extends ByteOutput {
     return FIXED64_SIZE;
   }
 
+  /**
+   * Compute the number of bytes that would be needed to encode a {@code uint64} field given as its
+   * low and high 32 bits.
+   */
+  public static int computeUInt64BitsSizeNoTag(final int low, final int high) {
+    if (high == 0) {
+      return computeUInt32SizeNoTag(low);
+    }
+    // See computeUInt32SizeNoTag for explanation
+    return ((Long.SIZE * 9 + (1 << 6)) - (Integer.numberOfLeadingZeros(high) * 9)) >>> 6;
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode an {@code sint64} field given as its
+   * low and high 32 bits.
+   */
+  public static int computeSInt64BitsSizeNoTag(final int low, final int high) {
+    final int sign = high >> 31;
+    return computeUInt64BitsSizeNoTag((low << 1) ^ sign, ((high << 1) | (low >>> 31)) ^ sign);
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode an {@code int64} field given as a JS
+   * number, including tag.
+   */
+  public static int computeInt64NumberSize(final int fieldNumber, final double value) {
+    return computeTagSize(fieldNumber) + computeInt64NumberSizeNoTag(value);
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode an {@code int64} field given as a
+   * decimal string, including tag.
+   */
+  public static int computeInt64StringSize(final int fieldNumber, final String value) {
+    return computeTagSize(fieldNumber) + computeInt64StringSizeNoTag(value);
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode an {@code int64} field given as a JS
+   * number.
+   */
+  public static int computeInt64NumberSizeNoTag(final double value) {
+    final int low = LongBits.splitNumber(value);
+    return computeUInt64BitsSizeNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode an {@code int64} field given as a
+   * decimal string.
+   */
+  public static int computeInt64StringSizeNoTag(final String value) {
+    final int low = LongBits.splitDecimalString(value);
+    return computeUInt64BitsSizeNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode a {@code uint64} field given as a JS
+   * number, including tag.
+   */
+  public static int computeUInt64NumberSize(final int fieldNumber, final double value) {
+    return computeTagSize(fieldNumber) + computeUInt64NumberSizeNoTag(value);
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode a {@code uint64} field given as a
+   * decimal string, including tag.
+   */
+  public static int computeUInt64StringSize(final int fieldNumber, final String value) {
+    return computeTagSize(fieldNumber) + computeUInt64StringSizeNoTag(value);
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode a {@code uint64} field given as a JS
+   * number.
+   */
+  public static int computeUInt64NumberSizeNoTag(final double value) {
+    final int low = LongBits.splitNumber(value);
+    return computeUInt64BitsSizeNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode a {@code uint64} field given as a
+   * decimal string.
+   */
+  public static int computeUInt64StringSizeNoTag(final String value) {
+    final int low = LongBits.splitDecimalString(value);
+    return computeUInt64BitsSizeNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode an {@code sint64} field given as a
+   * JS number, including tag.
+   */
+  public static int computeSInt64NumberSize(final int fieldNumber, final double value) {
+    return computeTagSize(fieldNumber) + computeSInt64NumberSizeNoTag(value);
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode an {@code sint64} field given as a
+   * decimal string, including tag.
+   */
+  public static int computeSInt64StringSize(final int fieldNumber, final String value) {
+    return computeTagSize(fieldNumber) + computeSInt64StringSizeNoTag(value);
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode an {@code sint64} field given as a
+   * JS number.
+   */
+  public static int computeSInt64NumberSizeNoTag(final double value) {
+    final int low = LongBits.splitNumber(value);
+    return computeSInt64BitsSizeNoTag(low, LongBits.getLastHighBits());
+  }
+
+  /**
+   * Compute the number of bytes that would be needed to encode an {@code sint64} field given as a
+   * decimal string.
+   */
+  public static int computeSInt64StringSizeNoTag(final String value) {
+    final int low = LongBits.splitDecimalString(value);
+    return computeSInt64BitsSizeNoTag(low, LongBits.getLastHighBits());
+  }
+
   /**
    * Compute the number of bytes that would be needed to encode a {@code float} field, including
    * tag.
@@ -1312,6 +1677,12 @@ public abstract class CodedOutputStream extends ByteOutput {
     public final void writeStringNoTag(String value) throws IOException {
       final int oldPosition = position;
       try {
+        if (Utf8.TextEncoderBuffer.shouldEncode(value)) {
+          // The browser encodes the string and counts its bytes in one pass.
+          writeUInt32NoTag(Utf8.TextEncoderBuffer.encode(value));
+          position = Utf8.TextEncoderBuffer.copyEncoded(value, buffer, position, spaceLeft());
+          return;
+        }
         // UTF-8 byte length of the string is at least its UTF-16 code unit length (value.length()),
         // and at most 3 times of it. We take advantage of this in both branches below.
         final int maxLength = value.length() * Utf8.MAX_BYTES_PER_CHAR;
@@ -1354,6 +1725,361 @@ public abstract class CodedOutputStream extends ByteOutput {
       return position - offset;
     }
   }
+  /**
+   * A {@link CodedOutputStream} that writes directly to a {@link Uint8Array}, either a fixed range
+   * of one or the backing array of a {@link Uint8ArrayOutput}, which grows as needed. The bytes
+   * written to a {@link Uint8ArrayOutput} are only visible to it once {@link #flush()} is called.
+   */
+  private static final class TypedArrayEncoder extends CodedOutputStream {
+    // Uint8ArrayOutput is not part of protobuf-java, see the README
+    private final Uint8ArrayOutput output;
+    private Uint8Array buffer;
+    // Writes the fixed-width values in place, so they never go through long bits
+    private DataView view;
+    private final int offset;
+    private int limit;
+    private int position;
+
+    TypedArrayEncoder(Uint8Array buffer, int offset, int length) {
+      if (buffer == null) {
+        throw new NullPointerException("buffer");
+      }
+      if ((offset | length | (buffer.length - (offset + length))) < 0) {
+        throw new IllegalArgumentException(
+            "Array range is invalid. Buffer.length=" + buffer.length + ", offset=" + offset + ", length=" + length + "");
+      }
+      this.output = null;
+      setBuffer(buffer);
+      this.offset = offset;
+      position = offset;
+      limit = offset + length;
+    }
+
+    TypedArrayEncoder(Uint8ArrayOutput output) {
+      if (output == null) {
+        throw new NullPointerException("output");
+      }
+      this.output = output;
+      setBuffer(output.ensureCapacity(output.size()));
+      offset = output.size();
+      position = offset;
+      limit = buffer.length;
+    }
+
+    /**
+     * Makes room for the given number of bytes, growing the output's array if there is one.
+     */
+    private void require(int length) throws OutOfSpaceException {
+      if (limit - position < length) {
+        if (output == null) {
+          throw new OutOfSpaceException(position, limit, length);
+        }
+        setBuffer(output.ensureCapacity(position + length));
+        limit = buffer.length;
+      }
+    }
+
+    private void setBuffer(Uint8Array buffer) {
+      this.buffer = buffer;
+      view = new DataView(buffer.buffer, buffer.byteOffset, buffer.byteLength);
+    }
+
+    public void writeTag(final int fieldNumber, final int wireType) throws IOException {
+      writeUInt32NoTag(WireFormat.makeTag(fieldNumber, wireType));
+    }
+
+    public void writeInt32(final int fieldNumber, final int value) throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+      writeInt32NoTag(value);
+    }
+
+    public void writeUInt32(final int fieldNumber, final int value) throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+      writeUInt32NoTag(value);
+    }
+
+    public void writeFixed32(final int fieldNumber, final int value) throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_FIXED32);
+      writeFixed32NoTag(value);
+    }
+
+    public void writeUInt64(final int fieldNumber, final long value) throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+      writeUInt64NoTag(value);
+    }
+
+    public void writeFixed64(final int fieldNumber, final long value) throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_FIXED64);
+      writeFixed64NoTag(value);
+    }
+
+    public void writeBool(final int fieldNumber, final boolean value) throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_VARINT);
+      write((byte) (value ? 1 : 0));
+    }
+
+    public void writeString(final int fieldNumber, final String value) throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      writeStringNoTag(value);
+    }
+
+    public void writeBytes(final int fieldNumber, final ByteString value) throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      writeBytesNoTag(value);
+    }
+
+    public void writeByteArray(final int fieldNumber, final byte[] value) throws IOException {
+      writeByteArray(fieldNumber, value, 0, value.length);
+    }
+
+    public void writeByteArray(
+        final int fieldNumber, final byte[] value, final int offset, final int length)
+        throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      writeByteArrayNoTag(value, offset, length);
+    }
+
+    public void writeByteBuffer(final int fieldNumber, final ByteBuffer value)
+        throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      writeUInt32NoTag(value.capacity());
+      writeRawBytes(value);
+    }
+
+    public void writeBytesNoTag(final ByteString value) throws IOException {
+      writeUInt32NoTag(value.size());
+      value.writeTo(this);
+    }
+
+    public void writeByteArrayNoTag(final byte[] value, int offset, int length)
+        throws IOException {
+      writeUInt32NoTag(length);
+      write(value, offset, length);
+    }
+
+    public void writeRawBytes(final ByteBuffer value) throws IOException {
+      ByteBuffer duplicated = value.duplicate();
+      Java8Compatibility.clear(duplicated);
+      write(duplicated);
+    }
+
+    public void writeMessage(final int fieldNumber, final MessageLite value)
+        throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      writeMessageNoTag(value);
+    }
+
+    public void writeMessageSetExtension(final int fieldNumber, final MessageLite value)
+        throws IOException {
+      writeTag(WireFormat.MESSAGE_SET_ITEM, WireFormat.WIRETYPE_START_GROUP);
+      writeUInt32(WireFormat.MESSAGE_SET_TYPE_ID, fieldNumber);
+      writeMessage(WireFormat.MESSAGE_SET_MESSAGE, value);
+      writeTag(WireFormat.MESSAGE_SET_ITEM, WireFormat.WIRETYPE_END_GROUP);
+    }
+
+    public void writeRawMessageSetExtension(final int fieldNumber, final ByteString value)
+        throws IOException {
+      writeTag(WireFormat.MESSAGE_SET_ITEM, WireFormat.WIRETYPE_START_GROUP);
+      writeUInt32(WireFormat.MESSAGE_SET_TYPE_ID, fieldNumber);
+      writeBytes(WireFormat.MESSAGE_SET_MESSAGE, value);
+      writeTag(WireFormat.MESSAGE_SET_ITEM, WireFormat.WIRETYPE_END_GROUP);
+    }
+
+    public void writeMessageNoTag(final MessageLite value) throws IOException {
+      writeUInt32NoTag(value.getSerializedSize());
+      value.writeTo(this);
+    }
+
+    public void write(byte value) throws IOException {
+      require(1);
+      buffer.setAt(position++, (double) (value & 0xFF));
+    }
+
+    public void writeInt32NoTag(int value) throws IOException {
+      if (value >= 0) {
+        writeUInt32NoTag(value);
+      } else {
+        // Must sign-extend.
+        writeUInt64NoTag(value);
+      }
+    }
+
+    public void writeUInt32NoTag(int value) throws IOException {
+      require(computeUInt32SizeNoTag(value));
+      int position = this.position; // Perf: hoist field to register to avoid load/stores.
+      while ((value & ~0x7F) != 0) {
+        buffer.setAt(position++, (double) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      buffer.setAt(position++, (double) value);
+      this.position = position;
+    }
+
+    public void writeFixed32NoTag(int value) throws IOException {
+      require(FIXED32_SIZE);
+      view.setInt32(position, value, true);
+      position += FIXED32_SIZE;
+    }
+
+    public void writeUInt64NoTag(long value) throws IOException {
+      require(computeUInt64SizeNoTag(value));
+      int position = this.position; // Perf: hoist field to register to avoid load/stores.
+      while ((value & ~0x7FL) != 0) {
+        buffer.setAt(position++, (double) (((int) value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      buffer.setAt(position++, (double) (int) value);
+      this.position = position;
+    }
+
+    public void writeFixed64NoTag(long value) throws IOException {
+      writeFixed64BitsNoTag((int) value, (int) (value >> 32));
+    }
+
+    @Override
+    public void writeFixed64BitsNoTag(final int low, final int high) throws IOException {
+      require(FIXED64_SIZE);
+      view.setInt32(position, low, true);
+      view.setInt32(position + FIXED32_SIZE, high, true);
+      position += FIXED64_SIZE;
+    }
+
+    @Override
+    public void writeFloat(final int fieldNumber, final float value) throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_FIXED32);
+      writeFloatNoTag(value);
+    }
+
+    @Override
+    public void writeDouble(final int fieldNumber, final double value) throws IOException {
+      writeTag(fieldNumber, WireFormat.WIRETYPE_FIXED64);
+      writeDoubleNoTag(value);
+    }
+
+    @Override
+    public void writeFloatNoTag(final float value) throws IOException {
+      require(FIXED32_SIZE);
+      view.setFloat32(position, value, true);
+      position += FIXED32_SIZE;
+    }
+
+    @Override
+    public void writeDoubleNoTag(final double value) throws IOException {
+      require(FIXED64_SIZE);
+      view.setFloat64(position, value, true);
+      position += FIXED64_SIZE;
+    }
+
+    @Override
+    public void writeRawTypedArray(final TypedArray values) throws IOException {
+      final int length = values.byteLength;
+      require(length);
+      if (TypedArrays.LITTLE_ENDIAN) {
+        buffer.set(new Uint8Array(values.buffer, values.byteOffset, length), position);
+      } else {
+        buffer.set(TypedArrays.littleEndianBytes(values), position);
+      }
+      position += length;
+    }
+
+    public void write(byte[] value, int offset, int length) throws IOException {
+      if ((offset | length | (value.length - (offset + length))) < 0) {
+        throw new IndexOutOfBoundsException(
+            "value.length=" + value.length + ", offset=" + offset + ", length=" + length);
+      }
+      require(length);
+      for (int i = 0; i < length; i++) {
+        buffer.setAt(position + i, (double) (value[offset + i] & 0xFF));
+      }
+      position += length;
+    }
+
+    public void writeLazy(byte[] value, int offset, int length) throws IOException {
+      write(value, offset, length);
+    }
+
+    public void write(ByteBuffer value) throws IOException {
+      final int length = value.remaining();
+      require(length);
+      for (int i = 0; i < length; i++) {
+        buffer.setAt(position + i, (double) (value.get() & 0xFF));
+      }
+      position += length;
+    }
+
+    public void writeLazy(ByteBuffer value) throws IOException {
+      write(value);
+    }
+
+    public void writeStringNoTag(String value) throws IOException {
+      final int oldPosition = position;
+      try {
+        if (Utf8.TextEncoderBuffer.shouldEncode(value)) {
+          // UTF-8 byte length of the string is at most 3 times its UTF-16 code unit length.
+          final int maxLength = value.length() * Utf8.MAX_BYTES_PER_CHAR;
+          final int maxLengthVarIntSize = computeUInt32SizeNoTag(maxLength);
+          if (output == null && limit - position < maxLengthVarIntSize + maxLength) {
+            // No room for the longest possible encoding, so encode it aside and copy it in
+            final int length = Utf8.TextEncoderBuffer.encode(value);
+            writeUInt32NoTag(length);
+            require(length);
+            position = Utf8.TextEncoderBuffer.copyEncoded(buffer, position);
+            return;
+          }
+          require(maxLengthVarIntSize + maxLength);
+          // Encode after the longest possible length, then move the bytes back if the actual
+          // length turns out to be shorter.
+          final int start = position + maxLengthVarIntSize;
+          final int length = Utf8.TextEncoderBuffer.encodeInto(value, buffer, start);
+          writeUInt32NoTag(length);
+          if (position != start) {
+            buffer.copyWithin(position, start, start + length);
+          }
+          position += length;
+          return;
+        }
+        final int length = Utf8.encodedLength(value);
+        writeUInt32NoTag(length);
+        if (length == value.length()) {
+          // ASCII, which is most short strings, needs no encoding
+          require(length);
+          for (int i = 0; i < length; i++) {
+            buffer.setAt(position + i, (double) value.charAt(i));
+          }
+          position += length;
+        } else {
+          final byte[] encodedBytes = new byte[length];
+          Utf8.encode(value, encodedBytes, 0, length);
+          write(encodedBytes, 0, length);
+        }
+      } catch (UnpairedSurrogateException e) {
+        // Roll back the change - we fall back to inefficient path.
+        position = oldPosition;
+
+        // TODO: We should throw an IOException here instead.
+        inefficientWriteStringNoTag(value, e);
+      }
+    }
+
+    public void flush() {
+      if (output != null) {
+        output.setSize(position);
+      }
+    }
+
+    public int spaceLeft() {
+      if (output != null) {
+        throw new UnsupportedOperationException(
+            "spaceLeft() can only be called on CodedOutputStreams that are "
+                + "writing to a flat array or ByteBuffer.");
+      }
+      return limit - position;
+    }
+
+    public int getTotalBytesWritten() {
+      return position - offset;
+    }
+  }
 
   /** Abstract base class for buffered encoders. */
   private abstract static class AbstractBufferedEncoder extends CodedOutputStream {
@@ -1714,7 +2440,13 @@ public abstract class CodedOutputStream extends ByteOutput {
         // this saves a pass for measuring the length of the string.
         final int minLengthVarIntSize = computeUInt32SizeNoTag(value.length());
 
-        if (minLengthVarIntSize == maxLengthVarIntSize) {
+        if (Utf8.TextEncoderBuffer.shouldEncode(value)) {
+          // The browser encodes the string and counts its bytes in one pass.
+          int length = Utf8.TextEncoderBuffer.encode(value);
+          bufferUInt32NoTag(length);
+          position = Utf8.TextEncoderBuffer.copyEncoded(value, buffer, position, limit - position);
+          totalBytesWritten += length;
+        } else if (minLengthVarIntSize == maxLengthVarIntSize) {
           position = oldPosition + minLengthVarIntSize;
           int newPosition = Utf8.encode(value, buffer, position, limit - position);
           // Since this class is stateful and tracks the position, we rewind and store the state,
@@ -1985,7 +2717,13 @@ public abstract class CodedOutputStream extends ByteOutput {
         int oldPosition = position;
         final int length;
         try {
-          if (minLengthVarIntSize == maxLengthVarIntSize) {
+          if (Utf8.TextEncoderBuffer.shouldEncode(value)) {
+            // The browser encodes the string and counts its bytes in one pass.
+            length = Utf8.TextEncoderBuffer.encode(value);
+            bufferUInt32NoTag(length);
+            position =
+                Utf8.TextEncoderBuffer.copyEncoded(value, buffer, position, limit - position);
+          } else if (minLengthVarIntSize == maxLengthVarIntSize) {
             position = oldPosition + minLengthVarIntSize;
             int newPosition = Utf8.encode(value, buffer, position, limit - position);
             // Since this class is stateful and tracks the position, we rewind and store the
@@ -4047,6 +4047,453 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<FileDescriptorProto, FileDescriptorProto.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(FileDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getName();
+         case 1:
+           return message.getPackage();
+         case 2:
+           return message.getDependencyList();
+         case 3:
+           return message.getPublicDependencyList();
+         case 4:
+           return message.getWeakDependencyList();
+         case 5:
+           return message.getOptionDependencyList();
+         case 6:
+           return message.getMessageTypeList();
+         case 7:
+           return message.getEnumTypeList();
+         case 8:
+           return message.getServiceList();
+         case 9:
+           return message.getExtensionList();
+         case 10:
+           return message.getOptions();
+         case 11:
+           return message.getSourceCodeInfo();
+         case 12:
+           return message.getSyntax();
+         case 13:
+           return message.getEdition().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(FileDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getName();
+         case 1:
+           return builder.getPackage();
+         case 2:
+           return builder.getDependencyList();
+         case 3:
+           return builder.getPublicDependencyList();
+         case 4:
+           return builder.getWeakDependencyList();
+         case 5:
+           return builder.getOptionDependencyList();
+         case 6:
+           return builder.getMessageTypeList();
+         case 7:
+           return builder.getEnumTypeList();
+         case 8:
+           return builder.getServiceList();
+         case 9:
+           return builder.getExtensionList();
+         case 10:
+           return builder.getOptions();
+         case 11:
+           return builder.getSourceCodeInfo();
+         case 12:
+           return builder.getSyntax();
+         case 13:
+           return builder.getEdition().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRaw(FileDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getNameBytes();
+         case 1:
+           return message.getPackageBytes();
+         case 12:
+           return message.getSyntaxBytes();
+         default:
+           return get(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FileDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasName();
+         case 1:
+           return message.hasPackage();
+         case 10:
+           return message.hasOptions();
+         case 11:
+           return message.hasSourceCodeInfo();
+         case 12:
+           return message.hasSyntax();
+         case 13:
+           return message.hasEdition();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FileDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasName();
+         case 1:
+           return builder.hasPackage();
+         case 10:
+           return builder.hasOptions();
+         case 11:
+           return builder.hasSourceCodeInfo();
+         case 12:
+           return builder.hasSyntax();
+         case 13:
+           return builder.hasEdition();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(FileDescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setName((java.lang.String) value);
+           break;
+         case 1:
+           builder.setPackage((java.lang.String) value);
+           break;
+         case 2:
+           builder.clearDependency();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 3:
+           builder.clearPublicDependency();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 4:
+           builder.clearWeakDependency();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 5:
+           builder.clearOptionDependency();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 6:
+           builder.clearMessageType();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 7:
+           builder.clearEnumType();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 8:
+           builder.clearService();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 9:
+           builder.clearExtension();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 10:
+           builder.setOptions(message(com.google.protobuf.DescriptorProtos.FileOptions.getDefaultInstance(), value));
+           break;
+         case 11:
+           builder.setSourceCodeInfo(message(com.google.protobuf.DescriptorProtos.SourceCodeInfo.getDefaultInstance(), value));
+           break;
+         case 12:
+           builder.setSyntax((java.lang.String) value);
+           break;
+         case 13:
+           builder.setEdition(com.google.protobuf.DescriptorProtos.Edition.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(FileDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearName();
+           break;
+         case 1:
+           builder.clearPackage();
+           break;
+         case 2:
+           builder.clearDependency();
+           break;
+         case 3:
+           builder.clearPublicDependency();
+           break;
+         case 4:
+           builder.clearWeakDependency();
+           break;
+         case 5:
+           builder.clearOptionDependency();
+           break;
+         case 6:
+           builder.clearMessageType();
+           break;
+         case 7:
+           builder.clearEnumType();
+           break;
+         case 8:
+           builder.clearService();
+           break;
+         case 9:
+           builder.clearExtension();
+           break;
+         case 10:
+           builder.clearOptions();
+           break;
+         case 11:
+           builder.clearSourceCodeInfo();
+           break;
+         case 12:
+           builder.clearSyntax();
+           break;
+         case 13:
+           builder.clearEdition();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(FileDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return message.getDependencyCount();
+         case 3:
+           return message.getPublicDependencyCount();
+         case 4:
+           return message.getWeakDependencyCount();
+         case 5:
+           return message.getOptionDependencyCount();
+         case 6:
+           return message.getMessageTypeCount();
+         case 7:
+           return message.getEnumTypeCount();
+         case 8:
+           return message.getServiceCount();
+         case 9:
+           return message.getExtensionCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(FileDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return builder.getDependencyCount();
+         case 3:
+           return builder.getPublicDependencyCount();
+         case 4:
+           return builder.getWeakDependencyCount();
+         case 5:
+           return builder.getOptionDependencyCount();
+         case 6:
+           return builder.getMessageTypeCount();
+         case 7:
+           return builder.getEnumTypeCount();
+         case 8:
+           return builder.getServiceCount();
+         case 9:
+           return builder.getExtensionCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(FileDescriptorProto message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 2:
+           return message.getDependency(index);
+         case 3:
+           return message.getPublicDependency(index);
+         case 4:
+           return message.getWeakDependency(index);
+         case 5:
+           return message.getOptionDependency(index);
+         case 6:
+           return message.getMessageType(index);
+         case 7:
+           return message.getEnumType(index);
+         case 8:
+           return message.getService(index);
+         case 9:
+           return message.getExtension(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(FileDescriptorProto.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 2:
+           return builder.getDependency(index);
+         case 3:
+           return builder.getPublicDependency(index);
+         case 4:
+           return builder.getWeakDependency(index);
+         case 5:
+           return builder.getOptionDependency(index);
+         case 6:
+           return builder.getMessageType(index);
+         case 7:
+           return builder.getEnumType(index);
+         case 8:
+           return builder.getService(index);
+         case 9:
+           return builder.getExtension(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(FileDescriptorProto.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 2:
+           builder.setDependency(index, (java.lang.String) value);
+           break;
+         case 3:
+           builder.setPublicDependency(index, (java.lang.Integer) value);
+           break;
+         case 4:
+           builder.setWeakDependency(index, (java.lang.Integer) value);
+           break;
+         case 5:
+           builder.setOptionDependency(index, (java.lang.String) value);
+           break;
+         case 6:
+           builder.setMessageType(index, message(com.google.protobuf.DescriptorProtos.DescriptorProto.getDefaultInstance(), value));
+           break;
+         case 7:
+           builder.setEnumType(index, message(com.google.protobuf.DescriptorProtos.EnumDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 8:
+           builder.setService(index, message(com.google.protobuf.DescriptorProtos.ServiceDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 9:
+           builder.setExtension(index, message(com.google.protobuf.DescriptorProtos.FieldDescriptorProto.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(FileDescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 2:
+           builder.addDependency((java.lang.String) value);
+           break;
+         case 3:
+           builder.addPublicDependency((java.lang.Integer) value);
+           break;
+         case 4:
+           builder.addWeakDependency((java.lang.Integer) value);
+           break;
+         case 5:
+           builder.addOptionDependency((java.lang.String) value);
+           break;
+         case 6:
+           builder.addMessageType(message(com.google.protobuf.DescriptorProtos.DescriptorProto.getDefaultInstance(), value));
+           break;
+         case 7:
+           builder.addEnumType(message(com.google.protobuf.DescriptorProtos.EnumDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 8:
+           builder.addService(message(com.google.protobuf.DescriptorProtos.ServiceDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 9:
+           builder.addExtension(message(com.google.protobuf.DescriptorProtos.FieldDescriptorProto.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 6:
+           return com.google.protobuf.DescriptorProtos.DescriptorProto.newBuilder();
+         case 7:
+           return com.google.protobuf.DescriptorProtos.EnumDescriptorProto.newBuilder();
+         case 8:
+           return com.google.protobuf.DescriptorProtos.ServiceDescriptorProto.newBuilder();
+         case 9:
+           return com.google.protobuf.DescriptorProtos.FieldDescriptorProto.newBuilder();
+         case 10:
+           return com.google.protobuf.DescriptorProtos.FileOptions.newBuilder();
+         case 11:
+           return com.google.protobuf.DescriptorProtos.SourceCodeInfo.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(FileDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 10:
+           return builder.getOptionsBuilder();
+         case 11:
+           return builder.getSourceCodeInfoBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(FileDescriptorProto.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 6:
+           return builder.getMessageTypeBuilder(index);
+         case 7:
+           return builder.getEnumTypeBuilder(index);
+         case 8:
+           return builder.getServiceBuilder(index);
+         case 9:
+           return builder.getExtensionBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(FileDescriptorProto.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface DescriptorProtoOrBuilder extends
@@ -5081,6 +5528,121 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
         return DEFAULT_INSTANCE;
       }
 
+    private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<ExtensionRange, ExtensionRange.Builder> {
+      @java.lang.Override
+      public java.lang.Object get(ExtensionRange message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getStart();
+          case 1:
+            return message.getEnd();
+          case 2:
+            return message.getOptions();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object get(ExtensionRange.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.getStart();
+          case 1:
+            return builder.getEnd();
+          case 2:
+            return builder.getOptions();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(ExtensionRange message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.hasStart();
+          case 1:
+            return message.hasEnd();
+          case 2:
+            return message.hasOptions();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(ExtensionRange.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.hasStart();
+          case 1:
+            return builder.hasEnd();
+          case 2:
+            return builder.hasOptions();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void set(ExtensionRange.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          case 0:
+            builder.setStart((java.lang.Integer) value);
+            break;
+          case 1:
+            builder.setEnd((java.lang.Integer) value);
+            break;
+          case 2:
+            builder.setOptions(message(com.google.protobuf.DescriptorProtos.ExtensionRangeOptions.getDefaultInstance(), value));
+            break;
+          default:
+            throw unsupported("set", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void clear(ExtensionRange.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            builder.clearStart();
+            break;
+          case 1:
+            builder.clearEnd();
+            break;
+          case 2:
+            builder.clearOptions();
+            break;
+          default:
+            throw unsupported("clear", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+        switch (fieldIndex) {
+          case 2:
+            return com.google.protobuf.DescriptorProtos.ExtensionRangeOptions.newBuilder();
+          default:
+            return super.newBuilder(fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Message.Builder getBuilder(ExtensionRange.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 2:
+            return builder.getOptionsBuilder();
+          default:
+            return super.getBuilder(builder, fieldIndex);
+        }
+      }
+    }
+
+    static {
+      com.google.protobuf.gwt.MessageReflectionAccessor.register(ExtensionRange.class, new GwtReflectionAccessor());
+    }
     }
 
     public interface ReservedRangeOrBuilder extends
@@ -5615,6 +6177,87 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
         return DEFAULT_INSTANCE;
       }
 
+    private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<ReservedRange, ReservedRange.Builder> {
+      @java.lang.Override
+      public java.lang.Object get(ReservedRange message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getStart();
+          case 1:
+            return message.getEnd();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object get(ReservedRange.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.getStart();
+          case 1:
+            return builder.getEnd();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(ReservedRange message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.hasStart();
+          case 1:
+            return message.hasEnd();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(ReservedRange.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.hasStart();
+          case 1:
+            return builder.hasEnd();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void set(ReservedRange.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          case 0:
+            builder.setStart((java.lang.Integer) value);
+            break;
+          case 1:
+            builder.setEnd((java.lang.Integer) value);
+            break;
+          default:
+            throw unsupported("set", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void clear(ReservedRange.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            builder.clearStart();
+            break;
+          case 1:
+            builder.clearEnd();
+            break;
+          default:
+            throw unsupported("clear", fieldIndex);
+        }
+      }
+    }
+
+    static {
+      com.google.protobuf.gwt.MessageReflectionAccessor.register(ReservedRange.class, new GwtReflectionAccessor());
+    }
     }
 
     private int bitField0_;
@@ -9036,6 +9679,415 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<DescriptorProto, DescriptorProto.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(DescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getName();
+         case 1:
+           return message.getFieldList();
+         case 2:
+           return message.getExtensionList();
+         case 3:
+           return message.getNestedTypeList();
+         case 4:
+           return message.getEnumTypeList();
+         case 5:
+           return message.getExtensionRangeList();
+         case 6:
+           return message.getOneofDeclList();
+         case 7:
+           return message.getOptions();
+         case 8:
+           return message.getReservedRangeList();
+         case 9:
+           return message.getReservedNameList();
+         case 10:
+           return message.getVisibility().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(DescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getName();
+         case 1:
+           return builder.getFieldList();
+         case 2:
+           return builder.getExtensionList();
+         case 3:
+           return builder.getNestedTypeList();
+         case 4:
+           return builder.getEnumTypeList();
+         case 5:
+           return builder.getExtensionRangeList();
+         case 6:
+           return builder.getOneofDeclList();
+         case 7:
+           return builder.getOptions();
+         case 8:
+           return builder.getReservedRangeList();
+         case 9:
+           return builder.getReservedNameList();
+         case 10:
+           return builder.getVisibility().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRaw(DescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getNameBytes();
+         default:
+           return get(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(DescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasName();
+         case 7:
+           return message.hasOptions();
+         case 10:
+           return message.hasVisibility();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(DescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasName();
+         case 7:
+           return builder.hasOptions();
+         case 10:
+           return builder.hasVisibility();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(DescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setName((java.lang.String) value);
+           break;
+         case 1:
+           builder.clearField();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 2:
+           builder.clearExtension();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 3:
+           builder.clearNestedType();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 4:
+           builder.clearEnumType();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 5:
+           builder.clearExtensionRange();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 6:
+           builder.clearOneofDecl();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 7:
+           builder.setOptions(message(com.google.protobuf.DescriptorProtos.MessageOptions.getDefaultInstance(), value));
+           break;
+         case 8:
+           builder.clearReservedRange();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 9:
+           builder.clearReservedName();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 10:
+           builder.setVisibility(com.google.protobuf.DescriptorProtos.SymbolVisibility.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(DescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearName();
+           break;
+         case 1:
+           builder.clearField();
+           break;
+         case 2:
+           builder.clearExtension();
+           break;
+         case 3:
+           builder.clearNestedType();
+           break;
+         case 4:
+           builder.clearEnumType();
+           break;
+         case 5:
+           builder.clearExtensionRange();
+           break;
+         case 6:
+           builder.clearOneofDecl();
+           break;
+         case 7:
+           builder.clearOptions();
+           break;
+         case 8:
+           builder.clearReservedRange();
+           break;
+         case 9:
+           builder.clearReservedName();
+           break;
+         case 10:
+           builder.clearVisibility();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(DescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return message.getFieldCount();
+         case 2:
+           return message.getExtensionCount();
+         case 3:
+           return message.getNestedTypeCount();
+         case 4:
+           return message.getEnumTypeCount();
+         case 5:
+           return message.getExtensionRangeCount();
+         case 6:
+           return message.getOneofDeclCount();
+         case 8:
+           return message.getReservedRangeCount();
+         case 9:
+           return message.getReservedNameCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(DescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getFieldCount();
+         case 2:
+           return builder.getExtensionCount();
+         case 3:
+           return builder.getNestedTypeCount();
+         case 4:
+           return builder.getEnumTypeCount();
+         case 5:
+           return builder.getExtensionRangeCount();
+         case 6:
+           return builder.getOneofDeclCount();
+         case 8:
+           return builder.getReservedRangeCount();
+         case 9:
+           return builder.getReservedNameCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(DescriptorProto message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return message.getField(index);
+         case 2:
+           return message.getExtension(index);
+         case 3:
+           return message.getNestedType(index);
+         case 4:
+           return message.getEnumType(index);
+         case 5:
+           return message.getExtensionRange(index);
+         case 6:
+           return message.getOneofDecl(index);
+         case 8:
+           return message.getReservedRange(index);
+         case 9:
+           return message.getReservedName(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(DescriptorProto.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getField(index);
+         case 2:
+           return builder.getExtension(index);
+         case 3:
+           return builder.getNestedType(index);
+         case 4:
+           return builder.getEnumType(index);
+         case 5:
+           return builder.getExtensionRange(index);
+         case 6:
+           return builder.getOneofDecl(index);
+         case 8:
+           return builder.getReservedRange(index);
+         case 9:
+           return builder.getReservedName(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(DescriptorProto.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 1:
+           builder.setField(index, message(com.google.protobuf.DescriptorProtos.FieldDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 2:
+           builder.setExtension(index, message(com.google.protobuf.DescriptorProtos.FieldDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 3:
+           builder.setNestedType(index, message(com.google.protobuf.DescriptorProtos.DescriptorProto.getDefaultInstance(), value));
+           break;
+         case 4:
+           builder.setEnumType(index, message(com.google.protobuf.DescriptorProtos.EnumDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 5:
+           builder.setExtensionRange(index, message(com.google.protobuf.DescriptorProtos.DescriptorProto.ExtensionRange.getDefaultInstance(), value));
+           break;
+         case 6:
+           builder.setOneofDecl(index, message(com.google.protobuf.DescriptorProtos.OneofDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 8:
+           builder.setReservedRange(index, message(com.google.protobuf.DescriptorProtos.DescriptorProto.ReservedRange.getDefaultInstance(), value));
+           break;
+         case 9:
+           builder.setReservedName(index, (java.lang.String) value);
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(DescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 1:
+           builder.addField(message(com.google.protobuf.DescriptorProtos.FieldDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 2:
+           builder.addExtension(message(com.google.protobuf.DescriptorProtos.FieldDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 3:
+           builder.addNestedType(message(com.google.protobuf.DescriptorProtos.DescriptorProto.getDefaultInstance(), value));
+           break;
+         case 4:
+           builder.addEnumType(message(com.google.protobuf.DescriptorProtos.EnumDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 5:
+           builder.addExtensionRange(message(com.google.protobuf.DescriptorProtos.DescriptorProto.ExtensionRange.getDefaultInstance(), value));
+           break;
+         case 6:
+           builder.addOneofDecl(message(com.google.protobuf.DescriptorProtos.OneofDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 8:
+           builder.addReservedRange(message(com.google.protobuf.DescriptorProtos.DescriptorProto.ReservedRange.getDefaultInstance(), value));
+           break;
+         case 9:
+           builder.addReservedName((java.lang.String) value);
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return com.google.protobuf.DescriptorProtos.FieldDescriptorProto.newBuilder();
+         case 2:
+           return com.google.protobuf.DescriptorProtos.FieldDescriptorProto.newBuilder();
+         case 3:
+           return com.google.protobuf.DescriptorProtos.DescriptorProto.newBuilder();
+         case 4:
+           return com.google.protobuf.DescriptorProtos.EnumDescriptorProto.newBuilder();
+         case 5:
+           return com.google.protobuf.DescriptorProtos.DescriptorProto.ExtensionRange.newBuilder();
+         case 6:
+           return com.google.protobuf.DescriptorProtos.OneofDescriptorProto.newBuilder();
+         case 7:
+           return com.google.protobuf.DescriptorProtos.MessageOptions.newBuilder();
+         case 8:
+           return com.google.protobuf.DescriptorProtos.DescriptorProto.ReservedRange.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(DescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 7:
+           return builder.getOptionsBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(DescriptorProto.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getFieldBuilder(index);
+         case 2:
+           return builder.getExtensionBuilder(index);
+         case 3:
+           return builder.getNestedTypeBuilder(index);
+         case 4:
+           return builder.getEnumTypeBuilder(index);
+         case 5:
+           return builder.getExtensionRangeBuilder(index);
+         case 6:
+           return builder.getOneofDeclBuilder(index);
+         case 8:
+           return builder.getReservedRangeBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(DescriptorProto.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface ExtensionRangeOptionsOrBuilder extends
@@ -10239,6 +11291,141 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
         return DEFAULT_INSTANCE;
       }
 
+    private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<Declaration, Declaration.Builder> {
+      @java.lang.Override
+      public java.lang.Object get(Declaration message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getNumber();
+          case 1:
+            return message.getFullName();
+          case 2:
+            return message.getType();
+          case 3:
+            return message.getReserved();
+          case 4:
+            return message.getRepeated();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object get(Declaration.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.getNumber();
+          case 1:
+            return builder.getFullName();
+          case 2:
+            return builder.getType();
+          case 3:
+            return builder.getReserved();
+          case 4:
+            return builder.getRepeated();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object getRaw(Declaration message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 1:
+            return message.getFullNameBytes();
+          case 2:
+            return message.getTypeBytes();
+          default:
+            return get(message, fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(Declaration message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.hasNumber();
+          case 1:
+            return message.hasFullName();
+          case 2:
+            return message.hasType();
+          case 3:
+            return message.hasReserved();
+          case 4:
+            return message.hasRepeated();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(Declaration.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.hasNumber();
+          case 1:
+            return builder.hasFullName();
+          case 2:
+            return builder.hasType();
+          case 3:
+            return builder.hasReserved();
+          case 4:
+            return builder.hasRepeated();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void set(Declaration.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          case 0:
+            builder.setNumber((java.lang.Integer) value);
+            break;
+          case 1:
+            builder.setFullName((java.lang.String) value);
+            break;
+          case 2:
+            builder.setType((java.lang.String) value);
+            break;
+          case 3:
+            builder.setReserved((java.lang.Boolean) value);
+            break;
+          case 4:
+            builder.setRepeated((java.lang.Boolean) value);
+            break;
+          default:
+            throw unsupported("set", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void clear(Declaration.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            builder.clearNumber();
+            break;
+          case 1:
+            builder.clearFullName();
+            break;
+          case 2:
+            builder.clearType();
+            break;
+          case 3:
+            builder.clearReserved();
+            break;
+          case 4:
+            builder.clearRepeated();
+            break;
+          default:
+            throw unsupported("clear", fieldIndex);
+        }
+      }
+    }
+
+    static {
+      com.google.protobuf.gwt.MessageReflectionAccessor.register(Declaration.class, new GwtReflectionAccessor());
+    }
     }
 
     private int bitField0_;
@@ -11578,6 +12765,221 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<ExtensionRangeOptions, ExtensionRangeOptions.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(ExtensionRangeOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getUninterpretedOptionList();
+         case 1:
+           return message.getDeclarationList();
+         case 2:
+           return message.getFeatures();
+         case 3:
+           return message.getVerification().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(ExtensionRangeOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getUninterpretedOptionList();
+         case 1:
+           return builder.getDeclarationList();
+         case 2:
+           return builder.getFeatures();
+         case 3:
+           return builder.getVerification().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(ExtensionRangeOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return message.hasFeatures();
+         case 3:
+           return message.hasVerification();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(ExtensionRangeOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return builder.hasFeatures();
+         case 3:
+           return builder.hasVerification();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(ExtensionRangeOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearUninterpretedOption();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 1:
+           builder.clearDeclaration();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 2:
+           builder.setFeatures(message(com.google.protobuf.DescriptorProtos.FeatureSet.getDefaultInstance(), value));
+           break;
+         case 3:
+           builder.setVerification(com.google.protobuf.DescriptorProtos.ExtensionRangeOptions.VerificationState.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(ExtensionRangeOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearUninterpretedOption();
+           break;
+         case 1:
+           builder.clearDeclaration();
+           break;
+         case 2:
+           builder.clearFeatures();
+           break;
+         case 3:
+           builder.clearVerification();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(ExtensionRangeOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getUninterpretedOptionCount();
+         case 1:
+           return message.getDeclarationCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(ExtensionRangeOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getUninterpretedOptionCount();
+         case 1:
+           return builder.getDeclarationCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(ExtensionRangeOptions message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getUninterpretedOption(index);
+         case 1:
+           return message.getDeclaration(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(ExtensionRangeOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getUninterpretedOption(index);
+         case 1:
+           return builder.getDeclaration(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(ExtensionRangeOptions.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setUninterpretedOption(index, message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         case 1:
+           builder.setDeclaration(index, message(com.google.protobuf.DescriptorProtos.ExtensionRangeOptions.Declaration.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(ExtensionRangeOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.addUninterpretedOption(message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         case 1:
+           builder.addDeclaration(message(com.google.protobuf.DescriptorProtos.ExtensionRangeOptions.Declaration.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return com.google.protobuf.DescriptorProtos.UninterpretedOption.newBuilder();
+         case 1:
+           return com.google.protobuf.DescriptorProtos.ExtensionRangeOptions.Declaration.newBuilder();
+         case 2:
+           return com.google.protobuf.DescriptorProtos.FeatureSet.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(ExtensionRangeOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return builder.getFeaturesBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(ExtensionRangeOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getUninterpretedOptionBuilder(index);
+         case 1:
+           return builder.getDeclarationBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(ExtensionRangeOptions.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface FieldDescriptorProtoOrBuilder extends
@@ -13862,6 +15264,251 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<FieldDescriptorProto, FieldDescriptorProto.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(FieldDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getName();
+         case 1:
+           return message.getNumber();
+         case 2:
+           return message.getLabel().getValueDescriptor();
+         case 3:
+           return message.getType().getValueDescriptor();
+         case 4:
+           return message.getTypeName();
+         case 5:
+           return message.getExtendee();
+         case 6:
+           return message.getDefaultValue();
+         case 7:
+           return message.getOneofIndex();
+         case 8:
+           return message.getJsonName();
+         case 9:
+           return message.getOptions();
+         case 10:
+           return message.getProto3Optional();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(FieldDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getName();
+         case 1:
+           return builder.getNumber();
+         case 2:
+           return builder.getLabel().getValueDescriptor();
+         case 3:
+           return builder.getType().getValueDescriptor();
+         case 4:
+           return builder.getTypeName();
+         case 5:
+           return builder.getExtendee();
+         case 6:
+           return builder.getDefaultValue();
+         case 7:
+           return builder.getOneofIndex();
+         case 8:
+           return builder.getJsonName();
+         case 9:
+           return builder.getOptions();
+         case 10:
+           return builder.getProto3Optional();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRaw(FieldDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getNameBytes();
+         case 4:
+           return message.getTypeNameBytes();
+         case 5:
+           return message.getExtendeeBytes();
+         case 6:
+           return message.getDefaultValueBytes();
+         case 8:
+           return message.getJsonNameBytes();
+         default:
+           return get(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FieldDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasName();
+         case 1:
+           return message.hasNumber();
+         case 2:
+           return message.hasLabel();
+         case 3:
+           return message.hasType();
+         case 4:
+           return message.hasTypeName();
+         case 5:
+           return message.hasExtendee();
+         case 6:
+           return message.hasDefaultValue();
+         case 7:
+           return message.hasOneofIndex();
+         case 8:
+           return message.hasJsonName();
+         case 9:
+           return message.hasOptions();
+         case 10:
+           return message.hasProto3Optional();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FieldDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasName();
+         case 1:
+           return builder.hasNumber();
+         case 2:
+           return builder.hasLabel();
+         case 3:
+           return builder.hasType();
+         case 4:
+           return builder.hasTypeName();
+         case 5:
+           return builder.hasExtendee();
+         case 6:
+           return builder.hasDefaultValue();
+         case 7:
+           return builder.hasOneofIndex();
+         case 8:
+           return builder.hasJsonName();
+         case 9:
+           return builder.hasOptions();
+         case 10:
+           return builder.hasProto3Optional();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(FieldDescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setName((java.lang.String) value);
+           break;
+         case 1:
+           builder.setNumber((java.lang.Integer) value);
+           break;
+         case 2:
+           builder.setLabel(com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Label.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 3:
+           builder.setType(com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 4:
+           builder.setTypeName((java.lang.String) value);
+           break;
+         case 5:
+           builder.setExtendee((java.lang.String) value);
+           break;
+         case 6:
+           builder.setDefaultValue((java.lang.String) value);
+           break;
+         case 7:
+           builder.setOneofIndex((java.lang.Integer) value);
+           break;
+         case 8:
+           builder.setJsonName((java.lang.String) value);
+           break;
+         case 9:
+           builder.setOptions(message(com.google.protobuf.DescriptorProtos.FieldOptions.getDefaultInstance(), value));
+           break;
+         case 10:
+           builder.setProto3Optional((java.lang.Boolean) value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(FieldDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearName();
+           break;
+         case 1:
+           builder.clearNumber();
+           break;
+         case 2:
+           builder.clearLabel();
+           break;
+         case 3:
+           builder.clearType();
+           break;
+         case 4:
+           builder.clearTypeName();
+           break;
+         case 5:
+           builder.clearExtendee();
+           break;
+         case 6:
+           builder.clearDefaultValue();
+           break;
+         case 7:
+           builder.clearOneofIndex();
+           break;
+         case 8:
+           builder.clearJsonName();
+           break;
+         case 9:
+           builder.clearOptions();
+           break;
+         case 10:
+           builder.clearProto3Optional();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 9:
+           return com.google.protobuf.DescriptorProtos.FieldOptions.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(FieldDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 9:
+           return builder.getOptionsBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(FieldDescriptorProto.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface OneofDescriptorProtoOrBuilder extends
@@ -14593,6 +16240,117 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<OneofDescriptorProto, OneofDescriptorProto.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(OneofDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getName();
+         case 1:
+           return message.getOptions();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(OneofDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getName();
+         case 1:
+           return builder.getOptions();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRaw(OneofDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getNameBytes();
+         default:
+           return get(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(OneofDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasName();
+         case 1:
+           return message.hasOptions();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(OneofDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasName();
+         case 1:
+           return builder.hasOptions();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(OneofDescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setName((java.lang.String) value);
+           break;
+         case 1:
+           builder.setOptions(message(com.google.protobuf.DescriptorProtos.OneofOptions.getDefaultInstance(), value));
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(OneofDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearName();
+           break;
+         case 1:
+           builder.clearOptions();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return com.google.protobuf.DescriptorProtos.OneofOptions.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(OneofDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getOptionsBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(OneofDescriptorProto.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface EnumDescriptorProtoOrBuilder extends
@@ -15289,6 +17047,87 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
         return DEFAULT_INSTANCE;
       }
 
+    private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<EnumReservedRange, EnumReservedRange.Builder> {
+      @java.lang.Override
+      public java.lang.Object get(EnumReservedRange message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getStart();
+          case 1:
+            return message.getEnd();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object get(EnumReservedRange.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.getStart();
+          case 1:
+            return builder.getEnd();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(EnumReservedRange message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.hasStart();
+          case 1:
+            return message.hasEnd();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(EnumReservedRange.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.hasStart();
+          case 1:
+            return builder.hasEnd();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void set(EnumReservedRange.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          case 0:
+            builder.setStart((java.lang.Integer) value);
+            break;
+          case 1:
+            builder.setEnd((java.lang.Integer) value);
+            break;
+          default:
+            throw unsupported("set", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void clear(EnumReservedRange.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            builder.clearStart();
+            break;
+          case 1:
+            builder.clearEnd();
+            break;
+          default:
+            throw unsupported("clear", fieldIndex);
+        }
+      }
+    }
+
+    static {
+      com.google.protobuf.gwt.MessageReflectionAccessor.register(EnumReservedRange.class, new GwtReflectionAccessor());
+    }
     }
 
     private int bitField0_;
@@ -16930,6 +18769,270 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<EnumDescriptorProto, EnumDescriptorProto.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(EnumDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getName();
+         case 1:
+           return message.getValueList();
+         case 2:
+           return message.getOptions();
+         case 3:
+           return message.getReservedRangeList();
+         case 4:
+           return message.getReservedNameList();
+         case 5:
+           return message.getVisibility().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(EnumDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getName();
+         case 1:
+           return builder.getValueList();
+         case 2:
+           return builder.getOptions();
+         case 3:
+           return builder.getReservedRangeList();
+         case 4:
+           return builder.getReservedNameList();
+         case 5:
+           return builder.getVisibility().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRaw(EnumDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getNameBytes();
+         default:
+           return get(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(EnumDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasName();
+         case 2:
+           return message.hasOptions();
+         case 5:
+           return message.hasVisibility();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(EnumDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasName();
+         case 2:
+           return builder.hasOptions();
+         case 5:
+           return builder.hasVisibility();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(EnumDescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setName((java.lang.String) value);
+           break;
+         case 1:
+           builder.clearValue();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 2:
+           builder.setOptions(message(com.google.protobuf.DescriptorProtos.EnumOptions.getDefaultInstance(), value));
+           break;
+         case 3:
+           builder.clearReservedRange();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 4:
+           builder.clearReservedName();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 5:
+           builder.setVisibility(com.google.protobuf.DescriptorProtos.SymbolVisibility.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(EnumDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearName();
+           break;
+         case 1:
+           builder.clearValue();
+           break;
+         case 2:
+           builder.clearOptions();
+           break;
+         case 3:
+           builder.clearReservedRange();
+           break;
+         case 4:
+           builder.clearReservedName();
+           break;
+         case 5:
+           builder.clearVisibility();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(EnumDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return message.getValueCount();
+         case 3:
+           return message.getReservedRangeCount();
+         case 4:
+           return message.getReservedNameCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(EnumDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getValueCount();
+         case 3:
+           return builder.getReservedRangeCount();
+         case 4:
+           return builder.getReservedNameCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(EnumDescriptorProto message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return message.getValue(index);
+         case 3:
+           return message.getReservedRange(index);
+         case 4:
+           return message.getReservedName(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(EnumDescriptorProto.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getValue(index);
+         case 3:
+           return builder.getReservedRange(index);
+         case 4:
+           return builder.getReservedName(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(EnumDescriptorProto.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 1:
+           builder.setValue(index, message(com.google.protobuf.DescriptorProtos.EnumValueDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 3:
+           builder.setReservedRange(index, message(com.google.protobuf.DescriptorProtos.EnumDescriptorProto.EnumReservedRange.getDefaultInstance(), value));
+           break;
+         case 4:
+           builder.setReservedName(index, (java.lang.String) value);
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(EnumDescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 1:
+           builder.addValue(message(com.google.protobuf.DescriptorProtos.EnumValueDescriptorProto.getDefaultInstance(), value));
+           break;
+         case 3:
+           builder.addReservedRange(message(com.google.protobuf.DescriptorProtos.EnumDescriptorProto.EnumReservedRange.getDefaultInstance(), value));
+           break;
+         case 4:
+           builder.addReservedName((java.lang.String) value);
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return com.google.protobuf.DescriptorProtos.EnumValueDescriptorProto.newBuilder();
+         case 2:
+           return com.google.protobuf.DescriptorProtos.EnumOptions.newBuilder();
+         case 3:
+           return com.google.protobuf.DescriptorProtos.EnumDescriptorProto.EnumReservedRange.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(EnumDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return builder.getOptionsBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(EnumDescriptorProto.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getValueBuilder(index);
+         case 3:
+           return builder.getReservedRangeBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(EnumDescriptorProto.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface EnumValueDescriptorProtoOrBuilder extends
@@ -17756,6 +19859,131 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<EnumValueDescriptorProto, EnumValueDescriptorProto.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(EnumValueDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getName();
+         case 1:
+           return message.getNumber();
+         case 2:
+           return message.getOptions();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(EnumValueDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getName();
+         case 1:
+           return builder.getNumber();
+         case 2:
+           return builder.getOptions();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRaw(EnumValueDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getNameBytes();
+         default:
+           return get(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(EnumValueDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasName();
+         case 1:
+           return message.hasNumber();
+         case 2:
+           return message.hasOptions();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(EnumValueDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasName();
+         case 1:
+           return builder.hasNumber();
+         case 2:
+           return builder.hasOptions();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(EnumValueDescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setName((java.lang.String) value);
+           break;
+         case 1:
+           builder.setNumber((java.lang.Integer) value);
+           break;
+         case 2:
+           builder.setOptions(message(com.google.protobuf.DescriptorProtos.EnumValueOptions.getDefaultInstance(), value));
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(EnumValueDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearName();
+           break;
+         case 1:
+           builder.clearNumber();
+           break;
+         case 2:
+           builder.clearOptions();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return com.google.protobuf.DescriptorProtos.EnumValueOptions.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(EnumValueDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return builder.getOptionsBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(EnumValueDescriptorProto.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface ServiceDescriptorProtoOrBuilder extends
@@ -18872,6 +21100,202 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<ServiceDescriptorProto, ServiceDescriptorProto.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(ServiceDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getName();
+         case 1:
+           return message.getMethodList();
+         case 2:
+           return message.getOptions();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(ServiceDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getName();
+         case 1:
+           return builder.getMethodList();
+         case 2:
+           return builder.getOptions();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRaw(ServiceDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getNameBytes();
+         default:
+           return get(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(ServiceDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasName();
+         case 2:
+           return message.hasOptions();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(ServiceDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasName();
+         case 2:
+           return builder.hasOptions();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(ServiceDescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setName((java.lang.String) value);
+           break;
+         case 1:
+           builder.clearMethod();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 2:
+           builder.setOptions(message(com.google.protobuf.DescriptorProtos.ServiceOptions.getDefaultInstance(), value));
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(ServiceDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearName();
+           break;
+         case 1:
+           builder.clearMethod();
+           break;
+         case 2:
+           builder.clearOptions();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(ServiceDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return message.getMethodCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(ServiceDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getMethodCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(ServiceDescriptorProto message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return message.getMethod(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(ServiceDescriptorProto.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getMethod(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(ServiceDescriptorProto.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 1:
+           builder.setMethod(index, message(com.google.protobuf.DescriptorProtos.MethodDescriptorProto.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(ServiceDescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 1:
+           builder.addMethod(message(com.google.protobuf.DescriptorProtos.MethodDescriptorProto.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return com.google.protobuf.DescriptorProtos.MethodDescriptorProto.newBuilder();
+         case 2:
+           return com.google.protobuf.DescriptorProtos.ServiceOptions.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(ServiceDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return builder.getOptionsBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(ServiceDescriptorProto.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getMethodBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(ServiceDescriptorProto.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface MethodDescriptorProtoOrBuilder extends
@@ -20143,6 +22567,177 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<MethodDescriptorProto, MethodDescriptorProto.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(MethodDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getName();
+         case 1:
+           return message.getInputType();
+         case 2:
+           return message.getOutputType();
+         case 3:
+           return message.getOptions();
+         case 4:
+           return message.getClientStreaming();
+         case 5:
+           return message.getServerStreaming();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(MethodDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getName();
+         case 1:
+           return builder.getInputType();
+         case 2:
+           return builder.getOutputType();
+         case 3:
+           return builder.getOptions();
+         case 4:
+           return builder.getClientStreaming();
+         case 5:
+           return builder.getServerStreaming();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRaw(MethodDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getNameBytes();
+         case 1:
+           return message.getInputTypeBytes();
+         case 2:
+           return message.getOutputTypeBytes();
+         default:
+           return get(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(MethodDescriptorProto message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasName();
+         case 1:
+           return message.hasInputType();
+         case 2:
+           return message.hasOutputType();
+         case 3:
+           return message.hasOptions();
+         case 4:
+           return message.hasClientStreaming();
+         case 5:
+           return message.hasServerStreaming();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(MethodDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasName();
+         case 1:
+           return builder.hasInputType();
+         case 2:
+           return builder.hasOutputType();
+         case 3:
+           return builder.hasOptions();
+         case 4:
+           return builder.hasClientStreaming();
+         case 5:
+           return builder.hasServerStreaming();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(MethodDescriptorProto.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setName((java.lang.String) value);
+           break;
+         case 1:
+           builder.setInputType((java.lang.String) value);
+           break;
+         case 2:
+           builder.setOutputType((java.lang.String) value);
+           break;
+         case 3:
+           builder.setOptions(message(com.google.protobuf.DescriptorProtos.MethodOptions.getDefaultInstance(), value));
+           break;
+         case 4:
+           builder.setClientStreaming((java.lang.Boolean) value);
+           break;
+         case 5:
+           builder.setServerStreaming((java.lang.Boolean) value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(MethodDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearName();
+           break;
+         case 1:
+           builder.clearInputType();
+           break;
+         case 2:
+           builder.clearOutputType();
+           break;
+         case 3:
+           builder.clearOptions();
+           break;
+         case 4:
+           builder.clearClientStreaming();
+           break;
+         case 5:
+           builder.clearServerStreaming();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 3:
+           return com.google.protobuf.DescriptorProtos.MethodOptions.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(MethodDescriptorProto.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 3:
+           return builder.getOptionsBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(MethodDescriptorProto.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface FileOptionsOrBuilder extends
@@ -23870,6 +26465,472 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<FileOptions, FileOptions.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(FileOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getJavaPackage();
+         case 1:
+           return message.getJavaOuterClassname();
+         case 2:
+           return message.getJavaMultipleFiles();
+         case 3:
+           return message.getJavaGenerateEqualsAndHash();
+         case 4:
+           return message.getJavaStringCheckUtf8();
+         case 5:
+           return message.getOptimizeFor().getValueDescriptor();
+         case 6:
+           return message.getGoPackage();
+         case 7:
+           return message.getCcGenericServices();
+         case 8:
+           return message.getJavaGenericServices();
+         case 9:
+           return message.getPyGenericServices();
+         case 10:
+           return message.getDeprecated();
+         case 11:
+           return message.getCcEnableArenas();
+         case 12:
+           return message.getObjcClassPrefix();
+         case 13:
+           return message.getCsharpNamespace();
+         case 14:
+           return message.getSwiftPrefix();
+         case 15:
+           return message.getPhpClassPrefix();
+         case 16:
+           return message.getPhpNamespace();
+         case 17:
+           return message.getPhpMetadataNamespace();
+         case 18:
+           return message.getRubyPackage();
+         case 19:
+           return message.getFeatures();
+         case 20:
+           return message.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(FileOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getJavaPackage();
+         case 1:
+           return builder.getJavaOuterClassname();
+         case 2:
+           return builder.getJavaMultipleFiles();
+         case 3:
+           return builder.getJavaGenerateEqualsAndHash();
+         case 4:
+           return builder.getJavaStringCheckUtf8();
+         case 5:
+           return builder.getOptimizeFor().getValueDescriptor();
+         case 6:
+           return builder.getGoPackage();
+         case 7:
+           return builder.getCcGenericServices();
+         case 8:
+           return builder.getJavaGenericServices();
+         case 9:
+           return builder.getPyGenericServices();
+         case 10:
+           return builder.getDeprecated();
+         case 11:
+           return builder.getCcEnableArenas();
+         case 12:
+           return builder.getObjcClassPrefix();
+         case 13:
+           return builder.getCsharpNamespace();
+         case 14:
+           return builder.getSwiftPrefix();
+         case 15:
+           return builder.getPhpClassPrefix();
+         case 16:
+           return builder.getPhpNamespace();
+         case 17:
+           return builder.getPhpMetadataNamespace();
+         case 18:
+           return builder.getRubyPackage();
+         case 19:
+           return builder.getFeatures();
+         case 20:
+           return builder.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRaw(FileOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getJavaPackageBytes();
+         case 1:
+           return message.getJavaOuterClassnameBytes();
+         case 6:
+           return message.getGoPackageBytes();
+         case 12:
+           return message.getObjcClassPrefixBytes();
+         case 13:
+           return message.getCsharpNamespaceBytes();
+         case 14:
+           return message.getSwiftPrefixBytes();
+         case 15:
+           return message.getPhpClassPrefixBytes();
+         case 16:
+           return message.getPhpNamespaceBytes();
+         case 17:
+           return message.getPhpMetadataNamespaceBytes();
+         case 18:
+           return message.getRubyPackageBytes();
+         default:
+           return get(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FileOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasJavaPackage();
+         case 1:
+           return message.hasJavaOuterClassname();
+         case 2:
+           return message.hasJavaMultipleFiles();
+         case 3:
+           return message.hasJavaGenerateEqualsAndHash();
+         case 4:
+           return message.hasJavaStringCheckUtf8();
+         case 5:
+           return message.hasOptimizeFor();
+         case 6:
+           return message.hasGoPackage();
+         case 7:
+           return message.hasCcGenericServices();
+         case 8:
+           return message.hasJavaGenericServices();
+         case 9:
+           return message.hasPyGenericServices();
+         case 10:
+           return message.hasDeprecated();
+         case 11:
+           return message.hasCcEnableArenas();
+         case 12:
+           return message.hasObjcClassPrefix();
+         case 13:
+           return message.hasCsharpNamespace();
+         case 14:
+           return message.hasSwiftPrefix();
+         case 15:
+           return message.hasPhpClassPrefix();
+         case 16:
+           return message.hasPhpNamespace();
+         case 17:
+           return message.hasPhpMetadataNamespace();
+         case 18:
+           return message.hasRubyPackage();
+         case 19:
+           return message.hasFeatures();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FileOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasJavaPackage();
+         case 1:
+           return builder.hasJavaOuterClassname();
+         case 2:
+           return builder.hasJavaMultipleFiles();
+         case 3:
+           return builder.hasJavaGenerateEqualsAndHash();
+         case 4:
+           return builder.hasJavaStringCheckUtf8();
+         case 5:
+           return builder.hasOptimizeFor();
+         case 6:
+           return builder.hasGoPackage();
+         case 7:
+           return builder.hasCcGenericServices();
+         case 8:
+           return builder.hasJavaGenericServices();
+         case 9:
+           return builder.hasPyGenericServices();
+         case 10:
+           return builder.hasDeprecated();
+         case 11:
+           return builder.hasCcEnableArenas();
+         case 12:
+           return builder.hasObjcClassPrefix();
+         case 13:
+           return builder.hasCsharpNamespace();
+         case 14:
+           return builder.hasSwiftPrefix();
+         case 15:
+           return builder.hasPhpClassPrefix();
+         case 16:
+           return builder.hasPhpNamespace();
+         case 17:
+           return builder.hasPhpMetadataNamespace();
+         case 18:
+           return builder.hasRubyPackage();
+         case 19:
+           return builder.hasFeatures();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(FileOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setJavaPackage((java.lang.String) value);
+           break;
+         case 1:
+           builder.setJavaOuterClassname((java.lang.String) value);
+           break;
+         case 2:
+           builder.setJavaMultipleFiles((java.lang.Boolean) value);
+           break;
+         case 3:
+           builder.setJavaGenerateEqualsAndHash((java.lang.Boolean) value);
+           break;
+         case 4:
+           builder.setJavaStringCheckUtf8((java.lang.Boolean) value);
+           break;
+         case 5:
+           builder.setOptimizeFor(com.google.protobuf.DescriptorProtos.FileOptions.OptimizeMode.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 6:
+           builder.setGoPackage((java.lang.String) value);
+           break;
+         case 7:
+           builder.setCcGenericServices((java.lang.Boolean) value);
+           break;
+         case 8:
+           builder.setJavaGenericServices((java.lang.Boolean) value);
+           break;
+         case 9:
+           builder.setPyGenericServices((java.lang.Boolean) value);
+           break;
+         case 10:
+           builder.setDeprecated((java.lang.Boolean) value);
+           break;
+         case 11:
+           builder.setCcEnableArenas((java.lang.Boolean) value);
+           break;
+         case 12:
+           builder.setObjcClassPrefix((java.lang.String) value);
+           break;
+         case 13:
+           builder.setCsharpNamespace((java.lang.String) value);
+           break;
+         case 14:
+           builder.setSwiftPrefix((java.lang.String) value);
+           break;
+         case 15:
+           builder.setPhpClassPrefix((java.lang.String) value);
+           break;
+         case 16:
+           builder.setPhpNamespace((java.lang.String) value);
+           break;
+         case 17:
+           builder.setPhpMetadataNamespace((java.lang.String) value);
+           break;
+         case 18:
+           builder.setRubyPackage((java.lang.String) value);
+           break;
+         case 19:
+           builder.setFeatures(message(com.google.protobuf.DescriptorProtos.FeatureSet.getDefaultInstance(), value));
+           break;
+         case 20:
+           builder.clearUninterpretedOption();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(FileOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearJavaPackage();
+           break;
+         case 1:
+           builder.clearJavaOuterClassname();
+           break;
+         case 2:
+           builder.clearJavaMultipleFiles();
+           break;
+         case 3:
+           builder.clearJavaGenerateEqualsAndHash();
+           break;
+         case 4:
+           builder.clearJavaStringCheckUtf8();
+           break;
+         case 5:
+           builder.clearOptimizeFor();
+           break;
+         case 6:
+           builder.clearGoPackage();
+           break;
+         case 7:
+           builder.clearCcGenericServices();
+           break;
+         case 8:
+           builder.clearJavaGenericServices();
+           break;
+         case 9:
+           builder.clearPyGenericServices();
+           break;
+         case 10:
+           builder.clearDeprecated();
+           break;
+         case 11:
+           builder.clearCcEnableArenas();
+           break;
+         case 12:
+           builder.clearObjcClassPrefix();
+           break;
+         case 13:
+           builder.clearCsharpNamespace();
+           break;
+         case 14:
+           builder.clearSwiftPrefix();
+           break;
+         case 15:
+           builder.clearPhpClassPrefix();
+           break;
+         case 16:
+           builder.clearPhpNamespace();
+           break;
+         case 17:
+           builder.clearPhpMetadataNamespace();
+           break;
+         case 18:
+           builder.clearRubyPackage();
+           break;
+         case 19:
+           builder.clearFeatures();
+           break;
+         case 20:
+           builder.clearUninterpretedOption();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(FileOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 20:
+           return message.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(FileOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 20:
+           return builder.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(FileOptions message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 20:
+           return message.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(FileOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 20:
+           return builder.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(FileOptions.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 20:
+           builder.setUninterpretedOption(index, message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(FileOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 20:
+           builder.addUninterpretedOption(message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 19:
+           return com.google.protobuf.DescriptorProtos.FeatureSet.newBuilder();
+         case 20:
+           return com.google.protobuf.DescriptorProtos.UninterpretedOption.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(FileOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 19:
+           return builder.getFeaturesBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(FileOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 20:
+           return builder.getUninterpretedOptionBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(FileOptions.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface MessageOptionsOrBuilder extends
@@ -25350,6 +28411,248 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<MessageOptions, MessageOptions.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(MessageOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getMessageSetWireFormat();
+         case 1:
+           return message.getNoStandardDescriptorAccessor();
+         case 2:
+           return message.getDeprecated();
+         case 3:
+           return message.getMapEntry();
+         case 4:
+           return message.getDeprecatedLegacyJsonFieldConflicts();
+         case 5:
+           return message.getFeatures();
+         case 6:
+           return message.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(MessageOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getMessageSetWireFormat();
+         case 1:
+           return builder.getNoStandardDescriptorAccessor();
+         case 2:
+           return builder.getDeprecated();
+         case 3:
+           return builder.getMapEntry();
+         case 4:
+           return builder.getDeprecatedLegacyJsonFieldConflicts();
+         case 5:
+           return builder.getFeatures();
+         case 6:
+           return builder.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(MessageOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasMessageSetWireFormat();
+         case 1:
+           return message.hasNoStandardDescriptorAccessor();
+         case 2:
+           return message.hasDeprecated();
+         case 3:
+           return message.hasMapEntry();
+         case 4:
+           return message.hasDeprecatedLegacyJsonFieldConflicts();
+         case 5:
+           return message.hasFeatures();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(MessageOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasMessageSetWireFormat();
+         case 1:
+           return builder.hasNoStandardDescriptorAccessor();
+         case 2:
+           return builder.hasDeprecated();
+         case 3:
+           return builder.hasMapEntry();
+         case 4:
+           return builder.hasDeprecatedLegacyJsonFieldConflicts();
+         case 5:
+           return builder.hasFeatures();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(MessageOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setMessageSetWireFormat((java.lang.Boolean) value);
+           break;
+         case 1:
+           builder.setNoStandardDescriptorAccessor((java.lang.Boolean) value);
+           break;
+         case 2:
+           builder.setDeprecated((java.lang.Boolean) value);
+           break;
+         case 3:
+           builder.setMapEntry((java.lang.Boolean) value);
+           break;
+         case 4:
+           builder.setDeprecatedLegacyJsonFieldConflicts((java.lang.Boolean) value);
+           break;
+         case 5:
+           builder.setFeatures(message(com.google.protobuf.DescriptorProtos.FeatureSet.getDefaultInstance(), value));
+           break;
+         case 6:
+           builder.clearUninterpretedOption();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(MessageOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearMessageSetWireFormat();
+           break;
+         case 1:
+           builder.clearNoStandardDescriptorAccessor();
+           break;
+         case 2:
+           builder.clearDeprecated();
+           break;
+         case 3:
+           builder.clearMapEntry();
+           break;
+         case 4:
+           builder.clearDeprecatedLegacyJsonFieldConflicts();
+           break;
+         case 5:
+           builder.clearFeatures();
+           break;
+         case 6:
+           builder.clearUninterpretedOption();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(MessageOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 6:
+           return message.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(MessageOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 6:
+           return builder.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(MessageOptions message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 6:
+           return message.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(MessageOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 6:
+           return builder.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(MessageOptions.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 6:
+           builder.setUninterpretedOption(index, message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(MessageOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 6:
+           builder.addUninterpretedOption(message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 5:
+           return com.google.protobuf.DescriptorProtos.FeatureSet.newBuilder();
+         case 6:
+           return com.google.protobuf.DescriptorProtos.UninterpretedOption.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(MessageOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 5:
+           return builder.getFeaturesBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(MessageOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 6:
+           return builder.getUninterpretedOptionBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(MessageOptions.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface FieldOptionsOrBuilder extends
@@ -26737,6 +30040,97 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
         return DEFAULT_INSTANCE;
       }
 
+    private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<EditionDefault, EditionDefault.Builder> {
+      @java.lang.Override
+      public java.lang.Object get(EditionDefault message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getEdition().getValueDescriptor();
+          case 1:
+            return message.getValue();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object get(EditionDefault.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.getEdition().getValueDescriptor();
+          case 1:
+            return builder.getValue();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object getRaw(EditionDefault message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 1:
+            return message.getValueBytes();
+          default:
+            return get(message, fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(EditionDefault message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.hasEdition();
+          case 1:
+            return message.hasValue();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(EditionDefault.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.hasEdition();
+          case 1:
+            return builder.hasValue();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void set(EditionDefault.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          case 0:
+            builder.setEdition(com.google.protobuf.DescriptorProtos.Edition.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+            break;
+          case 1:
+            builder.setValue((java.lang.String) value);
+            break;
+          default:
+            throw unsupported("set", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void clear(EditionDefault.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            builder.clearEdition();
+            break;
+          case 1:
+            builder.clearValue();
+            break;
+          default:
+            throw unsupported("clear", fieldIndex);
+        }
+      }
+    }
+
+    static {
+      com.google.protobuf.gwt.MessageReflectionAccessor.register(EditionDefault.class, new GwtReflectionAccessor());
+    }
     }
 
     public interface FeatureSupportOrBuilder extends
@@ -27567,6 +30961,125 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
         return DEFAULT_INSTANCE;
       }
 
+    private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<FeatureSupport, FeatureSupport.Builder> {
+      @java.lang.Override
+      public java.lang.Object get(FeatureSupport message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getEditionIntroduced().getValueDescriptor();
+          case 1:
+            return message.getEditionDeprecated().getValueDescriptor();
+          case 2:
+            return message.getDeprecationWarning();
+          case 3:
+            return message.getEditionRemoved().getValueDescriptor();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object get(FeatureSupport.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.getEditionIntroduced().getValueDescriptor();
+          case 1:
+            return builder.getEditionDeprecated().getValueDescriptor();
+          case 2:
+            return builder.getDeprecationWarning();
+          case 3:
+            return builder.getEditionRemoved().getValueDescriptor();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object getRaw(FeatureSupport message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 2:
+            return message.getDeprecationWarningBytes();
+          default:
+            return get(message, fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(FeatureSupport message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.hasEditionIntroduced();
+          case 1:
+            return message.hasEditionDeprecated();
+          case 2:
+            return message.hasDeprecationWarning();
+          case 3:
+            return message.hasEditionRemoved();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(FeatureSupport.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.hasEditionIntroduced();
+          case 1:
+            return builder.hasEditionDeprecated();
+          case 2:
+            return builder.hasDeprecationWarning();
+          case 3:
+            return builder.hasEditionRemoved();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void set(FeatureSupport.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          case 0:
+            builder.setEditionIntroduced(com.google.protobuf.DescriptorProtos.Edition.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+            break;
+          case 1:
+            builder.setEditionDeprecated(com.google.protobuf.DescriptorProtos.Edition.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+            break;
+          case 2:
+            builder.setDeprecationWarning((java.lang.String) value);
+            break;
+          case 3:
+            builder.setEditionRemoved(com.google.protobuf.DescriptorProtos.Edition.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+            break;
+          default:
+            throw unsupported("set", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void clear(FeatureSupport.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            builder.clearEditionIntroduced();
+            break;
+          case 1:
+            builder.clearEditionDeprecated();
+            break;
+          case 2:
+            builder.clearDeprecationWarning();
+            break;
+          case 3:
+            builder.clearEditionRemoved();
+            break;
+          default:
+            throw unsupported("clear", fieldIndex);
+        }
+      }
+    }
+
+    static {
+      com.google.protobuf.gwt.MessageReflectionAccessor.register(FeatureSupport.class, new GwtReflectionAccessor());
+    }
     }
 
     private int bitField0_;
@@ -29974,6 +33487,376 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<FieldOptions, FieldOptions.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(FieldOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getCtype().getValueDescriptor();
+         case 1:
+           return message.getPacked();
+         case 2:
+           return message.getJstype().getValueDescriptor();
+         case 3:
+           return message.getLazy();
+         case 4:
+           return message.getUnverifiedLazy();
+         case 5:
+           return message.getDeprecated();
+         case 6:
+           return message.getWeak();
+         case 7:
+           return message.getDebugRedact();
+         case 8:
+           return message.getRetention().getValueDescriptor();
+         case 9:
+           return enumValues(message.getTargetsList());
+         case 10:
+           return message.getEditionDefaultsList();
+         case 11:
+           return message.getFeatures();
+         case 12:
+           return message.getFeatureSupport();
+         case 13:
+           return message.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(FieldOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getCtype().getValueDescriptor();
+         case 1:
+           return builder.getPacked();
+         case 2:
+           return builder.getJstype().getValueDescriptor();
+         case 3:
+           return builder.getLazy();
+         case 4:
+           return builder.getUnverifiedLazy();
+         case 5:
+           return builder.getDeprecated();
+         case 6:
+           return builder.getWeak();
+         case 7:
+           return builder.getDebugRedact();
+         case 8:
+           return builder.getRetention().getValueDescriptor();
+         case 9:
+           return enumValues(builder.getTargetsList());
+         case 10:
+           return builder.getEditionDefaultsList();
+         case 11:
+           return builder.getFeatures();
+         case 12:
+           return builder.getFeatureSupport();
+         case 13:
+           return builder.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FieldOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasCtype();
+         case 1:
+           return message.hasPacked();
+         case 2:
+           return message.hasJstype();
+         case 3:
+           return message.hasLazy();
+         case 4:
+           return message.hasUnverifiedLazy();
+         case 5:
+           return message.hasDeprecated();
+         case 6:
+           return message.hasWeak();
+         case 7:
+           return message.hasDebugRedact();
+         case 8:
+           return message.hasRetention();
+         case 11:
+           return message.hasFeatures();
+         case 12:
+           return message.hasFeatureSupport();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FieldOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasCtype();
+         case 1:
+           return builder.hasPacked();
+         case 2:
+           return builder.hasJstype();
+         case 3:
+           return builder.hasLazy();
+         case 4:
+           return builder.hasUnverifiedLazy();
+         case 5:
+           return builder.hasDeprecated();
+         case 6:
+           return builder.hasWeak();
+         case 7:
+           return builder.hasDebugRedact();
+         case 8:
+           return builder.hasRetention();
+         case 11:
+           return builder.hasFeatures();
+         case 12:
+           return builder.hasFeatureSupport();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(FieldOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setCtype(com.google.protobuf.DescriptorProtos.FieldOptions.CType.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 1:
+           builder.setPacked((java.lang.Boolean) value);
+           break;
+         case 2:
+           builder.setJstype(com.google.protobuf.DescriptorProtos.FieldOptions.JSType.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 3:
+           builder.setLazy((java.lang.Boolean) value);
+           break;
+         case 4:
+           builder.setUnverifiedLazy((java.lang.Boolean) value);
+           break;
+         case 5:
+           builder.setDeprecated((java.lang.Boolean) value);
+           break;
+         case 6:
+           builder.setWeak((java.lang.Boolean) value);
+           break;
+         case 7:
+           builder.setDebugRedact((java.lang.Boolean) value);
+           break;
+         case 8:
+           builder.setRetention(com.google.protobuf.DescriptorProtos.FieldOptions.OptionRetention.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 9:
+           builder.clearTargets();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 10:
+           builder.clearEditionDefaults();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 11:
+           builder.setFeatures(message(com.google.protobuf.DescriptorProtos.FeatureSet.getDefaultInstance(), value));
+           break;
+         case 12:
+           builder.setFeatureSupport(message(com.google.protobuf.DescriptorProtos.FieldOptions.FeatureSupport.getDefaultInstance(), value));
+           break;
+         case 13:
+           builder.clearUninterpretedOption();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(FieldOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearCtype();
+           break;
+         case 1:
+           builder.clearPacked();
+           break;
+         case 2:
+           builder.clearJstype();
+           break;
+         case 3:
+           builder.clearLazy();
+           break;
+         case 4:
+           builder.clearUnverifiedLazy();
+           break;
+         case 5:
+           builder.clearDeprecated();
+           break;
+         case 6:
+           builder.clearWeak();
+           break;
+         case 7:
+           builder.clearDebugRedact();
+           break;
+         case 8:
+           builder.clearRetention();
+           break;
+         case 9:
+           builder.clearTargets();
+           break;
+         case 10:
+           builder.clearEditionDefaults();
+           break;
+         case 11:
+           builder.clearFeatures();
+           break;
+         case 12:
+           builder.clearFeatureSupport();
+           break;
+         case 13:
+           builder.clearUninterpretedOption();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(FieldOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 9:
+           return message.getTargetsCount();
+         case 10:
+           return message.getEditionDefaultsCount();
+         case 13:
+           return message.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(FieldOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 9:
+           return builder.getTargetsCount();
+         case 10:
+           return builder.getEditionDefaultsCount();
+         case 13:
+           return builder.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(FieldOptions message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 9:
+           return message.getTargets(index).getValueDescriptor();
+         case 10:
+           return message.getEditionDefaults(index);
+         case 13:
+           return message.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(FieldOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 9:
+           return builder.getTargets(index).getValueDescriptor();
+         case 10:
+           return builder.getEditionDefaults(index);
+         case 13:
+           return builder.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(FieldOptions.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 9:
+           builder.setTargets(index, com.google.protobuf.DescriptorProtos.FieldOptions.OptionTargetType.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 10:
+           builder.setEditionDefaults(index, message(com.google.protobuf.DescriptorProtos.FieldOptions.EditionDefault.getDefaultInstance(), value));
+           break;
+         case 13:
+           builder.setUninterpretedOption(index, message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(FieldOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 9:
+           builder.addTargets(com.google.protobuf.DescriptorProtos.FieldOptions.OptionTargetType.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 10:
+           builder.addEditionDefaults(message(com.google.protobuf.DescriptorProtos.FieldOptions.EditionDefault.getDefaultInstance(), value));
+           break;
+         case 13:
+           builder.addUninterpretedOption(message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 10:
+           return com.google.protobuf.DescriptorProtos.FieldOptions.EditionDefault.newBuilder();
+         case 11:
+           return com.google.protobuf.DescriptorProtos.FeatureSet.newBuilder();
+         case 12:
+           return com.google.protobuf.DescriptorProtos.FieldOptions.FeatureSupport.newBuilder();
+         case 13:
+           return com.google.protobuf.DescriptorProtos.UninterpretedOption.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(FieldOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 11:
+           return builder.getFeaturesBuilder();
+         case 12:
+           return builder.getFeatureSupportBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(FieldOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 10:
+           return builder.getEditionDefaultsBuilder(index);
+         case 13:
+           return builder.getUninterpretedOptionBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(FieldOptions.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface OneofOptionsOrBuilder extends
@@ -30958,6 +34841,178 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<OneofOptions, OneofOptions.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(OneofOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getFeatures();
+         case 1:
+           return message.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(OneofOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getFeatures();
+         case 1:
+           return builder.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(OneofOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasFeatures();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(OneofOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasFeatures();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(OneofOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setFeatures(message(com.google.protobuf.DescriptorProtos.FeatureSet.getDefaultInstance(), value));
+           break;
+         case 1:
+           builder.clearUninterpretedOption();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(OneofOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearFeatures();
+           break;
+         case 1:
+           builder.clearUninterpretedOption();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(OneofOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return message.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(OneofOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(OneofOptions message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return message.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(OneofOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(OneofOptions.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 1:
+           builder.setUninterpretedOption(index, message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(OneofOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 1:
+           builder.addUninterpretedOption(message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return com.google.protobuf.DescriptorProtos.FeatureSet.newBuilder();
+         case 1:
+           return com.google.protobuf.DescriptorProtos.UninterpretedOption.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(OneofOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getFeaturesBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(OneofOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getUninterpretedOptionBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(OneofOptions.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface EnumOptionsOrBuilder extends
@@ -32246,6 +36301,220 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<EnumOptions, EnumOptions.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(EnumOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getAllowAlias();
+         case 1:
+           return message.getDeprecated();
+         case 2:
+           return message.getDeprecatedLegacyJsonFieldConflicts();
+         case 3:
+           return message.getFeatures();
+         case 4:
+           return message.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(EnumOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getAllowAlias();
+         case 1:
+           return builder.getDeprecated();
+         case 2:
+           return builder.getDeprecatedLegacyJsonFieldConflicts();
+         case 3:
+           return builder.getFeatures();
+         case 4:
+           return builder.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(EnumOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasAllowAlias();
+         case 1:
+           return message.hasDeprecated();
+         case 2:
+           return message.hasDeprecatedLegacyJsonFieldConflicts();
+         case 3:
+           return message.hasFeatures();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(EnumOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasAllowAlias();
+         case 1:
+           return builder.hasDeprecated();
+         case 2:
+           return builder.hasDeprecatedLegacyJsonFieldConflicts();
+         case 3:
+           return builder.hasFeatures();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(EnumOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setAllowAlias((java.lang.Boolean) value);
+           break;
+         case 1:
+           builder.setDeprecated((java.lang.Boolean) value);
+           break;
+         case 2:
+           builder.setDeprecatedLegacyJsonFieldConflicts((java.lang.Boolean) value);
+           break;
+         case 3:
+           builder.setFeatures(message(com.google.protobuf.DescriptorProtos.FeatureSet.getDefaultInstance(), value));
+           break;
+         case 4:
+           builder.clearUninterpretedOption();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(EnumOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearAllowAlias();
+           break;
+         case 1:
+           builder.clearDeprecated();
+           break;
+         case 2:
+           builder.clearDeprecatedLegacyJsonFieldConflicts();
+           break;
+         case 3:
+           builder.clearFeatures();
+           break;
+         case 4:
+           builder.clearUninterpretedOption();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(EnumOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 4:
+           return message.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(EnumOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 4:
+           return builder.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(EnumOptions message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 4:
+           return message.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(EnumOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 4:
+           return builder.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(EnumOptions.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 4:
+           builder.setUninterpretedOption(index, message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(EnumOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 4:
+           builder.addUninterpretedOption(message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 3:
+           return com.google.protobuf.DescriptorProtos.FeatureSet.newBuilder();
+         case 4:
+           return com.google.protobuf.DescriptorProtos.UninterpretedOption.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(EnumOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 3:
+           return builder.getFeaturesBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(EnumOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 4:
+           return builder.getUninterpretedOptionBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(EnumOptions.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface EnumValueOptionsOrBuilder extends
@@ -33619,6 +37888,224 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<EnumValueOptions, EnumValueOptions.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(EnumValueOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getDeprecated();
+         case 1:
+           return message.getFeatures();
+         case 2:
+           return message.getDebugRedact();
+         case 3:
+           return message.getFeatureSupport();
+         case 4:
+           return message.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(EnumValueOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getDeprecated();
+         case 1:
+           return builder.getFeatures();
+         case 2:
+           return builder.getDebugRedact();
+         case 3:
+           return builder.getFeatureSupport();
+         case 4:
+           return builder.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(EnumValueOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasDeprecated();
+         case 1:
+           return message.hasFeatures();
+         case 2:
+           return message.hasDebugRedact();
+         case 3:
+           return message.hasFeatureSupport();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(EnumValueOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasDeprecated();
+         case 1:
+           return builder.hasFeatures();
+         case 2:
+           return builder.hasDebugRedact();
+         case 3:
+           return builder.hasFeatureSupport();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(EnumValueOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setDeprecated((java.lang.Boolean) value);
+           break;
+         case 1:
+           builder.setFeatures(message(com.google.protobuf.DescriptorProtos.FeatureSet.getDefaultInstance(), value));
+           break;
+         case 2:
+           builder.setDebugRedact((java.lang.Boolean) value);
+           break;
+         case 3:
+           builder.setFeatureSupport(message(com.google.protobuf.DescriptorProtos.FieldOptions.FeatureSupport.getDefaultInstance(), value));
+           break;
+         case 4:
+           builder.clearUninterpretedOption();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(EnumValueOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearDeprecated();
+           break;
+         case 1:
+           builder.clearFeatures();
+           break;
+         case 2:
+           builder.clearDebugRedact();
+           break;
+         case 3:
+           builder.clearFeatureSupport();
+           break;
+         case 4:
+           builder.clearUninterpretedOption();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(EnumValueOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 4:
+           return message.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(EnumValueOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 4:
+           return builder.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(EnumValueOptions message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 4:
+           return message.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(EnumValueOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 4:
+           return builder.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(EnumValueOptions.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 4:
+           builder.setUninterpretedOption(index, message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(EnumValueOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 4:
+           builder.addUninterpretedOption(message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return com.google.protobuf.DescriptorProtos.FeatureSet.newBuilder();
+         case 3:
+           return com.google.protobuf.DescriptorProtos.FieldOptions.FeatureSupport.newBuilder();
+         case 4:
+           return com.google.protobuf.DescriptorProtos.UninterpretedOption.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(EnumValueOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.getFeaturesBuilder();
+         case 3:
+           return builder.getFeatureSupportBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(EnumValueOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 4:
+           return builder.getUninterpretedOptionBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(EnumValueOptions.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface ServiceOptionsOrBuilder extends
@@ -34699,6 +39186,192 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<ServiceOptions, ServiceOptions.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(ServiceOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getFeatures();
+         case 1:
+           return message.getDeprecated();
+         case 2:
+           return message.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(ServiceOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getFeatures();
+         case 1:
+           return builder.getDeprecated();
+         case 2:
+           return builder.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(ServiceOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasFeatures();
+         case 1:
+           return message.hasDeprecated();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(ServiceOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasFeatures();
+         case 1:
+           return builder.hasDeprecated();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(ServiceOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setFeatures(message(com.google.protobuf.DescriptorProtos.FeatureSet.getDefaultInstance(), value));
+           break;
+         case 1:
+           builder.setDeprecated((java.lang.Boolean) value);
+           break;
+         case 2:
+           builder.clearUninterpretedOption();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(ServiceOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearFeatures();
+           break;
+         case 1:
+           builder.clearDeprecated();
+           break;
+         case 2:
+           builder.clearUninterpretedOption();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(ServiceOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return message.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(ServiceOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return builder.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(ServiceOptions message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 2:
+           return message.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(ServiceOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 2:
+           return builder.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(ServiceOptions.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 2:
+           builder.setUninterpretedOption(index, message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(ServiceOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 2:
+           builder.addUninterpretedOption(message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return com.google.protobuf.DescriptorProtos.FeatureSet.newBuilder();
+         case 2:
+           return com.google.protobuf.DescriptorProtos.UninterpretedOption.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(ServiceOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getFeaturesBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(ServiceOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 2:
+           return builder.getUninterpretedOptionBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(ServiceOptions.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface MethodOptionsOrBuilder extends
@@ -35997,6 +40670,206 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<MethodOptions, MethodOptions.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(MethodOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getDeprecated();
+         case 1:
+           return message.getIdempotencyLevel().getValueDescriptor();
+         case 2:
+           return message.getFeatures();
+         case 3:
+           return message.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(MethodOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getDeprecated();
+         case 1:
+           return builder.getIdempotencyLevel().getValueDescriptor();
+         case 2:
+           return builder.getFeatures();
+         case 3:
+           return builder.getUninterpretedOptionList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(MethodOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasDeprecated();
+         case 1:
+           return message.hasIdempotencyLevel();
+         case 2:
+           return message.hasFeatures();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(MethodOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasDeprecated();
+         case 1:
+           return builder.hasIdempotencyLevel();
+         case 2:
+           return builder.hasFeatures();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(MethodOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setDeprecated((java.lang.Boolean) value);
+           break;
+         case 1:
+           builder.setIdempotencyLevel(com.google.protobuf.DescriptorProtos.MethodOptions.IdempotencyLevel.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 2:
+           builder.setFeatures(message(com.google.protobuf.DescriptorProtos.FeatureSet.getDefaultInstance(), value));
+           break;
+         case 3:
+           builder.clearUninterpretedOption();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(MethodOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearDeprecated();
+           break;
+         case 1:
+           builder.clearIdempotencyLevel();
+           break;
+         case 2:
+           builder.clearFeatures();
+           break;
+         case 3:
+           builder.clearUninterpretedOption();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(MethodOptions message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 3:
+           return message.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(MethodOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 3:
+           return builder.getUninterpretedOptionCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(MethodOptions message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 3:
+           return message.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(MethodOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 3:
+           return builder.getUninterpretedOption(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(MethodOptions.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 3:
+           builder.setUninterpretedOption(index, message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(MethodOptions.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 3:
+           builder.addUninterpretedOption(message(com.google.protobuf.DescriptorProtos.UninterpretedOption.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return com.google.protobuf.DescriptorProtos.FeatureSet.newBuilder();
+         case 3:
+           return com.google.protobuf.DescriptorProtos.UninterpretedOption.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getBuilder(MethodOptions.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 2:
+           return builder.getFeaturesBuilder();
+         default:
+           return super.getBuilder(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(MethodOptions.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 3:
+           return builder.getUninterpretedOptionBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(MethodOptions.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface UninterpretedOptionOrBuilder extends
@@ -36771,6 +41644,97 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
         return DEFAULT_INSTANCE;
       }
 
+    private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<NamePart, NamePart.Builder> {
+      @java.lang.Override
+      public java.lang.Object get(NamePart message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getNamePart();
+          case 1:
+            return message.getIsExtension();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object get(NamePart.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.getNamePart();
+          case 1:
+            return builder.getIsExtension();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object getRaw(NamePart message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getNamePartBytes();
+          default:
+            return get(message, fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(NamePart message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.hasNamePart();
+          case 1:
+            return message.hasIsExtension();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(NamePart.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.hasNamePart();
+          case 1:
+            return builder.hasIsExtension();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void set(NamePart.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          case 0:
+            builder.setNamePart((java.lang.String) value);
+            break;
+          case 1:
+            builder.setIsExtension((java.lang.Boolean) value);
+            break;
+          default:
+            throw unsupported("set", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void clear(NamePart.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            builder.clearNamePart();
+            break;
+          case 1:
+            builder.clearIsExtension();
+            break;
+          default:
+            throw unsupported("clear", fieldIndex);
+        }
+      }
+    }
+
+    static {
+      com.google.protobuf.gwt.MessageReflectionAccessor.register(NamePart.class, new GwtReflectionAccessor());
+    }
     }
 
     private int bitField0_;
@@ -38086,6 +43050,248 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<UninterpretedOption, UninterpretedOption.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(UninterpretedOption message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getNameList();
+         case 1:
+           return message.getIdentifierValue();
+         case 2:
+           return message.getPositiveIntValue();
+         case 3:
+           return message.getNegativeIntValue();
+         case 4:
+           return message.getDoubleValue();
+         case 5:
+           return message.getStringValue();
+         case 6:
+           return message.getAggregateValue();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(UninterpretedOption.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getNameList();
+         case 1:
+           return builder.getIdentifierValue();
+         case 2:
+           return builder.getPositiveIntValue();
+         case 3:
+           return builder.getNegativeIntValue();
+         case 4:
+           return builder.getDoubleValue();
+         case 5:
+           return builder.getStringValue();
+         case 6:
+           return builder.getAggregateValue();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRaw(UninterpretedOption message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return message.getIdentifierValueBytes();
+         case 6:
+           return message.getAggregateValueBytes();
+         default:
+           return get(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(UninterpretedOption message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return message.hasIdentifierValue();
+         case 2:
+           return message.hasPositiveIntValue();
+         case 3:
+           return message.hasNegativeIntValue();
+         case 4:
+           return message.hasDoubleValue();
+         case 5:
+           return message.hasStringValue();
+         case 6:
+           return message.hasAggregateValue();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(UninterpretedOption.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.hasIdentifierValue();
+         case 2:
+           return builder.hasPositiveIntValue();
+         case 3:
+           return builder.hasNegativeIntValue();
+         case 4:
+           return builder.hasDoubleValue();
+         case 5:
+           return builder.hasStringValue();
+         case 6:
+           return builder.hasAggregateValue();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(UninterpretedOption.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearName();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 1:
+           builder.setIdentifierValue((java.lang.String) value);
+           break;
+         case 2:
+           builder.setPositiveIntValue((java.lang.Long) value);
+           break;
+         case 3:
+           builder.setNegativeIntValue((java.lang.Long) value);
+           break;
+         case 4:
+           builder.setDoubleValue((java.lang.Double) value);
+           break;
+         case 5:
+           builder.setStringValue((com.google.protobuf.ByteString) value);
+           break;
+         case 6:
+           builder.setAggregateValue((java.lang.String) value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(UninterpretedOption.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearName();
+           break;
+         case 1:
+           builder.clearIdentifierValue();
+           break;
+         case 2:
+           builder.clearPositiveIntValue();
+           break;
+         case 3:
+           builder.clearNegativeIntValue();
+           break;
+         case 4:
+           builder.clearDoubleValue();
+           break;
+         case 5:
+           builder.clearStringValue();
+           break;
+         case 6:
+           builder.clearAggregateValue();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(UninterpretedOption message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getNameCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(UninterpretedOption.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getNameCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(UninterpretedOption message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getName(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(UninterpretedOption.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getName(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(UninterpretedOption.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setName(index, message(com.google.protobuf.DescriptorProtos.UninterpretedOption.NamePart.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(UninterpretedOption.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.addName(message(com.google.protobuf.DescriptorProtos.UninterpretedOption.NamePart.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return com.google.protobuf.DescriptorProtos.UninterpretedOption.NamePart.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(UninterpretedOption.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getNameBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(UninterpretedOption.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface FeatureSetOrBuilder extends
@@ -39497,6 +44703,59 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
         return DEFAULT_INSTANCE;
       }
 
+    private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<VisibilityFeature, VisibilityFeature.Builder> {
+      @java.lang.Override
+      public java.lang.Object get(VisibilityFeature message, int fieldIndex) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object get(VisibilityFeature.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(VisibilityFeature message, int fieldIndex) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(VisibilityFeature.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void set(VisibilityFeature.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("set", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void clear(VisibilityFeature.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("clear", fieldIndex);
+        }
+      }
+    }
+
+    static {
+      com.google.protobuf.gwt.MessageReflectionAccessor.register(VisibilityFeature.class, new GwtReflectionAccessor());
+    }
     }
 
     private int bitField0_;
@@ -40577,6 +45836,171 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<FeatureSet, FeatureSet.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(FeatureSet message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getFieldPresence().getValueDescriptor();
+         case 1:
+           return message.getEnumType().getValueDescriptor();
+         case 2:
+           return message.getRepeatedFieldEncoding().getValueDescriptor();
+         case 3:
+           return message.getUtf8Validation().getValueDescriptor();
+         case 4:
+           return message.getMessageEncoding().getValueDescriptor();
+         case 5:
+           return message.getJsonFormat().getValueDescriptor();
+         case 6:
+           return message.getEnforceNamingStyle().getValueDescriptor();
+         case 7:
+           return message.getDefaultSymbolVisibility().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(FeatureSet.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getFieldPresence().getValueDescriptor();
+         case 1:
+           return builder.getEnumType().getValueDescriptor();
+         case 2:
+           return builder.getRepeatedFieldEncoding().getValueDescriptor();
+         case 3:
+           return builder.getUtf8Validation().getValueDescriptor();
+         case 4:
+           return builder.getMessageEncoding().getValueDescriptor();
+         case 5:
+           return builder.getJsonFormat().getValueDescriptor();
+         case 6:
+           return builder.getEnforceNamingStyle().getValueDescriptor();
+         case 7:
+           return builder.getDefaultSymbolVisibility().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FeatureSet message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasFieldPresence();
+         case 1:
+           return message.hasEnumType();
+         case 2:
+           return message.hasRepeatedFieldEncoding();
+         case 3:
+           return message.hasUtf8Validation();
+         case 4:
+           return message.hasMessageEncoding();
+         case 5:
+           return message.hasJsonFormat();
+         case 6:
+           return message.hasEnforceNamingStyle();
+         case 7:
+           return message.hasDefaultSymbolVisibility();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FeatureSet.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasFieldPresence();
+         case 1:
+           return builder.hasEnumType();
+         case 2:
+           return builder.hasRepeatedFieldEncoding();
+         case 3:
+           return builder.hasUtf8Validation();
+         case 4:
+           return builder.hasMessageEncoding();
+         case 5:
+           return builder.hasJsonFormat();
+         case 6:
+           return builder.hasEnforceNamingStyle();
+         case 7:
+           return builder.hasDefaultSymbolVisibility();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(FeatureSet.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setFieldPresence(com.google.protobuf.DescriptorProtos.FeatureSet.FieldPresence.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 1:
+           builder.setEnumType(com.google.protobuf.DescriptorProtos.FeatureSet.EnumType.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 2:
+           builder.setRepeatedFieldEncoding(com.google.protobuf.DescriptorProtos.FeatureSet.RepeatedFieldEncoding.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 3:
+           builder.setUtf8Validation(com.google.protobuf.DescriptorProtos.FeatureSet.Utf8Validation.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 4:
+           builder.setMessageEncoding(com.google.protobuf.DescriptorProtos.FeatureSet.MessageEncoding.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 5:
+           builder.setJsonFormat(com.google.protobuf.DescriptorProtos.FeatureSet.JsonFormat.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 6:
+           builder.setEnforceNamingStyle(com.google.protobuf.DescriptorProtos.FeatureSet.EnforceNamingStyle.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 7:
+           builder.setDefaultSymbolVisibility(com.google.protobuf.DescriptorProtos.FeatureSet.VisibilityFeature.DefaultSymbolVisibility.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(FeatureSet.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearFieldPresence();
+           break;
+         case 1:
+           builder.clearEnumType();
+           break;
+         case 2:
+           builder.clearRepeatedFieldEncoding();
+           break;
+         case 3:
+           builder.clearUtf8Validation();
+           break;
+         case 4:
+           builder.clearMessageEncoding();
+           break;
+         case 5:
+           builder.clearJsonFormat();
+           break;
+         case 6:
+           builder.clearEnforceNamingStyle();
+           break;
+         case 7:
+           builder.clearDefaultSymbolVisibility();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(FeatureSet.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface FeatureSetDefaultsOrBuilder extends
@@ -41535,6 +46959,125 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
         return DEFAULT_INSTANCE;
       }
 
+    private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<FeatureSetEditionDefault, FeatureSetEditionDefault.Builder> {
+      @java.lang.Override
+      public java.lang.Object get(FeatureSetEditionDefault message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getEdition().getValueDescriptor();
+          case 1:
+            return message.getOverridableFeatures();
+          case 2:
+            return message.getFixedFeatures();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object get(FeatureSetEditionDefault.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.getEdition().getValueDescriptor();
+          case 1:
+            return builder.getOverridableFeatures();
+          case 2:
+            return builder.getFixedFeatures();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(FeatureSetEditionDefault message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.hasEdition();
+          case 1:
+            return message.hasOverridableFeatures();
+          case 2:
+            return message.hasFixedFeatures();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(FeatureSetEditionDefault.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.hasEdition();
+          case 1:
+            return builder.hasOverridableFeatures();
+          case 2:
+            return builder.hasFixedFeatures();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void set(FeatureSetEditionDefault.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          case 0:
+            builder.setEdition(com.google.protobuf.DescriptorProtos.Edition.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+            break;
+          case 1:
+            builder.setOverridableFeatures(message(com.google.protobuf.DescriptorProtos.FeatureSet.getDefaultInstance(), value));
+            break;
+          case 2:
+            builder.setFixedFeatures(message(com.google.protobuf.DescriptorProtos.FeatureSet.getDefaultInstance(), value));
+            break;
+          default:
+            throw unsupported("set", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void clear(FeatureSetEditionDefault.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            builder.clearEdition();
+            break;
+          case 1:
+            builder.clearOverridableFeatures();
+            break;
+          case 2:
+            builder.clearFixedFeatures();
+            break;
+          default:
+            throw unsupported("clear", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+        switch (fieldIndex) {
+          case 1:
+            return com.google.protobuf.DescriptorProtos.FeatureSet.newBuilder();
+          case 2:
+            return com.google.protobuf.DescriptorProtos.FeatureSet.newBuilder();
+          default:
+            return super.newBuilder(fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Message.Builder getBuilder(FeatureSetEditionDefault.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 1:
+            return builder.getOverridableFeaturesBuilder();
+          case 2:
+            return builder.getFixedFeaturesBuilder();
+          default:
+            return super.getBuilder(builder, fieldIndex);
+        }
+      }
+    }
+
+    static {
+      com.google.protobuf.gwt.MessageReflectionAccessor.register(FeatureSetEditionDefault.class, new GwtReflectionAccessor());
+    }
     }
 
     private int bitField0_;
@@ -42382,6 +47925,180 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<FeatureSetDefaults, FeatureSetDefaults.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(FeatureSetDefaults message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getDefaultsList();
+         case 1:
+           return message.getMinimumEdition().getValueDescriptor();
+         case 2:
+           return message.getMaximumEdition().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(FeatureSetDefaults.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getDefaultsList();
+         case 1:
+           return builder.getMinimumEdition().getValueDescriptor();
+         case 2:
+           return builder.getMaximumEdition().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FeatureSetDefaults message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return message.hasMinimumEdition();
+         case 2:
+           return message.hasMaximumEdition();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(FeatureSetDefaults.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 1:
+           return builder.hasMinimumEdition();
+         case 2:
+           return builder.hasMaximumEdition();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(FeatureSetDefaults.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearDefaults();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         case 1:
+           builder.setMinimumEdition(com.google.protobuf.DescriptorProtos.Edition.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 2:
+           builder.setMaximumEdition(com.google.protobuf.DescriptorProtos.Edition.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(FeatureSetDefaults.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearDefaults();
+           break;
+         case 1:
+           builder.clearMinimumEdition();
+           break;
+         case 2:
+           builder.clearMaximumEdition();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(FeatureSetDefaults message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getDefaultsCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(FeatureSetDefaults.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getDefaultsCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(FeatureSetDefaults message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getDefaults(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(FeatureSetDefaults.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getDefaults(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(FeatureSetDefaults.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setDefaults(index, message(com.google.protobuf.DescriptorProtos.FeatureSetDefaults.FeatureSetEditionDefault.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(FeatureSetDefaults.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.addDefaults(message(com.google.protobuf.DescriptorProtos.FeatureSetDefaults.FeatureSetEditionDefault.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return com.google.protobuf.DescriptorProtos.FeatureSetDefaults.FeatureSetEditionDefault.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(FeatureSetDefaults.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getDefaultsBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(FeatureSetDefaults.class, new GwtReflectionAccessor());
+   }
   }
 
   public interface SourceCodeInfoOrBuilder extends
@@ -43735,6 +49452,222 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
         return DEFAULT_INSTANCE;
       }
 
+    private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<Location, Location.Builder> {
+      @java.lang.Override
+      public java.lang.Object get(Location message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getPathList();
+          case 1:
+            return message.getSpanList();
+          case 2:
+            return message.getLeadingComments();
+          case 3:
+            return message.getTrailingComments();
+          case 4:
+            return message.getLeadingDetachedCommentsList();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object get(Location.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.getPathList();
+          case 1:
+            return builder.getSpanList();
+          case 2:
+            return builder.getLeadingComments();
+          case 3:
+            return builder.getTrailingComments();
+          case 4:
+            return builder.getLeadingDetachedCommentsList();
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object getRaw(Location message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 2:
+            return message.getLeadingCommentsBytes();
+          case 3:
+            return message.getTrailingCommentsBytes();
+          default:
+            return get(message, fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(Location message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 2:
+            return message.hasLeadingComments();
+          case 3:
+            return message.hasTrailingComments();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(Location.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 2:
+            return builder.hasLeadingComments();
+          case 3:
+            return builder.hasTrailingComments();
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void set(Location.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          case 0:
+            builder.clearPath();
+            addAllRepeated(builder, fieldIndex, value);
+            break;
+          case 1:
+            builder.clearSpan();
+            addAllRepeated(builder, fieldIndex, value);
+            break;
+          case 2:
+            builder.setLeadingComments((java.lang.String) value);
+            break;
+          case 3:
+            builder.setTrailingComments((java.lang.String) value);
+            break;
+          case 4:
+            builder.clearLeadingDetachedComments();
+            addAllRepeated(builder, fieldIndex, value);
+            break;
+          default:
+            throw unsupported("set", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void clear(Location.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            builder.clearPath();
+            break;
+          case 1:
+            builder.clearSpan();
+            break;
+          case 2:
+            builder.clearLeadingComments();
+            break;
+          case 3:
+            builder.clearTrailingComments();
+            break;
+          case 4:
+            builder.clearLeadingDetachedComments();
+            break;
+          default:
+            throw unsupported("clear", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public int getRepeatedCount(Location message, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getPathCount();
+          case 1:
+            return message.getSpanCount();
+          case 4:
+            return message.getLeadingDetachedCommentsCount();
+          default:
+            return super.getRepeatedCount(message, fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public int getRepeatedCount(Location.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.getPathCount();
+          case 1:
+            return builder.getSpanCount();
+          case 4:
+            return builder.getLeadingDetachedCommentsCount();
+          default:
+            return super.getRepeatedCount(builder, fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object getRepeated(Location message, int fieldIndex, int index) {
+        switch (fieldIndex) {
+          case 0:
+            return message.getPath(index);
+          case 1:
+            return message.getSpan(index);
+          case 4:
+            return message.getLeadingDetachedComments(index);
+          default:
+            return super.getRepeated(message, fieldIndex, index);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object getRepeated(Location.Builder builder, int fieldIndex, int index) {
+        switch (fieldIndex) {
+          case 0:
+            return builder.getPath(index);
+          case 1:
+            return builder.getSpan(index);
+          case 4:
+            return builder.getLeadingDetachedComments(index);
+          default:
+            return super.getRepeated(builder, fieldIndex, index);
+        }
+      }
+
+      @java.lang.Override
+      public void setRepeated(Location.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+        switch (fieldIndex) {
+          case 0:
+            builder.setPath(index, (java.lang.Integer) value);
+            break;
+          case 1:
+            builder.setSpan(index, (java.lang.Integer) value);
+            break;
+          case 4:
+            builder.setLeadingDetachedComments(index, (java.lang.String) value);
+            break;
+          default:
+            super.setRepeated(builder, fieldIndex, index, value);
+        }
+      }
+
+      @java.lang.Override
+      public void addRepeated(Location.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          case 0:
+            builder.addPath((java.lang.Integer) value);
+            break;
+          case 1:
+            builder.addSpan((java.lang.Integer) value);
+            break;
+          case 4:
+            builder.addLeadingDetachedComments((java.lang.String) value);
+            break;
+          default:
+            super.addRepeated(builder, fieldIndex, value);
+        }
+      }
+    }
+
+    static {
+      com.google.protobuf.gwt.MessageReflectionAccessor.register(Location.class, new GwtReflectionAccessor());
+    }
     }
 
     public static final int LOCATION_FIELD_NUMBER = 1;
@@ -44424,6 +50357,152 @@ public final class DescriptorProtos extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<SourceCodeInfo, SourceCodeInfo.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(SourceCodeInfo message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getLocationList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(SourceCodeInfo.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getLocationList();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(SourceCodeInfo message, int fieldIndex) {
+       switch (fieldIndex) {
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(SourceCodeInfo.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(SourceCodeInfo.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearLocation();
+           addAllRepeated(builder, fieldIndex, value);
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(SourceCodeInfo.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearLocation();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(SourceCodeInfo message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getLocationCount();
+         default:
+           return super.getRepeatedCount(message, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public int getRepeatedCount(SourceCodeInfo.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getLocationCount();
+         default:
+           return super.getRepeatedCount(builder, fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(SourceCodeInfo message, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getLocation(index);
+         default:
+           return super.getRepeated(message, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object getRepeated(SourceCodeInfo.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getLocation(index);
+         default:
+           return super.getRepeated(builder, fieldIndex, index);
+       }
+     }
+
+     @java.lang.Override
+     public void setRepeated(SourceCodeInfo.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setLocation(index, message(com.google.protobuf.DescriptorProtos.SourceCodeInfo.Location.getDefaultInstance(), value));
+           break;
+         default:
+           super.setRepeated(builder, fieldIndex, index, value);
+       }
+     }
+
+     @java.lang.Override
+     public void addRepeated(SourceCodeInfo.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.addLocation(message(com.google.protobuf.DescriptorProtos.SourceCodeInfo.Location.getDefaultInstance(), value));
+           break;
+         default:
+           super.addRepeated(builder, fieldIndex, value);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return com.google.protobuf.DescriptorProtos.SourceCodeInfo.Location.newBuilder();
+         default:
+           return super.newBuilder(fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public com.google.protobuf.Message.Builder getRepeatedBuilder(SourceCodeInfo.Builder builder, int fieldIndex, int index) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getLocationBuilder(index);
+         default:
+           return super.getRepeatedBuilder(builder, fieldIndex, index);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(SourceCodeInfo.class, new GwtReflectionAccessor());
+   }
   }
 
   private static final com.google.protobuf.Descriptors.Descriptor
@@ -30,14 +30,13 @@ import com.google.protobuf.DescriptorProtos.OneofOptions;
 import com.google.protobuf.DescriptorProtos.ServiceDescriptorProto;
 import com.google.protobuf.DescriptorProtos.ServiceOptions;
 import com.google.protobuf.JavaFeaturesProto.JavaFeatures;
-import java.lang.ref.ReferenceQueue;
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -110,7 +109,14 @@ public final class Descriptors {
   }
 
   static FeatureSet getEditionDefaults(Edition edition) {
-    FeatureSetDefaults javaEditionDefaults = getJavaEditionDefaults();
+    FeatureSetDefaults javaEditionDefaults = Descriptors.javaEditionDefaults;
+    if (javaEditionDefaults == null) {
+      return PrecomputedEditionDefaults.get(edition);
+    }
+    return getEditionDefaults(javaEditionDefaults, edition);
+  }
+
+  static FeatureSet getEditionDefaults(FeatureSetDefaults javaEditionDefaults, Edition edition) {
     if (edition.getNumber() < javaEditionDefaults.getMinimumEdition().getNumber()) {
       throw new IllegalArgumentException(
           "Edition "
@@ -141,6 +147,93 @@ public final class Descriptors {
     return found.getFixedFeatures().toBuilder().mergeFrom(found.getOverridableFeatures()).build();
   }
 
+  /**
+   * The defaults in {@link JavaEditionDefaults#PROTOBUF_INTERNAL_JAVA_EDITION_DEFAULTS}, with the
+   * fixed and overridable features of each edition already merged, so that resolving features
+   * neither parses them nor needs an {@code ExtensionRegistry}. These must be updated along with
+   * that string, which {@code DescriptorsTest} checks.
+   */
+  private static final class PrecomputedEditionDefaults {
+    static final JavaFeatures LEGACY_JAVA =
+        JavaFeatures.newBuilder()
+            .setLegacyClosedEnum(true)
+            .setUtf8Validation(JavaFeatures.Utf8Validation.DEFAULT)
+            .setLargeEnum(false)
+            .setUseOldOuterClassnameDefault(true)
+            .setNestInFileClass(JavaFeatures.NestInFileClassFeature.NestInFileClass.LEGACY)
+            .build();
+
+    static final FeatureSet LEGACY =
+        FeatureSet.newBuilder()
+            .setFieldPresence(FeatureSet.FieldPresence.EXPLICIT)
+            .setEnumType(FeatureSet.EnumType.CLOSED)
+            .setRepeatedFieldEncoding(FeatureSet.RepeatedFieldEncoding.EXPANDED)
+            .setUtf8Validation(FeatureSet.Utf8Validation.NONE)
+            .setMessageEncoding(FeatureSet.MessageEncoding.LENGTH_PREFIXED)
+            .setJsonFormat(FeatureSet.JsonFormat.LEGACY_BEST_EFFORT)
+            .setEnforceNamingStyle(FeatureSet.EnforceNamingStyle.STYLE_LEGACY)
+            .setDefaultSymbolVisibility(
+                FeatureSet.VisibilityFeature.DefaultSymbolVisibility.EXPORT_ALL)
+            .setExtension(JavaFeaturesProto.java_, LEGACY_JAVA)
+            .build();
+
+    static final JavaFeatures PROTO3_JAVA =
+        LEGACY_JAVA.toBuilder().setLegacyClosedEnum(false).build();
+
+    static final FeatureSet PROTO3 =
+        LEGACY.toBuilder()
+            .setFieldPresence(FeatureSet.FieldPresence.IMPLICIT)
+            .setEnumType(FeatureSet.EnumType.OPEN)
+            .setRepeatedFieldEncoding(FeatureSet.RepeatedFieldEncoding.PACKED)
+            .setUtf8Validation(FeatureSet.Utf8Validation.VERIFY)
+            .setJsonFormat(FeatureSet.JsonFormat.ALLOW)
+            .setExtension(JavaFeaturesProto.java_, PROTO3_JAVA)
+            .build();
+
+    static final FeatureSet EDITION_2023 =
+        PROTO3.toBuilder().setFieldPresence(FeatureSet.FieldPresence.EXPLICIT).build();
+
+    static final FeatureSet EDITION_2024 =
+        EDITION_2023.toBuilder()
+            .setEnforceNamingStyle(FeatureSet.EnforceNamingStyle.STYLE2024)
+            .setDefaultSymbolVisibility(
+                FeatureSet.VisibilityFeature.DefaultSymbolVisibility.EXPORT_TOP_LEVEL)
+            .setExtension(
+                JavaFeaturesProto.java_,
+                PROTO3_JAVA.toBuilder()
+                    .setUseOldOuterClassnameDefault(false)
+                    .setNestInFileClass(JavaFeatures.NestInFileClassFeature.NestInFileClass.NO)
+                    .build())
+            .build();
+
+    static FeatureSet get(Edition edition) {
+      if (edition.getNumber() < Edition.EDITION_PROTO2.getNumber()) {
+        throw new IllegalArgumentException(
+            "Edition "
+                + edition
+                + " is lower than the minimum supported edition "
+                + Edition.EDITION_PROTO2
+                + "!");
+      }
+      if (edition.getNumber() > Edition.EDITION_2024.getNumber()) {
+        throw new IllegalArgumentException(
+            "Edition "
+                + edition
+                + " is greater than the maximum supported edition "
+                + Edition.EDITION_2024
+                + "!");
+      }
+      if (edition.getNumber() >= Edition.EDITION_2024.getNumber()) {
+        return EDITION_2024;
+      } else if (edition.getNumber() >= Edition.EDITION_2023.getNumber()) {
+        return EDITION_2023;
+      } else if (edition.getNumber() >= Edition.EDITION_PROTO3.getNumber()) {
+        return PROTO3;
+      }
+      return LEGACY;
+    }
+  }
+
   private static FeatureSet internFeatures(FeatureSet features) {
     FeatureSet cached = FEATURE_CACHE.putIfAbsent(features, features);
     if (cached == null) {
@@ -157,11 +250,13 @@ public final class Descriptors {
   public static final class FileDescriptor extends GenericDescriptor {
     /** Convert the descriptor to its protocol message representation. */
     public FileDescriptorProto toProto() {
+      ensureBuilt();
       return proto;
     }
 
     /** Get the file name. */
     public String getName() {
+      ensureBuilt();
       return proto.getName();
     }
 
@@ -174,12 +269,17 @@ public final class Descriptors {
       return null;
     }
 
+    FeatureSet getUnresolvedFeatures() {
+      return proto.getOptions().getFeatures();
+    }
+
     public boolean isPlaceholder() {
       return placeholder;
     }
 
     /** Returns the same as getName(). */
     public String getFullName() {
+      ensureBuilt();
       return proto.getName();
     }
 
@@ -188,11 +288,13 @@ public final class Descriptors {
      * in the {@code .proto} file, which differs from the Java package.
      */
     public String getPackage() {
+      ensureBuilt();
       return proto.getPackage();
     }
 
     /** Get the {@code FileOptions}, defined in {@code descriptor.proto}. */
     public FileOptions getOptions() {
+      ensureBuilt();
       if (this.options == null) {
         FileOptions strippedOptions = this.proto.getOptions();
         if (strippedOptions.hasFeatures()) {
@@ -212,53 +314,67 @@ public final class Descriptors {
 
     /** Get a list of top-level message types declared in this file. */
     public List<Descriptor> getMessageTypes() {
+      ensureBuilt();
       return Collections.unmodifiableList(Arrays.asList(messageTypes));
     }
 
     public int getMessageTypeCount() {
+      ensureBuilt();
       return messageTypes.length;
     }
 
     public Descriptor getMessageType(int index) {
+      if (descriptorDataParts != null) {
+        return getLazyMessageType(null, index);
+      }
       return messageTypes[index];
     }
 
     /** Get a list of top-level enum types declared in this file. */
     public List<EnumDescriptor> getEnumTypes() {
+      ensureBuilt();
       return Collections.unmodifiableList(Arrays.asList(enumTypes));
     }
 
     public int getEnumTypeCount() {
+      ensureBuilt();
       return enumTypes.length;
     }
 
     public EnumDescriptor getEnumType(int index) {
+      ensureBuilt();
       return enumTypes[index];
     }
 
     /** Get a list of top-level services declared in this file. */
     public List<ServiceDescriptor> getServices() {
+      ensureBuilt();
       return Collections.unmodifiableList(Arrays.asList(services));
     }
 
     public int getServiceCount() {
+      ensureBuilt();
       return services.length;
     }
 
     public ServiceDescriptor getService(int index) {
+      ensureBuilt();
       return services[index];
     }
 
     /** Get a list of top-level extensions declared in this file. */
     public List<FieldDescriptor> getExtensions() {
+      ensureBuilt();
       return Collections.unmodifiableList(Arrays.asList(extensions));
     }
 
     public int getExtensionCount() {
+      ensureBuilt();
       return extensions.length;
     }
 
     public FieldDescriptor getExtension(int index) {
+      ensureBuilt();
       return extensions[index];
     }
 
@@ -269,11 +385,13 @@ public final class Descriptors {
 
     /** Get a list of this file's public dependencies (public imports). */
     public List<FileDescriptor> getPublicDependencies() {
+      ensureBuilt();
       return Collections.unmodifiableList(Arrays.asList(publicDependencies));
     }
 
     /** Get the edition of the .proto file. */
     Edition getEdition() {
+      ensureBuilt();
       switch (proto.getSyntax()) {
         case "editions":
           return proto.getEdition();
@@ -285,6 +403,7 @@ public final class Descriptors {
     }
 
     public void copyHeadingTo(FileDescriptorProto.Builder protoBuilder) {
+      ensureBuilt();
       protoBuilder.setName(getName()).setSyntax(proto.getSyntax());
       if (!getPackage().isEmpty()) {
         protoBuilder.setPackage(getPackage());
@@ -514,27 +633,140 @@ public final class Descriptors {
     /**
      * This method is to be called by generated code only. It is equivalent to {@code buildFrom}
      * except that the {@code FileDescriptorProto} is encoded in protocol buffer wire format.
+     *
+     * <p>The {@code FileDescriptorProto} is not parsed and linked until the file is first used,
+     * since generated files are initialized at startup whether or not their descriptors are ever
+     * needed. Until then, {@link #getMessageType} and {@link Descriptor#getNestedType} return the
+     * descriptors that will be filled in when the file is built, so that generated code can hold on
+     * to them. Any other method of the file or of those descriptors builds the file, along with its
+     * dependencies.
      */
     public static FileDescriptor internalBuildGeneratedFileFrom(
         final String[] descriptorDataParts, final FileDescriptor[] dependencies) {
-      final byte[] descriptorBytes = latin1Cat(descriptorDataParts);
+      return new FileDescriptor(descriptorDataParts, dependencies, null);
+    }
 
-      FileDescriptorProto proto;
-      try {
-        proto = FileDescriptorProto.parseFrom(descriptorBytes);
-      } catch (InvalidProtocolBufferException e) {
-        throw new IllegalArgumentException(
-            "Failed to parse protocol buffer descriptor for generated code.", e);
+    /**
+     * This method is to be called by generated code only. It is equivalent to {@link
+     * #internalBuildGeneratedFileFrom(String[], FileDescriptor[])}, but with the file's type
+     * references already resolved at build time by the {@code PrecompileDescriptorTables} recipe.
+     *
+     * <p>{@code linkTable} has one entry for each type name that cross-linking looks up, in the
+     * order they are looked up: the extendee and then the type of each field and extension, and the
+     * input and output types of each method. An entry is the index of the file, 0 for this one or
+     * {@code i + 1} for {@code dependencies[i]}, shifted left by {@link #LINK_FILE_SHIFT}, plus the
+     * index of the type in the order of {@link #getLinkedType}. Entries of -1, or that don't match
+     * the name they are for, are looked up by name as usual. Names in the file are not validated
+     * again either, as the recipe has already done so.
+     */
+    public static FileDescriptor internalBuildGeneratedFileFrom(
+        final String[] descriptorDataParts,
+        final FileDescriptor[] dependencies,
+        final int[] linkTable) {
+      return new FileDescriptor(descriptorDataParts, dependencies, linkTable);
+    }
+
+    static final int LINK_FILE_SHIFT = 20;
+    static final int LINK_TYPE_MASK = (1 << LINK_FILE_SHIFT) - 1;
+
+    /**
+     * Returns the message or enum type at {@code index} when all of them are listed depth first:
+     * each top-level message type is followed by its nested types, recursively, and then its enum
+     * types, and the file's top-level enum types come last. Returns null if there is no such type.
+     */
+    GenericDescriptor getLinkedType(int index) {
+      ensureBuilt();
+      GenericDescriptor[] types = linkedTypes;
+      if (types == null) {
+        List<GenericDescriptor> list = new ArrayList<>();
+        for (Descriptor messageType : messageTypes) {
+          messageType.addLinkedTypes(list);
+        }
+        Collections.addAll(list, enumTypes);
+        types = list.toArray(new GenericDescriptor[0]);
+        linkedTypes = types;
       }
+      return index >= 0 && index < types.length ? types[index] : null;
+    }
 
-      try {
-        // When building descriptors for generated code, we allow unknown
-        // dependencies by default and delay feature resolution until later.
-        return buildFrom(proto, dependencies, true, true);
-      } catch (DescriptorValidationException e) {
-        throw new IllegalArgumentException(
-            "Invalid embedded descriptor for \"" + proto.getName() + "\".", e);
+    /** Parses and links a file from {@link #internalBuildGeneratedFileFrom}, if not yet done. */
+    void ensureBuilt() {
+      if (descriptorDataParts == null) {
+        return;
+      }
+      if (!com.google.protobuf.gwt.DescriptorSupport.ENABLED) {
+        throw com.google.protobuf.gwt.DescriptorSupport.unsupported("Using a generated descriptor");
+      }
+      synchronized (this) {
+        // Building calls back into this file's own methods, which must see it as it is so far.
+        if (descriptorDataParts == null || building) {
+          return;
+        }
+        building = true;
+        try {
+          final byte[] descriptorBytes = latin1Cat(descriptorDataParts);
+
+          FileDescriptorProto proto;
+          try {
+            proto = FileDescriptorProto.parseFrom(descriptorBytes);
+          } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException(
+                "Failed to parse protocol buffer descriptor for generated code.", e);
+          }
+
+          try {
+            // When building descriptors for generated code, we allow unknown
+            // dependencies by default, and leave features to be resolved when queried.
+            FileDescriptorTables tables = new FileDescriptorTables(dependencies, true);
+            tables.setLinkTable(this, linkTable);
+            translate(proto, tables, true);
+            crossLink();
+          } catch (DescriptorValidationException e) {
+            throw new IllegalArgumentException(
+                "Invalid embedded descriptor for \"" + proto.getName() + "\".", e);
+          }
+          lazyMessageTypes = null;
+          linkTable = null;
+          tables.setLinkTable(null, null);
+          descriptorDataParts = null;
+        } finally {
+          building = false;
+        }
+      }
+    }
+
+    /**
+     * Returns the message type at {@code index} in {@code parent}, or at the top level of this file
+     * if {@code parent} is null, before the file has been built.
+     */
+    private synchronized Descriptor getLazyMessageType(Descriptor parent, int index) {
+      if (descriptorDataParts == null) {
+        return parent == null ? messageTypes[index] : parent.nestedTypes[index];
+      }
+      if (index < 0) {
+        throw new IndexOutOfBoundsException("Index: " + index);
+      }
+      List<Descriptor> types;
+      if (parent == null) {
+        if (lazyMessageTypes == null) {
+          lazyMessageTypes = new ArrayList<>();
+        }
+        types = lazyMessageTypes;
+      } else {
+        if (parent.lazyNestedTypes == null) {
+          parent.lazyNestedTypes = new ArrayList<>();
+        }
+        types = parent.lazyNestedTypes;
+      }
+      while (types.size() <= index) {
+        types.add(null);
       }
+      Descriptor type = types.get(index);
+      if (type == null) {
+        type = new Descriptor(this, parent, index);
+        types.set(index, type);
+      }
+      return type;
     }
 
     /**
@@ -557,15 +789,23 @@ public final class Descriptors {
 
     private FileDescriptorProto proto;
     private volatile FileOptions options;
-    private final Descriptor[] messageTypes;
-    private final EnumDescriptor[] enumTypes;
-    private final ServiceDescriptor[] services;
-    private final FieldDescriptor[] extensions;
+    private Descriptor[] messageTypes;
+    private EnumDescriptor[] enumTypes;
+    private ServiceDescriptor[] services;
+    private FieldDescriptor[] extensions;
     private final FileDescriptor[] dependencies;
-    private final FileDescriptor[] publicDependencies;
-    private final FileDescriptorTables tables;
+    private FileDescriptor[] publicDependencies;
+    private FileDescriptorTables tables;
     private final boolean placeholder;
     private volatile boolean featuresResolved;
+    private volatile boolean resolveFeaturesOnFirstUse;
+
+    // Set until a file created by internalBuildGeneratedFileFrom() is built.
+    private volatile String[] descriptorDataParts;
+    private boolean building;
+    private List<Descriptor> lazyMessageTypes;
+    private int[] linkTable;
+    private volatile GenericDescriptor[] linkedTypes;
 
     private FileDescriptor(
         final FileDescriptorProto proto,
@@ -573,10 +813,31 @@ public final class Descriptors {
         final FileDescriptorTables tables,
         boolean allowUnknownDependencies)
         throws DescriptorValidationException {
-      this.tables = tables;
-      this.proto = proto;
       this.dependencies = com.google.protobuf.gwt.StaticImpls.clone(dependencies);
       this.featuresResolved = false;
+      this.placeholder = false;
+      translate(proto, tables, allowUnknownDependencies);
+    }
+
+    /** Create a FileDescriptor for generated code, to be built when it is first used. */
+    private FileDescriptor(
+        final String[] descriptorDataParts,
+        final FileDescriptor[] dependencies,
+        final int[] linkTable) {
+      this.dependencies = com.google.protobuf.gwt.StaticImpls.clone(dependencies);
+      this.featuresResolved = false;
+      this.placeholder = false;
+      this.descriptorDataParts = descriptorDataParts;
+      this.linkTable = linkTable;
+    }
+
+    private void translate(
+        final FileDescriptorProto proto,
+        final FileDescriptorTables tables,
+        boolean allowUnknownDependencies)
+        throws DescriptorValidationException {
+      this.tables = tables;
+      this.proto = proto;
       HashMap<String, FileDescriptor> nameToFileMap = new HashMap<>();
       for (FileDescriptor file : dependencies) {
         nameToFileMap.put(file.getName(), file);
@@ -601,8 +862,6 @@ public final class Descriptors {
       this.publicDependencies = new FileDescriptor[publicDependencies.size()];
       publicDependencies.toArray(this.publicDependencies);
 
-      placeholder = false;
-
       tables.addPackage(getPackage(), this);
 
       messageTypes =
@@ -610,7 +869,8 @@ public final class Descriptors {
               ? new Descriptor[proto.getMessageTypeCount()]
               : EMPTY_DESCRIPTORS;
       for (int i = 0; i < proto.getMessageTypeCount(); i++) {
-        messageTypes[i] = new Descriptor(proto.getMessageType(i), this, null, i);
+        messageTypes[i] =
+            Descriptor.translate(lazyMessageTypes, proto.getMessageType(i), this, null, i);
       }
 
       enumTypes =
@@ -662,12 +922,13 @@ public final class Descriptors {
       tables.addSymbol(message);
     }
 
+    /**
+     * This method is to be called by generated code only. Rather than resolving the features of
+     * every descriptor in the file up front, each descriptor resolves its own when they are first
+     * queried, from the precomputed edition defaults and the features of its parents.
+     */
     public void resolveAllFeaturesImmutable() {
-      try {
-        resolveAllFeaturesInternal();
-      } catch (DescriptorValidationException e) {
-        throw new IllegalArgumentException("Invalid features for \"" + proto.getName() + "\".", e);
-      }
+      resolveFeaturesOnFirstUse = true;
     }
 
     /**
@@ -800,11 +1061,13 @@ public final class Descriptors {
 
     /** Convert the descriptor to its protocol message representation. */
     public DescriptorProto toProto() {
+      ensureBuilt();
       return proto;
     }
 
     /** Get the type's unqualified name. */
     public String getName() {
+      ensureBuilt();
       return proto.getName();
     }
 
@@ -821,6 +1084,7 @@ public final class Descriptors {
      * {@code Baz}'s full name is "foo.bar.Baz".
      */
     public String getFullName() {
+      ensureBuilt();
       return fullName;
     }
 
@@ -833,6 +1097,10 @@ public final class Descriptors {
       return parent;
     }
 
+    FeatureSet getUnresolvedFeatures() {
+      return proto.getOptions().getFeatures();
+    }
+
     public boolean isPlaceholder() {
       return placeholder;
     }
@@ -847,6 +1115,7 @@ public final class Descriptors {
 
     /** Get the {@code MessageOptions}, defined in {@code descriptor.proto}. */
     public MessageOptions getOptions() {
+      ensureBuilt();
       if (this.options == null) {
         MessageOptions strippedOptions = this.proto.getOptions();
         if (strippedOptions.hasFeatures()) {
@@ -866,46 +1135,55 @@ public final class Descriptors {
 
     /** Get a list of this message type's fields. */
     public List<FieldDescriptor> getFields() {
+      ensureBuilt();
       return Collections.unmodifiableList(Arrays.asList(fields));
     }
 
     /** Get a count of this message type's fields. */
     public int getFieldCount() {
+      ensureBuilt();
       return fields.length;
     }
 
     /** Get the message type's field at the specified index. */
     public FieldDescriptor getField(int index) {
+      ensureBuilt();
       return fields[index];
     }
 
     /** Get a list of this message type's oneofs. */
     public List<OneofDescriptor> getOneofs() {
+      ensureBuilt();
       return Collections.unmodifiableList(Arrays.asList(oneofs));
     }
 
     /** Get a count of this message type's oneofs. */
     public int getOneofCount() {
+      ensureBuilt();
       return oneofs.length;
     }
 
     /** Get the message type's oneof at the specified index. */
     public OneofDescriptor getOneof(int index) {
+      ensureBuilt();
       return oneofs[index];
     }
 
     /** Get a list of this message type's real oneofs. */
     public List<OneofDescriptor> getRealOneofs() {
+      ensureBuilt();
       return Collections.unmodifiableList(Arrays.asList(oneofs).subList(0, realOneofCount));
     }
 
     /** Get a count of this message type's real oneofs. */
     public int getRealOneofCount() {
+      ensureBuilt();
       return realOneofCount;
     }
 
     /** Get the message type's real oneof at the specified index. */
     public OneofDescriptor getRealOneof(int index) {
+      ensureBuilt();
       if (index >= realOneofCount) {
         throw new ArrayIndexOutOfBoundsException(index);
       }
@@ -914,51 +1192,63 @@ public final class Descriptors {
 
     /** Get a list of the extensions defined nested within this message type's scope. */
     public List<FieldDescriptor> getExtensions() {
+      ensureBuilt();
       return Collections.unmodifiableList(Arrays.asList(extensions));
     }
 
     /** Get a count of the extensions defined nested within this message type's scope. */
     public int getExtensionCount() {
+      ensureBuilt();
       return extensions.length;
     }
 
     /** Get the extension defined nested within this message type's scope at the specified index. */
     public FieldDescriptor getExtension(int index) {
+      ensureBuilt();
       return extensions[index];
     }
 
     /** Get a list of message types nested within this one. */
     public List<Descriptor> getNestedTypes() {
+      ensureBuilt();
       return Collections.unmodifiableList(Arrays.asList(nestedTypes));
     }
 
     /** Get a count of message types nested within this one. */
     public int getNestedTypeCount() {
+      ensureBuilt();
       return nestedTypes.length;
     }
 
     /** Get the message type's nested message type at the specified index. */
     public Descriptor getNestedType(int index) {
+      if (lazyFile != null) {
+        return lazyFile.getLazyMessageType(this, index);
+      }
       return nestedTypes[index];
     }
 
     /** Get a list of enum types nested within this one. */
     public List<EnumDescriptor> getEnumTypes() {
+      ensureBuilt();
       return Collections.unmodifiableList(Arrays.asList(enumTypes));
     }
 
     /** Get a count of enum types nested within this one. */
     public int getEnumTypeCount() {
+      ensureBuilt();
       return enumTypes.length;
     }
 
     /** Get the message type's nested enum type at the specified index. */
     public EnumDescriptor getEnumType(int index) {
+      ensureBuilt();
       return enumTypes[index];
     }
 
     /** Determines if the given field number is an extension. */
     public boolean isExtensionNumber(final int number) {
+      ensureBuilt();
       int index = Arrays.binarySearch(extensionRangeLowerBounds, number);
       if (index < 0) {
         index = ~index - 1;
@@ -969,6 +1259,7 @@ public final class Descriptors {
 
     /** Determines if the given field number is reserved. */
     public boolean isReservedNumber(final int number) {
+      ensureBuilt();
       for (final DescriptorProto.ReservedRange range : proto.getReservedRangeList()) {
         if (range.getStart() <= number && number < range.getEnd()) {
           return true;
@@ -979,6 +1270,7 @@ public final class Descriptors {
 
     /** Determines if the given field name is reserved. */
     public boolean isReservedName(final String name) {
+      ensureBuilt();
       checkNotNull(name);
       for (final String reservedName : proto.getReservedNameList()) {
         if (reservedName.equals(name)) {
@@ -993,6 +1285,7 @@ public final class Descriptors {
      * y" ranges declared on it.
      */
     public boolean isExtendable() {
+      ensureBuilt();
       return !proto.getExtensionRangeList().isEmpty();
     }
 
@@ -1008,6 +1301,7 @@ public final class Descriptors {
      * @return The field's descriptor, or {@code null} if not found.
      */
     public FieldDescriptor findFieldByName(final String name) {
+      ensureBuilt();
       final GenericDescriptor result = getFile().tables.findSymbol(fullName + '.' + name);
       if (result instanceof FieldDescriptor) {
         return (FieldDescriptor) result;
@@ -1023,8 +1317,8 @@ public final class Descriptors {
      * @return The field's descriptor, or {@code null} if not found.
      */
     public FieldDescriptor findFieldByNumber(final int number) {
-      return binarySearch(
-          fieldsSortedByNumber, fieldsSortedByNumber.length, FieldDescriptor.NUMBER_GETTER, number);
+      ensureBuilt();
+      return fieldsByNumber.get(number);
     }
 
     /**
@@ -1034,6 +1328,7 @@ public final class Descriptors {
      * @return The types's descriptor, or {@code null} if not found.
      */
     public Descriptor findNestedTypeByName(final String name) {
+      ensureBuilt();
       final GenericDescriptor result = getFile().tables.findSymbol(fullName + '.' + name);
       if (result instanceof Descriptor) {
         return (Descriptor) result;
@@ -1049,6 +1344,7 @@ public final class Descriptors {
      * @return The types's descriptor, or {@code null} if not found.
      */
     public EnumDescriptor findEnumTypeByName(final String name) {
+      ensureBuilt();
       final GenericDescriptor result = getFile().tables.findSymbol(fullName + '.' + name);
       if (result instanceof EnumDescriptor) {
         return (EnumDescriptor) result;
@@ -1060,21 +1356,31 @@ public final class Descriptors {
     private final int index;
     private DescriptorProto proto;
     private volatile MessageOptions options;
-    private final String fullName;
+    private String fullName;
     private final GenericDescriptor parent;
-    private final Descriptor[] nestedTypes;
-    private final EnumDescriptor[] enumTypes;
-    private final FieldDescriptor[] fields;
-    private final FieldDescriptor[] fieldsSortedByNumber;
-    private final FieldDescriptor[] extensions;
-    private final OneofDescriptor[] oneofs;
-    private final int realOneofCount;
+    private Descriptor[] nestedTypes;
+    private EnumDescriptor[] enumTypes;
+    private FieldDescriptor[] fields;
+    private FieldDescriptor[] fieldsSortedByNumber;
+    private NumberTable<FieldDescriptor> fieldsByNumber;
+    private FieldDescriptor[] extensions;
+    private OneofDescriptor[] oneofs;
+    private int realOneofCount;
 
-    private final int[] extensionRangeLowerBounds;
-    private final int[] extensionRangeUpperBounds;
+    private int[] extensionRangeLowerBounds;
+    private int[] extensionRangeUpperBounds;
 
     private final boolean placeholder;
 
+    // Built by DynamicMessageCodec.forType() the first time a DynamicMessage of this type is parsed
+    // or serialized.
+    DynamicMessageCodec dynamicMessageCodec;
+
+    // Set if this was handed out by a file that had not been built yet, see
+    // FileDescriptor.internalBuildGeneratedFileFrom().
+    private final FileDescriptor lazyFile;
+    private List<Descriptor> lazyNestedTypes;
+
     // Used to create a placeholder when the type cannot be found.
     Descriptor(final String fullname) throws DescriptorValidationException {
       String name = fullname;
@@ -1085,6 +1391,7 @@ public final class Descriptors {
         packageName = fullname.substring(0, pos);
       }
       this.index = 0;
+      this.lazyFile = null;
       this.proto =
           DescriptorProto.newBuilder()
               .setName(name)
@@ -1097,6 +1404,8 @@ public final class Descriptors {
       this.enumTypes = EMPTY_ENUM_DESCRIPTORS;
       this.fields = EMPTY_FIELD_DESCRIPTORS;
       this.fieldsSortedByNumber = EMPTY_FIELD_DESCRIPTORS;
+      this.fieldsByNumber =
+          new NumberTable<>(EMPTY_FIELD_DESCRIPTORS, 0, FieldDescriptor.NUMBER_GETTER);
       this.extensions = EMPTY_FIELD_DESCRIPTORS;
       this.oneofs = EMPTY_ONEOF_DESCRIPTORS;
       this.realOneofCount = 0;
@@ -1122,7 +1431,47 @@ public final class Descriptors {
         this.parent = parent;
       }
       this.index = index;
+      this.placeholder = false;
+      this.lazyFile = null;
+      translate(proto, file);
+    }
+
+    // Used by a file that has not been built yet, which will translate it when it is.
+    private Descriptor(final FileDescriptor file, final Descriptor parent, final int index) {
+      if (parent == null) {
+        this.parent = file;
+      } else {
+        this.parent = parent;
+      }
+      this.index = index;
+      this.placeholder = false;
+      this.lazyFile = file;
+    }
+
+    /**
+     * Returns the descriptor for {@code proto}, translating it into the one already handed out for
+     * {@code index} in {@code lazyTypes}, if there is one.
+     */
+    private static Descriptor translate(
+        final List<Descriptor> lazyTypes,
+        final DescriptorProto proto,
+        final FileDescriptor file,
+        final Descriptor parent,
+        final int index)
+        throws DescriptorValidationException {
+      Descriptor result =
+          lazyTypes != null && index < lazyTypes.size() ? lazyTypes.get(index) : null;
+      if (result == null) {
+        return new Descriptor(proto, file, parent, index);
+      }
+      result.translate(proto, file);
+      return result;
+    }
+
+    private void translate(final DescriptorProto proto, final FileDescriptor file)
+        throws DescriptorValidationException {
       this.proto = proto;
+      Descriptor parent = getContainingType();
       fullName = computeFullName(file, parent, proto.getName());
 
       oneofs =
@@ -1138,8 +1487,9 @@ public final class Descriptors {
               ? new Descriptor[proto.getNestedTypeCount()]
               : EMPTY_DESCRIPTORS;
       for (int i = 0; i < proto.getNestedTypeCount(); i++) {
-        nestedTypes[i] = new Descriptor(proto.getNestedType(i), file, this, i);
+        nestedTypes[i] = translate(lazyNestedTypes, proto.getNestedType(i), file, this, i);
       }
+      lazyNestedTypes = null;
 
       enumTypes =
           (proto.getEnumTypeCount() > 0)
@@ -1190,8 +1540,6 @@ public final class Descriptors {
       }
       this.realOneofCount = this.oneofs.length - syntheticOneofCount;
 
-      placeholder = false;
-
       file.tables.addSymbol(this);
 
       // NOTE: The defined extension ranges are guaranteed to be disjoint.
@@ -1214,6 +1562,21 @@ public final class Descriptors {
       }
     }
 
+    private void ensureBuilt() {
+      if (lazyFile != null) {
+        lazyFile.ensureBuilt();
+      }
+    }
+
+    /** See {@link FileDescriptor#getLinkedType}. */
+    private void addLinkedTypes(List<GenericDescriptor> types) {
+      types.add(this);
+      for (Descriptor nestedType : nestedTypes) {
+        nestedType.addLinkedTypes(types);
+      }
+      Collections.addAll(types, enumTypes);
+    }
+
     /** See {@link FileDescriptor#resolveAllFeatures}. */
     private void resolveAllFeatures() throws DescriptorValidationException {
       resolveFeatures(proto.getOptions().getFeatures());
@@ -1251,6 +1614,9 @@ public final class Descriptors {
       }
       Arrays.sort(fieldsSortedByNumber);
       validateNoDuplicateFieldNumbers();
+      fieldsByNumber =
+          new NumberTable<>(
+              fieldsSortedByNumber, fieldsSortedByNumber.length, FieldDescriptor.NUMBER_GETTER);
 
       for (final FieldDescriptor extension : extensions) {
         extension.crossLink();
@@ -1377,6 +1743,10 @@ public final class Descriptors {
       return parent;
     }
 
+    FeatureSet getUnresolvedFeatures() {
+      return proto.getOptions().getFeatures();
+    }
+
     /** Get the field's declared type. */
     public Type getType() {
       // Override delimited messages as legacy group type. Leaves unresolved messages as-is
@@ -1407,15 +1777,29 @@ public final class Descriptors {
         // Always enforce strict UTF-8 checking for map fields.
         return true;
       }
-      if (getFeatures()
-          .getExtension(JavaFeaturesProto.java_)
-          .getUtf8Validation()
-          .equals(JavaFeatures.Utf8Validation.VERIFY)) {
+      if (getJavaFeatures().getUtf8Validation().equals(JavaFeatures.Utf8Validation.VERIFY)) {
         return true;
       }
       return getFeatures().getUtf8Validation().equals(FeatureSet.Utf8Validation.VERIFY);
     }
 
+    /**
+     * Returns the Java features this field resolved to. {@code getExtension()} converts the value
+     * with {@code GeneratedExtension.fromReflectionType()}, which needs reflection and so throws in
+     * GWT, so this finds the extension among the ones that are set instead.
+     */
+    private JavaFeatures getJavaFeatures() {
+      for (Iterator<GeneratedMessage.ExtendableMessage.FieldEntry> it =
+              getFeatures().extensionsIterator();
+          it.hasNext(); ) {
+        GeneratedMessage.ExtendableMessage.FieldEntry entry = it.next();
+        if (entry.getDescriptor() == JavaFeaturesProto.java_.getDescriptor()) {
+          return (JavaFeatures) entry.getValue();
+        }
+      }
+      return JavaFeatures.getDefaultInstance();
+    }
+
     public boolean isMapField() {
       return getType() == Type.MESSAGE
           && isRepeated()
@@ -1668,7 +2052,7 @@ public final class Descriptors {
       }
 
       return getType() == Type.ENUM
-          && (getFeatures().getExtension(JavaFeaturesProto.java_).getLegacyClosedEnum()
+          && (getJavaFeatures().getLegacyClosedEnum()
               || getEnumType().isClosed());
     }
 
@@ -2268,6 +2652,10 @@ public final class Descriptors {
       return parent;
     }
 
+    FeatureSet getUnresolvedFeatures() {
+      return proto.getOptions().getFeatures();
+    }
+
     public boolean isPlaceholder() {
       return false;
     }
@@ -2384,22 +2772,13 @@ public final class Descriptors {
      * @return the value's descriptor, or {@code null} if not found.
      */
     public EnumValueDescriptor findValueByNumber(final int number) {
-      return binarySearch(
-          valuesSortedByNumber, distinctNumbers, EnumValueDescriptor.NUMBER_GETTER, number);
-    }
-
-    private static class UnknownEnumValueReference extends WeakReference<EnumValueDescriptor> {
-      private final int number;
-
-      private UnknownEnumValueReference(int number, EnumValueDescriptor descriptor) {
-        super(descriptor);
-        this.number = number;
-      }
+      return valuesByNumber.get(number);
     }
 
     /**
      * Get the enum value for a number. If no enum value has this number, construct an
-     * EnumValueDescriptor for it.
+     * EnumValueDescriptor for it. There are no weak references in the browser, so these are kept
+     * for as long as the enum is.
      */
     public EnumValueDescriptor findValueByNumberCreatingIfUnknown(final int number) {
       EnumValueDescriptor result = findValueByNumber(number);
@@ -2408,28 +2787,13 @@ public final class Descriptors {
       }
       // The number represents an unknown enum value.
       synchronized (this) {
-        if (cleanupQueue == null) {
-          cleanupQueue = new ReferenceQueue<>();
-          unknownValues = new HashMap<>();
-        } else {
-          while (true) {
-            UnknownEnumValueReference toClean = (UnknownEnumValueReference) cleanupQueue.poll();
-            if (toClean == null) {
-              break;
-            }
-            unknownValues.remove(toClean.number);
-          }
+        if (unknownValues == null) {
+          unknownValues = new NumberTable<>();
         }
-
-        // There are two ways we can be missing a value: it wasn't in the map, or the reference
-        // has been GC'd.  (It may even have been GC'd since we cleaned up the references a few
-        // lines of code ago.)  So get out the reference, if it's still present...
-        WeakReference<EnumValueDescriptor> reference = unknownValues.get(number);
-        result = (reference == null) ? null : reference.get();
-
+        result = unknownValues.get(number);
         if (result == null) {
           result = new EnumValueDescriptor(this, number);
-          unknownValues.put(number, new UnknownEnumValueReference(number, result));
+          unknownValues.put(number, result);
         }
       }
       return result;
@@ -2437,7 +2801,7 @@ public final class Descriptors {
 
     // Used in tests only.
     int getUnknownEnumValueDescriptorCount() {
-      return unknownValues.size();
+      return unknownValues == null ? 0 : unknownValues.size();
     }
 
     private final int index;
@@ -2446,10 +2810,8 @@ public final class Descriptors {
     private final String fullName;
     private final GenericDescriptor parent;
     private final EnumValueDescriptor[] values;
-    private final EnumValueDescriptor[] valuesSortedByNumber;
-    private final int distinctNumbers;
-    private Map<Integer, WeakReference<EnumValueDescriptor>> unknownValues = null;
-    private ReferenceQueue<EnumValueDescriptor> cleanupQueue = null;
+    private final NumberTable<EnumValueDescriptor> valuesByNumber;
+    private NumberTable<EnumValueDescriptor> unknownValues = null;
 
     private EnumDescriptor(
         final EnumDescriptorProto proto,
@@ -2476,7 +2838,7 @@ public final class Descriptors {
       for (int i = 0; i < proto.getValueCount(); i++) {
         values[i] = new EnumValueDescriptor(proto.getValue(i), this, i);
       }
-      valuesSortedByNumber = com.google.protobuf.gwt.StaticImpls.clone(values);
+      EnumValueDescriptor[] valuesSortedByNumber = com.google.protobuf.gwt.StaticImpls.clone(values);
       Arrays.sort(valuesSortedByNumber, EnumValueDescriptor.BY_NUMBER);
       // deduplicate
       int j = 0;
@@ -2487,8 +2849,8 @@ public final class Descriptors {
           valuesSortedByNumber[++j] = newValue;
         }
       }
-      this.distinctNumbers = j + 1;
-      Arrays.fill(valuesSortedByNumber, distinctNumbers, proto.getValueCount(), null);
+      valuesByNumber =
+          new NumberTable<>(valuesSortedByNumber, j + 1, EnumValueDescriptor.NUMBER_GETTER);
 
       file.tables.addSymbol(this);
     }
@@ -2579,6 +2941,10 @@ public final class Descriptors {
       return type;
     }
 
+    FeatureSet getUnresolvedFeatures() {
+      return proto.getOptions().getFeatures();
+    }
+
     /** Get the value's enum type. */
     public EnumDescriptor getType() {
       return type;
@@ -2685,6 +3051,10 @@ public final class Descriptors {
       return file;
     }
 
+    FeatureSet getUnresolvedFeatures() {
+      return proto.getOptions().getFeatures();
+    }
+
     /** Get the {@code ServiceOptions}, defined in {@code descriptor.proto}. */
     public ServiceOptions getOptions() {
       if (this.options == null) {
@@ -2823,6 +3193,10 @@ public final class Descriptors {
       return service;
     }
 
+    FeatureSet getUnresolvedFeatures() {
+      return proto.getOptions().getFeatures();
+    }
+
     /** Get the method's service type. */
     public ServiceDescriptor getService() {
       return service;
@@ -2965,6 +3339,9 @@ public final class Descriptors {
 
     abstract GenericDescriptor getParent();
 
+    /** Returns the features set in this descriptor's own options. */
+    abstract FeatureSet getUnresolvedFeatures();
+
     void resolveFeatures(FeatureSet unresolvedFeatures) throws DescriptorValidationException {
       GenericDescriptor parent = getParent();
       FeatureSet inferredLegacyFeatures = null;
@@ -2972,7 +3349,7 @@ public final class Descriptors {
           && unresolvedFeatures.equals(FeatureSet.getDefaultInstance())
           && (inferredLegacyFeatures = inferLegacyProtoFeatures())
               .equals(FeatureSet.getDefaultInstance())) {
-        this.features = parent.features;
+        this.features = parent.getFeatures();
         validateFeatures();
         return;
       }
@@ -3010,7 +3387,7 @@ public final class Descriptors {
         Edition edition = getFile().getEdition();
         features = getEditionDefaults(edition).toBuilder();
       } else {
-        features = parent.features.toBuilder();
+        features = parent.getFeatures().toBuilder();
       }
       if (inferredLegacyFeatures == null) {
         inferredLegacyFeatures = inferLegacyProtoFeatures();
@@ -3035,11 +3412,20 @@ public final class Descriptors {
               || getFile().getEdition() == Edition.EDITION_PROTO3)) {
         getFile().resolveAllFeaturesImmutable();
       }
-      if (this.features == null) {
-        throw new NullPointerException(
-            "Features not yet loaded for " + getFullName() + ".");
+      FeatureSet result = this.features;
+      if (result == null) {
+        if (!getFile().resolveFeaturesOnFirstUse) {
+          throw new NullPointerException(
+              "Features not yet loaded for " + getFullName() + ".");
+        }
+        try {
+          resolveFeatures(getUnresolvedFeatures());
+        } catch (DescriptorValidationException e) {
+          throw new IllegalArgumentException("Invalid features for \"" + getFullName() + "\".", e);
+        }
+        result = this.features;
       }
-      return this.features;
+      return result;
     }
 
     volatile FeatureSet features;
@@ -3151,6 +3537,52 @@ public final class Descriptors {
     private final Set<FileDescriptor> dependencies;
     private final boolean allowUnknownDependencies;
 
+    // Set while building a file that has a link table, see
+    // FileDescriptor.internalBuildGeneratedFileFrom().
+    private FileDescriptor linkedFile;
+    private int[] linkTable;
+    private int linkIndex;
+
+    void setLinkTable(FileDescriptor file, int[] linkTable) {
+      this.linkedFile = file;
+      this.linkTable = linkTable;
+      this.linkIndex = 0;
+    }
+
+    /**
+     * Returns the type that the next entry of the link table refers to, if it has the given
+     * fully-qualified name.
+     */
+    private GenericDescriptor findLinkedSymbol(final String name) {
+      if (linkIndex >= linkTable.length) {
+        return null;
+      }
+      int entry = linkTable[linkIndex++];
+      if (entry < 0) {
+        return null;
+      }
+      int fileIndex = entry >>> FileDescriptor.LINK_FILE_SHIFT;
+      FileDescriptor file;
+      if (fileIndex == 0) {
+        file = linkedFile;
+      } else if (fileIndex <= linkedFile.dependencies.length) {
+        file = linkedFile.dependencies[fileIndex - 1];
+      } else {
+        return null;
+      }
+      GenericDescriptor result = file.getLinkedType(entry & FileDescriptor.LINK_TYPE_MASK);
+      if (result == null) {
+        return null;
+      }
+      String fullName = result.getFullName();
+      if (name.length() != fullName.length() + 1
+          || name.charAt(0) != '.'
+          || !name.regionMatches(1, fullName, 0, fullName.length())) {
+        return null;
+      }
+      return result;
+    }
+
     private final Map<String, GenericDescriptor> descriptorsByName = new HashMap<>();
 
     /** Find a generic descriptor by fully-qualified name. */
@@ -3209,6 +3641,12 @@ public final class Descriptors {
         final GenericDescriptor relativeTo,
         final FileDescriptorTables.SearchFilter filter)
         throws DescriptorValidationException {
+      if (linkTable != null && filter == SearchFilter.TYPES_ONLY) {
+        GenericDescriptor linked = findLinkedSymbol(name);
+        if (linked != null) {
+          return linked;
+        }
+      }
 
       GenericDescriptor result;
       String fullname;
@@ -3307,7 +3745,9 @@ public final class Descriptors {
      * error.
      */
     void addSymbol(final GenericDescriptor descriptor) throws DescriptorValidationException {
-      validateSymbolName(descriptor);
+      if (linkTable == null) {
+        validateSymbolName(descriptor);
+      }
 
       final String fullName = descriptor.getFullName();
 
@@ -3363,6 +3803,10 @@ public final class Descriptors {
         return file;
       }
 
+      FeatureSet getUnresolvedFeatures() {
+        return FeatureSet.getDefaultInstance();
+      }
+
       public FileDescriptor getFile() {
         return file;
       }
@@ -3460,6 +3904,10 @@ public final class Descriptors {
       return containingType;
     }
 
+    FeatureSet getUnresolvedFeatures() {
+      return proto.getOptions().getFeatures();
+    }
+
     public String getFullName() {
       return fullName;
     }
@@ -3538,22 +3986,106 @@ public final class Descriptors {
     private FieldDescriptor[] fields;
   }
 
-  private static <T> T binarySearch(T[] array, int size, ToIntFunction<T> getter, int number) {
-    int left = 0;
-    int right = size - 1;
-
-    while (left <= right) {
-      int mid = (left + right) / 2;
-      T midValue = array[mid];
-      int midValueNumber = getter.applyAsInt(midValue);
-      if (number < midValueNumber) {
-        right = mid - 1;
-      } else if (number > midValueNumber) {
-        left = mid + 1;
+  /**
+   * Finds descriptors by number without boxing or hashing through a {@code Map}. When the numbers
+   * are compact, as field numbers usually are, this is an array indexed from the lowest number.
+   * Otherwise it is an open-addressing hash table keyed by the number itself, which {@link #put}
+   * can add to.
+   */
+  static final class NumberTable<T> {
+    private static final int MIN_CAPACITY = 8;
+
+    // The lowest number in a dense table, which has no keys.
+    private final int offset;
+    private int[] keys;
+    private Object[] values;
+    private int size;
+
+    /** Creates an empty table to {@link #put} into. */
+    NumberTable() {
+      offset = 0;
+      keys = new int[MIN_CAPACITY];
+      values = new Object[MIN_CAPACITY];
+    }
+
+    /** Creates a table of the first {@code size} elements, which must have distinct numbers. */
+    NumberTable(T[] sortedByNumber, int size, ToIntFunction<T> getter) {
+      this.size = size;
+      if (size == 0) {
+        offset = 0;
+        values = new Object[0];
+        return;
+      }
+      int first = getter.applyAsInt(sortedByNumber[0]);
+      long span = (long) getter.applyAsInt(sortedByNumber[size - 1]) - first + 1;
+      if (span <= Math.max(2L * size, MIN_CAPACITY)) {
+        offset = first;
+        values = new Object[(int) span];
+        for (int i = 0; i < size; i++) {
+          values[getter.applyAsInt(sortedByNumber[i]) - first] = sortedByNumber[i];
+        }
       } else {
-        return midValue;
+        offset = 0;
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * size) {
+          capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < size; i++) {
+          insert(getter.applyAsInt(sortedByNumber[i]), sortedByNumber[i]);
+        }
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int number) {
+      if (keys == null) {
+        int index = number - offset;
+        return index >= 0 && index < values.length ? (T) values[index] : null;
+      }
+      int mask = keys.length - 1;
+      for (int index = hash(number) & mask; values[index] != null; index = (index + 1) & mask) {
+        if (keys[index] == number) {
+          return (T) values[index];
+        }
       }
+      return null;
+    }
+
+    /** Adds a number that is not yet in a table created by {@link #NumberTable()}. */
+    void put(int number, T value) {
+      if (2 * (size + 1) > keys.length) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length << 1];
+        values = new Object[oldKeys.length << 1];
+        for (int i = 0; i < oldKeys.length; i++) {
+          if (oldValues[i] != null) {
+            insert(oldKeys[i], oldValues[i]);
+          }
+        }
+      }
+      insert(number, value);
+      size++;
+    }
+
+    int size() {
+      return size;
+    }
+
+    private void insert(int number, Object value) {
+      int mask = keys.length - 1;
+      int index = hash(number) & mask;
+      while (values[index] != null) {
+        index = (index + 1) & mask;
+      }
+      keys[index] = number;
+      values[index] = value;
+    }
+
+    private static int hash(int number) {
+      return number ^ (number >>> 16);
     }
-    return null;
   }
 }
@@ -413,5 +413,72 @@ private static final long serialVersionUID = 0L;
     return DEFAULT_INSTANCE;
   }
 
+  private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<DoubleValue, DoubleValue.Builder> {
+    @java.lang.Override
+    public java.lang.Object get(DoubleValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object get(DoubleValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(DoubleValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return java.lang.Double.doubleToLongBits(message.getValue()) != 0;
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(DoubleValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return java.lang.Double.doubleToLongBits(builder.getValue()) != 0;
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void set(DoubleValue.Builder builder, int fieldIndex, java.lang.Object value) {
+      switch (fieldIndex) {
+        case 0:
+          builder.setValue((java.lang.Double) value);
+          break;
+        default:
+          throw unsupported("set", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void clear(DoubleValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          builder.clearValue();
+          break;
+        default:
+          throw unsupported("clear", fieldIndex);
+      }
+    }
+  }
+
+  static {
+    com.google.protobuf.gwt.MessageReflectionAccessor.register(DoubleValue.class, new GwtReflectionAccessor());
+  }
 }
 
@@ -470,5 +470,86 @@ private static final long serialVersionUID = 0L;
     return DEFAULT_INSTANCE;
   }
 
+  private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<Duration, Duration.Builder> {
+    @java.lang.Override
+    public java.lang.Object get(Duration message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getSeconds();
+        case 1:
+          return message.getNanos();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object get(Duration.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getSeconds();
+        case 1:
+          return builder.getNanos();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(Duration message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getSeconds() != 0;
+        case 1:
+          return message.getNanos() != 0;
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(Duration.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getSeconds() != 0;
+        case 1:
+          return builder.getNanos() != 0;
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void set(Duration.Builder builder, int fieldIndex, java.lang.Object value) {
+      switch (fieldIndex) {
+        case 0:
+          builder.setSeconds((java.lang.Long) value);
+          break;
+        case 1:
+          builder.setNanos((java.lang.Integer) value);
+          break;
+        default:
+          throw unsupported("set", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void clear(Duration.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          builder.clearSeconds();
+          break;
+        case 1:
+          builder.clearNanos();
+          break;
+        default:
+          throw unsupported("clear", fieldIndex);
+      }
+    }
+  }
+
+  static {
+    com.google.protobuf.gwt.MessageReflectionAccessor.register(Duration.class, new GwtReflectionAccessor());
+  }
 }
 
@@ -15,7 +15,6 @@ import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Descriptors.OneofDescriptor;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -28,38 +27,34 @@ import java.util.Map;
  */
 public final class DynamicMessage extends AbstractMessage {
   private final Descriptor type;
-  private final FieldSet<FieldDescriptor> fields;
-  private final FieldDescriptor[] oneofCases;
+  private final DynamicMessageCodec codec;
+  private final DynamicMessageSlots fields;
+  private final FieldSet<FieldDescriptor> extensions;
   private final UnknownFieldSet unknownFields;
   private int memoizedSize = -1;
 
   /**
-   * Construct a {@code DynamicMessage} using the given {@code FieldSet}. oneofCases stores the
-   * FieldDescriptor for each oneof to indicate which field is set. Caller should make sure the
-   * array is immutable.
-   *
-   * <p>This constructor is package private and will be used in {@code DynamicMutableMessage} to
-   * convert a mutable message to an immutable message.
+   * Construct a {@code DynamicMessage} using the given slots, which must have been built, and
+   * extensions.
    */
-  DynamicMessage(
+  private DynamicMessage(
       Descriptor type,
-      FieldSet<FieldDescriptor> fields,
-      FieldDescriptor[] oneofCases,
+      DynamicMessageSlots fields,
+      FieldSet<FieldDescriptor> extensions,
       UnknownFieldSet unknownFields) {
     this.type = type;
+    this.codec = DynamicMessageCodec.forType(type);
     this.fields = fields;
-    this.oneofCases = oneofCases;
+    this.extensions = extensions;
     this.unknownFields = unknownFields;
   }
 
   /** Get a {@code DynamicMessage} representing the default instance of the given type. */
   public static DynamicMessage getDefaultInstance(Descriptor type) {
-    int oneofDeclCount = type.toProto().getOneofDeclCount();
-    FieldDescriptor[] oneofCases = new FieldDescriptor[oneofDeclCount];
     return new DynamicMessage(
         type,
+        DynamicMessageCodec.forType(type).newSlots().build(true),
         FieldSet.<FieldDescriptor>emptySet(),
-        oneofCases,
         UnknownFieldSet.getDefaultInstance());
   }
 
@@ -138,12 +133,12 @@ public final class DynamicMessage extends AbstractMessage {
   }
 
   public Map<FieldDescriptor, Object> getAllFields() {
-    return fields.getAllFields();
+    return fields.getAllFields(extensions.getAllFields());
   }
 
   public boolean hasOneof(OneofDescriptor oneof) {
     verifyOneofContainingType(oneof);
-    FieldDescriptor field = oneofCases[oneof.getIndex()];
+    FieldDescriptor field = fields.getOneofFieldDescriptor(oneof.getIndex());
     if (field == null) {
       return false;
     }
@@ -152,17 +147,21 @@ public final class DynamicMessage extends AbstractMessage {
 
   public FieldDescriptor getOneofFieldDescriptor(OneofDescriptor oneof) {
     verifyOneofContainingType(oneof);
-    return oneofCases[oneof.getIndex()];
+    return fields.getOneofFieldDescriptor(oneof.getIndex());
   }
 
   public boolean hasField(FieldDescriptor field) {
     verifyContainingType(field);
-    return fields.hasField(field);
+    if (field.isExtension()) {
+      return extensions.hasField(field);
+    }
+    return fields.hasField(codec.forField(field));
   }
 
   public Object getField(FieldDescriptor field) {
     verifyContainingType(field);
-    Object result = fields.getField(field);
+    Object result =
+        field.isExtension() ? extensions.getField(field) : fields.get(codec.forField(field));
     if (result == null) {
       if (field.isRepeated()) {
         result = Collections.emptyList();
@@ -177,42 +176,47 @@ public final class DynamicMessage extends AbstractMessage {
 
   public int getRepeatedFieldCount(FieldDescriptor field) {
     verifyContainingType(field);
-    return fields.getRepeatedFieldCount(field);
+    if (field.isExtension()) {
+      return extensions.getRepeatedFieldCount(field);
+    }
+    return fields.getRepeatedCount(codec.forField(field));
   }
 
   public Object getRepeatedField(FieldDescriptor field, int index) {
     verifyContainingType(field);
-    return fields.getRepeatedField(field, index);
+    if (field.isExtension()) {
+      return extensions.getRepeatedField(field, index);
+    }
+    return fields.getRepeated(codec.forField(field), index);
   }
 
   public UnknownFieldSet getUnknownFields() {
     return unknownFields;
   }
 
-  static boolean isInitialized(Descriptor type, FieldSet<FieldDescriptor> fields) {
-    // Check that all required fields are present.
-    for (final FieldDescriptor field : type.getFields()) {
-      if (field.isRequired()) {
-        if (!fields.hasField(field)) {
-          return false;
-        }
-      }
-    }
+  public boolean isInitialized() {
+    return fields.isInitialized() && extensions.isInitialized();
+  }
 
-    // Check that embedded messages are initialized.
-    return fields.isInitialized();
+  boolean equalsFieldsByIndex(Descriptor descriptor, Message other) {
+    if (other instanceof DynamicMessage) {
+      // Compare the slots directly, rather than boxing every number through getField()
+      return fields.equalsSlots(((DynamicMessage) other).fields);
+    }
+    return super.equalsFieldsByIndex(descriptor, other);
   }
 
-  public boolean isInitialized() {
-    return isInitialized(type, fields);
+  int hashFieldsByIndex(int hash, Descriptor descriptor) {
+    return fields.hashSlots(hash);
   }
 
   public void writeTo(CodedOutputStream output) throws IOException {
-    if (type.getOptions().getMessageSetWireFormat()) {
-      fields.writeMessageSetTo(output);
+    if (codec.isMessageSetWireFormat()) {
+      // MessageSets have no fields of their own, only extensions.
+      extensions.writeMessageSetTo(output);
       unknownFields.writeAsMessageSetTo(output);
     } else {
-      fields.writeTo(output);
+      fields.writeTo(extensions, output);
       unknownFields.writeTo(output);
     }
   }
@@ -223,11 +227,11 @@ public final class DynamicMessage extends AbstractMessage {
       return size;
     }
 
-    if (type.getOptions().getMessageSetWireFormat()) {
-      size = fields.getMessageSetSerializedSize();
+    if (codec.isMessageSetWireFormat()) {
+      size = extensions.getMessageSetSerializedSize();
       size += unknownFields.getSerializedSizeAsMessageSet();
     } else {
-      size = fields.getSerializedSize();
+      size = fields.getSerializedSize(extensions);
       size += unknownFields.getSerializedSize();
     }
 
@@ -240,7 +244,14 @@ public final class DynamicMessage extends AbstractMessage {
   }
 
   public Builder toBuilder() {
-    return newBuilderForType().mergeFrom(this);
+    // The builder shares the slots until it first changes them.
+    Builder builder = new Builder(type);
+    builder.fields = fields;
+    if (!extensions.isEmpty()) {
+      builder.extensions = FieldSet.Builder.fromFieldSet(extensions);
+    }
+    builder.unknownFields = unknownFields;
+    return builder;
   }
 
   public Parser<DynamicMessage> getParserForType() {
@@ -280,23 +291,48 @@ public final class DynamicMessage extends AbstractMessage {
   /** Builder for {@link DynamicMessage}s. */
   public static final class Builder extends AbstractMessage.Builder<Builder> {
     private final Descriptor type;
-    private FieldSet.Builder<FieldDescriptor> fields;
-    private final FieldDescriptor[] oneofCases;
+    private final DynamicMessageCodec codec;
+    // Shared with the last message built until it is changed, see mutableFields().
+    private DynamicMessageSlots fields;
+    // Null until an extension is set.
+    private FieldSet.Builder<FieldDescriptor> extensions;
     private UnknownFieldSet unknownFields;
 
     /** Construct a {@code Builder} for the given type. */
     private Builder(Descriptor type) {
       this.type = type;
-      this.fields = FieldSet.newBuilder();
+      this.codec = DynamicMessageCodec.forType(type);
+      this.fields = codec.newSlots();
       this.unknownFields = UnknownFieldSet.getDefaultInstance();
-      this.oneofCases = new FieldDescriptor[type.toProto().getOneofDeclCount()];
+    }
+
+    private DynamicMessageSlots mutableFields() {
+      if (fields.isBuilt()) {
+        fields = fields.mutableCopy();
+      }
+      return fields;
+    }
+
+    private FieldSet.Builder<FieldDescriptor> extensions() {
+      if (extensions == null) {
+        extensions = FieldSet.newBuilder();
+      }
+      return extensions;
+    }
+
+    private FieldSet<FieldDescriptor> buildExtensions(boolean partial) {
+      if (extensions == null) {
+        return FieldSet.emptySet();
+      }
+      return partial ? extensions.buildPartial() : extensions.build();
     }
 
     // ---------------------------------------------------------------
     // Implementation of Message.Builder interface.
 
     public Builder clear() {
-      fields = FieldSet.newBuilder();
+      fields = codec.newSlots();
+      extensions = null;
       unknownFields = UnknownFieldSet.getDefaultInstance();
       return this;
     }
@@ -309,30 +345,162 @@ public final class DynamicMessage extends AbstractMessage {
           throw new IllegalArgumentException(
               "mergeFrom(Message) can only merge messages of the same type.");
         }
-        fields.mergeFrom(otherDynamicMessage.fields);
+        mutableFields().mergeFrom(otherDynamicMessage.fields);
+        if (!otherDynamicMessage.extensions.isEmpty()) {
+          extensions().mergeFrom(otherDynamicMessage.extensions);
+        }
         mergeUnknownFields(otherDynamicMessage.unknownFields);
-        for (int i = 0; i < oneofCases.length; i++) {
-          if (oneofCases[i] == null) {
-            oneofCases[i] = otherDynamicMessage.oneofCases[i];
-          } else {
-            if ((otherDynamicMessage.oneofCases[i] != null)
-                && (oneofCases[i] != otherDynamicMessage.oneofCases[i])) {
-              fields.clearField(oneofCases[i]);
-              oneofCases[i] = otherDynamicMessage.oneofCases[i];
+        return this;
+      } else {
+        return super.mergeFrom(other);
+      }
+    }
+
+    /**
+     * Parses through the {@link DynamicMessageCodec} of the type, and only hands extensions,
+     * unknown fields, unexpected wire types and MessageSets to {@link MessageReflection}.
+     */
+    @Override
+    public Builder mergeFrom(CodedInputStream input, ExtensionRegistryLite extensionRegistry)
+        throws IOException {
+      if (codec.isMessageSetWireFormat()) {
+        return super.mergeFrom(input, extensionRegistry);
+      }
+      DynamicMessageSlots fields = mutableFields();
+      boolean discardUnknown = input.shouldDiscardUnknownFields();
+      UnknownFieldSet.Builder unknown = null;
+      MessageReflection.BuilderAdapter adapter = null;
+      try {
+        while (true) {
+          int tag = input.readTag();
+          if (tag == 0) {
+            break;
+          }
+          DynamicMessageCodec.FieldCodec field = codec.forTag(tag);
+          if (field == null) {
+            if (unknown == null && !discardUnknown) {
+              unknown = UnknownFieldSet.newBuilder(unknownFields);
+            }
+            if (adapter == null) {
+              adapter = new MessageReflection.BuilderAdapter(this);
             }
+            if (!MessageReflection.mergeFieldFrom(
+                input, unknown, extensionRegistry, type, adapter, tag)) {
+              // end group tag
+              break;
+            }
+            // An extension may have been set through the adapter.
+            fields = mutableFields();
+          } else if (tag == field.packedTag && field.typedList) {
+            fields.addAllPacked(field, input);
+          } else if (tag == field.packedTag) {
+            int limit = input.pushLimit(input.readRawVarint32());
+            while (input.getBytesUntilLimit() > 0) {
+              if (field.enumType == null) {
+                fields.addRepeated(field, field.readScalar(input));
+              } else {
+                unknown = mergeEnumFrom(input, field, unknown, discardUnknown);
+              }
+            }
+            input.popLimit(limit);
+          } else if (field.storage != DynamicMessageCodec.FieldCodec.OBJECT) {
+            fields.readPrimitive(field, input);
+          } else {
+            unknown = mergeFieldFrom(input, extensionRegistry, field, unknown, discardUnknown);
           }
         }
-        return this;
+      } finally {
+        if (unknown != null) {
+          unknownFields = unknown.build();
+        }
+      }
+      return this;
+    }
+
+    /** Reads a single value of {@code field}, returning the unknown fields builder, if any. */
+    private UnknownFieldSet.Builder mergeFieldFrom(
+        CodedInputStream input,
+        ExtensionRegistryLite extensionRegistry,
+        DynamicMessageCodec.FieldCodec field,
+        UnknownFieldSet.Builder unknown,
+        boolean discardUnknown)
+        throws IOException {
+      switch (field.type) {
+        case MESSAGE:
+        case GROUP:
+          Object existing = field.repeated ? null : fields.getAllowBuilders(field);
+          if (existing instanceof Message.Builder) {
+            // Merge straight into a builder handed out by getFieldBuilder().
+            readMessage(input, extensionRegistry, field, (Message.Builder) existing);
+            return unknown;
+          }
+          Builder subBuilder = new Builder(field.descriptor.getMessageType());
+          if (existing != null) {
+            subBuilder.mergeFrom((Message) existing);
+          }
+          readMessage(input, extensionRegistry, field, subBuilder);
+          setParsedValue(field, subBuilder.buildPartial());
+          return unknown;
+        case ENUM:
+          return mergeEnumFrom(input, field, unknown, discardUnknown);
+        default:
+          setParsedValue(field, field.readScalar(input));
+          return unknown;
+      }
+    }
+
+    private static void readMessage(
+        CodedInputStream input,
+        ExtensionRegistryLite extensionRegistry,
+        DynamicMessageCodec.FieldCodec field,
+        Message.Builder builder)
+        throws IOException {
+      if (field.type == WireFormat.FieldType.GROUP) {
+        input.readGroup(field.number, builder, extensionRegistry);
       } else {
-        return super.mergeFrom(other);
+        input.readMessage(builder, extensionRegistry);
+      }
+    }
+
+    private UnknownFieldSet.Builder mergeEnumFrom(
+        CodedInputStream input,
+        DynamicMessageCodec.FieldCodec field,
+        UnknownFieldSet.Builder unknown,
+        boolean discardUnknown)
+        throws IOException {
+      int rawValue = input.readEnum();
+      Object value = field.toEnumValue(rawValue);
+      if (value != null) {
+        setParsedValue(field, value);
+      } else if (!discardUnknown) {
+        // The number isn't recognized by this closed enum, so keep it as an unknown field.
+        if (unknown == null) {
+          unknown = UnknownFieldSet.newBuilder(unknownFields);
+        }
+        unknown.mergeVarintField(field.number, rawValue);
+      }
+      return unknown;
+    }
+
+    /**
+     * Stores a value read from the wire, the way {@link #setField} or {@link #addRepeatedField}
+     * would, without checking a type the codec already guarantees.
+     */
+    private void setParsedValue(DynamicMessageCodec.FieldCodec field, Object value) {
+      if (field.repeated) {
+        fields.addRepeated(field, value);
+      } else if (field.clearingValue != null && field.clearingValue.equals(value)) {
+        // Reading the default value of a field without presence is equivalent to clearing it.
+        fields.clear(field);
+      } else {
+        fields.set(field, value);
       }
     }
 
     public DynamicMessage build() {
       if (!isInitialized()) {
         throw newUninitializedMessageException(
-            new DynamicMessage(
-                type, fields.build(), Arrays.copyOf(oneofCases, oneofCases.length), unknownFields));
+            new DynamicMessage(type, fields.build(true), buildExtensions(true), unknownFields));
       }
       return buildPartial();
     }
@@ -345,10 +513,7 @@ public final class DynamicMessage extends AbstractMessage {
       if (!isInitialized()) {
         throw newUninitializedMessageException(
                 new DynamicMessage(
-                    type,
-                    fields.build(),
-                    Arrays.copyOf(oneofCases, oneofCases.length),
-                    unknownFields))
+                    type, fields.build(true), buildExtensions(true), unknownFields))
             .asInvalidProtocolBufferException();
       }
       return buildPartial();
@@ -358,45 +523,34 @@ public final class DynamicMessage extends AbstractMessage {
       // Set default values for all fields in a MapEntry.
       if (type.getOptions().getMapEntry()) {
         for (FieldDescriptor field : type.getFields()) {
-          if (field.isOptional() && !fields.hasField(field)) {
+          DynamicMessageCodec.FieldCodec fieldCodec = codec.forField(field);
+          if (field.isOptional() && !fields.has(fieldCodec)) {
             if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
-              fields.setField(field, getDefaultInstance(field.getMessageType()));
+              mutableFields().set(fieldCodec, getDefaultInstance(field.getMessageType()));
             } else {
-              fields.setField(field, field.getDefaultValue());
+              mutableFields().set(fieldCodec, field.getDefaultValue());
             }
           }
         }
       }
 
       DynamicMessage result =
-          new DynamicMessage(
-              type,
-              fields.buildPartial(),
-              Arrays.copyOf(oneofCases, oneofCases.length),
-              unknownFields);
+          new DynamicMessage(type, fields.build(true), buildExtensions(true), unknownFields);
       return result;
     }
 
     public Builder clone() {
       Builder result = new Builder(type);
-      result.fields.mergeFrom(fields.build());
+      result.fields = fields.build(true);
+      if (extensions != null) {
+        result.extensions = FieldSet.Builder.fromFieldSet(extensions.build());
+      }
       result.mergeUnknownFields(unknownFields);
-      System.arraycopy(oneofCases, 0, result.oneofCases, 0, oneofCases.length);
       return result;
     }
 
     public boolean isInitialized() {
-      // Check that all required fields are present.
-      for (FieldDescriptor field : type.getFields()) {
-        if (field.isRequired()) {
-          if (!fields.hasField(field)) {
-            return false;
-          }
-        }
-      }
-
-      // Check that embedded messages are initialized.
-      return fields.isInitialized();
+      return fields.isInitialized() && (extensions == null || extensions.isInitialized());
     }
 
     public Descriptor getDescriptorForType() {
@@ -408,7 +562,10 @@ public final class DynamicMessage extends AbstractMessage {
     }
 
     public Map<FieldDescriptor, Object> getAllFields() {
-      return fields.getAllFields();
+      return fields.getAllFields(
+          extensions == null
+              ? Collections.<FieldDescriptor, Object>emptyMap()
+              : extensions.getAllFields());
     }
 
     public Builder newBuilderForField(FieldDescriptor field) {
@@ -424,7 +581,7 @@ public final class DynamicMessage extends AbstractMessage {
 
     public boolean hasOneof(OneofDescriptor oneof) {
       verifyOneofContainingType(oneof);
-      FieldDescriptor field = oneofCases[oneof.getIndex()];
+      FieldDescriptor field = fields.getOneofFieldDescriptor(oneof.getIndex());
       if (field == null) {
         return false;
       }
@@ -433,12 +590,12 @@ public final class DynamicMessage extends AbstractMessage {
 
     public FieldDescriptor getOneofFieldDescriptor(OneofDescriptor oneof) {
       verifyOneofContainingType(oneof);
-      return oneofCases[oneof.getIndex()];
+      return fields.getOneofFieldDescriptor(oneof.getIndex());
     }
 
     public Builder clearOneof(OneofDescriptor oneof) {
       verifyOneofContainingType(oneof);
-      FieldDescriptor field = oneofCases[oneof.getIndex()];
+      FieldDescriptor field = fields.getOneofFieldDescriptor(oneof.getIndex());
       if (field != null) {
         clearField(field);
       }
@@ -447,12 +604,20 @@ public final class DynamicMessage extends AbstractMessage {
 
     public boolean hasField(FieldDescriptor field) {
       verifyContainingType(field);
-      return fields.hasField(field);
+      if (field.isExtension()) {
+        return extensions().hasField(field);
+      }
+      return fields.hasField(codec.forField(field));
     }
 
     public Object getField(FieldDescriptor field) {
       verifyContainingType(field);
-      Object result = fields.getField(field);
+      Object result;
+      if (field.isExtension()) {
+        result = extensions == null ? null : extensions.getField(field);
+      } else {
+        result = fields.get(codec.forField(field));
+      }
       if (result == null) {
         if (field.isRepeated()) {
           result = Collections.emptyList();
@@ -473,62 +638,77 @@ public final class DynamicMessage extends AbstractMessage {
       // because of some internal features we support. Should figure it out
       // and move this check to a more appropriate place.
       verifyType(field, value);
-      OneofDescriptor oneofDescriptor = field.getContainingOneof();
-      if (oneofDescriptor != null) {
-        int index = oneofDescriptor.getIndex();
-        FieldDescriptor oldField = oneofCases[index];
-        if ((oldField != null) && (oldField != field)) {
-          fields.clearField(oldField);
-        }
-        oneofCases[index] = field;
-      } else if (!field.hasPresence()) {
+      if (field.isExtension()) {
+        extensions().setField(field, value);
+        return this;
+      }
+      DynamicMessageCodec.FieldCodec fieldCodec = codec.forField(field);
+      if (fieldCodec.oneofIndex < 0 && !field.hasPresence()) {
         if (field.isRepeated()
             ? ((List<?>) value).isEmpty()
             : value.equals(field.getDefaultValue())) {
           // Setting a field without presence to its default value is equivalent to clearing the
           // field.
-          fields.clearField(field);
+          mutableFields().clear(fieldCodec);
           return this;
         }
       }
-      fields.setField(field, value);
+      if (field.isRepeated()) {
+        // Wrap the contents in a new list so that the caller cannot change
+        // the list's contents after setting it.
+        value = fieldCodec.newList((List<?>) value);
+      }
+      mutableFields().set(fieldCodec, value);
       return this;
     }
 
     public Builder clearField(FieldDescriptor field) {
       verifyContainingType(field);
-      OneofDescriptor oneofDescriptor = field.getContainingOneof();
-      if (oneofDescriptor != null) {
-        int index = oneofDescriptor.getIndex();
-        if (oneofCases[index] == field) {
-          oneofCases[index] = null;
+      if (field.isExtension()) {
+        if (extensions != null) {
+          extensions.clearField(field);
         }
+        return this;
       }
-      fields.clearField(field);
+      mutableFields().clear(codec.forField(field));
       return this;
     }
 
     public int getRepeatedFieldCount(FieldDescriptor field) {
       verifyContainingType(field);
-      return fields.getRepeatedFieldCount(field);
+      if (field.isExtension()) {
+        return extensions().getRepeatedFieldCount(field);
+      }
+      return fields.getRepeatedCount(codec.forField(field));
     }
 
     public Object getRepeatedField(FieldDescriptor field, int index) {
       verifyContainingType(field);
-      return fields.getRepeatedField(field, index);
+      if (field.isExtension()) {
+        return extensions().getRepeatedField(field, index);
+      }
+      return fields.getRepeated(codec.forField(field), index);
     }
 
     public Builder setRepeatedField(FieldDescriptor field, int index, Object value) {
       verifyContainingType(field);
       verifySingularValueType(field, value);
-      fields.setRepeatedField(field, index, value);
+      if (field.isExtension()) {
+        extensions().setRepeatedField(field, index, value);
+        return this;
+      }
+      mutableFields().setRepeated(codec.forField(field), index, value);
       return this;
     }
 
     public Builder addRepeatedField(FieldDescriptor field, Object value) {
       verifyContainingType(field);
       verifySingularValueType(field, value);
-      fields.addRepeatedField(field, value);
+      if (field.isExtension()) {
+        extensions().addRepeatedField(field, value);
+        return this;
+      }
+      mutableFields().addRepeated(codec.forField(field), value);
       return this;
     }
 
@@ -562,11 +742,21 @@ public final class DynamicMessage extends AbstractMessage {
     }
 
     /**
-     * Verifies that {@code value} is of the appropriate type, in addition to the checks already
-     * performed by {@link FieldSet.Builder}.
+     * Verifies that {@code value} is of the appropriate type. Regular fields are no longer stored in
+     * a {@link FieldSet.Builder}, so its own check is repeated here first.
      */
     private void verifySingularValueType(FieldDescriptor field, Object value) {
-      // Most type checks are performed by FieldSet.Builder, but FieldSet.Builder is more permissive
+      if (!FieldSet.isValidType(field.getLiteType(), value)) {
+        throw new IllegalArgumentException(
+            "Wrong object type used with protocol message reflection.\nField number: "
+                + field.getNumber()
+                + ", field java type: "
+                + field.getLiteType().getJavaType()
+                + ", value type: "
+                + value.getClass().getName()
+                + "\n");
+      }
+      // The check above is the one made by FieldSet.Builder, but FieldSet.Builder is more permissive
       // than generated Message.Builder subclasses, so we perform extra checks in this class so that
       // DynamicMessage.Builder's semantics more closely match the semantics of generated builders.
       switch (field.getType()) {
@@ -623,12 +813,22 @@ public final class DynamicMessage extends AbstractMessage {
         throw new UnsupportedOperationException("getFieldBuilder() called on a non-Message type.");
       }
 
-      Object existingValue = fields.getFieldAllowBuilders(field);
+      if (field.isExtension()) {
+        Object existingValue = extensions().getFieldAllowBuilders(field);
+        Message.Builder builder =
+            existingValue == null
+                ? new Builder(field.getMessageType())
+                : toMessageBuilder(existingValue);
+        extensions.setField(field, builder);
+        return builder;
+      }
+      DynamicMessageCodec.FieldCodec fieldCodec = codec.forField(field);
+      Object existingValue = fields.getAllowBuilders(fieldCodec);
       Message.Builder builder =
           existingValue == null
               ? new Builder(field.getMessageType())
               : toMessageBuilder(existingValue);
-      fields.setField(field, builder);
+      mutableFields().set(fieldCodec, builder);
       return builder;
     }
 
@@ -644,9 +844,16 @@ public final class DynamicMessage extends AbstractMessage {
             "getRepeatedFieldBuilder() called on a non-Message type.");
       }
 
+      if (field.isExtension()) {
+        Message.Builder builder =
+            toMessageBuilder(extensions().getRepeatedFieldAllowBuilders(field, index));
+        extensions.setRepeatedField(field, index, builder);
+        return builder;
+      }
+      DynamicMessageCodec.FieldCodec fieldCodec = codec.forField(field);
       Message.Builder builder =
-          toMessageBuilder(fields.getRepeatedFieldAllowBuilders(field, index));
-      fields.setRepeatedField(field, index, builder);
+          toMessageBuilder(mutableFields().getRepeatedAllowBuilders(fieldCodec, index));
+      fields.setRepeated(fieldCodec, index, builder);
       return builder;
     }
 
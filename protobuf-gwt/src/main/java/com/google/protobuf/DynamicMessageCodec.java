@@ -0,0 +1,458 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+
+package com.google.protobuf;
+
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.OneofDescriptor;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The parsing and serialization plan for the {@link DynamicMessage}s of one type. Everything that
+ * {@link MessageReflection#mergeFieldFrom} and {@link FieldSet#writeField} would otherwise work out
+ * from the {@link FieldDescriptor} for every value, such as the expected tags, whether the field is
+ * packed, how strings are validated and how enums are treated, is resolved once here, and the plan
+ * is kept on the {@link Descriptor} for as long as the descriptor lives.
+ *
+ * <p>Fields are found by number through a {@link Descriptors.NumberTable}, and a tag is dispatched
+ * by comparing it with the two tags the field accepts. Anything else, such as extensions, unknown
+ * fields, a wire type that does not match, or MessageSet wire format, is left to the reflection
+ * based code.
+ *
+ * <p>The plan also lays out the {@link DynamicMessageSlots} that hold the values. Each field gets a
+ * slot in the array for its storage type, and the members of a real oneof share one object slot.
+ */
+final class DynamicMessageCodec {
+
+  /** Returns the plan for {@code type}, building it the first time it is asked for. */
+  static DynamicMessageCodec forType(Descriptor type) {
+    // Plans are immutable, so a race only builds the same plan twice.
+    DynamicMessageCodec codec = type.dynamicMessageCodec;
+    if (codec == null) {
+      codec = new DynamicMessageCodec(type);
+      type.dynamicMessageCodec = codec;
+    }
+    return codec;
+  }
+
+  private final boolean messageSetWireFormat;
+  private final FieldCodec[] fieldsByIndex;
+  private final FieldCodec[] fieldsSortedByNumber;
+  private final Descriptors.NumberTable<FieldCodec> fieldsByNumber;
+  private final int oneofCount;
+  private final int intSlots;
+  private final int longSlots;
+  private final int doubleSlots;
+  private final int objectSlots;
+
+  private DynamicMessageCodec(Descriptor type) {
+    messageSetWireFormat = type.getOptions().getMessageSetWireFormat();
+    oneofCount = type.getOneofCount();
+    List<FieldDescriptor> fields = type.getFields();
+    fieldsByIndex = new FieldCodec[fields.size()];
+    fieldsSortedByNumber = new FieldCodec[fields.size()];
+    // Each oneof has the first object slot at its own index, shared by its members if it's real.
+    int ints = 0;
+    int longs = 0;
+    int doubles = 0;
+    int objects = oneofCount;
+    for (int i = 0; i < fieldsByIndex.length; i++) {
+      FieldDescriptor field = fields.get(i);
+      int storage = FieldCodec.storageOf(field);
+      int slot;
+      switch (storage) {
+        case FieldCodec.INT:
+        case FieldCodec.BOOLEAN:
+          slot = ints++;
+          break;
+        case FieldCodec.LONG:
+          slot = longs++;
+          break;
+        case FieldCodec.FLOAT:
+        case FieldCodec.DOUBLE:
+          slot = doubles++;
+          break;
+        default:
+          slot = field.getRealContainingOneof() != null
+              ? field.getRealContainingOneof().getIndex()
+              : objects++;
+          break;
+      }
+      fieldsByIndex[i] = new FieldCodec(field, storage, slot);
+      fieldsSortedByNumber[i] = fieldsByIndex[i];
+    }
+    intSlots = ints;
+    longSlots = longs;
+    doubleSlots = doubles;
+    objectSlots = objects;
+    Arrays.sort(fieldsSortedByNumber, (a, b) -> Integer.compare(a.number, b.number));
+    fieldsByNumber =
+        new Descriptors.NumberTable<>(
+            fieldsSortedByNumber, fieldsSortedByNumber.length, FieldCodec::number);
+  }
+
+  /** Whether messages of this type are written with MessageSet wire format. */
+  boolean isMessageSetWireFormat() {
+    return messageSetWireFormat;
+  }
+
+  /** Returns empty storage for a message of this type. */
+  DynamicMessageSlots newSlots() {
+    return new DynamicMessageSlots(
+        this,
+        new int[(fieldsByIndex.length + 31) >>> 5],
+        new int[intSlots],
+        new long[longSlots],
+        new double[doubleSlots],
+        new Object[objectSlots],
+        new FieldDescriptor[oneofCount]);
+  }
+
+  /** Returns the plan for a field of this type, which must not be an extension. */
+  FieldCodec forField(FieldDescriptor field) {
+    return fieldsByIndex[field.getIndex()];
+  }
+
+  /** The plans for the fields of this type, in the order of the descriptor. */
+  FieldCodec[] fieldsByIndex() {
+    return fieldsByIndex;
+  }
+
+  /** The plans for the fields of this type, in the order they are written. */
+  FieldCodec[] fieldsSortedByNumber() {
+    return fieldsSortedByNumber;
+  }
+
+  /**
+   * Returns the plan for the field that {@code tag} belongs to, or {@code null} if the tag has to
+   * go through {@link MessageReflection#mergeFieldFrom} instead.
+   */
+  FieldCodec forTag(int tag) {
+    FieldCodec field = fieldsByNumber.get(WireFormat.getTagFieldNumber(tag));
+    if (field != null && (tag == field.tag || tag == field.packedTag)) {
+      return field;
+    }
+    return null;
+  }
+
+  /** The plan for a single field. */
+  static final class FieldCodec {
+    // Where the value of a field is stored, see DynamicMessageSlots.
+    static final int OBJECT = 0;
+    static final int INT = 1;
+    static final int LONG = 2;
+    static final int FLOAT = 3;
+    static final int DOUBLE = 4;
+    static final int BOOLEAN = 5;
+
+    final FieldDescriptor descriptor;
+    /** The index of the field, which is also its bit in the presence bitset. */
+    final int index;
+    /** One of {@link #OBJECT}, {@link #INT}, etc. */
+    final int storage;
+    /** The index of the value in the array for its {@link #storage}. */
+    final int slot;
+    final WireFormat.FieldType type;
+    final int number;
+    final boolean repeated;
+    final boolean required;
+    /** Whether the value is a message, so possibly a builder or an uninitialized message. */
+    final boolean message;
+    /** The tag of a single value. */
+    final int tag;
+    /** The tag of a packed run of values, or -1 if the field can't be packed. */
+    final int packedTag;
+    /** Whether the field is written packed. */
+    final boolean packed;
+    /**
+     * Whether the values of a repeated field are kept in an {@link Int32ArrayList}, {@link
+     * Int32PairArrayList}, {@link Float32ArrayList} or {@link Float64ArrayList}, rather than an
+     * {@code ArrayList}.
+     */
+    final boolean typedList;
+    final int tagSize;
+    /** The encoded size of each value of a fixed width type, or 0. */
+    final int fixedSize;
+    final WireFormat.Utf8Validation utf8Validation;
+    /** The enum type, or {@code null} if the field is not an enum. */
+    final EnumDescriptor enumType;
+    /** Whether unrecognized enum numbers are kept in the unknown fields rather than the field. */
+    final boolean closedEnum;
+    /** The index of the containing oneof, including synthetic ones, or -1. */
+    final int oneofIndex;
+    /** Whether the field is in a real oneof, and so shares its object slot with the other members. */
+    final boolean sharesOneofSlot;
+    /**
+     * The value that clears a singular field without presence, or {@code null} if setting the
+     * field always makes it present.
+     */
+    final Object clearingValue;
+
+    private FieldCodec(FieldDescriptor descriptor, int storage, int slot) {
+      this.descriptor = descriptor;
+      this.index = descriptor.getIndex();
+      this.storage = storage;
+      this.slot = slot;
+      type = descriptor.getLiteType();
+      number = descriptor.getNumber();
+      repeated = descriptor.isRepeated();
+      required = descriptor.isRequired();
+      message = descriptor.getJavaType() == FieldDescriptor.JavaType.MESSAGE;
+      tag = WireFormat.makeTag(number, FieldSet.getWireFormatForFieldType(type, false));
+      packedTag =
+          descriptor.isPackable()
+              ? WireFormat.makeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED)
+              : -1;
+      packed = descriptor.isPacked();
+      typedList = repeated && typedListOf(type);
+      tagSize = CodedOutputStream.computeTagSize(number);
+      fixedSize = fixedSize(type);
+      utf8Validation =
+          descriptor.needsUtf8Check()
+              ? WireFormat.Utf8Validation.STRICT
+              : WireFormat.Utf8Validation.LOOSE;
+      if (type == WireFormat.FieldType.ENUM) {
+        enumType = descriptor.getEnumType();
+        closedEnum = descriptor.legacyEnumFieldTreatedAsClosed();
+      } else {
+        enumType = null;
+        closedEnum = false;
+      }
+      OneofDescriptor oneof = descriptor.getContainingOneof();
+      oneofIndex = oneof == null ? -1 : oneof.getIndex();
+      sharesOneofSlot = oneof != null && !oneof.isSynthetic();
+      clearingValue =
+          oneof == null
+                  && !repeated
+                  && !descriptor.hasPresence()
+                  && descriptor.getJavaType() != FieldDescriptor.JavaType.MESSAGE
+              ? descriptor.getDefaultValue()
+              : null;
+    }
+
+    /**
+     * Returns where the value of {@code field} is stored. Primitives are kept unboxed unless they
+     * share the slot of a real oneof, and every repeated field is kept as a {@code List}.
+     */
+    static int storageOf(FieldDescriptor field) {
+      if (field.isRepeated() || field.getRealContainingOneof() != null) {
+        return OBJECT;
+      }
+      switch (field.getJavaType()) {
+        case INT:
+          return INT;
+        case LONG:
+          return LONG;
+        case FLOAT:
+          return FLOAT;
+        case DOUBLE:
+          return DOUBLE;
+        case BOOLEAN:
+          return BOOLEAN;
+        default:
+          return OBJECT;
+      }
+    }
+
+    private static boolean typedListOf(WireFormat.FieldType type) {
+      switch (type) {
+        case DOUBLE:
+        case FLOAT:
+        case INT32:
+        case UINT32:
+        case SINT32:
+        case FIXED32:
+        case SFIXED32:
+        case INT64:
+        case UINT64:
+        case SINT64:
+        case FIXED64:
+        case SFIXED64:
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    int number() {
+      return number;
+    }
+
+    /** Returns a new mutable list for a repeated field, holding a copy of {@code values}. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    List<Object> newList(Collection<?> values) {
+      if (!typedList) {
+        return new ArrayList<>(values);
+      }
+      List list;
+      switch (type.getJavaType()) {
+        case DOUBLE:
+          list = new Float64ArrayList();
+          break;
+        case FLOAT:
+          list = new Float32ArrayList();
+          break;
+        case LONG:
+          list = new Int32PairArrayList();
+          break;
+        default:
+          list = new Int32ArrayList();
+          break;
+      }
+      list.addAll(values);
+      return list;
+    }
+
+    /**
+     * Appends a packed run of values, including its length prefix, to a list from {@link
+     * #newList}, reading it in bulk where the element type allows.
+     */
+    @SuppressWarnings("unchecked")
+    void addAllPacked(List<Object> list, CodedInputStream input) throws IOException {
+      switch (type.getJavaType()) {
+        case DOUBLE:
+          ((Float64ArrayList) (List<?>) list).addAllPacked(input);
+          break;
+        case FLOAT:
+          ((Float32ArrayList) (List<?>) list).addAllPacked(input);
+          break;
+        case LONG:
+          ((Int32PairArrayList) (List<?>) list).addAllPacked(input, type);
+          break;
+        default:
+          ((Int32ArrayList) (List<?>) list).addAllPacked(input, type);
+          break;
+      }
+    }
+
+    /** Reads one value of a field that is neither an enum nor a message. */
+    Object readScalar(CodedInputStream input) throws IOException {
+      return input.readPrimitiveField(type, utf8Validation);
+    }
+
+    /**
+     * Returns the value for an enum number read from the wire, or {@code null} if the enum is
+     * closed and does not recognize it, in which case it belongs in the unknown fields.
+     */
+    Object toEnumValue(int rawValue) {
+      return closedEnum
+          ? enumType.findValueByNumber(rawValue)
+          : enumType.findValueByNumberCreatingIfUnknown(rawValue);
+    }
+
+    void write(Object value, CodedOutputStream output) throws IOException {
+      if (!repeated) {
+        writeElement(value, output);
+        return;
+      }
+      List<?> values = (List<?>) value;
+      int count = values.size();
+      if (!packed) {
+        for (int i = 0; i < count; i++) {
+          writeElement(values.get(i), output);
+        }
+        return;
+      }
+      if (count == 0) {
+        // The tag should not be written for empty packed fields.
+        return;
+      }
+      output.writeUInt32NoTag(packedTag);
+      output.writeUInt32NoTag(computeDataSize(values));
+      if (fixedSize != 0 && values instanceof TypedArrayList) {
+        // The typed array already holds the values as the wire lays them out
+        output.writeRawTypedArray(((TypedArrayList<?>) values).view());
+        return;
+      }
+      if (fixedSize != 0 && values instanceof Int32PairArrayList) {
+        output.writeRawTypedArray(((Int32PairArrayList) values).asInt32Array());
+        return;
+      }
+      for (int i = 0; i < count; i++) {
+        FieldSet.writeElementNoTag(output, type, values.get(i));
+      }
+    }
+
+    int computeSize(Object value) {
+      if (!repeated) {
+        return computeElementSize(value);
+      }
+      List<?> values = (List<?>) value;
+      if (!packed) {
+        int size = 0;
+        for (int i = 0, count = values.size(); i < count; i++) {
+          size += computeElementSize(values.get(i));
+        }
+        return size;
+      }
+      if (values.isEmpty()) {
+        return 0;
+      }
+      int dataSize = computeDataSize(values);
+      return tagSize + CodedOutputStream.computeUInt32SizeNoTag(dataSize) + dataSize;
+    }
+
+    @SuppressWarnings("deprecation") // writeGroup
+    private void writeElement(Object value, CodedOutputStream output) throws IOException {
+      if (value instanceof LazyField) {
+        value = ((LazyField) value).getValue();
+      }
+      if (type == WireFormat.FieldType.GROUP) {
+        output.writeGroup(number, (MessageLite) value);
+      } else {
+        output.writeUInt32NoTag(tag);
+        FieldSet.writeElementNoTag(output, type, value);
+      }
+    }
+
+    private int computeElementSize(Object value) {
+      if (fixedSize != 0) {
+        return tagSize + fixedSize;
+      }
+      if (type == WireFormat.FieldType.GROUP) {
+        return 2 * tagSize + ((MessageLite) value).getSerializedSize();
+      }
+      return tagSize + FieldSet.computeElementSizeNoTag(type, value);
+    }
+
+    private int computeDataSize(List<?> values) {
+      int count = values.size();
+      if (fixedSize != 0) {
+        return count * fixedSize;
+      }
+      int dataSize = 0;
+      for (int i = 0; i < count; i++) {
+        dataSize += FieldSet.computeElementSizeNoTag(type, values.get(i));
+      }
+      return dataSize;
+    }
+
+    private static int fixedSize(WireFormat.FieldType type) {
+      switch (type) {
+        case BOOL:
+          return 1;
+        case FIXED32:
+        case SFIXED32:
+        case FLOAT:
+          return 4;
+        case FIXED64:
+        case SFIXED64:
+        case DOUBLE:
+          return 8;
+        default:
+          return 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,757 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+
+package com.google.protobuf;
+
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.DynamicMessageCodec.FieldCodec;
+import com.google.protobuf.Internal.ProtobufList;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The values of the fields of a {@link DynamicMessage} or its builder, apart from extensions, which
+ * stay in a {@link FieldSet}. Rather than a map from descriptor to boxed value, each field has a
+ * slot laid out by the {@link DynamicMessageCodec} of the type: numbers and booleans are kept
+ * unboxed in {@code int}, {@code long} and {@code double} arrays, everything else in an {@code
+ * Object} array, and the members of a real oneof share a single object slot. A bitset indexed by
+ * {@link FieldDescriptor#getIndex()} records which fields are present.
+ *
+ * <p>Like {@link FieldSet.Builder}, the builder hands its slots to the message it builds, and
+ * copies them with {@link #mutableCopy()} before it changes them again.
+ */
+final class DynamicMessageSlots {
+  private final DynamicMessageCodec codec;
+  private final int[] present;
+  private final int[] ints;
+  private final long[] longs;
+  private final double[] doubles;
+  private final Object[] objects;
+  private final FieldDescriptor[] oneofCases;
+  // Set once the slots have been handed to a message, when repeated fields become unmodifiable.
+  private boolean built;
+  // Whether a message field or element may be a builder, which has to be built to be handed out.
+  private boolean hasNestedBuilders;
+
+  DynamicMessageSlots(
+      DynamicMessageCodec codec,
+      int[] present,
+      int[] ints,
+      long[] longs,
+      double[] doubles,
+      Object[] objects,
+      FieldDescriptor[] oneofCases) {
+    this.codec = codec;
+    this.present = present;
+    this.ints = ints;
+    this.longs = longs;
+    this.doubles = doubles;
+    this.objects = objects;
+    this.oneofCases = oneofCases;
+  }
+
+  private DynamicMessageSlots copy() {
+    DynamicMessageSlots copy =
+        new DynamicMessageSlots(
+            codec,
+            Arrays.copyOf(present, present.length),
+            Arrays.copyOf(ints, ints.length),
+            Arrays.copyOf(longs, longs.length),
+            Arrays.copyOf(doubles, doubles.length),
+            Arrays.copyOf(objects, objects.length),
+            Arrays.copyOf(oneofCases, oneofCases.length));
+    copy.hasNestedBuilders = hasNestedBuilders;
+    return copy;
+  }
+
+  /** Returns a copy that a builder can change, with its own copy of each repeated field. */
+  DynamicMessageSlots mutableCopy() {
+    DynamicMessageSlots copy = copy();
+    for (FieldCodec field : codec.fieldsSortedByNumber()) {
+      if (field.repeated && has(field)) {
+        copy.objects[field.slot] = field.newList((List<?>) objects[field.slot]);
+      }
+    }
+    return copy;
+  }
+
+  /**
+   * Returns the slots of a message built from these. If nothing in them is a builder, that is
+   * these slots, which must not be changed afterwards; otherwise it is a copy with each builder
+   * built, so that the builder can go on using the nested builders it handed out.
+   *
+   * @throws UninitializedMessageException if {@code partial} is false and a nested builder is
+   *     missing required fields
+   */
+  DynamicMessageSlots build(boolean partial) {
+    if (built) {
+      return this;
+    }
+    DynamicMessageSlots result = hasNestedBuilders ? copy() : this;
+    for (FieldCodec field : codec.fieldsSortedByNumber()) {
+      if (field.storage != FieldCodec.OBJECT || !has(field)) {
+        continue;
+      }
+      Object value = objects[field.slot];
+      if (field.repeated) {
+        List<?> list = (List<?>) value;
+        if (hasNestedBuilders && field.message) {
+          List<Object> builtList = new ArrayList<>(list.size());
+          for (int i = 0; i < list.size(); i++) {
+            builtList.add(buildIfBuilder(list.get(i), partial));
+          }
+          list = builtList;
+        }
+        if (result != this && list == value) {
+          // The builder keeps changing its own list.
+          list = field.newList(list);
+        }
+        if (list instanceof ProtobufList) {
+          // Keep typed array backed lists as they are, so that they can be exported.
+          ((ProtobufList<?>) list).makeImmutable();
+          result.objects[field.slot] = list;
+        } else {
+          result.objects[field.slot] = Collections.unmodifiableList(list);
+        }
+      } else if (hasNestedBuilders) {
+        result.objects[field.slot] = buildIfBuilder(value, partial);
+      }
+    }
+    result.hasNestedBuilders = false;
+    result.built = true;
+    return result;
+  }
+
+  private static Object buildIfBuilder(Object value, boolean partial) {
+    if (value instanceof Message.Builder) {
+      Message.Builder builder = (Message.Builder) value;
+      return partial ? builder.buildPartial() : builder.build();
+    }
+    return value;
+  }
+
+  /** Whether these slots belong to a message, and have to be copied before they are changed. */
+  boolean isBuilt() {
+    return built;
+  }
+
+  /** See {@link Message#hasField}, which is only valid for singular fields. */
+  boolean hasField(FieldCodec field) {
+    if (field.repeated) {
+      throw new IllegalArgumentException("hasField() can only be called on non-repeated fields.");
+    }
+    return has(field);
+  }
+
+  boolean has(FieldCodec field) {
+    return (present[field.index >>> 5] & (1 << field.index)) != 0;
+  }
+
+  FieldDescriptor getOneofFieldDescriptor(int oneofIndex) {
+    return oneofCases[oneofIndex];
+  }
+
+  /**
+   * Returns the value of a field, boxed the way {@link Message#getField} returns it, or {@code
+   * null} if the field isn't present. Nested builders are built.
+   */
+  Object get(FieldCodec field) {
+    Object value = getAllowBuilders(field);
+    if (!hasNestedBuilders || !field.message || value == null) {
+      return value;
+    }
+    if (!field.repeated) {
+      return buildIfBuilder(value, true);
+    }
+    List<?> list = (List<?>) value;
+    List<Object> builtList = new ArrayList<>(list.size());
+    for (int i = 0; i < list.size(); i++) {
+      builtList.add(buildIfBuilder(list.get(i), true));
+    }
+    return Collections.unmodifiableList(builtList);
+  }
+
+  /** Like {@link #get}, but returns a nested builder rather than building it. */
+  Object getAllowBuilders(FieldCodec field) {
+    if (!has(field)) {
+      return null;
+    }
+    int slot = field.slot;
+    switch (field.storage) {
+      case FieldCodec.INT:
+        return ints[slot];
+      case FieldCodec.LONG:
+        return longs[slot];
+      case FieldCodec.FLOAT:
+        return (float) doubles[slot];
+      case FieldCodec.DOUBLE:
+        return doubles[slot];
+      case FieldCodec.BOOLEAN:
+        return ints[slot] != 0;
+      default:
+        return objects[slot];
+    }
+  }
+
+  /**
+   * Stores a value of the field's type, which for a repeated field is a {@code List} that these
+   * slots now own. Setting a member of a oneof clears whichever member was set before.
+   */
+  void set(FieldCodec field, Object value) {
+    int slot = field.slot;
+    switch (field.storage) {
+      case FieldCodec.INT:
+        ints[slot] = (Integer) value;
+        break;
+      case FieldCodec.LONG:
+        longs[slot] = (Long) value;
+        break;
+      case FieldCodec.FLOAT:
+        doubles[slot] = (Float) value;
+        break;
+      case FieldCodec.DOUBLE:
+        doubles[slot] = (Double) value;
+        break;
+      case FieldCodec.BOOLEAN:
+        ints[slot] = ((Boolean) value) ? 1 : 0;
+        break;
+      default:
+        if (field.repeated && ((List<?>) value).isEmpty()) {
+          clear(field);
+          return;
+        }
+        objects[slot] = value;
+        hasNestedBuilders |= value instanceof Message.Builder;
+        break;
+    }
+    markPresent(field);
+  }
+
+  /**
+   * Reads a singular value of a field that is stored unboxed straight into its slot. A field
+   * without presence is cleared instead if the value is its default.
+   */
+  void readPrimitive(FieldCodec field, CodedInputStream input) throws IOException {
+    int slot = field.slot;
+    boolean isDefault;
+    switch (field.type) {
+      case INT32:
+        isDefault = (ints[slot] = input.readInt32()) == 0;
+        break;
+      case UINT32:
+        isDefault = (ints[slot] = input.readUInt32()) == 0;
+        break;
+      case SINT32:
+        isDefault = (ints[slot] = input.readSInt32()) == 0;
+        break;
+      case FIXED32:
+        isDefault = (ints[slot] = input.readFixed32()) == 0;
+        break;
+      case SFIXED32:
+        isDefault = (ints[slot] = input.readSFixed32()) == 0;
+        break;
+      case BOOL:
+        isDefault = (ints[slot] = input.readBool() ? 1 : 0) == 0;
+        break;
+      case INT64:
+        isDefault = (longs[slot] = input.readInt64()) == 0;
+        break;
+      case UINT64:
+        isDefault = (longs[slot] = input.readUInt64()) == 0;
+        break;
+      case SINT64:
+        isDefault = (longs[slot] = input.readSInt64()) == 0;
+        break;
+      case FIXED64:
+        isDefault = (longs[slot] = input.readFixed64()) == 0;
+        break;
+      case SFIXED64:
+        isDefault = (longs[slot] = input.readSFixed64()) == 0;
+        break;
+      case FLOAT:
+        isDefault = isPositiveZero(doubles[slot] = input.readFloat());
+        break;
+      case DOUBLE:
+        isDefault = isPositiveZero(doubles[slot] = input.readDouble());
+        break;
+      default:
+        throw new IllegalArgumentException("Not stored unboxed: " + field.type);
+    }
+    if (isDefault && field.clearingValue != null) {
+      clear(field);
+    } else {
+      markPresent(field);
+    }
+  }
+
+  // Matches Double.equals(0.0), which is false for -0.0.
+  private static boolean isPositiveZero(double value) {
+    return value == 0 && 1 / value > 0;
+  }
+
+  private void markPresent(FieldCodec field) {
+    if (field.oneofIndex >= 0) {
+      FieldDescriptor oldField = oneofCases[field.oneofIndex];
+      if (oldField != field.descriptor) {
+        if (oldField != null) {
+          // The old member's value, if it shared the slot, has just been overwritten.
+          int oldIndex = oldField.getIndex();
+          present[oldIndex >>> 5] &= ~(1 << oldIndex);
+        }
+        oneofCases[field.oneofIndex] = field.descriptor;
+      }
+    }
+    present[field.index >>> 5] |= 1 << field.index;
+  }
+
+  void clear(FieldCodec field) {
+    if (field.oneofIndex >= 0) {
+      if (oneofCases[field.oneofIndex] == field.descriptor) {
+        oneofCases[field.oneofIndex] = null;
+      } else if (field.sharesOneofSlot) {
+        // Another member of the oneof owns the slot.
+        return;
+      }
+    }
+    present[field.index >>> 5] &= ~(1 << field.index);
+    int slot = field.slot;
+    switch (field.storage) {
+      case FieldCodec.INT:
+      case FieldCodec.BOOLEAN:
+        ints[slot] = 0;
+        break;
+      case FieldCodec.LONG:
+        longs[slot] = 0;
+        break;
+      case FieldCodec.FLOAT:
+      case FieldCodec.DOUBLE:
+        doubles[slot] = 0;
+        break;
+      default:
+        objects[slot] = null;
+        break;
+    }
+  }
+
+  int getRepeatedCount(FieldCodec field) {
+    checkRepeated(field, "getRepeatedFieldCount()");
+    List<?> list = (List<?>) objects[field.slot];
+    return list == null ? 0 : list.size();
+  }
+
+  Object getRepeatedAllowBuilders(FieldCodec field, int index) {
+    checkRepeated(field, "getRepeatedField()");
+    List<?> list = (List<?>) objects[field.slot];
+    if (list == null) {
+      throw new IndexOutOfBoundsException();
+    }
+    return list.get(index);
+  }
+
+  Object getRepeated(FieldCodec field, int index) {
+    return buildIfBuilder(getRepeatedAllowBuilders(field, index), true);
+  }
+
+  @SuppressWarnings("unchecked")
+  void setRepeated(FieldCodec field, int index, Object value) {
+    checkRepeated(field, "setRepeatedField()");
+    List<Object> list = (List<Object>) objects[field.slot];
+    if (list == null) {
+      throw new IndexOutOfBoundsException();
+    }
+    list.set(index, value);
+    hasNestedBuilders |= value instanceof Message.Builder;
+  }
+
+  @SuppressWarnings("unchecked")
+  void addRepeated(FieldCodec field, Object value) {
+    checkRepeated(field, "addRepeatedField()");
+    List<Object> list = (List<Object>) objects[field.slot];
+    if (list == null) {
+      list = field.newList(Collections.emptyList());
+      objects[field.slot] = list;
+      markPresent(field);
+    }
+    list.add(value);
+    hasNestedBuilders |= value instanceof Message.Builder;
+  }
+
+  /** Reads a packed run of values of a field with a {@link FieldCodec#typedList} in bulk. */
+  @SuppressWarnings("unchecked")
+  void addAllPacked(FieldCodec field, CodedInputStream input) throws IOException {
+    List<Object> list = (List<Object>) objects[field.slot];
+    if (list == null) {
+      list = field.newList(Collections.emptyList());
+      objects[field.slot] = list;
+      markPresent(field);
+    }
+    field.addAllPacked(list, input);
+    if (list.isEmpty()) {
+      // An empty run doesn't make the field present.
+      clear(field);
+    }
+  }
+
+  private static void checkRepeated(FieldCodec field, String method) {
+    if (!field.repeated) {
+      throw new IllegalArgumentException(method + " can only be called on repeated fields.");
+    }
+  }
+
+  /**
+   * Like {@link AbstractMessage#compareFieldsByIndex}, for the built slots of two messages of the
+   * same type. Numbers and booleans are compared in their slots, the way their boxed values would
+   * be, and presence is read from the bitsets.
+   */
+  boolean equalsSlots(DynamicMessageSlots other) {
+    for (FieldCodec field : codec.fieldsByIndex()) {
+      int slot = field.slot;
+      if (field.repeated) {
+        List<?> list1 = (List<?>) objects[slot];
+        List<?> list2 = (List<?>) other.objects[slot];
+        int count = list1 == null ? 0 : list1.size();
+        if (count != (list2 == null ? 0 : list2.size())) {
+          return false;
+        }
+        if (count != 0 && !equalsRepeated(field, list1, list2)) {
+          return false;
+        }
+        continue;
+      }
+      boolean has = has(field);
+      if (has != other.has(field)) {
+        return false;
+      }
+      if (!has) {
+        continue;
+      }
+      switch (field.storage) {
+        case FieldCodec.INT:
+        case FieldCodec.BOOLEAN:
+          if (ints[slot] != other.ints[slot]) {
+            return false;
+          }
+          break;
+        case FieldCodec.LONG:
+          if (longs[slot] != other.longs[slot]) {
+            return false;
+          }
+          break;
+        case FieldCodec.FLOAT:
+        case FieldCodec.DOUBLE:
+          // Like Double.equals(), NaN equals itself and 0.0 doesn't equal -0.0.
+          if (Double.compare(doubles[slot], other.doubles[slot]) != 0) {
+            return false;
+          }
+          break;
+        default:
+          if (field.type == WireFormat.FieldType.BYTES
+              ? !AbstractMessage.compareBytes(objects[slot], other.objects[slot])
+              : !objects[slot].equals(other.objects[slot])) {
+            return false;
+          }
+          break;
+      }
+    }
+    return true;
+  }
+
+  private static boolean equalsRepeated(FieldCodec field, List<?> list1, List<?> list2) {
+    if (field.descriptor.isMapField()) {
+      return AbstractMessage.compareMapField(list1, list2);
+    }
+    if (field.type == WireFormat.FieldType.BYTES) {
+      for (int i = 0; i < list1.size(); i++) {
+        if (!AbstractMessage.compareBytes(list1.get(i), list2.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    // Typed array lists compare their arrays without boxing.
+    return list1.equals(list2);
+  }
+
+  /**
+   * Hashes the built slots the same way as {@link AbstractMessage#hashFieldsByIndex}, without
+   * boxing numbers and booleans.
+   */
+  @SuppressWarnings("unchecked")
+  int hashSlots(int hash) {
+    for (FieldCodec field : codec.fieldsByIndex()) {
+      int slot = field.slot;
+      if (field.repeated) {
+        List<?> list = (List<?>) objects[slot];
+        if (list == null || list.isEmpty()) {
+          continue;
+        }
+        hash = (37 * hash) + field.number;
+        if (field.descriptor.isMapField()) {
+          hash = (53 * hash) + AbstractMessage.hashMapField(list);
+        } else if (field.enumType != null) {
+          hash = (53 * hash) + Internal.hashEnumList((List<? extends Internal.EnumLite>) list);
+        } else {
+          // Typed array lists hash their arrays without boxing.
+          hash = (53 * hash) + list.hashCode();
+        }
+        continue;
+      }
+      if (!has(field)) {
+        continue;
+      }
+      hash = (37 * hash) + field.number;
+      int valueHash;
+      switch (field.storage) {
+        case FieldCodec.INT:
+          valueHash = Integer.hashCode(ints[slot]);
+          break;
+        case FieldCodec.BOOLEAN:
+          valueHash = Boolean.hashCode(ints[slot] != 0);
+          break;
+        case FieldCodec.LONG:
+          valueHash = Long.hashCode(longs[slot]);
+          break;
+        case FieldCodec.FLOAT:
+          valueHash = Float.hashCode((float) doubles[slot]);
+          break;
+        case FieldCodec.DOUBLE:
+          valueHash = Double.hashCode(doubles[slot]);
+          break;
+        default:
+          valueHash =
+              field.enumType != null
+                  ? Internal.hashEnum((Internal.EnumLite) objects[slot])
+                  : objects[slot].hashCode();
+          break;
+      }
+      hash = (53 * hash) + valueHash;
+    }
+    return hash;
+  }
+
+  /** Like {@link Message.Builder#mergeFrom(Message)}, where {@code other} was built. */
+  @SuppressWarnings("unchecked")
+  void mergeFrom(DynamicMessageSlots other) {
+    for (FieldCodec field : codec.fieldsSortedByNumber()) {
+      if (!other.has(field)) {
+        continue;
+      }
+      int slot = field.slot;
+      switch (field.storage) {
+        case FieldCodec.INT:
+        case FieldCodec.BOOLEAN:
+          ints[slot] = other.ints[slot];
+          break;
+        case FieldCodec.LONG:
+          longs[slot] = other.longs[slot];
+          break;
+        case FieldCodec.FLOAT:
+        case FieldCodec.DOUBLE:
+          doubles[slot] = other.doubles[slot];
+          break;
+        default:
+          Object value = other.objects[slot];
+          if (field.repeated) {
+            List<Object> list = (List<Object>) objects[slot];
+            if (list == null) {
+              list = field.newList(Collections.emptyList());
+              objects[slot] = list;
+            }
+            for (Object element : (List<?>) value) {
+              list.add(cloneIfMutable(element));
+            }
+          } else if (field.message && has(field)) {
+            Object existing = objects[slot];
+            if (existing instanceof Message.Builder) {
+              ((Message.Builder) existing).mergeFrom((Message) value);
+            } else {
+              objects[slot] =
+                  ((Message) existing).toBuilder().mergeFrom((Message) value).buildPartial();
+            }
+          } else {
+            objects[slot] = cloneIfMutable(value);
+          }
+          break;
+      }
+      markPresent(field);
+    }
+  }
+
+  private static Object cloneIfMutable(Object value) {
+    if (value instanceof byte[]) {
+      byte[] bytes = (byte[]) value;
+      return Arrays.copyOf(bytes, bytes.length);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the fields that are present, and the given extensions, in field number order, the way
+   * {@link Message#getAllFields()} does.
+   */
+  Map<FieldDescriptor, Object> getAllFields(Map<FieldDescriptor, Object> extensions) {
+    Map<FieldDescriptor, Object> result = new LinkedHashMap<>();
+    Iterator<Map.Entry<FieldDescriptor, Object>> it = extensions.entrySet().iterator();
+    Map.Entry<FieldDescriptor, Object> extension = it.hasNext() ? it.next() : null;
+    for (FieldCodec field : codec.fieldsSortedByNumber()) {
+      if (!has(field)) {
+        continue;
+      }
+      while (extension != null && extension.getKey().getNumber() < field.number) {
+        result.put(extension.getKey(), extension.getValue());
+        extension = it.hasNext() ? it.next() : null;
+      }
+      result.put(field.descriptor, get(field));
+    }
+    while (extension != null) {
+      result.put(extension.getKey(), extension.getValue());
+      extension = it.hasNext() ? it.next() : null;
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /** Checks that required fields are present and that message fields are initialized. */
+  boolean isInitialized() {
+    for (FieldCodec field : codec.fieldsSortedByNumber()) {
+      if (!has(field)) {
+        if (field.required) {
+          return false;
+        }
+      } else if (field.message) {
+        Object value = objects[field.slot];
+        if (field.repeated) {
+          List<?> list = (List<?>) value;
+          for (int i = 0; i < list.size(); i++) {
+            if (!((MessageLiteOrBuilder) list.get(i)).isInitialized()) {
+              return false;
+            }
+          }
+        } else if (!((MessageLiteOrBuilder) value).isInitialized()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /** See {@link FieldSet#writeTo}, writing the extensions in field number order too. */
+  void writeTo(FieldSet<FieldDescriptor> extensions, CodedOutputStream output)
+      throws IOException {
+    Iterator<Map.Entry<FieldDescriptor, Object>> it = extensions.iterator();
+    Map.Entry<FieldDescriptor, Object> extension = it.hasNext() ? it.next() : null;
+    for (FieldCodec field : codec.fieldsSortedByNumber()) {
+      if (!has(field)) {
+        continue;
+      }
+      while (extension != null && extension.getKey().getNumber() < field.number) {
+        FieldSet.writeField(extension.getKey(), extension.getValue(), output);
+        extension = it.hasNext() ? it.next() : null;
+      }
+      write(field, output);
+    }
+    while (extension != null) {
+      FieldSet.writeField(extension.getKey(), extension.getValue(), output);
+      extension = it.hasNext() ? it.next() : null;
+    }
+  }
+
+  private void write(FieldCodec field, CodedOutputStream output) throws IOException {
+    int slot = field.slot;
+    if (field.storage == FieldCodec.OBJECT) {
+      field.write(objects[slot], output);
+      return;
+    }
+    output.writeUInt32NoTag(field.tag);
+    switch (field.type) {
+      case INT32:
+        output.writeInt32NoTag(ints[slot]);
+        break;
+      case UINT32:
+        output.writeUInt32NoTag(ints[slot]);
+        break;
+      case SINT32:
+        output.writeSInt32NoTag(ints[slot]);
+        break;
+      case FIXED32:
+        output.writeFixed32NoTag(ints[slot]);
+        break;
+      case SFIXED32:
+        output.writeSFixed32NoTag(ints[slot]);
+        break;
+      case BOOL:
+        output.writeBoolNoTag(ints[slot] != 0);
+        break;
+      case INT64:
+        output.writeInt64NoTag(longs[slot]);
+        break;
+      case UINT64:
+        output.writeUInt64NoTag(longs[slot]);
+        break;
+      case SINT64:
+        output.writeSInt64NoTag(longs[slot]);
+        break;
+      case FIXED64:
+        output.writeFixed64NoTag(longs[slot]);
+        break;
+      case SFIXED64:
+        output.writeSFixed64NoTag(longs[slot]);
+        break;
+      case FLOAT:
+        output.writeFloatNoTag((float) doubles[slot]);
+        break;
+      case DOUBLE:
+        output.writeDoubleNoTag(doubles[slot]);
+        break;
+      default:
+        throw new IllegalArgumentException("Not stored unboxed: " + field.type);
+    }
+  }
+
+  /** See {@link FieldSet#getSerializedSize}, including the extensions. */
+  int getSerializedSize(FieldSet<FieldDescriptor> extensions) {
+    int size = extensions.getSerializedSize();
+    for (FieldCodec field : codec.fieldsSortedByNumber()) {
+      if (has(field)) {
+        size += computeSize(field);
+      }
+    }
+    return size;
+  }
+
+  private int computeSize(FieldCodec field) {
+    int slot = field.slot;
+    if (field.storage == FieldCodec.OBJECT) {
+      return field.computeSize(objects[slot]);
+    }
+    if (field.fixedSize != 0) {
+      return field.tagSize + field.fixedSize;
+    }
+    switch (field.type) {
+      case INT32:
+        return field.tagSize + CodedOutputStream.computeInt32SizeNoTag(ints[slot]);
+      case UINT32:
+        return field.tagSize + CodedOutputStream.computeUInt32SizeNoTag(ints[slot]);
+      case SINT32:
+        return field.tagSize + CodedOutputStream.computeSInt32SizeNoTag(ints[slot]);
+      case INT64:
+        return field.tagSize + CodedOutputStream.computeInt64SizeNoTag(longs[slot]);
+      case UINT64:
+        return field.tagSize + CodedOutputStream.computeUInt64SizeNoTag(longs[slot]);
+      case SINT64:
+        return field.tagSize + CodedOutputStream.computeSInt64SizeNoTag(longs[slot]);
+      default:
+        throw new IllegalArgumentException("Not stored unboxed: " + field.type);
+    }
+  }
+}
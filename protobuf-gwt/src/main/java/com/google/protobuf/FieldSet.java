@@ -408,7 +408,7 @@ final class FieldSet<T extends FieldSet.FieldDescriptorLite<T>> {
   }
 
 
-  private static boolean isValidType(final WireFormat.FieldType type, final Object value) {
+  static boolean isValidType(final WireFormat.FieldType type, final Object value) {
     checkNotNull(value);
     switch (type.getJavaType()) {
       case INT:
@@ -0,0 +1,137 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+
+package com.google.protobuf;
+
+import static com.google.protobuf.Internal.checkNotNull;
+import static com.google.protobuf.WireFormat.FIXED32_SIZE;
+
+import com.google.protobuf.Internal.FloatList;
+import elemental2.core.ArrayBuffer;
+import elemental2.core.Float32Array;
+import elemental2.core.TypedArray;
+import java.io.IOException;
+import java.util.Collection;
+import jsinterop.base.Js;
+
+/**
+ * An implementation of {@link FloatList} on top of a {@link Float32Array}, in place of {@link
+ * FloatArrayList}.
+ */
+public final class Float32ArrayList extends TypedArrayList<Float> implements FloatList {
+
+  private static final Float32ArrayList EMPTY_LIST =
+      new Float32ArrayList(new Float32Array(0), 0, false);
+
+  public static Float32ArrayList emptyList() {
+    return EMPTY_LIST;
+  }
+
+  /** Constructs a new mutable {@code Float32ArrayList} with default capacity. */
+  Float32ArrayList() {
+    this(new Float32Array(0), 0, true);
+  }
+
+  private Float32ArrayList(Float32Array array, int size, boolean isMutable) {
+    super(array, size, isMutable);
+  }
+
+  TypedArray newArray(int length) {
+    return new Float32Array(length);
+  }
+
+  TypedArray newView(ArrayBuffer buffer, int byteOffset, int length) {
+    return new Float32Array(buffer, byteOffset, length);
+  }
+
+  int hashElement(int index) {
+    return Float.floatToIntBits(array.getAt(index).floatValue());
+  }
+
+  public FloatList mutableCopyWithCapacity(int capacity) {
+    return new Float32ArrayList(Js.<Float32Array>uncheckedCast(copyOf(capacity)), size, true);
+  }
+
+  /**
+   * Returns the elements of this list as a {@link Float32Array} that shares its storage, so that
+   * they can be handed to JS code without copying. The view no longer follows the list once the
+   * list has to grow, and should not be kept while the list is still being changed.
+   */
+  public Float32Array asFloat32Array() {
+    return Js.uncheckedCast(view());
+  }
+
+  /**
+   * Appends a packed repeated {@code float} field value, including its length prefix, read from
+   * {@code input} with {@link CodedInputStream#readRawFloats}, which is a single byte copy when
+   * the input is a typed array. If the input also has aliasing enabled, an empty list instead
+   * becomes a view of the values in the input, see {@link TypedArrayList#addAllAliased}.
+   */
+  public void addAllPacked(CodedInputStream input) throws IOException {
+    ensureIsMutable();
+    final int length = input.readRawVarint32();
+    if (length % FIXED32_SIZE != 0) {
+      throw InvalidProtocolBufferException.parseFailure();
+    }
+    final int count = length / FIXED32_SIZE;
+    final int oldLimit = input.pushLimit(length);
+    if (!addAllAliased(input, count, FIXED32_SIZE)) {
+      ensureCapacity(size + count);
+      input.readRawFloats(Js.<Float32Array>uncheckedCast(array), size, count);
+      size += count;
+      modCount++;
+    }
+    input.popLimit(oldLimit);
+  }
+
+  public Float get(int index) {
+    return getFloat(index);
+  }
+
+  public float getFloat(int index) {
+    return (float) getElement(index);
+  }
+
+  public Float set(int index, Float element) {
+    return setFloat(index, element);
+  }
+
+  public float setFloat(int index, float element) {
+    return (float) setElement(index, element);
+  }
+
+  public boolean add(Float element) {
+    addFloat(element);
+    return true;
+  }
+
+  public void add(int index, Float element) {
+    addElement(index, element);
+  }
+
+  /** Like {@link #add(Float)} but more efficient in that it doesn't box the element. */
+  public void addFloat(float element) {
+    addElement(element);
+  }
+
+  public boolean addAll(Collection<? extends Float> collection) {
+    ensureIsMutable();
+
+    checkNotNull(collection);
+
+    // We specialize when adding another Float32ArrayList to avoid boxing elements.
+    if (!(collection instanceof Float32ArrayList)) {
+      return super.addAll(collection);
+    }
+    return addAllElements((Float32ArrayList) collection);
+  }
+
+  public Float remove(int index) {
+    return (float) removeElement(index);
+  }
+}
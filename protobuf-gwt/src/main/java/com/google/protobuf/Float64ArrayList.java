@@ -0,0 +1,137 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+
+package com.google.protobuf;
+
+import static com.google.protobuf.Internal.checkNotNull;
+import static com.google.protobuf.WireFormat.FIXED64_SIZE;
+
+import com.google.protobuf.Internal.DoubleList;
+import elemental2.core.ArrayBuffer;
+import elemental2.core.Float64Array;
+import elemental2.core.TypedArray;
+import java.io.IOException;
+import java.util.Collection;
+import jsinterop.base.Js;
+
+/**
+ * An implementation of {@link DoubleList} on top of a {@link Float64Array}, in place of {@link
+ * DoubleArrayList}.
+ */
+public final class Float64ArrayList extends TypedArrayList<Double> implements DoubleList {
+
+  private static final Float64ArrayList EMPTY_LIST =
+      new Float64ArrayList(new Float64Array(0), 0, false);
+
+  public static Float64ArrayList emptyList() {
+    return EMPTY_LIST;
+  }
+
+  /** Constructs a new mutable {@code Float64ArrayList} with default capacity. */
+  Float64ArrayList() {
+    this(new Float64Array(0), 0, true);
+  }
+
+  private Float64ArrayList(Float64Array array, int size, boolean isMutable) {
+    super(array, size, isMutable);
+  }
+
+  TypedArray newArray(int length) {
+    return new Float64Array(length);
+  }
+
+  TypedArray newView(ArrayBuffer buffer, int byteOffset, int length) {
+    return new Float64Array(buffer, byteOffset, length);
+  }
+
+  int hashElement(int index) {
+    return Internal.hashLong(Double.doubleToLongBits(array.getAt(index)));
+  }
+
+  public DoubleList mutableCopyWithCapacity(int capacity) {
+    return new Float64ArrayList(Js.<Float64Array>uncheckedCast(copyOf(capacity)), size, true);
+  }
+
+  /**
+   * Returns the elements of this list as a {@link Float64Array} that shares its storage, so that
+   * they can be handed to JS code without copying. The view no longer follows the list once the
+   * list has to grow, and should not be kept while the list is still being changed.
+   */
+  public Float64Array asFloat64Array() {
+    return Js.uncheckedCast(view());
+  }
+
+  /**
+   * Appends a packed repeated {@code double} field value, including its length prefix, read from
+   * {@code input} with {@link CodedInputStream#readRawDoubles}, which is a single byte copy when
+   * the input is a typed array. If the input also has aliasing enabled, an empty list instead
+   * becomes a view of the values in the input, see {@link TypedArrayList#addAllAliased}.
+   */
+  public void addAllPacked(CodedInputStream input) throws IOException {
+    ensureIsMutable();
+    final int length = input.readRawVarint32();
+    if (length % FIXED64_SIZE != 0) {
+      throw InvalidProtocolBufferException.parseFailure();
+    }
+    final int count = length / FIXED64_SIZE;
+    final int oldLimit = input.pushLimit(length);
+    if (!addAllAliased(input, count, FIXED64_SIZE)) {
+      ensureCapacity(size + count);
+      input.readRawDoubles(Js.<Float64Array>uncheckedCast(array), size, count);
+      size += count;
+      modCount++;
+    }
+    input.popLimit(oldLimit);
+  }
+
+  public Double get(int index) {
+    return getDouble(index);
+  }
+
+  public double getDouble(int index) {
+    return getElement(index);
+  }
+
+  public Double set(int index, Double element) {
+    return setDouble(index, element);
+  }
+
+  public double setDouble(int index, double element) {
+    return setElement(index, element);
+  }
+
+  public boolean add(Double element) {
+    addDouble(element);
+    return true;
+  }
+
+  public void add(int index, Double element) {
+    addElement(index, element);
+  }
+
+  /** Like {@link #add(Double)} but more efficient in that it doesn't box the element. */
+  public void addDouble(double element) {
+    addElement(element);
+  }
+
+  public boolean addAll(Collection<? extends Double> collection) {
+    ensureIsMutable();
+
+    checkNotNull(collection);
+
+    // We specialize when adding another Float64ArrayList to avoid boxing elements.
+    if (!(collection instanceof Float64ArrayList)) {
+      return super.addAll(collection);
+    }
+    return addAllElements((Float64ArrayList) collection);
+  }
+
+  public Double remove(int index) {
+    return removeElement(index);
+  }
+}
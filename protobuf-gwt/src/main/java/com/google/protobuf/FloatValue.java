@@ -413,5 +413,72 @@ private static final long serialVersionUID = 0L;
     return DEFAULT_INSTANCE;
   }
 
+  private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<FloatValue, FloatValue.Builder> {
+    @java.lang.Override
+    public java.lang.Object get(FloatValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object get(FloatValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(FloatValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return java.lang.Float.floatToIntBits(message.getValue()) != 0;
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(FloatValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return java.lang.Float.floatToIntBits(builder.getValue()) != 0;
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void set(FloatValue.Builder builder, int fieldIndex, java.lang.Object value) {
+      switch (fieldIndex) {
+        case 0:
+          builder.setValue((java.lang.Float) value);
+          break;
+        default:
+          throw unsupported("set", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void clear(FloatValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          builder.clearValue();
+          break;
+        default:
+          throw unsupported("clear", fieldIndex);
+      }
+    }
+  }
+
+  static {
+    com.google.protobuf.gwt.MessageReflectionAccessor.register(FloatValue.class, new GwtReflectionAccessor());
+  }
 }
 
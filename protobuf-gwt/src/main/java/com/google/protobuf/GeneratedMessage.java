@@ -16,6 +16,7 @@ import com.google.protobuf.Internal.FloatList;
 import com.google.protobuf.Internal.IntList;
 import com.google.protobuf.Internal.LongList;
 import com.google.protobuf.Internal.ProtobufList;
+import com.google.protobuf.gwt.MessageReflectionAccessor;
 import com.google.protobuf.gwt.SafeUtil;
 import java.io.IOException;
 import java.io.InputStream;
@@ -377,7 +378,7 @@ public abstract class GeneratedMessage extends AbstractMessage implements Serial
   }
 
   protected static IntList emptyIntList() {
-    return IntArrayList.emptyList();
+    return Int32ArrayList.emptyList();
   }
 
   static final String PRE22_GENCODE_SILENCE_PROPERTY =
@@ -433,15 +434,15 @@ public abstract class GeneratedMessage extends AbstractMessage implements Serial
   }
 
   protected static LongList emptyLongList() {
-    return LongArrayList.emptyList();
+    return Int32PairArrayList.emptyList();
   }
 
   protected static FloatList emptyFloatList() {
-    return FloatArrayList.emptyList();
+    return Float32ArrayList.emptyList();
   }
 
   protected static DoubleList emptyDoubleList() {
-    return DoubleArrayList.emptyList();
+    return Float64ArrayList.emptyList();
   }
 
   protected static BooleanList emptyBooleanList() {
@@ -1964,8 +1965,8 @@ public abstract class GeneratedMessage extends AbstractMessage implements Serial
     public FieldAccessorTable(final Descriptor descriptor, final String[] camelCaseNames) {
       this.descriptor = descriptor;
       this.camelCaseNames = camelCaseNames;
-      fields = new FieldAccessor[descriptor.getFieldCount()];
-      oneofs = new OneofAccessor[descriptor.getOneofCount()];
+      // The accessors are allocated along with their contents, so that generated code creating
+      // the table doesn't build a lazily built descriptor.
       initialized = false;
     }
 
@@ -1979,13 +1980,50 @@ public abstract class GeneratedMessage extends AbstractMessage implements Serial
     @CanIgnoreReturnValue
     public FieldAccessorTable ensureFieldAccessorsInitialized(
         Class<? extends GeneratedMessage> messageClass, Class<? extends Builder<?>> builderClass) {
-      throw new UnsupportedOperationException("com.google.protobuf.GeneratedMessage$FieldAccessorTable ensureFieldAccessorsInitialized(..)");
+      if (initialized) {
+        return this;
+      }
+      synchronized (this) {
+        if (initialized) {
+          return this;
+        }
+        // There are no accessor methods to look up by name, so the registered accessor handles
+        // every field and oneof by its index instead.
+        @SuppressWarnings("unchecked")
+        MessageReflectionAccessor<GeneratedMessage, Builder<?>> accessor =
+            (MessageReflectionAccessor<GeneratedMessage, Builder<?>>)
+                MessageReflectionAccessor.forClass(messageClass);
+        if (accessor == null) {
+          throw new UnsupportedOperationException(
+              "No MessageReflectionAccessor registered for " + messageClass.getName());
+        }
+        fields = new FieldAccessor[descriptor.getFieldCount()];
+        oneofs = new OneofAccessor[descriptor.getOneofCount()];
+        for (int i = 0; i < fields.length; i++) {
+          FieldDescriptor field = descriptor.getFields().get(i);
+          fields[i] =
+              field.isMapField()
+                  ? new MapFieldAccessor(accessor, field, i)
+                  : new RegisteredFieldAccessor(accessor, field, i);
+        }
+        for (int i = 0; i < oneofs.length; i++) {
+          OneofDescriptor oneof = descriptor.getOneofs().get(i);
+          if (oneof.isSynthetic()) {
+            oneofs[i] = new SyntheticOneofAccessor(oneof, fields[oneof.getField(0).getIndex()]);
+          } else {
+            oneofs[i] = new RegisteredOneofAccessor(accessor, oneof);
+          }
+        }
+        initialized = true;
+        camelCaseNames = null;
+        return this;
+      }
     }
 
     private final Descriptor descriptor;
-    private final FieldAccessor[] fields;
+    private FieldAccessor[] fields;
     private String[] camelCaseNames;
-    private final OneofAccessor[] oneofs;
+    private OneofAccessor[] oneofs;
     private volatile boolean initialized;
 
     /** Get the FieldAccessor for a particular field. */
@@ -2058,6 +2096,341 @@ public abstract class GeneratedMessage extends AbstractMessage implements Serial
 
       public void clear(final Builder<?> builder);
     }
+
+    /** Dispatches to the registered {@link MessageReflectionAccessor} by the field's index. */
+    private static final class RegisteredFieldAccessor implements FieldAccessor {
+      private final MessageReflectionAccessor<GeneratedMessage, Builder<?>> accessor;
+      private final FieldDescriptor field;
+      private final int index;
+
+      RegisteredFieldAccessor(
+          MessageReflectionAccessor<GeneratedMessage, Builder<?>> accessor,
+          FieldDescriptor field,
+          int index) {
+        this.accessor = accessor;
+        this.field = field;
+        this.index = index;
+      }
+
+      @Override
+      public Object get(GeneratedMessage message) {
+        return accessor.get(message, index);
+      }
+
+      @Override
+      public Object get(GeneratedMessage.Builder<?> builder) {
+        return accessor.get(builder, index);
+      }
+
+      @Override
+      public Object getRaw(GeneratedMessage message) {
+        return accessor.getRaw(message, index);
+      }
+
+      @Override
+      public void set(Builder<?> builder, Object value) {
+        accessor.set(builder, index, value);
+      }
+
+      @Override
+      public Object getRepeated(GeneratedMessage message, int index) {
+        checkRepeated("getRepeatedField");
+        return accessor.getRepeated(message, this.index, index);
+      }
+
+      @Override
+      public Object getRepeated(GeneratedMessage.Builder<?> builder, int index) {
+        checkRepeated("getRepeatedField");
+        return accessor.getRepeated(builder, this.index, index);
+      }
+
+      @Override
+      public void setRepeated(Builder<?> builder, int index, Object value) {
+        checkRepeated("setRepeatedField");
+        accessor.setRepeated(builder, this.index, index, value);
+      }
+
+      @Override
+      public void addRepeated(Builder<?> builder, Object value) {
+        checkRepeated("addRepeatedField");
+        accessor.addRepeated(builder, index, value);
+      }
+
+      @Override
+      public boolean has(GeneratedMessage message) {
+        checkSingular();
+        return accessor.has(message, index);
+      }
+
+      @Override
+      public boolean has(GeneratedMessage.Builder<?> builder) {
+        checkSingular();
+        return accessor.has(builder, index);
+      }
+
+      @Override
+      public int getRepeatedCount(GeneratedMessage message) {
+        checkRepeated("getRepeatedFieldSize");
+        return accessor.getRepeatedCount(message, index);
+      }
+
+      @Override
+      public int getRepeatedCount(GeneratedMessage.Builder<?> builder) {
+        checkRepeated("getRepeatedFieldSize");
+        return accessor.getRepeatedCount(builder, index);
+      }
+
+      @Override
+      public void clear(Builder<?> builder) {
+        accessor.clear(builder, index);
+      }
+
+      @Override
+      public Message.Builder newBuilder() {
+        checkMessage("newBuilderForField");
+        return accessor.newBuilder(index);
+      }
+
+      @Override
+      public Message.Builder getBuilder(GeneratedMessage.Builder<?> builder) {
+        checkMessage("getFieldBuilder");
+        checkSingular();
+        return accessor.getBuilder(builder, index);
+      }
+
+      @Override
+      public Message.Builder getRepeatedBuilder(GeneratedMessage.Builder<?> builder, int index) {
+        checkMessage("getRepeatedFieldBuilder");
+        checkRepeated("getRepeatedFieldBuilder");
+        return accessor.getRepeatedBuilder(builder, this.index, index);
+      }
+
+      private void checkSingular() {
+        if (field.isRepeated()) {
+          throw new UnsupportedOperationException("hasField() called on a repeated field.");
+        }
+      }
+
+      private void checkRepeated(String method) {
+        if (!field.isRepeated()) {
+          throw new UnsupportedOperationException(method + "() called on a singular field.");
+        }
+      }
+
+      private void checkMessage(String method) {
+        if (field.getJavaType() != FieldDescriptor.JavaType.MESSAGE) {
+          throw new UnsupportedOperationException(method + "() called on a non-Message type.");
+        }
+      }
+    }
+
+    /**
+     * Accesses a map field as a list of its entries, through the map field of the message or
+     * builder. Only new entry builders come from the registered {@link MessageReflectionAccessor}.
+     */
+    private static final class MapFieldAccessor implements FieldAccessor {
+      private final MessageReflectionAccessor<GeneratedMessage, Builder<?>> accessor;
+      private final FieldDescriptor field;
+      private final int index;
+
+      MapFieldAccessor(
+          MessageReflectionAccessor<GeneratedMessage, Builder<?>> accessor,
+          FieldDescriptor field,
+          int index) {
+        this.accessor = accessor;
+        this.field = field;
+        this.index = index;
+      }
+
+      private MapFieldReflectionAccessor getMapField(GeneratedMessage message) {
+        return message.internalGetMapFieldReflection(field.getNumber());
+      }
+
+      private MapFieldReflectionAccessor getMapField(GeneratedMessage.Builder<?> builder) {
+        return builder.internalGetMapFieldReflection(field.getNumber());
+      }
+
+      private MapFieldReflectionAccessor getMutableMapField(GeneratedMessage.Builder<?> builder) {
+        return builder.internalGetMutableMapFieldReflection(field.getNumber());
+      }
+
+      private Message coerceType(MapFieldReflectionAccessor mapField, Message value) {
+        if (value == null) {
+          return null;
+        }
+        Message defaultEntry = mapField.getMapEntryMessageDefaultInstance();
+        if (defaultEntry.getClass() == value.getClass()) {
+          return value;
+        }
+        // The value may be a DynamicMessage or something else
+        return defaultEntry.toBuilder().mergeFrom(value).build();
+      }
+
+      @Override
+      public Object get(GeneratedMessage message) {
+        return Collections.unmodifiableList(new ArrayList<>(getMapField(message).getList()));
+      }
+
+      @Override
+      public Object get(GeneratedMessage.Builder<?> builder) {
+        return Collections.unmodifiableList(new ArrayList<>(getMapField(builder).getList()));
+      }
+
+      @Override
+      public Object getRaw(GeneratedMessage message) {
+        return get(message);
+      }
+
+      @Override
+      public void set(Builder<?> builder, Object value) {
+        clear(builder);
+        for (Object entry : (List<?>) value) {
+          addRepeated(builder, entry);
+        }
+      }
+
+      @Override
+      public Object getRepeated(GeneratedMessage message, int index) {
+        return getMapField(message).getList().get(index);
+      }
+
+      @Override
+      public Object getRepeated(GeneratedMessage.Builder<?> builder, int index) {
+        return getMapField(builder).getList().get(index);
+      }
+
+      @Override
+      public void setRepeated(Builder<?> builder, int index, Object value) {
+        MapFieldReflectionAccessor mapField = getMutableMapField(builder);
+        mapField.getMutableList().set(index, coerceType(mapField, (Message) value));
+      }
+
+      @Override
+      public void addRepeated(Builder<?> builder, Object value) {
+        MapFieldReflectionAccessor mapField = getMutableMapField(builder);
+        mapField.getMutableList().add(coerceType(mapField, (Message) value));
+      }
+
+      @Override
+      public boolean has(GeneratedMessage message) {
+        throw new UnsupportedOperationException("hasField() is not supported for repeated fields.");
+      }
+
+      @Override
+      public boolean has(GeneratedMessage.Builder<?> builder) {
+        throw new UnsupportedOperationException("hasField() is not supported for repeated fields.");
+      }
+
+      @Override
+      public int getRepeatedCount(GeneratedMessage message) {
+        return getMapField(message).getList().size();
+      }
+
+      @Override
+      public int getRepeatedCount(GeneratedMessage.Builder<?> builder) {
+        return getMapField(builder).getList().size();
+      }
+
+      @Override
+      public void clear(Builder<?> builder) {
+        getMutableMapField(builder).getMutableList().clear();
+      }
+
+      @Override
+      public Message.Builder newBuilder() {
+        return accessor.newBuilder(index);
+      }
+
+      @Override
+      public Message.Builder getBuilder(GeneratedMessage.Builder<?> builder) {
+        throw new UnsupportedOperationException("Nested builder not supported for map fields.");
+      }
+
+      @Override
+      public Message.Builder getRepeatedBuilder(GeneratedMessage.Builder<?> builder, int index) {
+        throw new UnsupportedOperationException("Nested builder not supported for map fields.");
+      }
+    }
+
+    /** Reads the case of a real oneof from the registered {@link MessageReflectionAccessor}. */
+    private static final class RegisteredOneofAccessor implements OneofAccessor {
+      private final MessageReflectionAccessor<GeneratedMessage, Builder<?>> accessor;
+      private final OneofDescriptor descriptor;
+
+      RegisteredOneofAccessor(
+          MessageReflectionAccessor<GeneratedMessage, Builder<?>> accessor,
+          OneofDescriptor descriptor) {
+        this.accessor = accessor;
+        this.descriptor = descriptor;
+      }
+
+      @Override
+      public boolean has(final GeneratedMessage message) {
+        return accessor.getOneofFieldNumber(message, descriptor.getIndex()) != 0;
+      }
+
+      @Override
+      public boolean has(GeneratedMessage.Builder<?> builder) {
+        return accessor.getOneofFieldNumber(builder, descriptor.getIndex()) != 0;
+      }
+
+      @Override
+      public FieldDescriptor get(final GeneratedMessage message) {
+        int fieldNumber = accessor.getOneofFieldNumber(message, descriptor.getIndex());
+        return fieldNumber > 0
+            ? descriptor.getContainingType().findFieldByNumber(fieldNumber)
+            : null;
+      }
+
+      @Override
+      public FieldDescriptor get(GeneratedMessage.Builder<?> builder) {
+        int fieldNumber = accessor.getOneofFieldNumber(builder, descriptor.getIndex());
+        return fieldNumber > 0
+            ? descriptor.getContainingType().findFieldByNumber(fieldNumber)
+            : null;
+      }
+
+      @Override
+      public void clear(final Builder<?> builder) {
+        accessor.clearOneof(builder, descriptor.getIndex());
+      }
+    }
+
+    /** A synthetic oneof has only the one field, so it is set when that field is. */
+    private static final class SyntheticOneofAccessor implements OneofAccessor {
+      private final FieldDescriptor fieldDescriptor;
+      private final FieldAccessor field;
+
+      SyntheticOneofAccessor(OneofDescriptor descriptor, FieldAccessor field) {
+        this.fieldDescriptor = descriptor.getField(0);
+        this.field = field;
+      }
+
+      @Override
+      public boolean has(final GeneratedMessage message) {
+        return field.has(message);
+      }
+
+      @Override
+      public boolean has(GeneratedMessage.Builder<?> builder) {
+        return field.has(builder);
+      }
+
+      @Override
+      public FieldDescriptor get(final GeneratedMessage message) {
+        return field.has(message) ? fieldDescriptor : null;
+      }
+
+      @Override
+      public FieldDescriptor get(GeneratedMessage.Builder<?> builder) {
+        return field.has(builder) ? fieldDescriptor : null;
+      }
+
+      @Override
+      public void clear(final Builder<?> builder) {
+        field.clear(builder);
+      }
+    }
   }
 
   /**
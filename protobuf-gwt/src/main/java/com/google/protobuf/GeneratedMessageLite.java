@@ -351,6 +351,14 @@ public abstract class GeneratedMessageLite<
     defaultInstanceMap.put(clazz, defaultInstance);
   }
 
+  /**
+   * Returns the default instance registered for the given class, or null if its class has not been
+   * initialized yet. Classes can't be loaded by name here, so this won't initialize it either.
+   */
+  static GeneratedMessageLite<?, ?> defaultInstanceFor(Class<?> clazz) {
+    return defaultInstanceMap.get(clazz);
+  }
+
   protected static Object newMessageInfo(
       MessageLite defaultInstance, String info, Object[] objects) {
     return new RawMessageInfo(defaultInstance, info, objects);
@@ -1376,6 +1384,35 @@ public abstract class GeneratedMessageLite<
     return list.mutableCopyWithCapacity(size * 2);
   }
 
+  /**
+   * A {@link Parser} implementation that delegates to the default instance.
+   *
+   * <p>For use by generated code only.
+   */
+  protected static class DefaultInstanceBasedParser<T extends GeneratedMessageLite<T, ?>>
+      extends AbstractParser<T> {
+
+    private final T defaultInstance;
+
+    public DefaultInstanceBasedParser(T defaultInstance) {
+      this.defaultInstance = defaultInstance;
+    }
+
+    @Override
+    public T parsePartialFrom(CodedInputStream input, ExtensionRegistryLite extensionRegistry)
+        throws InvalidProtocolBufferException {
+      return GeneratedMessageLite.parsePartialFrom(defaultInstance, input, extensionRegistry);
+    }
+
+    @Override
+    public T parsePartialFrom(
+        byte[] input, int offset, int length, ExtensionRegistryLite extensionRegistry)
+        throws InvalidProtocolBufferException {
+      return GeneratedMessageLite.parsePartialFrom(
+          defaultInstance, input, offset, length, extensionRegistry);
+    }
+  }
+
   /**
    * A static helper method for parsing a partial from input using the extension registry and the
    * instance.
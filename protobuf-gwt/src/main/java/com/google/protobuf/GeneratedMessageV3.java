@@ -44,28 +44,28 @@ public abstract class GeneratedMessageV3
    * (5.x). Users should update gencode to >= 4.26.x which no longer uses this.
    */
   protected static IntList newIntList() {
-    return new IntArrayList();
+    return new Int32ArrayList();
   }
 
   /* @deprecated This method is deprecated, and slated for removal in the next Java breaking change
    * (5.x). Users should update gencode to >= 4.26.x which no longer uses this.
    */
   protected static LongList newLongList() {
-    return new LongArrayList();
+    return new Int32PairArrayList();
   }
 
   /* @deprecated This method is deprecated, and slated for removal in the next Java breaking change
    * (5.x). Users should update gencode to >= 4.26.x which no longer uses this.
    */
   protected static FloatList newFloatList() {
-    return new FloatArrayList();
+    return new Float32ArrayList();
   }
 
   /* @deprecated This method is deprecated, and slated for removal in the next Java breaking change
    * (5.x). Users should update gencode to >= 4.26.x which no longer uses this.
    */
   protected static DoubleList newDoubleList() {
-    return new DoubleArrayList();
+    return new Float64ArrayList();
   }
 
   /* @deprecated This method is deprecated, and slated for removal in the next Java breaking change
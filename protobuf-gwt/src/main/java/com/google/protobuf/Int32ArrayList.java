@@ -0,0 +1,158 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+
+package com.google.protobuf;
+
+import static com.google.protobuf.Internal.checkNotNull;
+import static com.google.protobuf.WireFormat.FIXED32_SIZE;
+
+import com.google.protobuf.Internal.IntList;
+import elemental2.core.ArrayBuffer;
+import elemental2.core.Int32Array;
+import elemental2.core.TypedArray;
+import java.io.IOException;
+import java.util.Collection;
+import jsinterop.base.Js;
+
+/**
+ * An implementation of {@link IntList} on top of an {@link Int32Array}, in place of {@link
+ * IntArrayList}.
+ */
+public final class Int32ArrayList extends TypedArrayList<Integer> implements IntList {
+
+  private static final Int32ArrayList EMPTY_LIST =
+      new Int32ArrayList(new Int32Array(0), 0, false);
+
+  public static Int32ArrayList emptyList() {
+    return EMPTY_LIST;
+  }
+
+  /** Constructs a new mutable {@code Int32ArrayList} with default capacity. */
+  Int32ArrayList() {
+    this(new Int32Array(0), 0, true);
+  }
+
+  private Int32ArrayList(Int32Array array, int size, boolean isMutable) {
+    super(array, size, isMutable);
+  }
+
+  TypedArray newArray(int length) {
+    return new Int32Array(length);
+  }
+
+  TypedArray newView(ArrayBuffer buffer, int byteOffset, int length) {
+    return new Int32Array(buffer, byteOffset, length);
+  }
+
+  int hashElement(int index) {
+    return array.getAt(index).intValue();
+  }
+
+  public IntList mutableCopyWithCapacity(int capacity) {
+    return new Int32ArrayList(Js.<Int32Array>uncheckedCast(copyOf(capacity)), size, true);
+  }
+
+  /**
+   * Returns the elements of this list as a {@link Int32Array} that shares its storage, so that
+   * they can be handed to JS code without copying. The view no longer follows the list once the
+   * list has to grow, and should not be kept while the list is still being changed.
+   */
+  public Int32Array asInt32Array() {
+    return Js.uncheckedCast(view());
+  }
+
+  /**
+   * Appends a packed repeated field value of the given 32-bit integer type, including its length
+   * prefix, read from {@code input}. {@code fixed32} and {@code sfixed32} values are read with
+   * {@link CodedInputStream#readRawFixed32s}, which is a single byte copy when the input is a typed
+   * array, and varints are decoded straight into the typed array without boxing. If the input also
+   * has aliasing enabled, an empty list instead becomes a view of the {@code fixed32} values in the
+   * input, see {@link TypedArrayList#addAllAliased}.
+   */
+  public void addAllPacked(CodedInputStream input, WireFormat.FieldType type) throws IOException {
+    ensureIsMutable();
+    final int length = input.readRawVarint32();
+    final int oldLimit = input.pushLimit(length);
+    switch (type) {
+      case FIXED32:
+      case SFIXED32:
+        if (length % FIXED32_SIZE != 0) {
+          throw InvalidProtocolBufferException.parseFailure();
+        }
+        final int count = length / FIXED32_SIZE;
+        if (!addAllAliased(input, count, FIXED32_SIZE)) {
+          ensureCapacity(size + count);
+          input.readRawFixed32s(Js.<Int32Array>uncheckedCast(array), size, count);
+          size += count;
+          modCount++;
+        }
+        break;
+      case INT32:
+      case UINT32:
+      case ENUM:
+        while (input.getBytesUntilLimit() > 0) {
+          addElement(input.readRawVarint32());
+        }
+        break;
+      case SINT32:
+        while (input.getBytesUntilLimit() > 0) {
+          addElement(input.readSInt32());
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Not a packed 32-bit integer type: " + type);
+    }
+    input.popLimit(oldLimit);
+  }
+
+  public Integer get(int index) {
+    return getInt(index);
+  }
+
+  public int getInt(int index) {
+    return (int) getElement(index);
+  }
+
+  public Integer set(int index, Integer element) {
+    return setInt(index, element);
+  }
+
+  public int setInt(int index, int element) {
+    return (int) setElement(index, element);
+  }
+
+  public boolean add(Integer element) {
+    addInt(element);
+    return true;
+  }
+
+  public void add(int index, Integer element) {
+    addElement(index, element);
+  }
+
+  /** Like {@link #add(Integer)} but more efficient in that it doesn't box the element. */
+  public void addInt(int element) {
+    addElement(element);
+  }
+
+  public boolean addAll(Collection<? extends Integer> collection) {
+    ensureIsMutable();
+
+    checkNotNull(collection);
+
+    // We specialize when adding another Int32ArrayList to avoid boxing elements.
+    if (!(collection instanceof Int32ArrayList)) {
+      return super.addAll(collection);
+    }
+    return addAllElements((Int32ArrayList) collection);
+  }
+
+  public Integer remove(int index) {
+    return (int) removeElement(index);
+  }
+}
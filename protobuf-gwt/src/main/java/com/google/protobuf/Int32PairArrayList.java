@@ -0,0 +1,241 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+
+package com.google.protobuf;
+
+import static com.google.protobuf.Internal.checkNotNull;
+import static com.google.protobuf.WireFormat.FIXED64_SIZE;
+
+import com.google.protobuf.Internal.LongList;
+import com.google.protobuf.gwt.LongBits;
+import elemental2.core.ArrayBuffer;
+import elemental2.core.Int32Array;
+import elemental2.core.TypedArray;
+import java.io.IOException;
+import java.util.Collection;
+import jsinterop.base.Js;
+
+/**
+ * An implementation of {@link LongList} that keeps each element as its low and high 32 bits, in
+ * that order, in an {@link Int32Array}, in place of {@link LongArrayList}. In the browser a {@code
+ * long[]} holds an emulated long object per element; here the elements take 8 bytes each, and can
+ * be filled from the wire and read as a JS number or decimal string without creating a {@code
+ * long}. Since the halves are in little-endian order, the backing array also has the same layout
+ * as the body of a packed {@code fixed64} field.
+ */
+public final class Int32PairArrayList extends TypedArrayList<Long> implements LongList {
+
+  private static final Int32PairArrayList EMPTY_LIST =
+      new Int32PairArrayList(new Int32Array(0), 0, false);
+
+  public static Int32PairArrayList emptyList() {
+    return EMPTY_LIST;
+  }
+
+  /** Constructs a new mutable {@code Int32PairArrayList} with default capacity. */
+  Int32PairArrayList() {
+    this(new Int32Array(0), 0, true);
+  }
+
+  private Int32PairArrayList(Int32Array array, int size, boolean isMutable) {
+    super(array, 2, size, isMutable);
+  }
+
+  TypedArray newArray(int length) {
+    return new Int32Array(length);
+  }
+
+  TypedArray newView(ArrayBuffer buffer, int byteOffset, int length) {
+    return new Int32Array(buffer, byteOffset, length);
+  }
+
+  int hashElement(int index) {
+    // Same as Long.hashCode()
+    return array.getAt(index * 2).intValue() ^ array.getAt(index * 2 + 1).intValue();
+  }
+
+  public LongList mutableCopyWithCapacity(int capacity) {
+    return new Int32PairArrayList(Js.<Int32Array>uncheckedCast(copyOf(capacity)), size, true);
+  }
+
+  /**
+   * Returns the low and high halves of each element, in that order, as an {@link Int32Array} that
+   * shares the list's storage. The view no longer follows the list once the list has to grow, and
+   * should not be kept while the list is still being changed.
+   */
+  public Int32Array asInt32Array() {
+    return Js.uncheckedCast(view());
+  }
+
+  public Long get(int index) {
+    return getLong(index);
+  }
+
+  public long getLong(int index) {
+    ensureIndexInRange(index);
+    return CodedInputStream.joinVarint64(
+        array.getAt(index * 2).intValue(), array.getAt(index * 2 + 1).intValue());
+  }
+
+  /** Returns the low 32 bits of the element at {@code index}. */
+  public int getLowBits(int index) {
+    ensureIndexInRange(index);
+    return array.getAt(index * 2).intValue();
+  }
+
+  /** Returns the high 32 bits of the element at {@code index}. */
+  public int getHighBits(int index) {
+    ensureIndexInRange(index);
+    return array.getAt(index * 2 + 1).intValue();
+  }
+
+  /**
+   * Returns the signed element at {@code index} as a JS number, which is exact for magnitudes up to
+   * 2^53. See {@link LongBits#toNumber}.
+   */
+  public double getNumber(int index) {
+    return LongBits.toNumber(getLowBits(index), getHighBits(index));
+  }
+
+  /** Like {@link #getNumber}, but for an unsigned element, such as a {@code uint64}. */
+  public double getUnsignedNumber(int index) {
+    return LongBits.toUnsignedNumber(getLowBits(index), getHighBits(index));
+  }
+
+  /** Returns the signed element at {@code index} in decimal, without creating a {@code long}. */
+  public String getDecimalString(int index) {
+    return LongBits.toDecimalString(getLowBits(index), getHighBits(index));
+  }
+
+  /** Like {@link #getDecimalString}, but for an unsigned element, such as a {@code uint64}. */
+  public String getUnsignedDecimalString(int index) {
+    return LongBits.toUnsignedDecimalString(getLowBits(index), getHighBits(index));
+  }
+
+  public Long set(int index, Long element) {
+    return setLong(index, element);
+  }
+
+  public long setLong(int index, long element) {
+    ensureIsMutable();
+    long previousValue = getLong(index);
+    array.setAt(index * 2, (double) (int) element);
+    array.setAt(index * 2 + 1, (double) (int) (element >>> 32));
+    return previousValue;
+  }
+
+  public boolean add(Long element) {
+    addLong(element);
+    return true;
+  }
+
+  public void add(int index, Long element) {
+    long value = element;
+    ensureIsMutable();
+    if (index < 0 || index > size) {
+      throw new IndexOutOfBoundsException(makeOutOfBoundsExceptionMessage(index));
+    }
+    ensureCapacity(size + 1);
+    if (index < size) {
+      // Shift everything over to make room
+      array.copyWithin(index * 2 + 2, index * 2, size * 2);
+    }
+    array.setAt(index * 2, (double) (int) value);
+    array.setAt(index * 2 + 1, (double) (int) (value >>> 32));
+    size++;
+    modCount++;
+  }
+
+  /** Like {@link #add(Long)} but more efficient in that it doesn't box the element. */
+  public void addLong(long element) {
+    addBits((int) element, (int) (element >>> 32));
+  }
+
+  /** Like {@link #addLong}, but takes the element as its low and high 32 bits. */
+  public void addBits(int low, int high) {
+    ensureIsMutable();
+    if (size * 2 == array.length) {
+      ensureCapacity(size + 1);
+    }
+    array.setAt(size * 2, (double) low);
+    array.setAt(size * 2 + 1, (double) high);
+    size++;
+    modCount++;
+  }
+
+  /**
+   * Appends a packed repeated field value of the given 64-bit integer type, including its length
+   * prefix, read from {@code input} without creating a {@code long}. {@code fixed64} and {@code
+   * sfixed64} values already have the layout of the backing array, and are read with {@link
+   * CodedInputStream#readRawFixed32s}, which is a single byte copy when the input is a typed array.
+   * Varints are split into their halves with {@link CodedInputStream#readRawVarint64LowBits()}.
+   * If the input also has aliasing enabled, an empty list instead becomes a view of the {@code
+   * fixed64} values in the input, as described in {@link TypedArrayList#addAllAliased}.
+   */
+  public void addAllPacked(CodedInputStream input, WireFormat.FieldType type) throws IOException {
+    ensureIsMutable();
+    final int length = input.readRawVarint32();
+    final int oldLimit = input.pushLimit(length);
+    switch (type) {
+      case FIXED64:
+      case SFIXED64:
+        if (length % FIXED64_SIZE != 0) {
+          throw InvalidProtocolBufferException.parseFailure();
+        }
+        final int count = length / FIXED64_SIZE;
+        if (!addAllAliased(input, count, FIXED64_SIZE)) {
+          ensureCapacity(size + count);
+          input.readRawFixed32s(Js.<Int32Array>uncheckedCast(array), size * 2, count * 2);
+          size += count;
+          modCount++;
+        }
+        break;
+      case INT64:
+      case UINT64:
+        while (input.getBytesUntilLimit() > 0) {
+          int low = input.readRawVarint64LowBits();
+          addBits(low, input.getLastVarint64HighBits());
+        }
+        break;
+      case SINT64:
+        while (input.getBytesUntilLimit() > 0) {
+          int low = input.readRawVarint64LowBits();
+          low = LongBits.decodeZigZag(low, input.getLastVarint64HighBits());
+          addBits(low, LongBits.getLastHighBits());
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Not a packed 64-bit integer type: " + type);
+    }
+    input.popLimit(oldLimit);
+  }
+
+  public boolean addAll(Collection<? extends Long> collection) {
+    ensureIsMutable();
+
+    checkNotNull(collection);
+
+    // We specialize when adding another Int32PairArrayList to avoid boxing elements.
+    if (!(collection instanceof Int32PairArrayList)) {
+      return super.addAll(collection);
+    }
+
+    return addAllElements((Int32PairArrayList) collection);
+  }
+
+  public Long remove(int index) {
+    ensureIsMutable();
+    long value = getLong(index);
+    if (index < size - 1) {
+      array.copyWithin(index * 2, index * 2 + 2, size * 2);
+    }
+    size--;
+    modCount++;
+    return value;
+  }
+}
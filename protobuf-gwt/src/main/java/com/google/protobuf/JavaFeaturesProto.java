@@ -693,6 +693,59 @@ public final class JavaFeaturesProto extends com.google.protobuf.GeneratedFile {
         return DEFAULT_INSTANCE;
       }
 
+    private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<NestInFileClassFeature, NestInFileClassFeature.Builder> {
+      @java.lang.Override
+      public java.lang.Object get(NestInFileClassFeature message, int fieldIndex) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public java.lang.Object get(NestInFileClassFeature.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("get", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(NestInFileClassFeature message, int fieldIndex) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public boolean has(NestInFileClassFeature.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("has", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void set(NestInFileClassFeature.Builder builder, int fieldIndex, java.lang.Object value) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("set", fieldIndex);
+        }
+      }
+
+      @java.lang.Override
+      public void clear(NestInFileClassFeature.Builder builder, int fieldIndex) {
+        switch (fieldIndex) {
+          default:
+            throw unsupported("clear", fieldIndex);
+        }
+      }
+    }
+
+    static {
+      com.google.protobuf.gwt.MessageReflectionAccessor.register(NestInFileClassFeature.class, new GwtReflectionAccessor());
+    }
     }
 
     private int bitField0_;
@@ -1436,6 +1489,129 @@ public final class JavaFeaturesProto extends com.google.protobuf.GeneratedFile {
       return DEFAULT_INSTANCE;
     }
 
+   private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<JavaFeatures, JavaFeatures.Builder> {
+     @java.lang.Override
+     public java.lang.Object get(JavaFeatures message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.getLegacyClosedEnum();
+         case 1:
+           return message.getUtf8Validation().getValueDescriptor();
+         case 2:
+           return message.getLargeEnum();
+         case 3:
+           return message.getUseOldOuterClassnameDefault();
+         case 4:
+           return message.getNestInFileClass().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public java.lang.Object get(JavaFeatures.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.getLegacyClosedEnum();
+         case 1:
+           return builder.getUtf8Validation().getValueDescriptor();
+         case 2:
+           return builder.getLargeEnum();
+         case 3:
+           return builder.getUseOldOuterClassnameDefault();
+         case 4:
+           return builder.getNestInFileClass().getValueDescriptor();
+         default:
+           throw unsupported("get", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(JavaFeatures message, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return message.hasLegacyClosedEnum();
+         case 1:
+           return message.hasUtf8Validation();
+         case 2:
+           return message.hasLargeEnum();
+         case 3:
+           return message.hasUseOldOuterClassnameDefault();
+         case 4:
+           return message.hasNestInFileClass();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public boolean has(JavaFeatures.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           return builder.hasLegacyClosedEnum();
+         case 1:
+           return builder.hasUtf8Validation();
+         case 2:
+           return builder.hasLargeEnum();
+         case 3:
+           return builder.hasUseOldOuterClassnameDefault();
+         case 4:
+           return builder.hasNestInFileClass();
+         default:
+           throw unsupported("has", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void set(JavaFeatures.Builder builder, int fieldIndex, java.lang.Object value) {
+       switch (fieldIndex) {
+         case 0:
+           builder.setLegacyClosedEnum((java.lang.Boolean) value);
+           break;
+         case 1:
+           builder.setUtf8Validation(com.google.protobuf.JavaFeaturesProto.JavaFeatures.Utf8Validation.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         case 2:
+           builder.setLargeEnum((java.lang.Boolean) value);
+           break;
+         case 3:
+           builder.setUseOldOuterClassnameDefault((java.lang.Boolean) value);
+           break;
+         case 4:
+           builder.setNestInFileClass(com.google.protobuf.JavaFeaturesProto.JavaFeatures.NestInFileClassFeature.NestInFileClass.valueOf((com.google.protobuf.Descriptors.EnumValueDescriptor) value));
+           break;
+         default:
+           throw unsupported("set", fieldIndex);
+       }
+     }
+
+     @java.lang.Override
+     public void clear(JavaFeatures.Builder builder, int fieldIndex) {
+       switch (fieldIndex) {
+         case 0:
+           builder.clearLegacyClosedEnum();
+           break;
+         case 1:
+           builder.clearUtf8Validation();
+           break;
+         case 2:
+           builder.clearLargeEnum();
+           break;
+         case 3:
+           builder.clearUseOldOuterClassnameDefault();
+           break;
+         case 4:
+           builder.clearNestInFileClass();
+           break;
+         default:
+           throw unsupported("clear", fieldIndex);
+       }
+     }
+   }
+
+   static {
+     com.google.protobuf.gwt.MessageReflectionAccessor.register(JavaFeatures.class, new GwtReflectionAccessor());
+   }
   }
 
   public static final int JAVA_FIELD_NUMBER = 1001;
@@ -690,5 +690,151 @@ private static final long serialVersionUID = 0L;
     return DEFAULT_INSTANCE;
   }
 
+  private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<ListValue, ListValue.Builder> {
+    @java.lang.Override
+    public java.lang.Object get(ListValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getValuesList();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object get(ListValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getValuesList();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(ListValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(ListValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void set(ListValue.Builder builder, int fieldIndex, java.lang.Object value) {
+      switch (fieldIndex) {
+        case 0:
+          builder.clearValues();
+          addAllRepeated(builder, fieldIndex, value);
+          break;
+        default:
+          throw unsupported("set", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void clear(ListValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          builder.clearValues();
+          break;
+        default:
+          throw unsupported("clear", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public int getRepeatedCount(ListValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getValuesCount();
+        default:
+          return super.getRepeatedCount(message, fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public int getRepeatedCount(ListValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getValuesCount();
+        default:
+          return super.getRepeatedCount(builder, fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object getRepeated(ListValue message, int fieldIndex, int index) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getValues(index);
+        default:
+          return super.getRepeated(message, fieldIndex, index);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object getRepeated(ListValue.Builder builder, int fieldIndex, int index) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getValues(index);
+        default:
+          return super.getRepeated(builder, fieldIndex, index);
+      }
+    }
+
+    @java.lang.Override
+    public void setRepeated(ListValue.Builder builder, int fieldIndex, int index, java.lang.Object value) {
+      switch (fieldIndex) {
+        case 0:
+          builder.setValues(index, message(com.google.protobuf.Value.getDefaultInstance(), value));
+          break;
+        default:
+          super.setRepeated(builder, fieldIndex, index, value);
+      }
+    }
+
+    @java.lang.Override
+    public void addRepeated(ListValue.Builder builder, int fieldIndex, java.lang.Object value) {
+      switch (fieldIndex) {
+        case 0:
+          builder.addValues(message(com.google.protobuf.Value.getDefaultInstance(), value));
+          break;
+        default:
+          super.addRepeated(builder, fieldIndex, value);
+      }
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return com.google.protobuf.Value.newBuilder();
+        default:
+          return super.newBuilder(fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Message.Builder getRepeatedBuilder(ListValue.Builder builder, int fieldIndex, int index) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getValuesBuilder(index);
+        default:
+          return super.getRepeatedBuilder(builder, fieldIndex, index);
+      }
+    }
+  }
+
+  static {
+    com.google.protobuf.gwt.MessageReflectionAccessor.register(ListValue.class, new GwtReflectionAccessor());
+  }
 }
 
@@ -0,0 +1,2143 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+
+package com.google.protobuf;
+
+import static com.google.protobuf.ArrayDecoders.decodeBoolList;
+import static com.google.protobuf.ArrayDecoders.decodeBytes;
+import static com.google.protobuf.ArrayDecoders.decodeBytesList;
+import static com.google.protobuf.ArrayDecoders.decodeDouble;
+import static com.google.protobuf.ArrayDecoders.decodeDoubleList;
+import static com.google.protobuf.ArrayDecoders.decodeFixed32;
+import static com.google.protobuf.ArrayDecoders.decodeFixed32List;
+import static com.google.protobuf.ArrayDecoders.decodeFixed64;
+import static com.google.protobuf.ArrayDecoders.decodeFixed64List;
+import static com.google.protobuf.ArrayDecoders.decodeFloat;
+import static com.google.protobuf.ArrayDecoders.decodeFloatList;
+import static com.google.protobuf.ArrayDecoders.decodeMessageList;
+import static com.google.protobuf.ArrayDecoders.decodePackedBoolList;
+import static com.google.protobuf.ArrayDecoders.decodePackedDoubleList;
+import static com.google.protobuf.ArrayDecoders.decodePackedFixed32List;
+import static com.google.protobuf.ArrayDecoders.decodePackedFixed64List;
+import static com.google.protobuf.ArrayDecoders.decodePackedFloatList;
+import static com.google.protobuf.ArrayDecoders.decodePackedSInt32List;
+import static com.google.protobuf.ArrayDecoders.decodePackedSInt64List;
+import static com.google.protobuf.ArrayDecoders.decodePackedVarint32List;
+import static com.google.protobuf.ArrayDecoders.decodePackedVarint64List;
+import static com.google.protobuf.ArrayDecoders.decodeSInt32List;
+import static com.google.protobuf.ArrayDecoders.decodeSInt64List;
+import static com.google.protobuf.ArrayDecoders.decodeString;
+import static com.google.protobuf.ArrayDecoders.decodeStringList;
+import static com.google.protobuf.ArrayDecoders.decodeStringListRequireUtf8;
+import static com.google.protobuf.ArrayDecoders.decodeStringRequireUtf8;
+import static com.google.protobuf.ArrayDecoders.decodeUnknownField;
+import static com.google.protobuf.ArrayDecoders.decodeVarint32;
+import static com.google.protobuf.ArrayDecoders.decodeVarint32List;
+import static com.google.protobuf.ArrayDecoders.decodeVarint64;
+import static com.google.protobuf.ArrayDecoders.decodeVarint64List;
+import static com.google.protobuf.ArrayDecoders.mergeMessageField;
+
+import com.google.protobuf.ArrayDecoders.Registers;
+import com.google.protobuf.Internal.EnumVerifier;
+import com.google.protobuf.Internal.IntList;
+import com.google.protobuf.Internal.ProtobufList;
+import com.google.protobuf.gwt.MessageFieldAccessor;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Schema} for lite messages, built from the {@link RawMessageInfo} tables that lite
+ * gencode returns for {@code BUILD_MESSAGE_INFO}. Where protobuf-java's {@code MessageSchema} turns
+ * each field name in the table into an offset through reflection, this resolves each name to a
+ * slot of the {@link MessageFieldAccessor} registered for the message class, once, when the schema
+ * is built.
+ *
+ * <p>Parsing from a {@code byte[]} uses {@link ArrayDecoders}, any other input goes through a
+ * {@link Reader}, and writing goes through a {@link Writer}. Extensions and the MessageSet wire
+ * format are not supported.
+ */
+@CheckReturnValue
+final class LiteMessageSchema<T> implements Schema<T> {
+  // Field types, in the numbering used by RawMessageInfo
+  private static final int DOUBLE = 0;
+  private static final int FLOAT = 1;
+  private static final int INT64 = 2;
+  private static final int UINT64 = 3;
+  private static final int INT32 = 4;
+  private static final int FIXED64 = 5;
+  private static final int FIXED32 = 6;
+  private static final int BOOL = 7;
+  private static final int STRING = 8;
+  private static final int MESSAGE = 9;
+  private static final int BYTES = 10;
+  private static final int UINT32 = 11;
+  private static final int ENUM = 12;
+  private static final int SFIXED32 = 13;
+  private static final int SFIXED64 = 14;
+  private static final int SINT32 = 15;
+  private static final int SINT64 = 16;
+  private static final int GROUP = 17;
+  private static final int FIRST_LIST = 18;
+  private static final int MESSAGE_LIST = FIRST_LIST + MESSAGE;
+  private static final int ENUM_LIST = FIRST_LIST + ENUM;
+  private static final int FIRST_PACKED_LIST = 35;
+  private static final int ENUM_LIST_PACKED = 44;
+  private static final int GROUP_LIST = 49;
+  private static final int MAP = 50;
+  private static final int FIRST_ONEOF = 51;
+
+  /** The element types of the packed list types, which leave out the types that can't be packed. */
+  private static final int[] PACKED_ELEMENT_TYPES = {
+    DOUBLE, FLOAT, INT64, UINT64, INT32, FIXED64, FIXED32, BOOL, UINT32, ENUM, SFIXED32, SFIXED64,
+    SINT32, SINT64
+  };
+
+  private static final int FIELD_TYPE_MASK = 0xFF;
+  private static final int REQUIRED_BIT = 0x100;
+  private static final int UTF8_CHECK_BIT = 0x200;
+  private static final int CHECK_INITIALIZED_BIT = 0x400;
+  private static final int LEGACY_ENUM_IS_CLOSED_BIT = 0x800;
+  private static final int HAS_HAS_BIT = 0x1000;
+
+  private final GeneratedMessageLite<?, ?> defaultInstance;
+  private final MessageFieldAccessor<T> accessor;
+
+  /** Field numbers, in ascending order. */
+  private final int[] numbers;
+
+  /** Field types with their extra bits, as read from the message info. */
+  private final int[] types;
+
+  /** The accessor slot of each field's value, or of the oneof value for oneof fields. */
+  private final int[] slots;
+
+  /** The accessor slot of the hasbits or oneof case of each field, or -1 if neither is present. */
+  private final int[] presenceSlots;
+
+  /** The hasbit mask of each field with a hasbit. */
+  private final int[] presenceMasks;
+
+  /** The EnumVerifier of closed enum fields, or the default MapEntryLite of map fields. */
+  private final Object[] extras;
+
+  /** Schemas of message and group fields, resolved when first needed. */
+  private final Schema<?>[] messageSchemas;
+
+  /** Indexes of required fields and of fields that may contain required fields. */
+  private final int[] checkInitialized;
+
+  private LiteMessageSchema(
+      GeneratedMessageLite<?, ?> defaultInstance,
+      MessageFieldAccessor<T> accessor,
+      int[] numbers,
+      int[] types,
+      int[] slots,
+      int[] presenceSlots,
+      int[] presenceMasks,
+      Object[] extras,
+      int[] checkInitialized) {
+    this.defaultInstance = defaultInstance;
+    this.accessor = accessor;
+    this.numbers = numbers;
+    this.types = types;
+    this.slots = slots;
+    this.presenceSlots = presenceSlots;
+    this.presenceMasks = presenceMasks;
+    this.extras = extras;
+    this.messageSchemas = new Schema<?>[numbers.length];
+    this.checkInitialized = checkInitialized;
+  }
+
+  /** Reads the {@link RawMessageInfo} format, see its documentation for the layout. */
+  static <T> LiteMessageSchema<T> newSchema(
+      RawMessageInfo messageInfo, MessageFieldAccessor<T> accessor) {
+    if (messageInfo.isMessageSetWireFormat()) {
+      throw new UnsupportedOperationException(
+          "MessageSet wire format is not supported: "
+              + messageInfo.getDefaultInstance().getClass().getName());
+    }
+    InfoReader info = new InfoReader(messageInfo.getStringInfo());
+    Object[] objects = messageInfo.getObjects();
+
+    info.next(); // flags, already read by RawMessageInfo
+    int fieldCount = info.next();
+    int oneofCount = 0;
+    int hasBitsCount = 0;
+    int checkInitializedCount = 0;
+    if (fieldCount != 0) {
+      oneofCount = info.next();
+      hasBitsCount = info.next();
+      info.next(); // min field number
+      info.next(); // max field number
+      info.next(); // number of entries
+      info.next(); // map field count
+      info.next(); // repeated field count
+      checkInitializedCount = info.next();
+    }
+
+    int[] numbers = new int[fieldCount];
+    int[] types = new int[fieldCount];
+    int[] slots = new int[fieldCount];
+    int[] presenceSlots = new int[fieldCount];
+    int[] presenceMasks = new int[fieldCount];
+    Object[] extras = new Object[fieldCount];
+    int[] checkInitialized = new int[checkInitializedCount];
+    int checkInitializedIndex = 0;
+
+    int objectsPosition = oneofCount * 2 + hasBitsCount;
+    for (int i = 0; i < fieldCount; i++) {
+      numbers[i] = info.next();
+      int typeWithExtraBits = info.next();
+      int type = typeWithExtraBits & FIELD_TYPE_MASK;
+      types[i] = typeWithExtraBits;
+      presenceSlots[i] = -1;
+
+      if (type >= FIRST_ONEOF) {
+        int oneofIndex = info.next();
+        slots[i] = accessor.slotOf((String) objects[oneofIndex * 2]);
+        presenceSlots[i] = accessor.slotOf((String) objects[oneofIndex * 2 + 1]);
+        int oneofType = type - FIRST_ONEOF;
+        if (oneofType == MESSAGE || oneofType == GROUP) {
+          objectsPosition++; // message class, resolved through the accessor instead
+        } else if (oneofType == ENUM && (typeWithExtraBits & LEGACY_ENUM_IS_CLOSED_BIT) != 0) {
+          extras[i] = objects[objectsPosition++];
+        }
+      } else {
+        slots[i] = accessor.slotOf((String) objects[objectsPosition++]);
+        if (type == MESSAGE_LIST || type == GROUP_LIST) {
+          objectsPosition++; // message class, resolved through the accessor instead
+        } else if (type == ENUM || type == ENUM_LIST || type == ENUM_LIST_PACKED) {
+          if ((typeWithExtraBits & LEGACY_ENUM_IS_CLOSED_BIT) != 0) {
+            extras[i] = objects[objectsPosition++];
+          }
+        } else if (type == MAP) {
+          extras[i] = objects[objectsPosition++];
+          if ((typeWithExtraBits & LEGACY_ENUM_IS_CLOSED_BIT) != 0) {
+            objectsPosition++; // value verifier, applied when parsing the map entry
+          }
+        }
+        if ((typeWithExtraBits & HAS_HAS_BIT) != 0 && type <= GROUP) {
+          int hasBitsIndex = info.next();
+          presenceSlots[i] = accessor.slotOf((String) objects[oneofCount * 2 + hasBitsIndex / 32]);
+          presenceMasks[i] = 1 << (hasBitsIndex & 31);
+        }
+      }
+
+      if ((typeWithExtraBits & (REQUIRED_BIT | CHECK_INITIALIZED_BIT)) != 0
+          && checkInitializedIndex < checkInitializedCount) {
+        checkInitialized[checkInitializedIndex++] = i;
+      }
+    }
+
+    return new LiteMessageSchema<T>(
+        (GeneratedMessageLite<?, ?>) messageInfo.getDefaultInstance(),
+        accessor,
+        numbers,
+        types,
+        slots,
+        presenceSlots,
+        presenceMasks,
+        extras,
+        checkInitializedIndex == checkInitializedCount
+            ? checkInitialized
+            : java.util.Arrays.copyOf(checkInitialized, checkInitializedIndex));
+  }
+
+  /** Decodes the sequence of ints packed into the RawMessageInfo string. */
+  private static final class InfoReader {
+    private final String info;
+    private int position;
+
+    InfoReader(String info) {
+      this.info = info;
+    }
+
+    int next() {
+      int value = info.charAt(position++);
+      if (value < 0xD800) {
+        return value;
+      }
+      int result = value & 0x1FFF;
+      int shift = 13;
+      while ((value = info.charAt(position++)) >= 0xD800) {
+        result |= (value & 0x1FFF) << shift;
+        shift += 13;
+      }
+      return result | (value << shift);
+    }
+  }
+
+  private static int type(int typeWithExtraBits) {
+    return typeWithExtraBits & FIELD_TYPE_MASK;
+  }
+
+  /** Returns the element type of a list type. */
+  private static int elementType(int type) {
+    return type < FIRST_PACKED_LIST
+        ? type - FIRST_LIST
+        : PACKED_ELEMENT_TYPES[type - FIRST_PACKED_LIST];
+  }
+
+  /** Returns the wire type of a single value of a scalar, message or group type. */
+  private static int wireType(int scalarType) {
+    switch (scalarType) {
+      case DOUBLE:
+      case FIXED64:
+      case SFIXED64:
+        return WireFormat.WIRETYPE_FIXED64;
+      case FLOAT:
+      case FIXED32:
+      case SFIXED32:
+        return WireFormat.WIRETYPE_FIXED32;
+      case STRING:
+      case MESSAGE:
+      case BYTES:
+        return WireFormat.WIRETYPE_LENGTH_DELIMITED;
+      case GROUP:
+        return WireFormat.WIRETYPE_START_GROUP;
+      default:
+        return WireFormat.WIRETYPE_VARINT;
+    }
+  }
+
+  /** Returns true if a field of this type may be read from the given wire type. */
+  private static boolean acceptsWireType(int type, int wireType) {
+    if (type >= FIRST_ONEOF) {
+      return wireType(type - FIRST_ONEOF) == wireType;
+    } else if (type <= GROUP) {
+      return wireType(type) == wireType;
+    } else if (type == GROUP_LIST) {
+      return wireType == WireFormat.WIRETYPE_START_GROUP;
+    } else if (type == MAP) {
+      return wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    }
+    // Repeated scalars may be read either packed or unpacked, regardless of how they are declared
+    int elementType = elementType(type);
+    return wireType(elementType) == wireType
+        || (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED && isPackable(elementType));
+  }
+
+  private static boolean isPackable(int elementType) {
+    return wireType(elementType) != WireFormat.WIRETYPE_LENGTH_DELIMITED;
+  }
+
+  /**
+   * Returns the index of the given field number, or -1 if this message has no such field. Fields
+   * are usually serialized in order, so the index after the last field found is tried first.
+   */
+  private int positionForFieldNumber(int number, int hint) {
+    if (hint < numbers.length && numbers[hint] == number) {
+      return hint;
+    }
+    int low = 0;
+    int high = numbers.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int midNumber = numbers[mid];
+      if (number == midNumber) {
+        return mid;
+      } else if (number < midNumber) {
+        high = mid - 1;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return -1;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <M> Schema<M> messageSchema(int i) {
+    Schema<?> schema = messageSchemas[i];
+    if (schema == null) {
+      schema = Protobuf.getInstance().schemaFor(accessor.getMessageDefaultInstance(numbers[i]));
+      messageSchemas[i] = schema;
+    }
+    return (Schema<M>) schema;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <K, V> MapEntryLite<K, V> mapDefaultEntry(int i) {
+    return (MapEntryLite<K, V>) extras[i];
+  }
+
+  private EnumVerifier enumVerifier(int i) {
+    return (EnumVerifier) extras[i];
+  }
+
+  // Presence
+
+  private boolean isFieldPresent(T message, int i) {
+    int presenceSlot = presenceSlots[i];
+    if (presenceSlot >= 0) {
+      return (accessor.getInt(message, presenceSlot) & presenceMasks[i]) != 0;
+    }
+    // Fields without presence are present when not set to their default value
+    int slot = slots[i];
+    switch (type(types[i])) {
+      case DOUBLE:
+        return Double.doubleToLongBits(accessor.getDouble(message, slot)) != 0L;
+      case FLOAT:
+        return Float.floatToIntBits(accessor.getFloat(message, slot)) != 0;
+      case INT64:
+      case UINT64:
+      case FIXED64:
+      case SFIXED64:
+      case SINT64:
+        return accessor.getLong(message, slot) != 0L;
+      case INT32:
+      case UINT32:
+      case FIXED32:
+      case SFIXED32:
+      case SINT32:
+      case ENUM:
+        return accessor.getInt(message, slot) != 0;
+      case BOOL:
+        return accessor.getBoolean(message, slot);
+      case STRING:
+        Object value = accessor.getObject(message, slot);
+        if (value instanceof String) {
+          return !((String) value).isEmpty();
+        }
+        return !ByteString.EMPTY.equals(value);
+      case BYTES:
+        return !ByteString.EMPTY.equals(accessor.getObject(message, slot));
+      case MESSAGE:
+      case GROUP:
+        return accessor.getObject(message, slot) != null;
+      default:
+        throw new IllegalArgumentException();
+    }
+  }
+
+  private void setFieldPresent(T message, int i) {
+    int presenceSlot = presenceSlots[i];
+    if (presenceSlot >= 0) {
+      int hasBits = accessor.getInt(message, presenceSlot);
+      accessor.setInt(message, presenceSlot, hasBits | presenceMasks[i]);
+    }
+  }
+
+  private boolean isOneofPresent(T message, int i) {
+    return accessor.getInt(message, presenceSlots[i]) == numbers[i];
+  }
+
+  private void setOneof(T message, int i, Object value) {
+    accessor.setObject(message, slots[i], value);
+    accessor.setInt(message, presenceSlots[i], numbers[i]);
+  }
+
+  private static boolean isMutable(Object message) {
+    if (message == null) {
+      return false;
+    }
+    if (message instanceof GeneratedMessageLite) {
+      return ((GeneratedMessageLite<?, ?>) message).isMutable();
+    }
+    return true;
+  }
+
+  private static void checkMutable(Object message) {
+    if (!isMutable(message)) {
+      throw new IllegalArgumentException("Mutating immutable message: " + message);
+    }
+  }
+
+  /** Returns the unknown fields of the message, first replacing the shared empty set if needed. */
+  private static UnknownFieldSetLite getMutableUnknownFields(Object message) {
+    GeneratedMessageLite<?, ?> generatedMessage = (GeneratedMessageLite<?, ?>) message;
+    UnknownFieldSetLite unknownFields = generatedMessage.unknownFields;
+    if (unknownFields == UnknownFieldSetLite.getDefaultInstance()) {
+      unknownFields = UnknownFieldSetLite.newInstance();
+      generatedMessage.unknownFields = unknownFields;
+    }
+    return unknownFields;
+  }
+
+  /** Returns a message field's value, or a new instance, which can be merged into and stored. */
+  private Object mutableMessageFieldForMerge(T message, int i) {
+    Schema<Object> fieldSchema = messageSchema(i);
+    if (!isFieldPresent(message, i)) {
+      return fieldSchema.newInstance();
+    }
+    Object current = accessor.getObject(message, slots[i]);
+    if (isMutable(current)) {
+      return current;
+    }
+    Object newMessage = fieldSchema.newInstance();
+    if (current != null) {
+      fieldSchema.mergeFrom(newMessage, current);
+    }
+    return newMessage;
+  }
+
+  private void storeMessageField(T message, int i, Object field) {
+    accessor.setObject(message, slots[i], field);
+    setFieldPresent(message, i);
+  }
+
+  private Object mutableOneofMessageFieldForMerge(T message, int i) {
+    Schema<Object> fieldSchema = messageSchema(i);
+    if (!isOneofPresent(message, i)) {
+      return fieldSchema.newInstance();
+    }
+    Object current = accessor.getObject(message, slots[i]);
+    if (isMutable(current)) {
+      return current;
+    }
+    Object newMessage = fieldSchema.newInstance();
+    if (current != null) {
+      fieldSchema.mergeFrom(newMessage, current);
+    }
+    return newMessage;
+  }
+
+  private ProtobufList<?> mutableList(T message, int i) {
+    ProtobufList<?> list = (ProtobufList<?>) accessor.getObject(message, slots[i]);
+    if (!list.isModifiable()) {
+      int size = list.size();
+      list =
+          list.mutableCopyWithCapacity(
+              size == 0 ? AbstractProtobufList.DEFAULT_CAPACITY : size * 2);
+      accessor.setObject(message, slots[i], list);
+    }
+    return list;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <K, V> MapFieldLite<K, V> mutableMap(T message, int i) {
+    MapFieldLite<K, V> map = (MapFieldLite<K, V>) accessor.getObject(message, slots[i]);
+    if (!map.isMutable()) {
+      map = map.mutableCopy();
+      accessor.setObject(message, slots[i], map);
+    }
+    return map;
+  }
+
+  /**
+   * Moves the values added to a closed enum list from {@code start} on that are not known to the
+   * verifier into the unknown fields.
+   */
+  private static void filterUnknownEnums(
+      Object message, int number, IntList list, int start, EnumVerifier verifier) {
+    int kept = start;
+    int size = list.size();
+    for (int i = start; i < size; i++) {
+      int value = list.getInt(i);
+      if (verifier.isInRange(value)) {
+        if (kept != i) {
+          list.setInt(kept, value);
+        }
+        kept++;
+      } else {
+        getMutableUnknownFields(message)
+            .storeField(WireFormat.makeTag(number, WireFormat.WIRETYPE_VARINT), (long) value);
+      }
+    }
+    for (int i = size - 1; i >= kept; i--) {
+      list.remove(i);
+    }
+  }
+
+  // Schema
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T newInstance() {
+    return (T) defaultInstance.newMutableInstance();
+  }
+
+  @Override
+  public boolean equals(T message, T other) {
+    for (int i = 0; i < numbers.length; i++) {
+      if (!fieldEquals(message, other, i)) {
+        return false;
+      }
+    }
+    return ((GeneratedMessageLite<?, ?>) message)
+        .unknownFields.equals(((GeneratedMessageLite<?, ?>) other).unknownFields);
+  }
+
+  private boolean fieldEquals(T message, T other, int i) {
+    int type = type(types[i]);
+    int slot = slots[i];
+    if (type >= FIRST_ONEOF) {
+      int presenceSlot = presenceSlots[i];
+      int oneofCase = accessor.getInt(message, presenceSlot);
+      return oneofCase == accessor.getInt(other, presenceSlot)
+          && (oneofCase != numbers[i]
+              || safeEquals(accessor.getObject(message, slot), accessor.getObject(other, slot)));
+    }
+    if (type > GROUP) {
+      return safeEquals(accessor.getObject(message, slot), accessor.getObject(other, slot));
+    }
+    if (isFieldPresent(message, i) != isFieldPresent(other, i)) {
+      return false;
+    }
+    switch (type) {
+      case DOUBLE:
+        return Double.doubleToLongBits(accessor.getDouble(message, slot))
+            == Double.doubleToLongBits(accessor.getDouble(other, slot));
+      case FLOAT:
+        return Float.floatToIntBits(accessor.getFloat(message, slot))
+            == Float.floatToIntBits(accessor.getFloat(other, slot));
+      case INT64:
+      case UINT64:
+      case FIXED64:
+      case SFIXED64:
+      case SINT64:
+        return accessor.getLong(message, slot) == accessor.getLong(other, slot);
+      case INT32:
+      case UINT32:
+      case FIXED32:
+      case SFIXED32:
+      case SINT32:
+      case ENUM:
+        return accessor.getInt(message, slot) == accessor.getInt(other, slot);
+      case BOOL:
+        return accessor.getBoolean(message, slot) == accessor.getBoolean(other, slot);
+      default:
+        return safeEquals(accessor.getObject(message, slot), accessor.getObject(other, slot));
+    }
+  }
+
+  private static boolean safeEquals(Object a, Object b) {
+    return a == b || (a != null && a.equals(b));
+  }
+
+  @Override
+  public int hashCode(T message) {
+    int hashCode = 0;
+    for (int i = 0; i < numbers.length; i++) {
+      int type = type(types[i]);
+      int slot = slots[i];
+      if (type >= FIRST_ONEOF) {
+        if (isOneofPresent(message, i)) {
+          hashCode =
+              (hashCode * 53) + hashValue(type - FIRST_ONEOF, accessor.getObject(message, slot));
+        }
+        continue;
+      }
+      switch (type) {
+        case DOUBLE:
+          hashCode =
+              (hashCode * 53)
+                  + Internal.hashLong(Double.doubleToLongBits(accessor.getDouble(message, slot)));
+          break;
+        case FLOAT:
+          hashCode = (hashCode * 53) + Float.floatToIntBits(accessor.getFloat(message, slot));
+          break;
+        case INT64:
+        case UINT64:
+        case FIXED64:
+        case SFIXED64:
+        case SINT64:
+          hashCode = (hashCode * 53) + Internal.hashLong(accessor.getLong(message, slot));
+          break;
+        case INT32:
+        case UINT32:
+        case FIXED32:
+        case SFIXED32:
+        case SINT32:
+        case ENUM:
+          hashCode = (hashCode * 53) + accessor.getInt(message, slot);
+          break;
+        case BOOL:
+          hashCode = (hashCode * 53) + Internal.hashBoolean(accessor.getBoolean(message, slot));
+          break;
+        case MESSAGE:
+        case GROUP:
+          {
+            Object submessage = accessor.getObject(message, slot);
+            hashCode = (hashCode * 53) + (submessage == null ? 37 : submessage.hashCode());
+            break;
+          }
+        default:
+          // Strings, bytes, lists and maps
+          hashCode = (hashCode * 53) + accessor.getObject(message, slot).hashCode();
+          break;
+      }
+    }
+    return (hashCode * 53) + ((GeneratedMessageLite<?, ?>) message).unknownFields.hashCode();
+  }
+
+  private static int hashValue(int scalarType, Object value) {
+    switch (scalarType) {
+      case DOUBLE:
+        return Internal.hashLong(Double.doubleToLongBits((Double) value));
+      case FLOAT:
+        return Float.floatToIntBits((Float) value);
+      case INT64:
+      case UINT64:
+      case FIXED64:
+      case SFIXED64:
+      case SINT64:
+        return Internal.hashLong((Long) value);
+      case INT32:
+      case UINT32:
+      case FIXED32:
+      case SFIXED32:
+      case SINT32:
+      case ENUM:
+        return (Integer) value;
+      case BOOL:
+        return Internal.hashBoolean((Boolean) value);
+      default:
+        return value.hashCode();
+    }
+  }
+
+  @Override
+  public void mergeFrom(T message, T other) {
+    checkMutable(message);
+    if (other == null) {
+      throw new NullPointerException();
+    }
+    for (int i = 0; i < numbers.length; i++) {
+      mergeSingleField(message, other, i);
+    }
+    UnknownFieldSetLite otherUnknownFields = ((GeneratedMessageLite<?, ?>) other).unknownFields;
+    if (otherUnknownFields != UnknownFieldSetLite.getDefaultInstance()) {
+      GeneratedMessageLite<?, ?> generatedMessage = (GeneratedMessageLite<?, ?>) message;
+      if (generatedMessage.unknownFields == UnknownFieldSetLite.getDefaultInstance()) {
+        generatedMessage.unknownFields =
+            UnknownFieldSetLite.mutableCopyOf(generatedMessage.unknownFields, otherUnknownFields);
+      } else {
+        generatedMessage.unknownFields.mergeFrom(otherUnknownFields);
+      }
+    }
+  }
+
+  private void mergeSingleField(T message, T other, int i) {
+    int type = type(types[i]);
+    int slot = slots[i];
+    if (type >= FIRST_ONEOF) {
+      if (!isOneofPresent(other, i)) {
+        return;
+      }
+      int oneofType = type - FIRST_ONEOF;
+      if (oneofType == MESSAGE || oneofType == GROUP) {
+        mergeOneofMessage(message, other, i);
+      } else {
+        setOneof(message, i, accessor.getObject(other, slot));
+      }
+      return;
+    }
+    switch (type) {
+      case DOUBLE:
+        if (isFieldPresent(other, i)) {
+          accessor.setDouble(message, slot, accessor.getDouble(other, slot));
+          setFieldPresent(message, i);
+        }
+        break;
+      case FLOAT:
+        if (isFieldPresent(other, i)) {
+          accessor.setFloat(message, slot, accessor.getFloat(other, slot));
+          setFieldPresent(message, i);
+        }
+        break;
+      case INT64:
+      case UINT64:
+      case FIXED64:
+      case SFIXED64:
+      case SINT64:
+        if (isFieldPresent(other, i)) {
+          accessor.setLong(message, slot, accessor.getLong(other, slot));
+          setFieldPresent(message, i);
+        }
+        break;
+      case INT32:
+      case UINT32:
+      case FIXED32:
+      case SFIXED32:
+      case SINT32:
+      case ENUM:
+        if (isFieldPresent(other, i)) {
+          accessor.setInt(message, slot, accessor.getInt(other, slot));
+          setFieldPresent(message, i);
+        }
+        break;
+      case BOOL:
+        if (isFieldPresent(other, i)) {
+          accessor.setBoolean(message, slot, accessor.getBoolean(other, slot));
+          setFieldPresent(message, i);
+        }
+        break;
+      case STRING:
+      case BYTES:
+        if (isFieldPresent(other, i)) {
+          accessor.setObject(message, slot, accessor.getObject(other, slot));
+          setFieldPresent(message, i);
+        }
+        break;
+      case MESSAGE:
+      case GROUP:
+        mergeMessage(message, other, i);
+        break;
+      case MAP:
+        mergeMap(message, other, i);
+        break;
+      default:
+        mergeList(message, other, i);
+        break;
+    }
+  }
+
+  private void mergeMessage(T message, T other, int i) {
+    if (!isFieldPresent(other, i)) {
+      return;
+    }
+    int slot = slots[i];
+    Object otherChild = accessor.getObject(other, slot);
+    Schema<Object> fieldSchema = messageSchema(i);
+    if (!isFieldPresent(message, i)) {
+      if (isMutable(otherChild)) {
+        Object newChild = fieldSchema.newInstance();
+        fieldSchema.mergeFrom(newChild, otherChild);
+        storeMessageField(message, i, newChild);
+      } else {
+        // Immutable messages can be shared
+        storeMessageField(message, i, otherChild);
+      }
+      return;
+    }
+    Object child = accessor.getObject(message, slot);
+    if (!isMutable(child)) {
+      Object newChild = fieldSchema.newInstance();
+      fieldSchema.mergeFrom(newChild, child);
+      accessor.setObject(message, slot, newChild);
+      child = newChild;
+    }
+    fieldSchema.mergeFrom(child, otherChild);
+  }
+
+  private void mergeOneofMessage(T message, T other, int i) {
+    int slot = slots[i];
+    Object otherChild = accessor.getObject(other, slot);
+    Schema<Object> fieldSchema = messageSchema(i);
+    if (!isOneofPresent(message, i)) {
+      if (isMutable(otherChild)) {
+        Object newChild = fieldSchema.newInstance();
+        fieldSchema.mergeFrom(newChild, otherChild);
+        setOneof(message, i, newChild);
+      } else {
+        setOneof(message, i, otherChild);
+      }
+      return;
+    }
+    Object child = accessor.getObject(message, slot);
+    if (!isMutable(child)) {
+      Object newChild = fieldSchema.newInstance();
+      fieldSchema.mergeFrom(newChild, child);
+      accessor.setObject(message, slot, newChild);
+      child = newChild;
+    }
+    fieldSchema.mergeFrom(child, otherChild);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mergeList(T message, T other, int i) {
+    int slot = slots[i];
+    ProtobufList<Object> mine = (ProtobufList<Object>) accessor.getObject(message, slot);
+    ProtobufList<Object> theirs = (ProtobufList<Object>) accessor.getObject(other, slot);
+    int size = mine.size();
+    int otherSize = theirs.size();
+    if (size > 0 && otherSize > 0) {
+      if (!mine.isModifiable()) {
+        mine = mine.mutableCopyWithCapacity(size + otherSize);
+      }
+      mine.addAll(theirs);
+    }
+    accessor.setObject(message, slot, size > 0 ? mine : theirs);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mergeMap(T message, T other, int i) {
+    MapFieldLite<Object, Object> theirs =
+        (MapFieldLite<Object, Object>) accessor.getObject(other, slots[i]);
+    if (!theirs.isEmpty()) {
+      mutableMap(message, i).mergeFrom(theirs);
+    }
+  }
+
+  @Override
+  public void makeImmutable(T message) {
+    if (!isMutable(message)) {
+      return;
+    }
+    GeneratedMessageLite<?, ?> generatedMessage = (GeneratedMessageLite<?, ?>) message;
+    generatedMessage.clearMemoizedSerializedSize();
+    generatedMessage.clearMemoizedHashCode();
+    generatedMessage.markImmutable();
+
+    for (int i = 0; i < numbers.length; i++) {
+      int type = type(types[i]);
+      int slot = slots[i];
+      switch (type) {
+        case MESSAGE:
+        case GROUP:
+          if (isFieldPresent(message, i)) {
+            messageSchema(i).makeImmutable(accessor.getObject(message, slot));
+          }
+          break;
+        case FIRST_ONEOF + MESSAGE:
+        case FIRST_ONEOF + GROUP:
+          if (isOneofPresent(message, i)) {
+            messageSchema(i).makeImmutable(accessor.getObject(message, slot));
+          }
+          break;
+        case MAP:
+          ((MapFieldLite<?, ?>) accessor.getObject(message, slot)).makeImmutable();
+          break;
+        default:
+          if (type >= FIRST_LIST && type < MAP) {
+            ProtobufList<?> list = (ProtobufList<?>) accessor.getObject(message, slot);
+            if (list.isModifiable()) {
+              list.makeImmutable();
+            }
+          }
+          break;
+      }
+    }
+    generatedMessage.unknownFields.makeImmutable();
+  }
+
+  @Override
+  public boolean isInitialized(T message) {
+    for (int index : checkInitialized) {
+      int typeWithExtraBits = types[index];
+      int type = type(typeWithExtraBits);
+      if ((typeWithExtraBits & REQUIRED_BIT) != 0 && !isFieldPresent(message, index)) {
+        return false;
+      }
+      if ((typeWithExtraBits & CHECK_INITIALIZED_BIT) == 0) {
+        continue;
+      }
+      Object value = accessor.getObject(message, slots[index]);
+      switch (type) {
+        case MESSAGE:
+        case GROUP:
+          if (isFieldPresent(message, index) && !messageSchema(index).isInitialized(value)) {
+            return false;
+          }
+          break;
+        case FIRST_ONEOF + MESSAGE:
+        case FIRST_ONEOF + GROUP:
+          if (isOneofPresent(message, index) && !messageSchema(index).isInitialized(value)) {
+            return false;
+          }
+          break;
+        case MESSAGE_LIST:
+        case GROUP_LIST:
+          {
+            List<?> list = (List<?>) value;
+            if (!list.isEmpty()) {
+              Schema<Object> schema = messageSchema(index);
+              for (int i = 0; i < list.size(); i++) {
+                if (!schema.isInitialized(list.get(i))) {
+                  return false;
+                }
+              }
+            }
+            break;
+          }
+        case MAP:
+          {
+            MapEntryLite<?, ?> defaultEntry = mapDefaultEntry(index);
+            if (defaultEntry.getMetadata().valueType.getJavaType() == WireFormat.JavaType.MESSAGE) {
+              for (Object entryValue : ((Map<?, ?>) value).values()) {
+                if (!Protobuf.getInstance().schemaFor(entryValue).isInitialized(entryValue)) {
+                  return false;
+                }
+              }
+            }
+            break;
+          }
+        default:
+          break;
+      }
+    }
+    return true;
+  }
+
+  // Serialization
+
+  @Override
+  public int getSerializedSize(T message) {
+    int size = 0;
+    for (int i = 0; i < numbers.length; i++) {
+      size += fieldSize(message, i);
+    }
+    return size + ((GeneratedMessageLite<?, ?>) message).unknownFields.getSerializedSize();
+  }
+
+  @SuppressWarnings("deprecation") // computeGroupSize
+  private int fieldSize(T message, int i) {
+    int type = type(types[i]);
+    int number = numbers[i];
+    int slot = slots[i];
+    if (type >= FIRST_ONEOF) {
+      if (!isOneofPresent(message, i)) {
+        return 0;
+      }
+      return oneofSize(number, type - FIRST_ONEOF, accessor.getObject(message, slot));
+    }
+    if (type <= GROUP) {
+      if (!isFieldPresent(message, i)) {
+        return 0;
+      }
+      switch (type) {
+        case DOUBLE:
+          return CodedOutputStream.computeDoubleSize(number, 0);
+        case FLOAT:
+          return CodedOutputStream.computeFloatSize(number, 0);
+        case INT64:
+          return CodedOutputStream.computeInt64Size(number, accessor.getLong(message, slot));
+        case UINT64:
+          return CodedOutputStream.computeUInt64Size(number, accessor.getLong(message, slot));
+        case INT32:
+          return CodedOutputStream.computeInt32Size(number, accessor.getInt(message, slot));
+        case FIXED64:
+          return CodedOutputStream.computeFixed64Size(number, 0);
+        case FIXED32:
+          return CodedOutputStream.computeFixed32Size(number, 0);
+        case BOOL:
+          return CodedOutputStream.computeBoolSize(number, true);
+        case STRING:
+          return stringSize(number, accessor.getObject(message, slot));
+        case MESSAGE:
+          return CodedOutputStream.computeMessageSize(
+              number, (MessageLite) accessor.getObject(message, slot));
+        case BYTES:
+          return CodedOutputStream.computeBytesSize(
+              number, (ByteString) accessor.getObject(message, slot));
+        case UINT32:
+          return CodedOutputStream.computeUInt32Size(number, accessor.getInt(message, slot));
+        case ENUM:
+          return CodedOutputStream.computeEnumSize(number, accessor.getInt(message, slot));
+        case SFIXED32:
+          return CodedOutputStream.computeSFixed32Size(number, 0);
+        case SFIXED64:
+          return CodedOutputStream.computeSFixed64Size(number, 0);
+        case SINT32:
+          return CodedOutputStream.computeSInt32Size(number, accessor.getInt(message, slot));
+        case SINT64:
+          return CodedOutputStream.computeSInt64Size(number, accessor.getLong(message, slot));
+        default: // GROUP
+          return CodedOutputStream.computeGroupSize(
+              number, (MessageLite) accessor.getObject(message, slot));
+      }
+    }
+    if (type == MAP) {
+      return mapSize(number, mapDefaultEntry(i), (Map<?, ?>) accessor.getObject(message, slot));
+    }
+    List<?> list = (List<?>) accessor.getObject(message, slot);
+    if (list.isEmpty()) {
+      return 0;
+    }
+    if (type == GROUP_LIST) {
+      int size = 0;
+      for (int j = 0; j < list.size(); j++) {
+        size += CodedOutputStream.computeGroupSize(number, (MessageLite) list.get(j));
+      }
+      return size;
+    }
+    int elementType = elementType(type);
+    int tagSize = CodedOutputStream.computeTagSize(number);
+    switch (elementType) {
+      case STRING:
+        {
+          int size = tagSize * list.size();
+          for (int j = 0; j < list.size(); j++) {
+            Object value = list.get(j);
+            size +=
+                value instanceof ByteString
+                    ? CodedOutputStream.computeBytesSizeNoTag((ByteString) value)
+                    : CodedOutputStream.computeStringSizeNoTag((String) value);
+          }
+          return size;
+        }
+      case MESSAGE:
+        {
+          int size = tagSize * list.size();
+          for (int j = 0; j < list.size(); j++) {
+            size += CodedOutputStream.computeMessageSizeNoTag((MessageLite) list.get(j));
+          }
+          return size;
+        }
+      case BYTES:
+        {
+          int size = tagSize * list.size();
+          for (int j = 0; j < list.size(); j++) {
+            size += CodedOutputStream.computeBytesSizeNoTag((ByteString) list.get(j));
+          }
+          return size;
+        }
+      default:
+        {
+          int dataSize = packableListDataSize(elementType, list);
+          if (type >= FIRST_PACKED_LIST) {
+            return tagSize + CodedOutputStream.computeUInt32SizeNoTag(dataSize) + dataSize;
+          }
+          return tagSize * list.size() + dataSize;
+        }
+    }
+  }
+
+  /** Returns the size of the values of a list of a packable type, without tags or length. */
+  @SuppressWarnings("unchecked")
+  private static int packableListDataSize(int elementType, List<?> list) {
+    int length = list.size();
+    switch (elementType) {
+      case DOUBLE:
+      case FIXED64:
+      case SFIXED64:
+        return length * 8;
+      case FLOAT:
+      case FIXED32:
+      case SFIXED32:
+        return length * 4;
+      case BOOL:
+        return length;
+      case INT64:
+      case UINT64:
+      case SINT64:
+        {
+          int size = 0;
+          LongArrayList longs = (LongArrayList) list;
+          for (int i = 0; i < length; i++) {
+            long value = longs.getLong(i);
+            size +=
+                elementType == SINT64
+                    ? CodedOutputStream.computeSInt64SizeNoTag(value)
+                    : CodedOutputStream.computeUInt64SizeNoTag(value);
+          }
+          return size;
+        }
+      default:
+        {
+          int size = 0;
+          IntArrayList ints = (IntArrayList) list;
+          for (int i = 0; i < length; i++) {
+            int value = ints.getInt(i);
+            switch (elementType) {
+              case SINT32:
+                size += CodedOutputStream.computeSInt32SizeNoTag(value);
+                break;
+              case UINT32:
+                size += CodedOutputStream.computeUInt32SizeNoTag(value);
+                break;
+              default: // INT32, ENUM
+                size += CodedOutputStream.computeInt32SizeNoTag(value);
+                break;
+            }
+          }
+          return size;
+        }
+    }
+  }
+
+  private static int stringSize(int number, Object value) {
+    if (value instanceof String) {
+      return CodedOutputStream.computeStringSize(number, (String) value);
+    }
+    return CodedOutputStream.computeBytesSize(number, (ByteString) value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> int mapSize(int number, MapEntryLite<K, V> defaultEntry, Map<?, ?> map) {
+    if (map.isEmpty()) {
+      return 0;
+    }
+    int size = 0;
+    for (Map.Entry<K, V> entry : ((Map<K, V>) map).entrySet()) {
+      size += defaultEntry.computeMessageSize(number, entry.getKey(), entry.getValue());
+    }
+    return size;
+  }
+
+  @SuppressWarnings("deprecation") // computeGroupSize
+  private static int oneofSize(int number, int scalarType, Object value) {
+    switch (scalarType) {
+      case DOUBLE:
+        return CodedOutputStream.computeDoubleSize(number, 0);
+      case FLOAT:
+        return CodedOutputStream.computeFloatSize(number, 0);
+      case INT64:
+        return CodedOutputStream.computeInt64Size(number, (Long) value);
+      case UINT64:
+        return CodedOutputStream.computeUInt64Size(number, (Long) value);
+      case INT32:
+        return CodedOutputStream.computeInt32Size(number, (Integer) value);
+      case FIXED64:
+        return CodedOutputStream.computeFixed64Size(number, 0);
+      case FIXED32:
+        return CodedOutputStream.computeFixed32Size(number, 0);
+      case BOOL:
+        return CodedOutputStream.computeBoolSize(number, true);
+      case STRING:
+        return stringSize(number, value);
+      case MESSAGE:
+        return CodedOutputStream.computeMessageSize(number, (MessageLite) value);
+      case BYTES:
+        return CodedOutputStream.computeBytesSize(number, (ByteString) value);
+      case UINT32:
+        return CodedOutputStream.computeUInt32Size(number, (Integer) value);
+      case ENUM:
+        return CodedOutputStream.computeEnumSize(number, (Integer) value);
+      case SFIXED32:
+        return CodedOutputStream.computeSFixed32Size(number, 0);
+      case SFIXED64:
+        return CodedOutputStream.computeSFixed64Size(number, 0);
+      case SINT32:
+        return CodedOutputStream.computeSInt32Size(number, (Integer) value);
+      case SINT64:
+        return CodedOutputStream.computeSInt64Size(number, (Long) value);
+      default: // GROUP
+        return CodedOutputStream.computeGroupSize(number, (MessageLite) value);
+    }
+  }
+
+  @Override
+  public void writeTo(T message, Writer writer) throws IOException {
+    UnknownFieldSetLite unknownFields = ((GeneratedMessageLite<?, ?>) message).unknownFields;
+    if (writer.fieldOrder() == Writer.FieldOrder.DESCENDING) {
+      unknownFields.writeTo(writer);
+      for (int i = numbers.length - 1; i >= 0; i--) {
+        writeField(message, i, writer);
+      }
+    } else {
+      for (int i = 0; i < numbers.length; i++) {
+        writeField(message, i, writer);
+      }
+      unknownFields.writeTo(writer);
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "deprecation"}) // writeGroup, writeGroupList
+  private void writeField(T message, int i, Writer writer) throws IOException {
+    int type = type(types[i]);
+    int number = numbers[i];
+    int slot = slots[i];
+    if (type >= FIRST_ONEOF) {
+      if (isOneofPresent(message, i)) {
+        writeOneof(number, type - FIRST_ONEOF, accessor.getObject(message, slot), i, writer);
+      }
+      return;
+    }
+    if (type <= GROUP) {
+      if (!isFieldPresent(message, i)) {
+        return;
+      }
+      switch (type) {
+        case DOUBLE:
+          writer.writeDouble(number, accessor.getDouble(message, slot));
+          break;
+        case FLOAT:
+          writer.writeFloat(number, accessor.getFloat(message, slot));
+          break;
+        case INT64:
+          writer.writeInt64(number, accessor.getLong(message, slot));
+          break;
+        case UINT64:
+          writer.writeUInt64(number, accessor.getLong(message, slot));
+          break;
+        case INT32:
+          writer.writeInt32(number, accessor.getInt(message, slot));
+          break;
+        case FIXED64:
+          writer.writeFixed64(number, accessor.getLong(message, slot));
+          break;
+        case FIXED32:
+          writer.writeFixed32(number, accessor.getInt(message, slot));
+          break;
+        case BOOL:
+          writer.writeBool(number, accessor.getBoolean(message, slot));
+          break;
+        case STRING:
+          writeString(number, accessor.getObject(message, slot), writer);
+          break;
+        case MESSAGE:
+          writer.writeMessage(number, accessor.getObject(message, slot), messageSchema(i));
+          break;
+        case BYTES:
+          writer.writeBytes(number, (ByteString) accessor.getObject(message, slot));
+          break;
+        case UINT32:
+          writer.writeUInt32(number, accessor.getInt(message, slot));
+          break;
+        case ENUM:
+          writer.writeEnum(number, accessor.getInt(message, slot));
+          break;
+        case SFIXED32:
+          writer.writeSFixed32(number, accessor.getInt(message, slot));
+          break;
+        case SFIXED64:
+          writer.writeSFixed64(number, accessor.getLong(message, slot));
+          break;
+        case SINT32:
+          writer.writeSInt32(number, accessor.getInt(message, slot));
+          break;
+        case SINT64:
+          writer.writeSInt64(number, accessor.getLong(message, slot));
+          break;
+        default: // GROUP
+          writer.writeGroup(number, accessor.getObject(message, slot), messageSchema(i));
+          break;
+      }
+      return;
+    }
+    if (type == MAP) {
+      Map<Object, Object> map = (Map<Object, Object>) accessor.getObject(message, slot);
+      if (!map.isEmpty()) {
+        MapEntryLite<Object, Object> defaultEntry = mapDefaultEntry(i);
+        writer.writeMap(number, defaultEntry.getMetadata(), map);
+      }
+      return;
+    }
+    List<?> list = (List<?>) accessor.getObject(message, slot);
+    if (list.isEmpty()) {
+      return;
+    }
+    if (type == GROUP_LIST) {
+      writer.writeGroupList(number, list, messageSchema(i));
+      return;
+    }
+    boolean packed = type >= FIRST_PACKED_LIST;
+    switch (elementType(type)) {
+      case DOUBLE:
+        writer.writeDoubleList(number, (List<Double>) list, packed);
+        break;
+      case FLOAT:
+        writer.writeFloatList(number, (List<Float>) list, packed);
+        break;
+      case INT64:
+        writer.writeInt64List(number, (List<Long>) list, packed);
+        break;
+      case UINT64:
+        writer.writeUInt64List(number, (List<Long>) list, packed);
+        break;
+      case INT32:
+        writer.writeInt32List(number, (List<Integer>) list, packed);
+        break;
+      case FIXED64:
+        writer.writeFixed64List(number, (List<Long>) list, packed);
+        break;
+      case FIXED32:
+        writer.writeFixed32List(number, (List<Integer>) list, packed);
+        break;
+      case BOOL:
+        writer.writeBoolList(number, (List<Boolean>) list, packed);
+        break;
+      case STRING:
+        writer.writeStringList(number, (List<String>) list);
+        break;
+      case MESSAGE:
+        writer.writeMessageList(number, list, messageSchema(i));
+        break;
+      case BYTES:
+        writer.writeBytesList(number, (List<ByteString>) list);
+        break;
+      case UINT32:
+        writer.writeUInt32List(number, (List<Integer>) list, packed);
+        break;
+      case ENUM:
+        writer.writeEnumList(number, (List<Integer>) list, packed);
+        break;
+      case SFIXED32:
+        writer.writeSFixed32List(number, (List<Integer>) list, packed);
+        break;
+      case SFIXED64:
+        writer.writeSFixed64List(number, (List<Long>) list, packed);
+        break;
+      case SINT32:
+        writer.writeSInt32List(number, (List<Integer>) list, packed);
+        break;
+      default: // SINT64
+        writer.writeSInt64List(number, (List<Long>) list, packed);
+        break;
+    }
+  }
+
+  private static void writeString(int number, Object value, Writer writer) throws IOException {
+    if (value instanceof String) {
+      writer.writeString(number, (String) value);
+    } else {
+      writer.writeBytes(number, (ByteString) value);
+    }
+  }
+
+  @SuppressWarnings("deprecation") // writeGroup
+  private void writeOneof(int number, int scalarType, Object value, int i, Writer writer)
+      throws IOException {
+    switch (scalarType) {
+      case DOUBLE:
+        writer.writeDouble(number, (Double) value);
+        break;
+      case FLOAT:
+        writer.writeFloat(number, (Float) value);
+        break;
+      case INT64:
+        writer.writeInt64(number, (Long) value);
+        break;
+      case UINT64:
+        writer.writeUInt64(number, (Long) value);
+        break;
+      case INT32:
+        writer.writeInt32(number, (Integer) value);
+        break;
+      case FIXED64:
+        writer.writeFixed64(number, (Long) value);
+        break;
+      case FIXED32:
+        writer.writeFixed32(number, (Integer) value);
+        break;
+      case BOOL:
+        writer.writeBool(number, (Boolean) value);
+        break;
+      case STRING:
+        writeString(number, value, writer);
+        break;
+      case MESSAGE:
+        writer.writeMessage(number, value, messageSchema(i));
+        break;
+      case BYTES:
+        writer.writeBytes(number, (ByteString) value);
+        break;
+      case UINT32:
+        writer.writeUInt32(number, (Integer) value);
+        break;
+      case ENUM:
+        writer.writeEnum(number, (Integer) value);
+        break;
+      case SFIXED32:
+        writer.writeSFixed32(number, (Integer) value);
+        break;
+      case SFIXED64:
+        writer.writeSFixed64(number, (Long) value);
+        break;
+      case SINT32:
+        writer.writeSInt32(number, (Integer) value);
+        break;
+      case SINT64:
+        writer.writeSInt64(number, (Long) value);
+        break;
+      default: // GROUP
+        writer.writeGroup(number, value, messageSchema(i));
+        break;
+    }
+  }
+
+  // Parsing from a Reader
+
+  @Override
+  public void mergeFrom(T message, Reader reader, ExtensionRegistryLite extensionRegistry)
+      throws IOException {
+    if (extensionRegistry == null) {
+      throw new NullPointerException();
+    }
+    checkMutable(message);
+    int hint = 0;
+    while (true) {
+      int number = reader.getFieldNumber();
+      if (number == Reader.READ_DONE) {
+        return;
+      }
+      int i = positionForFieldNumber(number, hint);
+      if (i >= 0) {
+        hint = i + 1;
+        try {
+          readField(message, i, reader, extensionRegistry);
+          continue;
+        } catch (InvalidProtocolBufferException.InvalidWireTypeException e) {
+          // Keep the field as an unknown field, below
+        }
+      }
+      if (reader.shouldDiscardUnknownFields()) {
+        if (!reader.skipField()) {
+          return;
+        }
+      } else if (!mergeUnknownField(getMutableUnknownFields(message), reader)) {
+        return;
+      }
+    }
+  }
+
+  /** Reads the current field into the set, returning false if it is an end group tag. */
+  private static boolean mergeUnknownField(UnknownFieldSetLite unknownFields, Reader reader)
+      throws IOException {
+    int tag = reader.getTag();
+    int number = WireFormat.getTagFieldNumber(tag);
+    switch (WireFormat.getTagWireType(tag)) {
+      case WireFormat.WIRETYPE_VARINT:
+        unknownFields.storeField(tag, reader.readInt64());
+        return true;
+      case WireFormat.WIRETYPE_FIXED32:
+        unknownFields.storeField(tag, reader.readFixed32());
+        return true;
+      case WireFormat.WIRETYPE_FIXED64:
+        unknownFields.storeField(tag, reader.readFixed64());
+        return true;
+      case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+        unknownFields.storeField(tag, reader.readBytes());
+        return true;
+      case WireFormat.WIRETYPE_START_GROUP:
+        UnknownFieldSetLite group = UnknownFieldSetLite.newInstance();
+        int endGroupTag = WireFormat.makeTag(number, WireFormat.WIRETYPE_END_GROUP);
+        while (reader.getFieldNumber() != Reader.READ_DONE) {
+          if (!mergeUnknownField(group, reader)) {
+            break;
+          }
+        }
+        if (endGroupTag != reader.getTag()) {
+          throw InvalidProtocolBufferException.invalidEndTag();
+        }
+        unknownFields.storeField(tag, group);
+        return true;
+      case WireFormat.WIRETYPE_END_GROUP:
+        return false;
+      default:
+        throw InvalidProtocolBufferException.invalidWireType();
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "deprecation"}) // readGroupList
+  private void readField(
+      T message, int i, Reader reader, ExtensionRegistryLite extensionRegistry)
+      throws IOException {
+    int typeWithExtraBits = types[i];
+    int type = type(typeWithExtraBits);
+    int slot = slots[i];
+    boolean requireUtf8 = (typeWithExtraBits & UTF8_CHECK_BIT) != 0;
+    if (type >= FIRST_ONEOF) {
+      readOneof(message, i, type - FIRST_ONEOF, requireUtf8, reader, extensionRegistry);
+      return;
+    }
+    switch (type) {
+      case DOUBLE:
+        accessor.setDouble(message, slot, reader.readDouble());
+        break;
+      case FLOAT:
+        accessor.setFloat(message, slot, reader.readFloat());
+        break;
+      case INT64:
+        accessor.setLong(message, slot, reader.readInt64());
+        break;
+      case UINT64:
+        accessor.setLong(message, slot, reader.readUInt64());
+        break;
+      case INT32:
+        accessor.setInt(message, slot, reader.readInt32());
+        break;
+      case FIXED64:
+        accessor.setLong(message, slot, reader.readFixed64());
+        break;
+      case FIXED32:
+        accessor.setInt(message, slot, reader.readFixed32());
+        break;
+      case BOOL:
+        accessor.setBoolean(message, slot, reader.readBool());
+        break;
+      case STRING:
+        accessor.setObject(
+            message, slot, requireUtf8 ? reader.readStringRequireUtf8() : reader.readString());
+        break;
+      case MESSAGE:
+        {
+          Object current = mutableMessageFieldForMerge(message, i);
+          reader.mergeMessageField(current, messageSchema(i), extensionRegistry);
+          storeMessageField(message, i, current);
+          return;
+        }
+      case BYTES:
+        accessor.setObject(message, slot, reader.readBytes());
+        break;
+      case UINT32:
+        accessor.setInt(message, slot, reader.readUInt32());
+        break;
+      case ENUM:
+        {
+          int value = reader.readEnum();
+          EnumVerifier verifier = enumVerifier(i);
+          if (verifier != null && !verifier.isInRange(value)) {
+            getMutableUnknownFields(message)
+                .storeField(
+                    WireFormat.makeTag(numbers[i], WireFormat.WIRETYPE_VARINT), (long) value);
+            return;
+          }
+          accessor.setInt(message, slot, value);
+          break;
+        }
+      case SFIXED32:
+        accessor.setInt(message, slot, reader.readSFixed32());
+        break;
+      case SFIXED64:
+        accessor.setLong(message, slot, reader.readSFixed64());
+        break;
+      case SINT32:
+        accessor.setInt(message, slot, reader.readSInt32());
+        break;
+      case SINT64:
+        accessor.setLong(message, slot, reader.readSInt64());
+        break;
+      case GROUP:
+        {
+          Object current = mutableMessageFieldForMerge(message, i);
+          reader.mergeGroupField(current, messageSchema(i), extensionRegistry);
+          storeMessageField(message, i, current);
+          return;
+        }
+      case MAP:
+        {
+          MapEntryLite<Object, Object> defaultEntry = mapDefaultEntry(i);
+          reader.readMap(mutableMap(message, i), defaultEntry.getMetadata(), extensionRegistry);
+          return;
+        }
+      case GROUP_LIST:
+        reader.readGroupList(
+            (List<Object>) mutableList(message, i), messageSchema(i), extensionRegistry);
+        return;
+      default:
+        readList(message, i, elementType(type), requireUtf8, reader, extensionRegistry);
+        return;
+    }
+    setFieldPresent(message, i);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readList(
+      T message,
+      int i,
+      int elementType,
+      boolean requireUtf8,
+      Reader reader,
+      ExtensionRegistryLite extensionRegistry)
+      throws IOException {
+    ProtobufList<?> list = mutableList(message, i);
+    switch (elementType) {
+      case DOUBLE:
+        reader.readDoubleList((List<Double>) list);
+        break;
+      case FLOAT:
+        reader.readFloatList((List<Float>) list);
+        break;
+      case INT64:
+        reader.readInt64List((List<Long>) list);
+        break;
+      case UINT64:
+        reader.readUInt64List((List<Long>) list);
+        break;
+      case INT32:
+        reader.readInt32List((List<Integer>) list);
+        break;
+      case FIXED64:
+        reader.readFixed64List((List<Long>) list);
+        break;
+      case FIXED32:
+        reader.readFixed32List((List<Integer>) list);
+        break;
+      case BOOL:
+        reader.readBoolList((List<Boolean>) list);
+        break;
+      case STRING:
+        if (requireUtf8) {
+          reader.readStringListRequireUtf8((List<String>) list);
+        } else {
+          reader.readStringList((List<String>) list);
+        }
+        break;
+      case MESSAGE:
+        reader.readMessageList((List<Object>) list, messageSchema(i), extensionRegistry);
+        break;
+      case BYTES:
+        reader.readBytesList((List<ByteString>) list);
+        break;
+      case UINT32:
+        reader.readUInt32List((List<Integer>) list);
+        break;
+      case ENUM:
+        {
+          int start = list.size();
+          reader.readEnumList((List<Integer>) list);
+          EnumVerifier verifier = enumVerifier(i);
+          if (verifier != null) {
+            filterUnknownEnums(message, numbers[i], (IntList) list, start, verifier);
+          }
+          break;
+        }
+      case SFIXED32:
+        reader.readSFixed32List((List<Integer>) list);
+        break;
+      case SFIXED64:
+        reader.readSFixed64List((List<Long>) list);
+        break;
+      case SINT32:
+        reader.readSInt32List((List<Integer>) list);
+        break;
+      default: // SINT64
+        reader.readSInt64List((List<Long>) list);
+        break;
+    }
+  }
+
+  private void readOneof(
+      T message,
+      int i,
+      int scalarType,
+      boolean requireUtf8,
+      Reader reader,
+      ExtensionRegistryLite extensionRegistry)
+      throws IOException {
+    Object value;
+    switch (scalarType) {
+      case DOUBLE:
+        value = reader.readDouble();
+        break;
+      case FLOAT:
+        value = reader.readFloat();
+        break;
+      case INT64:
+        value = reader.readInt64();
+        break;
+      case UINT64:
+        value = reader.readUInt64();
+        break;
+      case INT32:
+        value = reader.readInt32();
+        break;
+      case FIXED64:
+        value = reader.readFixed64();
+        break;
+      case FIXED32:
+        value = reader.readFixed32();
+        break;
+      case BOOL:
+        value = reader.readBool();
+        break;
+      case STRING:
+        value = requireUtf8 ? reader.readStringRequireUtf8() : reader.readString();
+        break;
+      case MESSAGE:
+        value = mutableOneofMessageFieldForMerge(message, i);
+        reader.mergeMessageField(value, messageSchema(i), extensionRegistry);
+        break;
+      case BYTES:
+        value = reader.readBytes();
+        break;
+      case UINT32:
+        value = reader.readUInt32();
+        break;
+      case ENUM:
+        {
+          int enumValue = reader.readEnum();
+          EnumVerifier verifier = enumVerifier(i);
+          if (verifier != null && !verifier.isInRange(enumValue)) {
+            getMutableUnknownFields(message)
+                .storeField(
+                    WireFormat.makeTag(numbers[i], WireFormat.WIRETYPE_VARINT), (long) enumValue);
+            return;
+          }
+          value = enumValue;
+          break;
+        }
+      case SFIXED32:
+        value = reader.readSFixed32();
+        break;
+      case SFIXED64:
+        value = reader.readSFixed64();
+        break;
+      case SINT32:
+        value = reader.readSInt32();
+        break;
+      case SINT64:
+        value = reader.readSInt64();
+        break;
+      default: // GROUP
+        value = mutableOneofMessageFieldForMerge(message, i);
+        reader.mergeGroupField(value, messageSchema(i), extensionRegistry);
+        break;
+    }
+    setOneof(message, i, value);
+  }
+
+  // Parsing from a byte[]
+
+  @Override
+  public void mergeFrom(T message, byte[] data, int position, int limit, Registers registers)
+      throws IOException {
+    parseMessage(message, data, position, limit, 0, registers);
+  }
+
+  /**
+   * Parses fields into the message until {@code limit}, or until {@code endGroup} when parsing the
+   * body of a group. Returns the position after the last field, or after the end group tag.
+   */
+  private int parseMessage(
+      T message, byte[] data, int position, int limit, int endGroup, Registers registers)
+      throws IOException {
+    checkMutable(message);
+    int tag = 0;
+    int hint = 0;
+    while (position < limit) {
+      tag = data[position++];
+      if (tag < 0) {
+        position = decodeVarint32(tag, data, position, registers);
+        tag = registers.int1;
+      }
+      int wireType = tag & 7;
+      int i = positionForFieldNumber(tag >>> 3, hint);
+      if (i >= 0 && acceptsWireType(type(types[i]), wireType)) {
+        hint = i + 1;
+        position = parseField(message, i, tag, data, position, limit, registers);
+        continue;
+      }
+      if (tag == endGroup && endGroup != 0) {
+        break;
+      }
+      position =
+          decodeUnknownField(
+              tag, data, position, limit, getMutableUnknownFields(message), registers);
+    }
+    if (endGroup == 0) {
+      if (position != limit) {
+        throw InvalidProtocolBufferException.parseFailure();
+      }
+    } else if (position > limit || tag != endGroup) {
+      throw InvalidProtocolBufferException.parseFailure();
+    }
+    return position;
+  }
+
+  @SuppressWarnings("unchecked")
+  private int parseField(
+      T message, int i, int tag, byte[] data, int position, int limit, Registers registers)
+      throws IOException {
+    int typeWithExtraBits = types[i];
+    int type = type(typeWithExtraBits);
+    int slot = slots[i];
+    boolean requireUtf8 = (typeWithExtraBits & UTF8_CHECK_BIT) != 0;
+    if (type >= FIRST_ONEOF) {
+      return parseOneof(
+          message, i, type - FIRST_ONEOF, tag, requireUtf8, data, position, limit, registers);
+    }
+    switch (type) {
+      case DOUBLE:
+        accessor.setDouble(message, slot, decodeDouble(data, position));
+        position += 8;
+        break;
+      case FLOAT:
+        accessor.setFloat(message, slot, decodeFloat(data, position));
+        position += 4;
+        break;
+      case INT64:
+      case UINT64:
+        position = decodeVarint64(data, position, registers);
+        accessor.setLong(message, slot, registers.long1);
+        break;
+      case INT32:
+      case UINT32:
+        position = decodeVarint32(data, position, registers);
+        accessor.setInt(message, slot, registers.int1);
+        break;
+      case FIXED64:
+      case SFIXED64:
+        accessor.setLong(message, slot, decodeFixed64(data, position));
+        position += 8;
+        break;
+      case FIXED32:
+      case SFIXED32:
+        accessor.setInt(message, slot, decodeFixed32(data, position));
+        position += 4;
+        break;
+      case BOOL:
+        position = decodeVarint64(data, position, registers);
+        accessor.setBoolean(message, slot, registers.long1 != 0);
+        break;
+      case STRING:
+        position =
+            requireUtf8
+                ? decodeStringRequireUtf8(data, position, registers)
+                : decodeString(data, position, registers);
+        accessor.setObject(message, slot, registers.object1);
+        break;
+      case MESSAGE:
+        {
+          Object current = mutableMessageFieldForMerge(message, i);
+          position = mergeMessageField(current, messageSchema(i), data, position, limit, registers);
+          storeMessageField(message, i, current);
+          return position;
+        }
+      case BYTES:
+        position = decodeBytes(data, position, registers);
+        accessor.setObject(message, slot, registers.object1);
+        break;
+      case ENUM:
+        {
+          position = decodeVarint32(data, position, registers);
+          EnumVerifier verifier = enumVerifier(i);
+          if (verifier != null && !verifier.isInRange(registers.int1)) {
+            getMutableUnknownFields(message).storeField(tag, (long) registers.int1);
+            return position;
+          }
+          accessor.setInt(message, slot, registers.int1);
+          break;
+        }
+      case SINT32:
+        position = decodeVarint32(data, position, registers);
+        accessor.setInt(message, slot, CodedInputStream.decodeZigZag32(registers.int1));
+        break;
+      case SINT64:
+        position = decodeVarint64(data, position, registers);
+        accessor.setLong(message, slot, CodedInputStream.decodeZigZag64(registers.long1));
+        break;
+      case GROUP:
+        {
+          Object current = mutableMessageFieldForMerge(message, i);
+          position = parseGroup(current, i, tag, data, position, limit, registers);
+          storeMessageField(message, i, current);
+          return position;
+        }
+      case MAP:
+        {
+          // Map entries are rare enough on the wire to go through a CodedInputStream
+          MapEntryLite<Object, Object> defaultEntry = mapDefaultEntry(i);
+          CodedInputStream input = CodedInputStream.newInstance(data, position, limit - position);
+          defaultEntry.parseInto(mutableMap(message, i), input, registers.extensionRegistry);
+          return position + input.getTotalBytesRead();
+        }
+      case GROUP_LIST:
+        {
+          ProtobufList<Object> list = (ProtobufList<Object>) mutableList(message, i);
+          Schema<Object> schema = messageSchema(i);
+          while (true) {
+            Object group = schema.newInstance();
+            position = parseGroup(group, i, tag, data, position, limit, registers);
+            schema.makeImmutable(group);
+            list.add(group);
+            if (position >= limit) {
+              break;
+            }
+            int nextPosition = decodeVarint32(data, position, registers);
+            if (registers.int1 != tag) {
+              break;
+            }
+            position = nextPosition;
+          }
+          return position;
+        }
+      default:
+        return parseList(message, i, type, tag, requireUtf8, data, position, limit, registers);
+    }
+    setFieldPresent(message, i);
+    return position;
+  }
+
+  private int parseList(
+      T message,
+      int i,
+      int type,
+      int tag,
+      boolean requireUtf8,
+      byte[] data,
+      int position,
+      int limit,
+      Registers registers)
+      throws IOException {
+    ProtobufList<?> list = mutableList(message, i);
+    int elementType = elementType(type);
+    int start = list.size();
+    if ((tag & 7) == WireFormat.WIRETYPE_LENGTH_DELIMITED && isPackable(elementType)) {
+      switch (elementType) {
+        case DOUBLE:
+          position = decodePackedDoubleList(data, position, list, registers);
+          break;
+        case FLOAT:
+          position = decodePackedFloatList(data, position, list, registers);
+          break;
+        case INT64:
+        case UINT64:
+          position = decodePackedVarint64List(data, position, list, registers);
+          break;
+        case FIXED64:
+        case SFIXED64:
+          position = decodePackedFixed64List(data, position, list, registers);
+          break;
+        case FIXED32:
+        case SFIXED32:
+          position = decodePackedFixed32List(data, position, list, registers);
+          break;
+        case BOOL:
+          position = decodePackedBoolList(data, position, list, registers);
+          break;
+        case SINT32:
+          position = decodePackedSInt32List(data, position, list, registers);
+          break;
+        case SINT64:
+          position = decodePackedSInt64List(data, position, list, registers);
+          break;
+        default: // INT32, UINT32, ENUM
+          position = decodePackedVarint32List(data, position, list, registers);
+          break;
+      }
+    } else {
+      switch (elementType) {
+        case DOUBLE:
+          position = decodeDoubleList(tag, data, position, limit, list, registers);
+          break;
+        case FLOAT:
+          position = decodeFloatList(tag, data, position, limit, list, registers);
+          break;
+        case INT64:
+        case UINT64:
+          position = decodeVarint64List(tag, data, position, limit, list, registers);
+          break;
+        case FIXED64:
+        case SFIXED64:
+          position = decodeFixed64List(tag, data, position, limit, list, registers);
+          break;
+        case FIXED32:
+        case SFIXED32:
+          position = decodeFixed32List(tag, data, position, limit, list, registers);
+          break;
+        case BOOL:
+          position = decodeBoolList(tag, data, position, limit, list, registers);
+          break;
+        case STRING:
+          position =
+              requireUtf8
+                  ? decodeStringListRequireUtf8(tag, data, position, limit, list, registers)
+                  : decodeStringList(tag, data, position, limit, list, registers);
+          break;
+        case MESSAGE:
+          position =
+              decodeMessageList(messageSchema(i), tag, data, position, limit, list, registers);
+          break;
+        case BYTES:
+          position = decodeBytesList(tag, data, position, limit, list, registers);
+          break;
+        case SINT32:
+          position = decodeSInt32List(tag, data, position, limit, list, registers);
+          break;
+        case SINT64:
+          position = decodeSInt64List(tag, data, position, limit, list, registers);
+          break;
+        default: // INT32, UINT32, ENUM
+          position = decodeVarint32List(tag, data, position, limit, list, registers);
+          break;
+      }
+    }
+    if (elementType == ENUM && extras[i] != null) {
+      filterUnknownEnums(message, numbers[i], (IntList) list, start, enumVerifier(i));
+    }
+    return position;
+  }
+
+  private int parseOneof(
+      T message,
+      int i,
+      int scalarType,
+      int tag,
+      boolean requireUtf8,
+      byte[] data,
+      int position,
+      int limit,
+      Registers registers)
+      throws IOException {
+    Object value;
+    switch (scalarType) {
+      case DOUBLE:
+        value = decodeDouble(data, position);
+        position += 8;
+        break;
+      case FLOAT:
+        value = decodeFloat(data, position);
+        position += 4;
+        break;
+      case INT64:
+      case UINT64:
+        position = decodeVarint64(data, position, registers);
+        value = registers.long1;
+        break;
+      case INT32:
+      case UINT32:
+        position = decodeVarint32(data, position, registers);
+        value = registers.int1;
+        break;
+      case FIXED64:
+      case SFIXED64:
+        value = decodeFixed64(data, position);
+        position += 8;
+        break;
+      case FIXED32:
+      case SFIXED32:
+        value = decodeFixed32(data, position);
+        position += 4;
+        break;
+      case BOOL:
+        position = decodeVarint64(data, position, registers);
+        value = registers.long1 != 0;
+        break;
+      case STRING:
+        position =
+            requireUtf8
+                ? decodeStringRequireUtf8(data, position, registers)
+                : decodeString(data, position, registers);
+        value = registers.object1;
+        break;
+      case MESSAGE:
+        value = mutableOneofMessageFieldForMerge(message, i);
+        position = mergeMessageField(value, messageSchema(i), data, position, limit, registers);
+        break;
+      case BYTES:
+        position = decodeBytes(data, position, registers);
+        value = registers.object1;
+        break;
+      case ENUM:
+        {
+          position = decodeVarint32(data, position, registers);
+          EnumVerifier verifier = enumVerifier(i);
+          if (verifier != null && !verifier.isInRange(registers.int1)) {
+            getMutableUnknownFields(message).storeField(tag, (long) registers.int1);
+            return position;
+          }
+          value = registers.int1;
+          break;
+        }
+      case SINT32:
+        position = decodeVarint32(data, position, registers);
+        value = CodedInputStream.decodeZigZag32(registers.int1);
+        break;
+      case SINT64:
+        position = decodeVarint64(data, position, registers);
+        value = CodedInputStream.decodeZigZag64(registers.long1);
+        break;
+      default: // GROUP
+        value = mutableOneofMessageFieldForMerge(message, i);
+        position = parseGroup(value, i, tag, data, position, limit, registers);
+        break;
+    }
+    setOneof(message, i, value);
+    return position;
+  }
+
+  /** Parses the body of the group field {@code i} into {@code group}, through its end tag. */
+  @SuppressWarnings("unchecked")
+  private int parseGroup(
+      Object group, int i, int tag, byte[] data, int position, int limit, Registers registers)
+      throws IOException {
+    LiteMessageSchema<Object> schema = (LiteMessageSchema<Object>) messageSchema(i);
+    int endGroup = (tag & ~7) | WireFormat.WIRETYPE_END_GROUP;
+    // ArrayDecoders' own limit is private, so groups are held to the default one
+    if (++registers.recursionDepth >= ArrayDecoders.DEFAULT_RECURSION_LIMIT) {
+      throw InvalidProtocolBufferException.recursionLimitExceeded();
+    }
+    position = schema.parseMessage(group, data, position, limit, endGroup, registers);
+    registers.recursionDepth--;
+    return position;
+  }
+}
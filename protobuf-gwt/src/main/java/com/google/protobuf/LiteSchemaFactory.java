@@ -0,0 +1,46 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+
+package com.google.protobuf;
+
+import com.google.protobuf.gwt.MessageFieldAccessor;
+
+/**
+ * Replaces {@code ManifestSchemaFactory}, creating a {@link LiteMessageSchema} for each lite
+ * message type from the message info of its default instance and the {@link MessageFieldAccessor}
+ * registered for the class.
+ */
+@CheckReturnValue
+final class LiteSchemaFactory implements SchemaFactory {
+
+  @Override
+  public <T> Schema<T> createSchema(Class<T> messageType) {
+    MessageFieldAccessor<T> accessor = MessageFieldAccessor.forClass(messageType);
+    if (accessor == null) {
+      throw new IllegalArgumentException(
+          "No MessageFieldAccessor registered for " + messageType.getName());
+    }
+    GeneratedMessageLite<?, ?> defaultInstance =
+        GeneratedMessageLite.defaultInstanceFor(messageType);
+    if (defaultInstance == null) {
+      throw new IllegalArgumentException(
+          "No default instance registered for " + messageType.getName());
+    }
+    Object messageInfo;
+    try {
+      messageInfo = defaultInstance.buildMessageInfo();
+    } catch (Exception e) {
+      throw new RuntimeException("Unable to get message info for " + messageType.getName(), e);
+    }
+    if (!(messageInfo instanceof RawMessageInfo)) {
+      throw new IllegalArgumentException(
+          "Unsupported message info for " + messageType.getName() + ": " + messageInfo);
+    }
+    return LiteMessageSchema.newSchema((RawMessageInfo) messageInfo, accessor);
+  }
+}
@@ -62,7 +62,8 @@ public class MapFieldBuilder<
     Class<?> valueClass = converter.defaultEntry().getValue().getClass();
     for (Message entry : messageList) {
       MapEntry<KeyT, ?> typedEntry = (MapEntry<KeyT, ?>) entry;
-      if (false) {
+      // Class.isInstance() isn't available in GWT, but generated message classes are final
+      if (typedEntry.getValue().getClass() == valueClass) {
         list.add((MapEntry<KeyT, MessageT>) typedEntry);
       } else {
         // This needs to use mergeFrom to allow MapEntry<KeyT, DynamicMessage> to be used.
@@ -92,6 +92,6 @@ final class Protobuf {
   }
 
   private Protobuf() {
-    schemaFactory = null;
+    schemaFactory = new LiteSchemaFactory();
   }
 }
@@ -479,5 +479,82 @@ private static final long serialVersionUID = 0L;
     return DEFAULT_INSTANCE;
   }
 
+  private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<StringValue, StringValue.Builder> {
+    @java.lang.Override
+    public java.lang.Object get(StringValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object get(StringValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.getValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object getRaw(StringValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.getValueBytes();
+        default:
+          return get(message, fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(StringValue message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return !message.getValue().isEmpty();
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(StringValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return !builder.getValue().isEmpty();
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void set(StringValue.Builder builder, int fieldIndex, java.lang.Object value) {
+      switch (fieldIndex) {
+        case 0:
+          builder.setValue((java.lang.String) value);
+          break;
+        default:
+          throw unsupported("set", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void clear(StringValue.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          builder.clearValue();
+          break;
+        default:
+          throw unsupported("clear", fieldIndex);
+      }
+    }
+  }
+
+  static {
+    com.google.protobuf.gwt.MessageReflectionAccessor.register(StringValue.class, new GwtReflectionAccessor());
+  }
 }
 
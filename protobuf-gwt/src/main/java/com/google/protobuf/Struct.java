@@ -634,5 +634,68 @@ com.google.protobuf.Value defaultValue) {
     return DEFAULT_INSTANCE;
   }
 
+  private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<Struct, Struct.Builder> {
+    @java.lang.Override
+    public java.lang.Object get(Struct message, int fieldIndex) {
+      switch (fieldIndex) {
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object get(Struct.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(Struct message, int fieldIndex) {
+      switch (fieldIndex) {
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(Struct.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void set(Struct.Builder builder, int fieldIndex, java.lang.Object value) {
+      switch (fieldIndex) {
+        default:
+          throw unsupported("set", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void clear(Struct.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        default:
+          throw unsupported("clear", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return FieldsDefaultEntryHolder.defaultEntry.newBuilderForType();
+        default:
+          return super.newBuilder(fieldIndex);
+      }
+    }
+  }
+
+  static {
+    com.google.protobuf.gwt.MessageReflectionAccessor.register(Struct.class, new GwtReflectionAccessor());
+  }
 }
 
@@ -0,0 +1,276 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+
+package com.google.protobuf;
+
+import static java.lang.Math.max;
+
+import com.google.protobuf.gwt.TypedArrays;
+import elemental2.core.ArrayBuffer;
+import elemental2.core.Int8Array;
+import elemental2.core.TypedArray;
+import java.io.IOException;
+import java.util.RandomAccess;
+
+/**
+ * The shared part of the primitive lists that keep their elements in a JS typed array, rather than
+ * in a Java primitive array. In the browser a {@code double[]} or {@code int[]} is a plain JS array
+ * of numbers, so a typed array holds the same elements in far less memory, grows with one native
+ * copy, and can be handed to JS code as a view without copying.
+ *
+ * <p>Elements are passed to and from the typed array as {@code double}, which holds every value of
+ * the element types exactly. Subclasses add the unboxed accessors of their {@code Internal} list
+ * interface on top of these. A list whose elements each take more than one entry of the array,
+ * like {@link Int32PairArrayList}, accesses the entries itself, and only shares the storage,
+ * aliasing and copy-on-write handling.
+ */
+abstract class TypedArrayList<E> extends AbstractProtobufList<E>
+    implements RandomAccess, PrimitiveNonBoxingCollection {
+
+  /** The backing store for the list, which may be longer than the list. */
+  TypedArray array;
+
+  /**
+   * The size of the list distinct from the length of the array. That is, it is the number of
+   * elements set in the list.
+   */
+  int size;
+
+  /** The number of entries of {@link #array} that hold each element. */
+  private final int stride;
+
+  /**
+   * Whether {@link #array} is a view of the input the list was parsed from, rather than a copy. See
+   * {@link #addAllAliased}.
+   */
+  private boolean aliased;
+
+  TypedArrayList(TypedArray array, int size, boolean isMutable) {
+    this(array, 1, size, isMutable);
+  }
+
+  TypedArrayList(TypedArray array, int stride, int size, boolean isMutable) {
+    super(isMutable);
+    this.array = array;
+    this.stride = stride;
+    this.size = size;
+  }
+
+  /** Creates a typed array of the element type, with the given length. */
+  abstract TypedArray newArray(int length);
+
+  /** Creates a typed array of the element type over the given range of a buffer. */
+  abstract TypedArray newView(ArrayBuffer buffer, int byteOffset, int length);
+
+  /**
+   * Returns the hash code of the boxed element at {@code index}, as {@link java.util.List#hashCode()}
+   * needs.
+   */
+  abstract int hashElement(int index);
+
+  /** Returns a new typed array of the given capacity, holding the elements of this list. */
+  final TypedArray copyOf(int capacity) {
+    if (capacity < size) {
+      throw new IllegalArgumentException();
+    }
+    TypedArray copy = newArray(capacity * stride);
+    if (size != 0) {
+      copy.set(array.subarray(0, size * stride), 0);
+    }
+    return copy;
+  }
+
+  /** Returns a view of the elements of this list, sharing the backing typed array. */
+  final TypedArray view() {
+    return array.subarray(0, size * stride);
+  }
+
+  // The element accessors below are for lists that keep each element in a single entry
+
+  final double getElement(int index) {
+    ensureIndexInRange(index);
+    return array.getAt(index);
+  }
+
+  final double setElement(int index, double element) {
+    ensureIsMutable();
+    ensureIndexInRange(index);
+    double previousValue = array.getAt(index);
+    array.setAt(index, element);
+    return previousValue;
+  }
+
+  final void addElement(double element) {
+    ensureIsMutable();
+    if (size == array.length) {
+      ensureCapacity(size + 1);
+    }
+    array.setAt(size++, element);
+    modCount++;
+  }
+
+  final void addElement(int index, double element) {
+    ensureIsMutable();
+    if (index < 0 || index > size) {
+      throw new IndexOutOfBoundsException(makeOutOfBoundsExceptionMessage(index));
+    }
+    ensureCapacity(size + 1);
+    if (index < size) {
+      // Shift everything over to make room
+      array.copyWithin(index + 1, index, size);
+    }
+    array.setAt(index, element);
+    size++;
+    modCount++;
+  }
+
+  final double removeElement(int index) {
+    ensureIsMutable();
+    ensureIndexInRange(index);
+    double value = array.getAt(index);
+    if (index < size - 1) {
+      array.copyWithin(index, index + 1, size);
+    }
+    size--;
+    modCount++;
+    return value;
+  }
+
+  /**
+   * Appends {@code count} elements of {@code elementSize} bytes, the body of a packed field, from an
+   * input with aliasing enabled, without decoding them. If the list is empty and the entries are
+   * aligned in the input's buffer, the list simply becomes a view of them, and only copies them out
+   * once it is first changed. Otherwise they are copied in with a single byte copy. Returns false,
+   * having read nothing, if the input can't alias its buffer.
+   *
+   * @see CodedInputStream#enableAliasing(boolean)
+   */
+  final boolean addAllAliased(CodedInputStream input, int count, int elementSize)
+      throws IOException {
+    final Int8Array bytes = input.readRawBytesAliased(count * elementSize);
+    if (bytes == null) {
+      return false;
+    }
+    if (size == 0 && bytes.byteOffset % (elementSize / stride) == 0) {
+      array = newView(bytes.buffer, bytes.byteOffset, count * stride);
+      aliased = true;
+    } else {
+      ensureCapacity(size + count);
+      TypedArrays.copyBytes(bytes, 0, array, size * elementSize, bytes.length);
+    }
+    size += count;
+    modCount++;
+    return true;
+  }
+
+  /** Appends the elements of another list of the same type with one native copy. */
+  final boolean addAllElements(TypedArrayList<?> list) {
+    ensureIsMutable();
+    if (list.size == 0) {
+      return false;
+    }
+
+    int overflow = Integer.MAX_VALUE / stride - size;
+    if (overflow < list.size) {
+      // We can't actually represent a list this large.
+      throw new OutOfMemoryError();
+    }
+
+    ensureCapacity(size + list.size);
+    array.set(list.array.subarray(0, list.size * stride), size * stride);
+    size += list.size;
+    modCount++;
+    return true;
+  }
+
+  protected void removeRange(int fromIndex, int toIndex) {
+    ensureIsMutable();
+    if (toIndex < fromIndex) {
+      throw new IndexOutOfBoundsException("toIndex < fromIndex");
+    }
+
+    array.copyWithin(fromIndex * stride, toIndex * stride, size * stride);
+    size -= (toIndex - fromIndex);
+    modCount++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  @Override
+  protected void ensureIsMutable() {
+    super.ensureIsMutable();
+    if (aliased) {
+      // Copy the elements out of the input they were parsed from before they are first changed
+      array = copyOf(array.length / stride);
+      aliased = false;
+    }
+  }
+
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || o.getClass() != getClass()) {
+      return super.equals(o);
+    }
+    TypedArrayList<?> other = (TypedArrayList<?>) o;
+    if (size != other.size) {
+      return false;
+    }
+
+    // Compare the way the boxed elements would, where NaN equals itself and 0.0 doesn't equal -0.0.
+    TypedArray arr = other.array;
+    for (int i = 0; i < size * stride; i++) {
+      if (Double.compare(array.getAt(i), arr.getAt(i)) != 0) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      result = (31 * result) + hashElement(i);
+    }
+    return result;
+  }
+
+  /** Ensures the backing array can fit at least minCapacity elements. */
+  final void ensureCapacity(int minCapacity) {
+    int capacity = array.length / stride;
+    if (minCapacity <= capacity) {
+      return;
+    }
+    // As in the primitive array lists, grow exponentially to avoid quadratic copying.
+    int n = capacity == 0 ? max(minCapacity, DEFAULT_CAPACITY) : capacity;
+    while (n < minCapacity) {
+      n = max(((n * 3) / 2) + 1, DEFAULT_CAPACITY);
+    }
+    array = copyOf(n);
+  }
+
+  /**
+   * Ensures that the provided {@code index} is within the range of {@code [0, size]}. Throws an
+   * {@link IndexOutOfBoundsException} if it is not.
+   *
+   * @param index the index to verify is in range
+   */
+  final void ensureIndexInRange(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(makeOutOfBoundsExceptionMessage(index));
+    }
+  }
+
+  final String makeOutOfBoundsExceptionMessage(int index) {
+    return "Index:" + index + ", Size:" + size;
+  }
+}
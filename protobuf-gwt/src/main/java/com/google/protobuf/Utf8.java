@@ -19,6 +19,13 @@ import static java.lang.Character.isSurrogatePair;
 import static java.lang.Character.toCodePoint;
 
 import com.google.protobuf.gwt.SafeUtil;
+import com.google.protobuf.gwt.TextDecoder;
+import com.google.protobuf.gwt.TextEncoder;
+import com.google.protobuf.gwt.TypedArrays;
+import elemental2.core.ArrayBufferView;
+import elemental2.core.Int8Array;
+import elemental2.core.JsRegExp;
+import elemental2.core.Uint8Array;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
@@ -59,7 +66,8 @@ final class Utf8 {
    * depending on what is available on the platform. The processor is the platform-optimized
    * delegate for which all methods are delegated directly to.
    */
-  private static final Processor processor = new SafeProcessor();
+  private static final Processor processor =
+      TextDecoderProcessor.isAvailable() ? new TextDecoderProcessor() : new SafeProcessor();
 
   /**
    * A mask used when performing unsafe reads to determine if a long value contains any non-ASCII
@@ -316,6 +324,32 @@ final class Utf8 {
     return processor.decodeUtf8(bytes, index, size);
   }
 
+  /**
+   * Decodes the given UTF-8 portion of the typed array into a {@link String}.
+   *
+   * @throws InvalidProtocolBufferException if the input is not valid UTF-8.
+   */
+  static String decodeUtf8(Int8Array bytes, int index, int size)
+      throws InvalidProtocolBufferException {
+    return processor.decodeUtf8(bytes, index, size);
+  }
+
+  /**
+   * Decodes the given UTF-8 encoded byte array slice into a {@link String}, replacing malformed
+   * input in the same way as {@code new String(bytes, index, size, UTF_8)}.
+   */
+  static String decodeUtf8Lossy(byte[] bytes, int index, int size) {
+    return processor.decodeUtf8Lossy(bytes, index, size);
+  }
+
+  /**
+   * Decodes the given UTF-8 portion of the typed array into a {@link String}, replacing malformed
+   * input in the same way as {@code new String(bytes, index, size, UTF_8)}.
+   */
+  static String decodeUtf8Lossy(Int8Array bytes, int index, int size) {
+    return processor.decodeUtf8Lossy(bytes, index, size);
+  }
+
   /**
    * Encodes the given characters to the target {@link ByteBuffer} using UTF-8 encoding.
    *
@@ -592,6 +626,29 @@ final class Utf8 {
     abstract String decodeUtf8(byte[] bytes, int index, int size)
         throws InvalidProtocolBufferException;
 
+    /**
+     * Decodes the given portion of the typed array into a {@link String}.
+     *
+     * @throws InvalidProtocolBufferException if the portion of the array is not valid UTF-8
+     */
+    String decodeUtf8(Int8Array bytes, int index, int size)
+        throws InvalidProtocolBufferException {
+      return decodeUtf8(TypedArrays.copyOfRange(bytes, index, index + size), 0, size);
+    }
+
+    /** Decodes the given byte array slice into a {@link String}, replacing malformed input. */
+    String decodeUtf8Lossy(byte[] bytes, int index, int size) {
+      return new String(bytes, index, size, Internal.UTF_8);
+    }
+
+    /**
+     * Decodes the given portion of the typed array into a {@link String}, replacing malformed
+     * input.
+     */
+    String decodeUtf8Lossy(Int8Array bytes, int index, int size) {
+      return new String(TypedArrays.copyOfRange(bytes, index, index + size), Internal.UTF_8);
+    }
+
     /**
      * Decodes the given portion of the {@link ByteBuffer} into a {@link String}.
      *
@@ -1132,6 +1189,206 @@ final class Utf8 {
     }
   }
 
+  /**
+   * {@link Processor} for browsers that decodes with the native {@link TextDecoder}, rather than
+   * building each string a char at a time. Short strings, which are most often ASCII, are left to
+   * {@link SafeProcessor}, whose loop costs less than a call into the browser. Validation and
+   * encoding are also left to {@link SafeProcessor}.
+   */
+  static final class TextDecoderProcessor extends Processor {
+    /** Strings shorter than this many bytes are decoded by {@link SafeProcessor}. */
+    private static final int SHORT_STRING_SIZE = 32;
+
+    private final SafeProcessor safeProcessor = new SafeProcessor();
+    private final TextDecoder strictDecoder = TextDecoder.createUtf8(true);
+    private final TextDecoder lossyDecoder = TextDecoder.createUtf8(false);
+
+    /** Returns true if this platform provides a {@link TextDecoder}. */
+    static boolean isAvailable() {
+      return TextDecoder.isSupported();
+    }
+
+    int partialIsValidUtf8(int state, byte[] bytes, int index, int limit) {
+      return safeProcessor.partialIsValidUtf8(state, bytes, index, limit);
+    }
+
+    int partialIsValidUtf8Direct(int state, ByteBuffer buffer, int index, int limit) {
+      return safeProcessor.partialIsValidUtf8Direct(state, buffer, index, limit);
+    }
+
+    String decodeUtf8(byte[] bytes, int index, int size) throws InvalidProtocolBufferException {
+      if (size < SHORT_STRING_SIZE) {
+        return safeProcessor.decodeUtf8(bytes, index, size);
+      }
+      return decodeStrict(copyOfRange(bytes, index, size));
+    }
+
+    String decodeUtf8(Int8Array bytes, int index, int size)
+        throws InvalidProtocolBufferException {
+      if (size < SHORT_STRING_SIZE) {
+        return super.decodeUtf8(bytes, index, size);
+      }
+      return decodeStrict(bytes.subarray(index, index + size));
+    }
+
+    String decodeUtf8Lossy(byte[] bytes, int index, int size) {
+      if (size < SHORT_STRING_SIZE) {
+        return super.decodeUtf8Lossy(bytes, index, size);
+      }
+      return lossyDecoder.decode(copyOfRange(bytes, index, size));
+    }
+
+    String decodeUtf8Lossy(Int8Array bytes, int index, int size) {
+      if (size < SHORT_STRING_SIZE) {
+        return super.decodeUtf8Lossy(bytes, index, size);
+      }
+      return lossyDecoder.decode(bytes.subarray(index, index + size));
+    }
+
+    String decodeUtf8Direct(ByteBuffer buffer, int index, int size)
+        throws InvalidProtocolBufferException {
+      return safeProcessor.decodeUtf8Direct(buffer, index, size);
+    }
+
+    int encodeUtf8(String in, byte[] out, int offset, int length) {
+      return safeProcessor.encodeUtf8(in, out, offset, length);
+    }
+
+    void encodeUtf8Direct(String in, ByteBuffer out) {
+      safeProcessor.encodeUtf8Direct(in, out);
+    }
+
+    private String decodeStrict(ArrayBufferView bytes) throws InvalidProtocolBufferException {
+      try {
+        return strictDecoder.decode(bytes);
+      } catch (RuntimeException e) {
+        // A TypeError from the browser, as the decoder is fatal
+        throw InvalidProtocolBufferException.invalidUtf8();
+      }
+    }
+
+    private static Int8Array copyOfRange(byte[] bytes, int index, int size) {
+      // Bitwise OR combines the sign bits so any negative value fails the check.
+      if ((index | size | bytes.length - index - size) < 0) {
+        throw new ArrayIndexOutOfBoundsException(
+            "buffer length=" + bytes.length + ", index=" + index + ", size=" + size + "");
+      }
+      return TypedArrays.copyOfRange(bytes, index, index + size);
+    }
+  }
+
+  /**
+   * Encodes long strings with the browser's native {@link TextEncoder}, which produces the bytes
+   * and their count in one call, where {@link #encodedLength} and {@link #encode} would each walk
+   * the string. Strings are encoded either directly into the caller's typed array with {@link
+   * #encodeInto}, or into a scratch buffer with {@link #encode}, so that the caller can write the
+   * length before copying the bytes into its own buffer with {@code copyEncoded}.
+   */
+  static final class TextEncoderBuffer {
+    /** Strings shorter than this many chars are left to {@link #encode}. */
+    private static final int SHORT_STRING_SIZE = 32;
+
+    /** Scratch buffers larger than this many bytes are not kept for the next string. */
+    private static final int MAX_RETAINED_SIZE = 64 * 1024;
+
+    private static final TextEncoder encoder =
+        TextEncoder.isSupported() ? new TextEncoder() : null;
+
+    /**
+     * Matches a high surrogate not followed by a low surrogate, or a low surrogate not preceded by a
+     * high surrogate. The browser would encode either as U+FFFD rather than reporting it.
+     */
+    private static final JsRegExp UNPAIRED_SURROGATE =
+        new JsRegExp(
+            "[\\uD800-\\uDBFF](?![\\uDC00-\\uDFFF])|(?:^|[^\\uD800-\\uDBFF])[\\uDC00-\\uDFFF]");
+
+    private static Uint8Array scratch = new Uint8Array(SHORT_STRING_SIZE * MAX_BYTES_PER_CHAR);
+    private static Uint8Array encoded;
+    private static int encodedLength;
+
+    /** Returns true if the given string should be encoded with this class. */
+    static boolean shouldEncode(String in) {
+      return encoder != null && in.length() >= SHORT_STRING_SIZE;
+    }
+
+    /**
+     * Encodes the string into {@code dest} starting at {@code index}, returning the number of bytes
+     * written. The caller must ensure there is room for {@link #MAX_BYTES_PER_CHAR} bytes per char.
+     *
+     * @throws UnpairedSurrogateException if the string contains an unpaired surrogate
+     */
+    static int encodeInto(String in, Uint8Array dest, int index) {
+      checkWellFormed(in);
+      return encoder
+          .encodeInto(in, new Uint8Array(dest.buffer, dest.byteOffset + index, dest.length - index))
+          .written;
+    }
+
+    /**
+     * Encodes the string into the scratch buffer, returning the number of bytes it encodes to.
+     *
+     * @throws UnpairedSurrogateException if the string contains an unpaired surrogate
+     */
+    static int encode(String in) {
+      checkWellFormed(in);
+      final int maxLength = in.length() * MAX_BYTES_PER_CHAR;
+      Uint8Array dest = scratch;
+      if (dest.length < maxLength) {
+        dest = new Uint8Array(maxLength);
+        if (maxLength <= MAX_RETAINED_SIZE) {
+          scratch = dest;
+        }
+      }
+      encoded = dest;
+      encodedLength = encoder.encodeInto(in, dest).written;
+      return encodedLength;
+    }
+
+    /**
+     * Copies the bytes of the last string passed to {@link #encode} into {@code out}, returning the
+     * position after them.
+     *
+     * @throws ArrayIndexOutOfBoundsException if {@code out} does not have room for the bytes
+     */
+    static int copyEncoded(String in, byte[] out, int offset, int length) {
+      if (encodedLength > length) {
+        throw new ArrayIndexOutOfBoundsException(
+            "Failed writing " + in.length() + " chars at index " + (offset + length));
+      }
+      final Uint8Array src = encoded;
+      final int count = encodedLength;
+      for (int i = 0; i < count; i++) {
+        out[offset + i] = src.getAt(i).byteValue();
+      }
+      if (encoded != scratch) {
+        encoded = null;
+      }
+      return offset + count;
+    }
+
+    /**
+     * Copies the bytes of the last string passed to {@link #encode} into {@code dest} starting at
+     * {@code index}, which must have room for them, returning the position after them.
+     */
+    static int copyEncoded(Uint8Array dest, int index) {
+      final int count = encodedLength;
+      dest.set(encoded.subarray(0, count), index);
+      if (encoded != scratch) {
+        encoded = null;
+      }
+      return index + count;
+    }
+
+    private static void checkWellFormed(String in) {
+      if (UNPAIRED_SURROGATE.test(in)) {
+        // Walk the string to report where the surrogate is
+        Utf8.encodedLength(in);
+      }
+    }
+
+    private TextEncoderBuffer() {}
+  }
+
   /**
    * Utility methods for decoding bytes into {@link String}. Callers are responsible for extracting
    * bytes (possibly using Unsafe methods), and checking remaining bytes. All other UTF-8 validity
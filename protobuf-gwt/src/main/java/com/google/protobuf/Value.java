@@ -1294,5 +1294,207 @@ private static final long serialVersionUID = 0L;
     return DEFAULT_INSTANCE;
   }
 
+  private static final class GwtReflectionAccessor extends com.google.protobuf.gwt.MessageReflectionAccessor<Value, Value.Builder> {
+    @java.lang.Override
+    public java.lang.Object get(Value message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return enumValue(com.google.protobuf.NullValue.getDescriptor(), message.getNullValueValue());
+        case 1:
+          return message.getNumberValue();
+        case 2:
+          return message.getStringValue();
+        case 3:
+          return message.getBoolValue();
+        case 4:
+          return message.getStructValue();
+        case 5:
+          return message.getListValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object get(Value.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return enumValue(com.google.protobuf.NullValue.getDescriptor(), builder.getNullValueValue());
+        case 1:
+          return builder.getNumberValue();
+        case 2:
+          return builder.getStringValue();
+        case 3:
+          return builder.getBoolValue();
+        case 4:
+          return builder.getStructValue();
+        case 5:
+          return builder.getListValue();
+        default:
+          throw unsupported("get", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public java.lang.Object getRaw(Value message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 2:
+          return message.getStringValueBytes();
+        default:
+          return get(message, fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(Value message, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return message.hasNullValue();
+        case 1:
+          return message.hasNumberValue();
+        case 2:
+          return message.hasStringValue();
+        case 3:
+          return message.hasBoolValue();
+        case 4:
+          return message.hasStructValue();
+        case 5:
+          return message.hasListValue();
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public boolean has(Value.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          return builder.hasNullValue();
+        case 1:
+          return builder.hasNumberValue();
+        case 2:
+          return builder.hasStringValue();
+        case 3:
+          return builder.hasBoolValue();
+        case 4:
+          return builder.hasStructValue();
+        case 5:
+          return builder.hasListValue();
+        default:
+          throw unsupported("has", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void set(Value.Builder builder, int fieldIndex, java.lang.Object value) {
+      switch (fieldIndex) {
+        case 0:
+          builder.setNullValueValue(enumNumber(value));
+          break;
+        case 1:
+          builder.setNumberValue((java.lang.Double) value);
+          break;
+        case 2:
+          builder.setStringValue((java.lang.String) value);
+          break;
+        case 3:
+          builder.setBoolValue((java.lang.Boolean) value);
+          break;
+        case 4:
+          builder.setStructValue(message(com.google.protobuf.Struct.getDefaultInstance(), value));
+          break;
+        case 5:
+          builder.setListValue(message(com.google.protobuf.ListValue.getDefaultInstance(), value));
+          break;
+        default:
+          throw unsupported("set", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void clear(Value.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 0:
+          builder.clearNullValue();
+          break;
+        case 1:
+          builder.clearNumberValue();
+          break;
+        case 2:
+          builder.clearStringValue();
+          break;
+        case 3:
+          builder.clearBoolValue();
+          break;
+        case 4:
+          builder.clearStructValue();
+          break;
+        case 5:
+          builder.clearListValue();
+          break;
+        default:
+          throw unsupported("clear", fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Message.Builder newBuilder(int fieldIndex) {
+      switch (fieldIndex) {
+        case 4:
+          return com.google.protobuf.Struct.newBuilder();
+        case 5:
+          return com.google.protobuf.ListValue.newBuilder();
+        default:
+          return super.newBuilder(fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Message.Builder getBuilder(Value.Builder builder, int fieldIndex) {
+      switch (fieldIndex) {
+        case 4:
+          return builder.getStructValueBuilder();
+        case 5:
+          return builder.getListValueBuilder();
+        default:
+          return super.getBuilder(builder, fieldIndex);
+      }
+    }
+
+    @java.lang.Override
+    public int getOneofFieldNumber(Value message, int oneofIndex) {
+      switch (oneofIndex) {
+        case 0:
+          return message.getKindCase().getNumber();
+        default:
+          return super.getOneofFieldNumber(message, oneofIndex);
+      }
+    }
+
+    @java.lang.Override
+    public int getOneofFieldNumber(Value.Builder builder, int oneofIndex) {
+      switch (oneofIndex) {
+        case 0:
+          return builder.getKindCase().getNumber();
+        default:
+          return super.getOneofFieldNumber(builder, oneofIndex);
+      }
+    }
+
+    @java.lang.Override
+    public void clearOneof(Value.Builder builder, int oneofIndex) {
+      switch (oneofIndex) {
+        case 0:
+          builder.clearKind();
+          break;
+        default:
+          super.clearOneof(builder, oneofIndex);
+      }
+    }
+  }
+
+  static {
+    com.google.protobuf.gwt.MessageReflectionAccessor.register(Value.class, new GwtReflectionAccessor());
+  }
 }
 
@@ -0,0 +1,172 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+package com.google.protobuf.gwt;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import elemental2.core.ArrayBuffer;
+import elemental2.core.Uint8Array;
+
+import java.util.function.Consumer;
+
+/**
+ * Push-based decoder for a stream of length-delimited messages, as written by
+ * {@link MessageLite#writeDelimitedTo(java.io.OutputStream)}. Where {@link
+ * Parser#parseDelimitedFrom(java.io.InputStream)} must block until each message has arrived, this
+ * accepts chunks of the stream as they are received - for example from a fetch response body or a
+ * websocket - and passes each message to the handler as soon as its last byte has been pushed.
+ * <p>
+ * Each byte is only examined once. A message contained entirely in one chunk is parsed directly from
+ * that chunk, while one that spans several chunks is copied once into a buffer of the announced
+ * size, and parsed when that is full.
+ * <p>
+ * After any method throws, the decoder's position in the stream is lost, and it should be discarded.
+ */
+public class DelimitedMessageDecoder<T extends MessageLite> {
+    /**
+     * The default size limit, 64MB, which was also {@code CodedInputStream}'s default before it
+     * stopped allocating a message's bytes up front. This decoder still does, for a message that
+     * spans chunks, so it keeps a bound on what a length prefix alone can make it allocate.
+     */
+    public static final int DEFAULT_SIZE_LIMIT = 64 << 20;
+
+    private final Parser<T> parser;
+    private final ExtensionRegistryLite extensionRegistry;
+    private final Consumer<? super T> handler;
+    private int sizeLimit = DEFAULT_SIZE_LIMIT;
+
+    /** The length of the current message, possibly only partly read. */
+    private int length;
+    /** The shift to apply to the next byte of the length, or zero if none has been read yet. */
+    private int lengthShift;
+    /** The body of the current message, if it spans chunks, or null while reading a length. */
+    private Uint8Array pending;
+    /** The number of bytes of {@link #pending} that have been filled. */
+    private int pendingPos;
+
+    public DelimitedMessageDecoder(Parser<T> parser, Consumer<? super T> handler) {
+        this(parser, ExtensionRegistryLite.getEmptyRegistry(), handler);
+    }
+
+    public DelimitedMessageDecoder(
+            Parser<T> parser, ExtensionRegistryLite extensionRegistry, Consumer<? super T> handler) {
+        this.parser = parser;
+        this.extensionRegistry = extensionRegistry;
+        this.handler = handler;
+    }
+
+    /**
+     * Sets the largest message this decoder will accept, in bytes. A larger length prefix is
+     * rejected before any memory is allocated for the message. Defaults to
+     * {@link #DEFAULT_SIZE_LIMIT}.
+     */
+    public void setSizeLimit(int sizeLimit) {
+        if (sizeLimit < 0) {
+            throw new IllegalArgumentException("Size limit cannot be negative: " + sizeLimit);
+        }
+        this.sizeLimit = sizeLimit;
+    }
+
+    /** Decodes the given chunk of the stream, passing each message it completes to the handler. */
+    public void push(ArrayBuffer chunk) throws InvalidProtocolBufferException {
+        push(new Uint8Array(chunk));
+    }
+
+    /**
+     * Decodes the given chunk of the stream, passing each message it completes to the handler. The
+     * chunk is not retained after this returns, so the caller is free to reuse it.
+     */
+    public void push(Uint8Array chunk) throws InvalidProtocolBufferException {
+        int pos = 0;
+        final int end = chunk.length;
+        while (pos < end) {
+            if (pending == null) {
+                final int b = chunk.getAt(pos++).intValue();
+                length |= (b & 0x7F) << lengthShift;
+                if (b >= 0x80) {
+                    lengthShift += 7;
+                    if (lengthShift > 28) {
+                        throw new InvalidProtocolBufferException(
+                                "CodedInputStream encountered a malformed varint.");
+                    }
+                    continue;
+                }
+                checkLength();
+                if (length <= end - pos) {
+                    // Fast path: the whole message is in this chunk, parse it in place
+                    final int messageLength = length;
+                    resetLength();
+                    parse(chunk.buffer, chunk.byteOffset + pos, messageLength);
+                    pos += messageLength;
+                } else {
+                    pending = new Uint8Array(length);
+                    pendingPos = 0;
+                }
+            } else {
+                final int bytesToCopy = Math.min(length - pendingPos, end - pos);
+                pending.set(chunk.subarray(pos, pos + bytesToCopy), pendingPos);
+                pendingPos += bytesToCopy;
+                pos += bytesToCopy;
+                if (pendingPos == length) {
+                    final Uint8Array body = pending;
+                    pending = null;
+                    resetLength();
+                    parse(body.buffer, 0, body.length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the stream has been decoded up to the end of a message, so it may be closed
+     * without losing data.
+     */
+    public boolean isAtMessageBoundary() {
+        return pending == null && lengthShift == 0;
+    }
+
+    /**
+     * Signals that the stream has ended, failing if it ended part way through a message.
+     */
+    public void end() throws InvalidProtocolBufferException {
+        if (!isAtMessageBoundary()) {
+            throw new InvalidProtocolBufferException(
+                    "While parsing a protocol message, the input ended unexpectedly "
+                            + "in the middle of a field.  This could mean either that the "
+                            + "input has been truncated or that an embedded message "
+                            + "misreported its own length.");
+        }
+    }
+
+    private void checkLength() throws InvalidProtocolBufferException {
+        if (length < 0) {
+            throw new InvalidProtocolBufferException(
+                    "CodedInputStream encountered an embedded string or message "
+                            + "which claimed to have negative size.");
+        }
+        if (length > sizeLimit) {
+            throw new InvalidProtocolBufferException(
+                    "Protocol message was too large.  May be malicious.  "
+                            + "Use DelimitedMessageDecoder.setSizeLimit() to increase the size limit.");
+        }
+    }
+
+    private void resetLength() {
+        length = 0;
+        lengthShift = 0;
+    }
+
+    private void parse(ArrayBuffer buffer, int offset, int messageLength)
+            throws InvalidProtocolBufferException {
+        final CodedInputStream input = CodedInputStream.newInstance(buffer, offset, messageLength);
+        handler.accept(parser.parseFrom(input, extensionRegistry));
+    }
+}
@@ -0,0 +1,37 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+package com.google.protobuf.gwt;
+
+/**
+ * Reads the {@code protobuf.descriptors} property, which the
+ * {@code com.google.protobuf.ProtocolBuffersBinaryOnly} module sets to {@code DISABLED}. The GWT
+ * compiler resolves it to a constant, so with descriptors disabled every path that would parse and
+ * link a generated file's descriptor is dead code, and is pruned along with {@code DescriptorProtos},
+ * {@code TextFormat} and any well-known types that only they refer to.
+ * <p>
+ * Generated messages still encode, decode, compare and hash without descriptors, and
+ * {@code getDescriptor()} still returns the same, unbuilt, object each time. Anything that needs
+ * the contents of a descriptor, such as the reflection API or {@code DynamicMessage}, throws
+ * {@link UnsupportedOperationException} instead, and {@code toString()} no longer prints fields.
+ * Messages are compared and hashed by their serialized bytes, so map fields with the same entries
+ * added in a different order are not equal.
+ * Outside of GWT the property is read as a system property, and defaults to {@code ENABLED}.
+ */
+public final class DescriptorSupport {
+    public static final boolean ENABLED =
+            !"DISABLED".equals(System.getProperty("protobuf.descriptors", "ENABLED"));
+
+    private DescriptorSupport() {
+    }
+
+    /** Returns the exception to throw when {@code operation} needs descriptors but they are disabled. */
+    public static UnsupportedOperationException unsupported(String operation) {
+        return new UnsupportedOperationException(
+                operation + " needs descriptors, which protobuf.descriptors=DISABLED has removed from this build");
+    }
+}
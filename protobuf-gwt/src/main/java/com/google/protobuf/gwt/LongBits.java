@@ -0,0 +1,194 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+package com.google.protobuf.gwt;
+
+/**
+ * Conversions of 64-bit integers held as two 32-bit halves, without using {@code long}. In the
+ * browser every {@code long} is an emulated object, so values that are only displayed or handed to
+ * JS code are cheaper to convert straight from the bits to a JS number or a decimal string.
+ */
+public final class LongBits {
+
+    private static final double TWO_TO_32 = 4294967296.0;
+    private static final double TWO_TO_31 = 2147483648.0;
+    private static final double DECIMAL_CHUNK = 1e7;
+    private static final double PARSE_CHUNK = 1e6;
+
+    /** The high half of the value most recently split by this class. */
+    private static int lastHighBits;
+
+    private LongBits() {
+    }
+
+    /**
+     * Returns the high 32 bits of the value split by the most recent call to {@link #splitNumber}
+     * or {@link #splitDecimalString}.
+     */
+    public static int getLastHighBits() {
+        return lastHighBits;
+    }
+
+    /**
+     * Splits a JS number into the two's complement bits of a 64-bit integer, returning the low 32
+     * bits; the high 32 bits can then be obtained from {@link #getLastHighBits()}. Any fraction is
+     * discarded, as a cast to {@code long} would. Both signed and unsigned values are accepted, so
+     * -1 and 2^64 - 1 give the same bits; larger magnitudes wrap around, and NaN and infinities
+     * give 0.
+     */
+    public static int splitNumber(double value) {
+        boolean negative = value < 0;
+        double magnitude = Math.floor(Math.abs(value)) % (TWO_TO_32 * TWO_TO_32);
+        double highPart = Math.floor(magnitude / TWO_TO_32);
+        // Both parts are exact, since they only drop the bits the other one keeps.
+        return setBits(toInt32(magnitude - highPart * TWO_TO_32), toInt32(highPart), negative);
+    }
+
+    /**
+     * Like {@link #splitNumber}, but parses the value from an optionally signed decimal string,
+     * such as one produced by {@link #toDecimalString} or {@link #toUnsignedDecimalString}.
+     *
+     * @throws NumberFormatException if the string is not a decimal integer, or its magnitude is not
+     *     below 2^64
+     */
+    public static int splitDecimalString(String value) {
+        int length = value.length();
+        int start = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        if (start == length) {
+            throw new NumberFormatException("For input string: \"" + value + "\"");
+        }
+        // Accumulate six digits at a time into the two halves, kept as doubles that stay below
+        // 2^52, carrying from the low half into the high one as it passes 2^32.
+        double low = 0;
+        double high = 0;
+        int end = start + (length - start) % 6;
+        if (end == start) {
+            end += 6;
+        }
+        for (int begin = start; begin < length; begin = end, end += 6) {
+            int digits = 0;
+            for (int i = begin; i < end; i++) {
+                int digit = value.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new NumberFormatException("For input string: \"" + value + "\"");
+                }
+                digits = digits * 10 + digit;
+            }
+            low = low * PARSE_CHUNK + digits;
+            high = high * PARSE_CHUNK;
+            if (low >= TWO_TO_32) {
+                double carry = Math.floor(low / TWO_TO_32);
+                high += carry;
+                low -= carry * TWO_TO_32;
+            }
+            if (high >= TWO_TO_32) {
+                throw new NumberFormatException("Value out of range. Value:\"" + value + "\"");
+            }
+        }
+        return setBits(toInt32(low), toInt32(high), value.charAt(0) == '-');
+    }
+
+    /**
+     * ZigZag decodes the bits of an {@code sint64} value, as {@link
+     * com.google.protobuf.CodedInputStream#decodeZigZag64(long)} does, returning the low 32 bits;
+     * the high 32 bits can then be obtained from {@link #getLastHighBits()}.
+     */
+    public static int decodeZigZag(int low, int high) {
+        int sign = -(low & 1);
+        lastHighBits = (high >>> 1) ^ sign;
+        return ((low >>> 1) | (high << 31)) ^ sign;
+    }
+
+    /** Records the high half of a split value, negating both halves first if asked. */
+    private static int setBits(int low, int high, boolean negate) {
+        if (negate) {
+            lastHighBits = low == 0 ? -high : ~high;
+            return -low;
+        }
+        lastHighBits = high;
+        return low;
+    }
+
+    /** Returns the bits of an integral double from 0 to 2^32 - 1 as an int. */
+    private static int toInt32(double unsigned) {
+        return (int) (unsigned >= TWO_TO_31 ? unsigned - TWO_TO_32 : unsigned);
+    }
+
+    /** Returns the low half as an unsigned value, 0 to 2^32 - 1. */
+    private static double unsigned(int bits) {
+        return bits >= 0 ? bits : bits + TWO_TO_32;
+    }
+
+    /**
+     * Returns the signed value of the given bits as a double, which is exact if its magnitude is at
+     * most 2^53, and rounded to the nearest double otherwise.
+     */
+    public static double toNumber(int low, int high) {
+        return high * TWO_TO_32 + unsigned(low);
+    }
+
+    /** Like {@link #toNumber}, but treating the bits as an unsigned value. */
+    public static double toUnsignedNumber(int low, int high) {
+        return unsigned(high) * TWO_TO_32 + unsigned(low);
+    }
+
+    /** Returns the signed value of the given bits in decimal, as {@link Long#toString(long)} does. */
+    public static String toDecimalString(int low, int high) {
+        if (high >= 0) {
+            return toUnsignedDecimalString(low, high);
+        }
+        // Negate the two's complement value, which leaves Long.MIN_VALUE as 2^63 unsigned.
+        int negatedLow = -low;
+        int negatedHigh = low == 0 ? -high : ~high;
+        return "-" + toUnsignedDecimalString(negatedLow, negatedHigh);
+    }
+
+    /**
+     * Returns the unsigned value of the given bits in decimal, as {@link
+     * Long#toUnsignedString(long)} does.
+     */
+    public static String toUnsignedDecimalString(int low, int high) {
+        if ((high >>> 21) == 0) {
+            // Below 2^53, so the double is exact.
+            return toDecimalString(toUnsignedNumber(low, high));
+        }
+        // Split the value into 24, 24 and 16 bit parts, and sum their contributions to each group of
+        // seven decimal digits: 2^24 = 1 * 10^7 + 6777216, and 2^48 = 2 * 10^14 + 8147497 * 10^7 +
+        // 6710656. Every sum is far below 2^53, so the double arithmetic is exact.
+        int lowPart = low & 0xFFFFFF;
+        int midPart = ((low >>> 24) | (high << 8)) & 0xFFFFFF;
+        int highPart = (high >>> 16) & 0xFFFF;
+        double digitsA = lowPart + midPart * 6777216.0 + highPart * 6710656.0;
+        double digitsB = midPart + highPart * 8147497.0;
+        double digitsC = highPart * 2.0;
+        if (digitsA >= DECIMAL_CHUNK) {
+            digitsB += Math.floor(digitsA / DECIMAL_CHUNK);
+            digitsA %= DECIMAL_CHUNK;
+        }
+        if (digitsB >= DECIMAL_CHUNK) {
+            digitsC += Math.floor(digitsB / DECIMAL_CHUNK);
+            digitsB %= DECIMAL_CHUNK;
+        }
+        // The value is at least 2^53, so the top group is never zero.
+        return (int) digitsC + padChunk((int) digitsB) + padChunk((int) digitsA);
+    }
+
+    /** Formats a non-negative integral double below 2^53 without a fraction or exponent. */
+    private static String toDecimalString(double value) {
+        if (value < TWO_TO_31) {
+            return String.valueOf((int) value);
+        }
+        double top = Math.floor(value / DECIMAL_CHUNK);
+        return (int) top + padChunk((int) (value - top * DECIMAL_CHUNK));
+    }
+
+    /** Formats a group of seven decimal digits, with leading zeros. */
+    private static String padChunk(int digits) {
+        String chunk = String.valueOf(digits);
+        return "0000000".substring(chunk.length()) + chunk;
+    }
+}
@@ -0,0 +1,140 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+package com.google.protobuf.gwt;
+
+import com.google.protobuf.MessageLite;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads and writes the fields of one lite message type, standing in for the reflection that
+ * protobuf-java uses to turn the field names in a message's {@code RawMessageInfo} into field
+ * offsets. Lite gencode already lists those names in its {@code BUILD_MESSAGE_INFO} table; an
+ * implementation of this class is generated alongside it as a nested class by the
+ * {@code com.vertispan.recipes.protobuf.lite.GenerateMessageFieldAccessors} recipe from
+ * {@code protobuf-gwt-rewrite}, and registered from the message's static initializer, after its
+ * default instance:
+ * <pre>{@code
+ * static {
+ *   MessageFieldAccessor.register(Foo.class, new GwtFieldAccessor());
+ * }
+ * }</pre>
+ * Messages that are not run through the recipe must do the same by hand, or
+ * {@code LiteSchemaFactory} fails to create their schema.
+ * <p>
+ * Each field name passed to the constructor is given a slot, its index in that list. The schema
+ * resolves every name it needs to a slot once, and from then on only calls the typed getters and
+ * setters by slot, so each should be a single {@code switch}. Primitive fields are read and written
+ * with the matching primitive methods, while strings, bytes, messages, lists, maps and oneof values
+ * use {@link #getObject}/{@link #setObject}. Hasbit and oneof case fields are {@code int}s.
+ * <p>
+ * Singular message fields are declared only by name in the message info, so
+ * {@link #getMessageDefaultInstance(int)} must also return the default instance of the message
+ * type of each message, group, or oneof message field, by field number. This also ensures those
+ * classes are initialized (and so registered) before they are parsed.
+ */
+public abstract class MessageFieldAccessor<T> {
+    private static final Map<Class<?>, MessageFieldAccessor<?>> accessors = new ConcurrentHashMap<>();
+
+    private final String[] fieldNames;
+
+    protected MessageFieldAccessor(String... fieldNames) {
+        this.fieldNames = fieldNames;
+    }
+
+    /**
+     * Registers the accessor to use for the fields of the given message class. Lite messages
+     * cannot be serialized or parsed until this has been called for their class.
+     */
+    public static <T> void register(Class<T> messageClass, MessageFieldAccessor<T> accessor) {
+        if (messageClass == null || accessor == null) {
+            throw new NullPointerException();
+        }
+        accessors.put(messageClass, accessor);
+    }
+
+    /** Returns the accessor registered for the given message class, or null if there is none. */
+    @SuppressWarnings("unchecked")
+    public static <T> MessageFieldAccessor<T> forClass(Class<T> messageClass) {
+        return (MessageFieldAccessor<T>) accessors.get(messageClass);
+    }
+
+    /** Returns the slot of the named field, as declared to the constructor. */
+    public int slotOf(String fieldName) {
+        for (int i = 0; i < fieldNames.length; i++) {
+            if (fieldNames[i].equals(fieldName)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Field " + fieldName + " has no slot in " + getClass().getName());
+    }
+
+    public int getInt(T message, int slot) {
+        throw unsupported("int", slot);
+    }
+
+    public void setInt(T message, int slot, int value) {
+        throw unsupported("int", slot);
+    }
+
+    public long getLong(T message, int slot) {
+        throw unsupported("long", slot);
+    }
+
+    public void setLong(T message, int slot, long value) {
+        throw unsupported("long", slot);
+    }
+
+    public float getFloat(T message, int slot) {
+        throw unsupported("float", slot);
+    }
+
+    public void setFloat(T message, int slot, float value) {
+        throw unsupported("float", slot);
+    }
+
+    public double getDouble(T message, int slot) {
+        throw unsupported("double", slot);
+    }
+
+    public void setDouble(T message, int slot, double value) {
+        throw unsupported("double", slot);
+    }
+
+    public boolean getBoolean(T message, int slot) {
+        throw unsupported("boolean", slot);
+    }
+
+    public void setBoolean(T message, int slot, boolean value) {
+        throw unsupported("boolean", slot);
+    }
+
+    public Object getObject(T message, int slot) {
+        throw unsupported("Object", slot);
+    }
+
+    public void setObject(T message, int slot, Object value) {
+        throw unsupported("Object", slot);
+    }
+
+    /**
+     * Returns the default instance of the message type of the given message, group or oneof message
+     * field.
+     */
+    public MessageLite getMessageDefaultInstance(int fieldNumber) {
+        throw new UnsupportedOperationException(
+                "No message field " + fieldNumber + " in " + getClass().getName());
+    }
+
+    private UnsupportedOperationException unsupported(String type, int slot) {
+        String name = slot >= 0 && slot < fieldNames.length ? fieldNames[slot] : String.valueOf(slot);
+        return new UnsupportedOperationException(
+                "No " + type + " field " + name + " in " + getClass().getName());
+    }
+}
@@ -0,0 +1,183 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+package com.google.protobuf.gwt;
+
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.GeneratedMessage;
+import com.google.protobuf.Message;
+import com.google.protobuf.ProtocolMessageEnum;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Backs the reflection API ({@code getField()}, {@code hasField()}, {@code getAllFields()} and so
+ * on) of one {@link GeneratedMessage} type and its builder, standing in for the accessor methods
+ * that protobuf-java's {@code FieldAccessorTable} looks up by name. The
+ * {@code com.vertispan.recipes.protobuf.reflection.GenerateMessageReflectionAccessors} recipe from
+ * {@code protobuf-gwt-rewrite} adds an implementation of this class to each message in gencode,
+ * and registers it from the message's static initializer:
+ * <pre>{@code
+ * static {
+ *   MessageReflectionAccessor.register(Foo.class, new GwtReflectionAccessor());
+ * }
+ * }</pre>
+ * <p>
+ * Fields are identified by their index in the message's descriptor, and oneofs by the index of the
+ * oneof, so each method should be a single {@code switch}. Values are passed in the same form as
+ * {@link Message#getField}: enum values as {@code EnumValueDescriptor}s, and repeated fields as a
+ * {@code List} of those values. Unless overridden, the methods that only apply to some kinds of
+ * field throw {@link UnsupportedOperationException}. Map fields are read and written through the
+ * message's map field, so only {@link #newBuilder(int)} is called for them, to create entries.
+ */
+public abstract class MessageReflectionAccessor<
+        MessageT extends GeneratedMessage, BuilderT extends GeneratedMessage.Builder<?>> {
+    private static final Map<Class<?>, MessageReflectionAccessor<?, ?>> accessors = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the accessor to use for the given message class and its builder. The reflection
+     * API of a message can't be used until this has been called for its class.
+     */
+    public static <MessageT extends GeneratedMessage> void register(
+            Class<MessageT> messageClass, MessageReflectionAccessor<MessageT, ?> accessor) {
+        if (messageClass == null || accessor == null) {
+            throw new NullPointerException();
+        }
+        accessors.put(messageClass, accessor);
+    }
+
+    /** Returns the accessor registered for the given message class, or null if there is none. */
+    public static MessageReflectionAccessor<?, ?> forClass(Class<?> messageClass) {
+        return accessors.get(messageClass);
+    }
+
+    /** Returns the value of the field, or the default value if it is not set. */
+    public abstract Object get(MessageT message, int fieldIndex);
+
+    public abstract Object get(BuilderT builder, int fieldIndex);
+
+    /** Like {@link #get(GeneratedMessage, int)}, but returns string fields as a ByteString. */
+    public Object getRaw(MessageT message, int fieldIndex) {
+        return get(message, fieldIndex);
+    }
+
+    /** Returns true if a singular field is set. */
+    public abstract boolean has(MessageT message, int fieldIndex);
+
+    public abstract boolean has(BuilderT builder, int fieldIndex);
+
+    public abstract void set(BuilderT builder, int fieldIndex, Object value);
+
+    public abstract void clear(BuilderT builder, int fieldIndex);
+
+    public int getRepeatedCount(MessageT message, int fieldIndex) {
+        throw unsupported("getRepeatedCount", fieldIndex);
+    }
+
+    public int getRepeatedCount(BuilderT builder, int fieldIndex) {
+        throw unsupported("getRepeatedCount", fieldIndex);
+    }
+
+    public Object getRepeated(MessageT message, int fieldIndex, int index) {
+        throw unsupported("getRepeated", fieldIndex);
+    }
+
+    public Object getRepeated(BuilderT builder, int fieldIndex, int index) {
+        throw unsupported("getRepeated", fieldIndex);
+    }
+
+    public void setRepeated(BuilderT builder, int fieldIndex, int index, Object value) {
+        throw unsupported("setRepeated", fieldIndex);
+    }
+
+    public void addRepeated(BuilderT builder, int fieldIndex, Object value) {
+        throw unsupported("addRepeated", fieldIndex);
+    }
+
+    /** Returns a new builder for the type of a message field. */
+    public Message.Builder newBuilder(int fieldIndex) {
+        throw unsupported("newBuilder", fieldIndex);
+    }
+
+    /** Returns the nested builder of a singular message field. */
+    public Message.Builder getBuilder(BuilderT builder, int fieldIndex) {
+        throw unsupported("getBuilder", fieldIndex);
+    }
+
+    /** Returns the nested builder of one element of a repeated message field. */
+    public Message.Builder getRepeatedBuilder(BuilderT builder, int fieldIndex, int index) {
+        throw unsupported("getRepeatedBuilder", fieldIndex);
+    }
+
+    /** Returns the number of the field set in the oneof, or 0 if none is set. */
+    public int getOneofFieldNumber(MessageT message, int oneofIndex) {
+        throw new UnsupportedOperationException("No oneof " + oneofIndex + " in " + getClass().getName());
+    }
+
+    public int getOneofFieldNumber(BuilderT builder, int oneofIndex) {
+        throw new UnsupportedOperationException("No oneof " + oneofIndex + " in " + getClass().getName());
+    }
+
+    public void clearOneof(BuilderT builder, int oneofIndex) {
+        throw new UnsupportedOperationException("No oneof " + oneofIndex + " in " + getClass().getName());
+    }
+
+    /** Replaces the contents of a repeated field by adding each element of the list. */
+    protected final void addAllRepeated(BuilderT builder, int fieldIndex, Object values) {
+        for (Object value : (List<?>) values) {
+            addRepeated(builder, fieldIndex, value);
+        }
+    }
+
+    protected final UnsupportedOperationException unsupported(String method, int fieldIndex) {
+        return new UnsupportedOperationException(
+                method + "() is not supported for field " + fieldIndex + " in " + getClass().getName());
+    }
+
+    /** Returns the descriptor for a value of an open enum, which may be a number it doesn't define. */
+    protected static EnumValueDescriptor enumValue(EnumDescriptor type, int number) {
+        return type.findValueByNumberCreatingIfUnknown(number);
+    }
+
+    protected static List<EnumValueDescriptor> enumValues(EnumDescriptor type, List<Integer> numbers) {
+        List<EnumValueDescriptor> values = new ArrayList<>(numbers.size());
+        for (int number : numbers) {
+            values.add(type.findValueByNumberCreatingIfUnknown(number));
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    protected static List<EnumValueDescriptor> enumValues(List<? extends ProtocolMessageEnum> enums) {
+        List<EnumValueDescriptor> values = new ArrayList<>(enums.size());
+        for (ProtocolMessageEnum value : enums) {
+            values.add(value.getValueDescriptor());
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    /** Returns the number of an enum value passed to a setter. */
+    protected static int enumNumber(Object value) {
+        return ((EnumValueDescriptor) value).getNumber();
+    }
+
+    /**
+     * Returns a message passed to a setter as the field's own message type, copying it if it is
+     * some other implementation of the same type, such as a {@code DynamicMessage}.
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T extends Message> T message(T defaultInstance, Object value) {
+        if (value.getClass() == defaultInstance.getClass()) {
+            return (T) value;
+        }
+        return (T) defaultInstance.newBuilderForType().mergeFrom((Message) value).buildPartial();
+    }
+}
@@ -0,0 +1,52 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+package com.google.protobuf.gwt;
+
+import elemental2.core.ArrayBufferView;
+import jsinterop.annotations.JsOverlay;
+import jsinterop.annotations.JsPackage;
+import jsinterop.annotations.JsType;
+import jsinterop.base.Js;
+
+/**
+ * The browser's UTF-8 decoder. Only the parts needed to decode complete UTF-8 buffers are mapped,
+ * to avoid depending on all of elemental2-dom.
+ */
+@JsType(isNative = true, namespace = JsPackage.GLOBAL)
+public class TextDecoder {
+    @JsType(isNative = true, namespace = JsPackage.GLOBAL, name = "Object")
+    private static class Options {
+        public boolean fatal;
+        public boolean ignoreBOM;
+    }
+
+    /** Returns true if this platform provides a TextDecoder. */
+    @JsOverlay
+    public static boolean isSupported() {
+        return Js.global().has("TextDecoder");
+    }
+
+    /**
+     * Creates a UTF-8 decoder. If {@code fatal} is true, malformed input will cause {@link #decode}
+     * to throw, otherwise it is replaced by U+FFFD, in the same way as
+     * {@code new String(bytes, UTF_8)}. A leading byte order mark is always kept in the decoded
+     * string.
+     */
+    @JsOverlay
+    public static TextDecoder createUtf8(boolean fatal) {
+        Options options = new Options();
+        options.fatal = fatal;
+        options.ignoreBOM = true;
+        return new TextDecoder("utf-8", options);
+    }
+
+    private TextDecoder(String label, Options options) {
+    }
+
+    public native String decode(ArrayBufferView input);
+}
@@ -0,0 +1,45 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+package com.google.protobuf.gwt;
+
+import elemental2.core.Uint8Array;
+import jsinterop.annotations.JsOverlay;
+import jsinterop.annotations.JsPackage;
+import jsinterop.annotations.JsType;
+import jsinterop.base.Js;
+
+/**
+ * The browser's UTF-8 encoder. Only the parts needed to encode into an existing buffer are mapped,
+ * to avoid depending on all of elemental2-dom.
+ */
+@JsType(isNative = true, namespace = JsPackage.GLOBAL)
+public class TextEncoder {
+    /** The outcome of {@link #encodeInto}. */
+    @JsType(isNative = true, namespace = JsPackage.GLOBAL, name = "Object")
+    public static class EncodeIntoResult {
+        /** The number of UTF-16 code units of the string that were encoded. */
+        public int read;
+        /** The number of bytes written to the destination. */
+        public int written;
+    }
+
+    /** Returns true if this platform provides a TextEncoder. */
+    @JsOverlay
+    public static boolean isSupported() {
+        return Js.global().has("TextEncoder");
+    }
+
+    public TextEncoder() {
+    }
+
+    /**
+     * Encodes as much of the string as fits into {@code dest}. Unpaired surrogates are encoded as
+     * U+FFFD, rather than being reported.
+     */
+    public native EncodeIntoResult encodeInto(String source, Uint8Array dest);
+}
@@ -0,0 +1,176 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+package com.google.protobuf.gwt;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.google.protobuf.UninitializedMessageException;
+import elemental2.core.ArrayBuffer;
+import elemental2.core.Uint8Array;
+import jsinterop.annotations.JsFunction;
+import jsinterop.annotations.JsMethod;
+import jsinterop.annotations.JsPackage;
+
+import java.io.IOException;
+
+/**
+ * Parses large messages in a series of short tasks, yielding to the browser between them, rather
+ * than blocking the event loop for the whole parse.
+ * <p>
+ * The input is split at the boundaries of the message's top-level fields, and each slice of roughly
+ * {@link #setSliceSize(int) sliceSize} bytes is merged in turn into the message being built. As
+ * merging serialized messages is equivalent to concatenating them, the result is identical to
+ * parsing the input in one call. A single top-level field is never split, so a message whose size
+ * is mostly in one field (such as one large embedded message) gets little benefit - in that case,
+ * slice the nested message instead.
+ * <p>
+ * Any {@link Parser}, including those of generated messages, can be used.
+ */
+public class TimeSlicedParser<T extends MessageLite> {
+    /**
+     * Receives the outcome of a parse. Exactly one method is called, and never synchronously. Any
+     * exception thrown while parsing, including a {@link RuntimeException} from the parser, is
+     * passed to {@link #onFailure}, wrapped if it is not already an {@link
+     * InvalidProtocolBufferException}.
+     */
+    public interface Callback<T> {
+        void onSuccess(T message);
+
+        void onFailure(InvalidProtocolBufferException e);
+    }
+
+    /** Runs each slice of work in a later task. */
+    public interface Scheduler {
+        void schedule(Runnable task);
+    }
+
+    /** Schedules slices with the browser's {@code setTimeout}, letting input and rendering run. */
+    public static final Scheduler SET_TIMEOUT = task -> setTimeout(task::run, 0);
+
+    @JsFunction
+    private interface TimeoutFn {
+        void onTimeout();
+    }
+
+    @JsMethod(namespace = JsPackage.GLOBAL)
+    private static native double setTimeout(TimeoutFn callback, int delay);
+
+    private static final int DEFAULT_SLICE_SIZE = 64 * 1024;
+
+    private final Parser<T> parser;
+    private ExtensionRegistryLite extensionRegistry = ExtensionRegistryLite.getEmptyRegistry();
+    private int sliceSize = DEFAULT_SLICE_SIZE;
+    private Scheduler scheduler = SET_TIMEOUT;
+
+    public TimeSlicedParser(Parser<T> parser) {
+        this.parser = parser;
+    }
+
+    public void setExtensionRegistry(ExtensionRegistryLite extensionRegistry) {
+        this.extensionRegistry = extensionRegistry;
+    }
+
+    /** Sets the number of bytes to aim to parse in each slice. Defaults to 64KiB. */
+    public void setSliceSize(int sliceSize) {
+        if (sliceSize <= 0) {
+            throw new IllegalArgumentException("Slice size must be positive: " + sliceSize);
+        }
+        this.sliceSize = sliceSize;
+    }
+
+    /** Sets the scheduler used to run each slice. Defaults to {@link #SET_TIMEOUT}. */
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /** Parses the given buffer as a single message, and passes it to the callback. */
+    public void parseFrom(ArrayBuffer data, Callback<? super T> callback) {
+        parseFrom(new Uint8Array(data), callback);
+    }
+
+    /**
+     * Parses the given bytes as a single message, and passes it to the callback. The bytes must not
+     * be modified until the callback has been called.
+     */
+    public void parseFrom(Uint8Array data, Callback<? super T> callback) {
+        scheduler.schedule(new Slice(data, callback));
+    }
+
+    /** The state of one parse, which runs a single slice each time it is scheduled. */
+    private final class Slice implements Runnable {
+        private final Uint8Array data;
+        private final Callback<? super T> callback;
+        /** Reads ahead over whole top-level fields to find where each slice ends. */
+        private final CodedInputStream scanner;
+        private MessageLite.Builder builder;
+
+        private Slice(Uint8Array data, Callback<? super T> callback) {
+            this.data = data;
+            this.callback = callback;
+            scanner = CodedInputStream.newInstance(data);
+        }
+
+        @Override
+        public void run() {
+            final T message;
+            try {
+                if (!parseSlice()) {
+                    scheduler.schedule(this);
+                    return;
+                }
+                message = build();
+            } catch (InvalidProtocolBufferException e) {
+                callback.onFailure(e);
+                return;
+            } catch (IOException e) {
+                callback.onFailure(new InvalidProtocolBufferException(e));
+                return;
+            } catch (RuntimeException e) {
+                // Thrown from the scheduler, it would never reach the caller, who would then wait
+                // for the callback forever
+                callback.onFailure(new InvalidProtocolBufferException(e));
+                return;
+            }
+            callback.onSuccess(message);
+        }
+
+        /** Merges the next slice into the builder, returning true if it was the last. */
+        private boolean parseSlice() throws IOException {
+            final int start = scanner.getTotalBytesRead();
+            while (!scanner.isAtEnd() && scanner.getTotalBytesRead() - start < sliceSize) {
+                if (!scanner.skipField(scanner.readTag())) {
+                    throw new InvalidProtocolBufferException(
+                            "Protocol message end-group tag did not match expected tag.");
+                }
+            }
+            final int end = scanner.getTotalBytesRead();
+            final CodedInputStream input =
+                    CodedInputStream.newInstance(data.buffer, data.byteOffset + start, end - start);
+            if (builder == null) {
+                builder = parser.parsePartialFrom(input, extensionRegistry).toBuilder();
+            } else {
+                builder.mergeFrom(input, extensionRegistry);
+            }
+            return scanner.isAtEnd();
+        }
+
+        @SuppressWarnings("unchecked")
+        private T build() throws InvalidProtocolBufferException {
+            final T message = (T) builder.buildPartial();
+            if (!message.isInitialized()) {
+                throw new UninitializedMessageException(message)
+                        .asInvalidProtocolBufferException()
+                        .setUnfinishedMessage(message);
+            }
+            return message;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+package com.google.protobuf.gwt;
+
+import elemental2.core.ArrayBuffer;
+import elemental2.core.ArrayBufferView;
+import elemental2.core.DataView;
+import elemental2.core.Int32Array;
+import elemental2.core.Int8Array;
+import elemental2.core.TypedArray;
+
+/**
+ * Helpers to read JS typed arrays and move data between them and Java arrays. In GWT a {@code
+ * byte[]} is a plain JS array of numbers, so these copies are unavoidable whenever a typed array
+ * must be handed to code that only understands Java arrays - callers should keep them to the edges.
+ */
+public class TypedArrays {
+
+    /**
+     * True if typed arrays on this platform store their elements little-endian, as the protobuf wire
+     * format does. This is the case on every browser in practice, but multi-byte typed arrays use
+     * the platform's byte order, so bulk copies into them check it first.
+     */
+    public static final boolean LITTLE_ENDIAN =
+            new Int8Array(new Int32Array(new double[] {1}).buffer).getAt(0) == 1;
+
+    /** Scratch space to reinterpret raw bits as floating point values, without using long. */
+    private static final DataView SCRATCH = new DataView(new ArrayBuffer(8));
+
+    /**
+     * Reads a single signed byte from the given array. Values are sign-extended in the same way as
+     * reading from a {@code byte[]}.
+     */
+    public static byte getByte(Int8Array array, int index) {
+        return array.getAt(index).byteValue();
+    }
+
+    /**
+     * Copies the given range of the typed array into a new {@code byte[]}, like
+     * {@link java.util.Arrays#copyOfRange(byte[], int, int)}.
+     */
+    public static byte[] copyOfRange(Int8Array array, int from, int to) {
+        byte[] copy = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            copy[i - from] = getByte(array, i);
+        }
+        return copy;
+    }
+
+    /** Copies the given range of the {@code byte[]} into a new typed array. */
+    public static Int8Array copyOfRange(byte[] array, int from, int to) {
+        Int8Array copy = new Int8Array(to - from);
+        for (int i = from; i < to; i++) {
+            copy.setAt(i - from, (double) array[i]);
+        }
+        return copy;
+    }
+
+    /**
+     * Copies {@code length} bytes starting at {@code srcPos} in {@code src} into the underlying
+     * buffer of {@code dest}, starting {@code destPos} bytes into that view. The destination may be
+     * any kind of typed array, so this is a native byte-wise copy with no conversion of values.
+     */
+    public static void copyBytes(
+            Int8Array src, int srcPos, ArrayBufferView dest, int destPos, int length) {
+        new Int8Array(dest.buffer, dest.byteOffset + destPos, length)
+                .set(src.subarray(srcPos, srcPos + length), 0);
+    }
+
+    /**
+     * Returns the bytes of the elements of a typed array in little-endian order, as the protobuf wire
+     * format stores fixed-width values. On a little-endian platform this is a view that shares the
+     * array's storage, otherwise it is a copy with the bytes of each element reversed.
+     */
+    public static Int8Array littleEndianBytes(TypedArray values) {
+        Int8Array bytes = new Int8Array(values.buffer, values.byteOffset, values.byteLength);
+        if (LITTLE_ENDIAN) {
+            return bytes;
+        }
+        int size = values.BYTES_PER_ELEMENT;
+        Int8Array swapped = new Int8Array(bytes.length);
+        for (int i = 0; i < bytes.length; i += size) {
+            for (int j = 0; j < size; j++) {
+                swapped.setAt(i + j, bytes.getAt(i + size - 1 - j));
+            }
+        }
+        return swapped;
+    }
+
+    /**
+     * Returns the double with the given IEEE 754 bits, split into low and high 32-bit halves. This
+     * is equivalent to {@link Double#longBitsToDouble(long)}, but avoids the emulated long.
+     */
+    public static double longBitsToDouble(int low, int high) {
+        SCRATCH.setInt32(0, low, true);
+        SCRATCH.setInt32(4, high, true);
+        return SCRATCH.getFloat64(0, true);
+    }
+
+    /** Equivalent to {@link Float#intBitsToFloat(int)}, using the platform's conversion. */
+    public static float intBitsToFloat(int bits) {
+        SCRATCH.setInt32(0, bits, true);
+        return (float) SCRATCH.getFloat32(0, true);
+    }
+}
@@ -0,0 +1,142 @@
+// Protocol Buffers - Google's data interchange format
+// Copyright 2008 Google Inc.  All rights reserved.
+// Copyright 2025 Vertispan LLC. All rights reserved.
+//
+// Use of this source code is governed by a BSD-style
+// license that can be found in the LICENSE file or at
+// https://developers.google.com/open-source/licenses/bsd
+package com.google.protobuf.gwt;
+
+import com.google.protobuf.ByteOutput;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import elemental2.core.Uint8Array;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A growable buffer of bytes backed by a {@link Uint8Array}, so that serialized messages can be
+ * handed to browser APIs such as {@code fetch} or {@code WebSocket.send} without first being copied
+ * out of a {@code byte[]}.
+ * <p>
+ * {@link CodedOutputStream#newInstance(Uint8ArrayOutput)} encodes directly into the backing array.
+ * This can also be used as the {@link ByteOutput} of any other {@link CodedOutputStream}.
+ * <p>
+ * The backing array at least doubles in size each time it fills, and {@link #toUint8Array()}
+ * returns a view of the bytes written so far rather than a copy.
+ */
+public final class Uint8ArrayOutput extends ByteOutput {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private Uint8Array buffer;
+    private int size;
+
+    public Uint8ArrayOutput() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public Uint8ArrayOutput(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        buffer = new Uint8Array(initialCapacity);
+    }
+
+    /**
+     * Serializes the message into a new array of exactly its size.
+     */
+    public static Uint8Array toUint8Array(MessageLite message) {
+        Uint8Array result = new Uint8Array(message.getSerializedSize());
+        CodedOutputStream output = CodedOutputStream.newInstance(result);
+        try {
+            message.writeTo(output);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                    "Serializing " + message.getClass().getName()
+                            + " to a Uint8Array threw an IOException (should never happen).", e);
+        }
+        output.checkNoSpaceLeft();
+        return result;
+    }
+
+    /** Returns the number of bytes written. */
+    public int size() {
+        return size;
+    }
+
+    /** Discards the bytes written so far, keeping the backing array to be written over. */
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * Returns the bytes written so far. This is a view of the backing array rather than a copy, so
+     * it must be consumed before this output is reset or written to again.
+     */
+    public Uint8Array toUint8Array() {
+        return new Uint8Array(buffer.buffer, buffer.byteOffset, size);
+    }
+
+    /**
+     * Returns the backing array, first growing it if needed to hold at least {@code minCapacity}
+     * bytes. Along with {@link #setSize(int)}, this lets an encoder write directly into the array.
+     */
+    public Uint8Array ensureCapacity(int minCapacity) {
+        if (minCapacity > buffer.length) {
+            Uint8Array grown = new Uint8Array(Math.max(minCapacity, buffer.length * 2));
+            grown.set(buffer, 0);
+            buffer = grown;
+        }
+        return buffer;
+    }
+
+    /**
+     * Sets the number of bytes written, after writing directly into the array returned by
+     * {@link #ensureCapacity(int)}.
+     */
+    public void setSize(int size) {
+        if (size < 0 || size > buffer.length) {
+            throw new IndexOutOfBoundsException("size=" + size + ", capacity=" + buffer.length);
+        }
+        this.size = size;
+    }
+
+    @Override
+    public void write(byte value) {
+        ensureCapacity(size + 1).setAt(size++, (double) (value & 0xFF));
+    }
+
+    @Override
+    public void write(byte[] value, int offset, int length) {
+        if ((offset | length | (value.length - (offset + length))) < 0) {
+            throw new IndexOutOfBoundsException(
+                    "value.length=" + value.length + ", offset=" + offset + ", length=" + length);
+        }
+        Uint8Array buffer = ensureCapacity(size + length);
+        for (int i = 0; i < length; i++) {
+            buffer.setAt(size + i, (double) (value[offset + i] & 0xFF));
+        }
+        size += length;
+    }
+
+    @Override
+    public void writeLazy(byte[] value, int offset, int length) {
+        write(value, offset, length);
+    }
+
+    @Override
+    public void write(ByteBuffer value) {
+        final int length = value.remaining();
+        Uint8Array buffer = ensureCapacity(size + length);
+        for (int i = 0; i < length; i++) {
+            buffer.setAt(size + i, (double) (value.get() & 0xFF));
+        }
+        size += length;
+    }
+
+    @Override
+    public void writeLazy(ByteBuffer value) {
+        write(value);
+    }
+}
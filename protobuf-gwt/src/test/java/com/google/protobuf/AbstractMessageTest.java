@@ -0,0 +1,137 @@
+package com.google.protobuf;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+
+public class AbstractMessageTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "com.vertispan.protobuf.ProtobufTest";
+    }
+
+    private static DynamicMessage value(String field, Object value) {
+        Descriptor descriptor = Value.getDescriptor();
+        return DynamicMessage.newBuilder(descriptor)
+                .setField(descriptor.findFieldByName(field), value)
+                .build();
+    }
+
+    private static DynamicMessage list(DynamicMessage... values) {
+        Descriptor descriptor = ListValue.getDescriptor();
+        FieldDescriptor field = descriptor.findFieldByName("values");
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(descriptor);
+        for (DynamicMessage value : values) {
+            builder.addRepeatedField(field, value);
+        }
+        return builder.build();
+    }
+
+    private static DynamicMessage struct(String... keys) {
+        Descriptor descriptor = Struct.getDescriptor();
+        FieldDescriptor field = descriptor.findFieldByName("fields");
+        Descriptor entryDescriptor = field.getMessageType();
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(descriptor);
+        for (String key : keys) {
+            builder.addRepeatedField(field, DynamicMessage.newBuilder(entryDescriptor)
+                    .setField(entryDescriptor.findFieldByName("key"), key)
+                    .setField(entryDescriptor.findFieldByName("value"), value("number_value", 1.0))
+                    .build());
+        }
+        return builder.build();
+    }
+
+    private static void assertEqualMessages(Message expected, Message actual) {
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+    }
+
+    public void testEqualsSingularFields() {
+        assertEqualMessages(value("string_value", "a"), value("string_value", "a"));
+        assertEqualMessages(value("number_value", 0.0), value("number_value", 0.0));
+        assertEqualMessages(
+                value("null_value", NullValue.NULL_VALUE.getValueDescriptor()),
+                value("null_value", NullValue.NULL_VALUE.getValueDescriptor()));
+        assertFalse(value("string_value", "a").equals(value("string_value", "b")));
+        // Oneof fields with the same value but in different cases
+        assertFalse(value("number_value", 0.0).equals(value("bool_value", false)));
+        assertFalse(value("number_value", 0.0).equals(DynamicMessage.getDefaultInstance(Value.getDescriptor())));
+    }
+
+    public void testEqualsRepeatedFields() {
+        assertEqualMessages(
+                list(value("string_value", "a"), value("bool_value", true)),
+                list(value("string_value", "a"), value("bool_value", true)));
+        assertEqualMessages(list(), DynamicMessage.getDefaultInstance(ListValue.getDescriptor()));
+        assertFalse(list(value("string_value", "a")).equals(list()));
+        assertFalse(list(value("string_value", "a"), value("bool_value", true))
+                .equals(list(value("bool_value", true), value("string_value", "a"))));
+    }
+
+    public void testEqualsMapFields() {
+        // Map fields are compared regardless of entry order
+        assertEqualMessages(struct("a", "b"), struct("b", "a"));
+        assertFalse(struct("a", "b").equals(struct("a", "c")));
+    }
+
+    public void testEqualsDifferentTypes() {
+        assertFalse(list().equals(struct()));
+        assertFalse(list().equals("not a message"));
+    }
+
+    private static DynamicMessage dynamic(Message message) throws Exception {
+        return DynamicMessage.parseFrom(message.getDescriptorForType(), message.toByteString());
+    }
+
+    private static void assertSlotsMatchFields(DynamicMessage message) {
+        Descriptor descriptor = message.getDescriptorForType();
+        assertEquals(AbstractMessage.hashFieldsByIndex(41, descriptor, message),
+                message.hashFieldsByIndex(41, descriptor));
+    }
+
+    public void testEqualsUnboxedSlots() throws Exception {
+        Duration duration = Duration.newBuilder().setSeconds(-5).setNanos(7).build();
+        assertEqualMessages(duration, dynamic(duration));
+        assertEqualMessages(dynamic(duration), dynamic(duration));
+        assertFalse(dynamic(duration).equals(dynamic(duration.toBuilder().setNanos(8).build())));
+        assertSlotsMatchFields(dynamic(duration));
+
+        // Like Double.equals(), NaN equals itself and -0.0 does not equal 0.0
+        assertEqualMessages(dynamic(DoubleValue.of(Double.NaN)), dynamic(DoubleValue.of(Double.NaN)));
+        assertFalse(dynamic(DoubleValue.of(-0.0)).equals(dynamic(DoubleValue.of(0.0))));
+        assertFalse(dynamic(FloatValue.of(-0.0f)).equals(dynamic(FloatValue.of(0.0f))));
+        assertSlotsMatchFields(dynamic(DoubleValue.of(1.5)));
+        assertSlotsMatchFields(dynamic(FloatValue.of(1.5f)));
+        assertSlotsMatchFields(dynamic(BoolValue.of(true)));
+
+        FieldDescriptorProto field = FieldDescriptorProto.newBuilder()
+                .setName("a")
+                .setNumber(0)
+                .setLabel(FieldDescriptorProto.Label.LABEL_REPEATED)
+                .build();
+        assertEqualMessages(field, dynamic(field));
+        assertFalse(dynamic(field).equals(dynamic(field.toBuilder().clearNumber().build())));
+        assertSlotsMatchFields(dynamic(field));
+
+        FileDescriptorProto file = FileDescriptorProto.newBuilder()
+                .addPublicDependency(1)
+                .addPublicDependency(2)
+                .addMessageType(DescriptorProtos.DescriptorProto.newBuilder().addField(field))
+                .build();
+        assertEqualMessages(file, dynamic(file));
+        assertFalse(dynamic(file).equals(dynamic(file.toBuilder().setPublicDependency(1, 3).build())));
+        assertSlotsMatchFields(dynamic(file));
+    }
+
+    public void testHashCodeMemoized() {
+        DynamicMessage message = list(value("string_value", "a"));
+        int hash = message.hashCode();
+        assertTrue(hash != 0);
+        assertEquals(hash, message.memoizedHashCode);
+        assertEquals(hash, message.hashCode());
+    }
+}
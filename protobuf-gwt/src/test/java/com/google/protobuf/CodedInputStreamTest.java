@@ -1,7 +1,15 @@
 package com.google.protobuf;
 
+import static com.google.protobuf.gwt.TestTypedArrays.toUint8Array;
+
 import com.google.gwt.junit.client.GWTTestCase;
 import com.google.protobuf.gwt.IterableByteBufferInputStream;
+import com.google.protobuf.gwt.Uint8ArrayOutput;
+import elemental2.core.ArrayBuffer;
+import elemental2.core.Float32Array;
+import elemental2.core.Float64Array;
+import elemental2.core.Int32Array;
+import elemental2.core.Uint8Array;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -11,6 +19,7 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 public class CodedInputStreamTest extends GWTTestCase {
@@ -44,6 +53,13 @@ public class CodedInputStreamTest extends GWTTestCase {
                 return CodedInputStream.newInstance(buffer);
             }
         },
+        TYPED_ARRAY {
+            @Override
+            CodedInputStream newDecoder(byte[] data, int blockSize) {
+                // Offset the view into its buffer, to be sure the decoder respects byteOffset
+                return CodedInputStream.newInstance(toUint8Array(data, 1));
+            }
+        },
         STREAM {
             @Override
             CodedInputStream newDecoder(byte[] data, int blockSize) {
@@ -169,6 +185,20 @@ public class CodedInputStreamTest extends GWTTestCase {
                 assertEquals(inputType.name(),input.readRawVarint64SlowPath(),value);
                 assertDataConsumed(inputType.name(), data, input);
 
+                input = inputType.newDecoder(data, blockSize);
+                assertEquals(inputType.name(), input.readRawVarint64LowBits(), (int) value);
+                assertEquals(inputType.name(), input.getLastVarint64HighBits(), (int) (value >>> 32));
+                assertDataConsumed(inputType.name(), data, input);
+
+                input = inputType.newDecoder(data, blockSize);
+                assertEquals(inputType.name(), input.readRawVarint64LowBitsSlowPath(), (int) value);
+                assertEquals(inputType.name(), input.getLastVarint64HighBits(), (int) (value >>> 32));
+                assertDataConsumed(inputType.name(), data, input);
+
+                input = inputType.newDecoder(data, blockSize);
+                assertEquals(inputType.name(), input.readInt64(), value);
+                assertDataConsumed(inputType.name(), data, input);
+
                 input = inputType.newDecoder(data, blockSize);
                 assertTrue(inputType.name(), input.skipField(WireFormat.WIRETYPE_VARINT));
                 assertDataConsumed(inputType.name(), data, input);
@@ -210,6 +240,16 @@ public class CodedInputStreamTest extends GWTTestCase {
 //                assertWithMessage(inputType.name())
 //                        .that(e)
 //                        .hasMessageThat()
+//                        .isEqualTo(expected.getMessage());
+            }
+            try {
+                CodedInputStream input = inputType.newDecoder(data);
+                input.readRawVarint64LowBits();
+                fail(inputType.name() + ": Should have thrown an exception.");
+            } catch (InvalidProtocolBufferException e) {
+//                assertWithMessage(inputType.name())
+//                        .that(e)
+//                        .hasMessageThat()
 //                        .isEqualTo(expected.getMessage());
             }
         }
@@ -272,6 +312,28 @@ public class CodedInputStreamTest extends GWTTestCase {
         assertReadVarintFailure(InvalidProtocolBufferException.truncatedMessage(), bytes(0x80));
     }
 
+    /** Tests readSInt64() against values written by CodedOutputStream. */
+    public void testReadSInt64() throws Exception {
+        long[] values = {
+            0, 1, -1, 63, -64, Integer.MAX_VALUE, Integer.MIN_VALUE, 0x123456789abcdef0L,
+            Long.MAX_VALUE, Long.MIN_VALUE
+        };
+        ByteString.Output rawOutput = ByteString.newOutput();
+        CodedOutputStream output = CodedOutputStream.newInstance(rawOutput);
+        for (long value : values) {
+            output.writeSInt64NoTag(value);
+        }
+        output.flush();
+        byte[] data = rawOutput.toByteString().toByteArray();
+        for (InputType inputType : InputType.values()) {
+            CodedInputStream input = inputType.newDecoder(data);
+            for (long value : values) {
+                assertEquals(inputType.name(), input.readSInt64(), value);
+            }
+            assertDataConsumed(inputType.name(), data, input);
+        }
+    }
+
     /**
      * Parses the given bytes using readRawLittleEndian32() and checks that the result matches the
      * given value.
@@ -313,6 +375,293 @@ public class CodedInputStreamTest extends GWTTestCase {
                 bytes(0x78, 0x56, 0x34, 0x12, 0xf0, 0xde, 0xbc, 0x9a), 0x9abcdef012345678L);
     }
 
+    private static final double[] DOUBLES = {
+        0, -0.0, 1, -1.25, Math.PI, Double.MIN_VALUE, Double.MAX_VALUE, Double.NEGATIVE_INFINITY
+    };
+
+    private static final float[] FLOATS = {
+        0, -0.0f, 1, -1.25f, (float) Math.PI, Float.MIN_VALUE, Float.MAX_VALUE,
+        Float.NEGATIVE_INFINITY
+    };
+
+    /** Tests readDouble() and readFloat(). */
+    public void testReadDoubleAndFloat() throws Exception {
+        ByteString.Output rawOutput = ByteString.newOutput();
+        CodedOutputStream output = CodedOutputStream.newInstance(rawOutput);
+        for (int i = 0; i < DOUBLES.length; i++) {
+            output.writeDoubleNoTag(DOUBLES[i]);
+            output.writeFloatNoTag(FLOATS[i]);
+        }
+        output.flush();
+        byte[] data = rawOutput.toByteString().toByteArray();
+        for (InputType inputType : InputType.values()) {
+            CodedInputStream input = inputType.newDecoder(data);
+            for (int i = 0; i < DOUBLES.length; i++) {
+                assertEquals(inputType.name(), Double.doubleToLongBits(DOUBLES[i]),
+                        Double.doubleToLongBits(input.readDouble()));
+                assertEquals(inputType.name(), Float.floatToIntBits(FLOATS[i]),
+                        Float.floatToIntBits(input.readFloat()));
+            }
+            assertDataConsumed(inputType.name(), data, input);
+        }
+    }
+
+    /** Tests readPackedDoubles(), readPackedFloats() and the raw bulk reads behind them. */
+    public void testReadPackedDoublesAndFloats() throws Exception {
+        ByteString.Output rawOutput = ByteString.newOutput();
+        CodedOutputStream output = CodedOutputStream.newInstance(rawOutput);
+        output.writeUInt32NoTag(DOUBLES.length * 8);
+        for (double value : DOUBLES) {
+            output.writeDoubleNoTag(value);
+        }
+        output.writeUInt32NoTag(FLOATS.length * 4);
+        for (float value : FLOATS) {
+            output.writeFloatNoTag(value);
+        }
+        for (double value : DOUBLES) {
+            output.writeDoubleNoTag(value);
+        }
+        output.flush();
+        byte[] data = rawOutput.toByteString().toByteArray();
+        for (InputType inputType : InputType.values()) {
+            CodedInputStream input = inputType.newDecoder(data);
+            Float64Array doubles = input.readPackedDoubles();
+            assertEquals(inputType.name(), DOUBLES.length, doubles.length);
+            for (int i = 0; i < DOUBLES.length; i++) {
+                assertEquals(inputType.name(), Double.doubleToLongBits(DOUBLES[i]),
+                        Double.doubleToLongBits(doubles.getAt(i)));
+            }
+            Float32Array floats = input.readPackedFloats();
+            assertEquals(inputType.name(), FLOATS.length, floats.length);
+            for (int i = 0; i < FLOATS.length; i++) {
+                assertEquals(inputType.name(), Float.floatToIntBits(FLOATS[i]),
+                        Float.floatToIntBits(floats.getAt(i).floatValue()));
+            }
+            // Read into the middle of an existing array
+            Float64Array dest = new Float64Array(DOUBLES.length + 2);
+            input.readRawDoubles(dest, 1, DOUBLES.length);
+            assertEquals(inputType.name(), 0.0, dest.getAt(0), 0.0);
+            assertEquals(inputType.name(), 0.0, dest.getAt(DOUBLES.length + 1), 0.0);
+            for (int i = 0; i < DOUBLES.length; i++) {
+                assertEquals(inputType.name(), Double.doubleToLongBits(DOUBLES[i]),
+                        Double.doubleToLongBits(dest.getAt(i + 1)));
+            }
+            assertDataConsumed(inputType.name(), data, input);
+        }
+    }
+
+    public void testReadPackedDoublesInvalidLength() throws Exception {
+        for (InputType inputType : InputType.values()) {
+            CodedInputStream input = inputType.newDecoder(bytes(0x07, 0, 0, 0, 0, 0, 0, 0));
+            try {
+                input.readPackedDoubles();
+                fail(inputType.name() + ": Should have thrown an exception!");
+            } catch (InvalidProtocolBufferException expected) {
+                // success
+            }
+
+            input = inputType.newDecoder(bytes(0x10, 0, 0, 0, 0, 0, 0, 0, 0));
+            try {
+                input.readPackedDoubles();
+                fail(inputType.name() + ": Should have thrown an exception!");
+            } catch (InvalidProtocolBufferException expected) {
+                assertEquals(
+                        inputType.name(),
+                        InvalidProtocolBufferException.truncatedMessage().getMessage(),
+                        expected.getMessage());
+            }
+
+            // A corrupt length is reported as truncated rather than allocated up front
+            byte[] huge = bytes(0xF8, 0xFF, 0xFF, 0xFF, 0x07, 0, 0, 0, 0, 0, 0, 0, 0);
+            try {
+                inputType.newDecoder(huge).readPackedDoubles();
+                fail(inputType.name() + ": Should have thrown an exception!");
+            } catch (InvalidProtocolBufferException expected) {
+                assertEquals(
+                        inputType.name(),
+                        InvalidProtocolBufferException.truncatedMessage().getMessage(),
+                        expected.getMessage());
+            }
+            try {
+                inputType.newDecoder(huge, 1).readPackedFloats();
+                fail(inputType.name() + ": Should have thrown an exception!");
+            } catch (InvalidProtocolBufferException expected) {
+                assertEquals(
+                        inputType.name(),
+                        InvalidProtocolBufferException.truncatedMessage().getMessage(),
+                        expected.getMessage());
+            }
+            try {
+                inputType.newDecoder(huge, 3).readPackedFixed32s();
+                fail(inputType.name() + ": Should have thrown an exception!");
+            } catch (InvalidProtocolBufferException expected) {
+                assertEquals(
+                        inputType.name(),
+                        InvalidProtocolBufferException.truncatedMessage().getMessage(),
+                        expected.getMessage());
+            }
+        }
+    }
+
+    public void testReadPackedAliased() throws Exception {
+        ByteString.Output rawOutput = ByteString.newOutput();
+        CodedOutputStream output = CodedOutputStream.newInstance(rawOutput);
+        output.writeUInt32NoTag(16);
+        output.writeDoubleNoTag(1.5);
+        output.writeDoubleNoTag(-2);
+        output.writeUInt32NoTag(8);
+        output.writeFixed32NoTag(7);
+        output.writeFixed32NoTag(-7);
+        output.writeUInt32NoTag(4);
+        output.writeFloatNoTag(0.5f);
+        output.flush();
+        byte[] data = rawOutput.toByteString().toByteArray();
+
+        // Starting 7 bytes in, the doubles are aligned in the buffer, the ints and the float are not
+        Uint8Array array = toUint8Array(data, 7);
+        CodedInputStream input = CodedInputStream.newInstance(array);
+        input.enableAliasing(true);
+        Float64Array doubles = input.readPackedDoubles();
+        assertSame(array.buffer, doubles.buffer);
+        assertEquals(8, doubles.byteOffset);
+        assertEquals(2, doubles.length);
+        assertEquals(-2.0, doubles.getAt(1));
+        Int32Array ints = input.readPackedFixed32s();
+        assertNotSame(array.buffer, ints.buffer);
+        assertEquals(2, ints.length);
+        assertEquals(-7.0, ints.getAt(1));
+        Float32Array floats = input.readPackedFloats();
+        assertNotSame(array.buffer, floats.buffer);
+        assertEquals(0.5, floats.getAt(0));
+        assertTrue(input.isAtEnd());
+
+        // Without aliasing, the values are always copied
+        input = CodedInputStream.newInstance(array);
+        assertNotSame(array.buffer, input.readPackedDoubles().buffer);
+        assertEquals(-7.0, input.readPackedFixed32s().getAt(1));
+
+        // A byte[] input can't be aliased as a typed array
+        input = CodedInputStream.newInstance(data);
+        input.enableAliasing(true);
+        assertEquals(1.5, input.readPackedDoubles().getAt(0));
+    }
+
+    public void testReadBytesFromTypedArray() throws Exception {
+        ByteString.Output rawOutput = ByteString.newOutput();
+        CodedOutputStream output = CodedOutputStream.newInstance(rawOutput);
+        output.writeBytesNoTag(ByteString.copyFromUtf8("héllo, world"));
+        output.writeBytesNoTag(ByteString.copyFrom(new byte[] {-1, 0, 1, -128}));
+        output.flush();
+        byte[] data = rawOutput.toByteString().toByteArray();
+
+        Uint8Array array = toUint8Array(data, 3);
+        CodedInputStream input = CodedInputStream.newInstance(
+                array.buffer, array.byteOffset, array.length, /* bufferIsImmutable= */ true);
+        input.enableAliasing(true);
+        ByteString text = input.readBytes();
+        ByteString bytes = input.readBytes();
+        assertTrue(input.isAtEnd());
+
+        // With aliasing, the byte strings are views of an immutable input
+        Uint8Array view = bytes.asUint8Array();
+        assertSame(array.buffer, view.buffer);
+        assertEquals(3 + data.length - 4, view.byteOffset);
+        assertEquals(255.0, view.getAt(0));
+        assertEquals(-1, bytes.byteAt(0));
+        assertEquals(-128, bytes.byteAt(3));
+        assertArrayEquals(new byte[] {-1, 0, 1, -128}, bytes.toByteArray());
+        assertEquals("héllo, world", text.toStringUtf8());
+        assertTrue(text.isValidUtf8());
+        assertFalse(bytes.isValidUtf8());
+
+        // They compare and hash like any other byte string
+        ByteString literal = ByteString.copyFromUtf8("héllo, world");
+        assertEquals(literal, text);
+        assertEquals(text, literal);
+        assertEquals(literal.hashCode(), text.hashCode());
+        assertFalse(text.equals(ByteString.copyFromUtf8("héllo, World")));
+        assertEquals(
+                ByteString.copyFrom(new byte[] {12}).concat(literal),
+                ByteString.copyFrom(new byte[] {12}).concat(text));
+
+        // Substrings are views of the same bytes
+        ByteString world = text.substring(8);
+        assertEquals("world", world.toStringUtf8());
+        assertSame(array.buffer, world.asUint8Array().buffer);
+        assertEquals(literal.substring(8), world);
+        assertEquals(literal.substring(8).hashCode(), world.hashCode());
+        assertSame(ByteString.EMPTY, text.substring(2, 2));
+        try {
+            text.substring(5, 4);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+        try {
+            bytes.byteAt(4);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+
+        // Parsing from the byte string reads its bytes in place
+        CodedInputStream textInput = text.newCodedInput();
+        assertEquals("héllo", ByteString.copyFrom(textInput.readRawBytes(6)).toStringUtf8());
+        assertEquals(text.size() - 6, textInput.getBytesUntilLimit());
+
+        // Writing copies the bytes out, whether to a typed array or a byte[]
+        Uint8ArrayOutput typedOutput = new Uint8ArrayOutput();
+        CodedOutputStream typedCoded = CodedOutputStream.newInstance(typedOutput);
+        typedCoded.writeBytesNoTag(text);
+        typedCoded.writeBytesNoTag(bytes);
+        typedCoded.flush();
+        Uint8Array written = typedOutput.toUint8Array();
+        assertEquals(data.length, written.length);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i] & 0xFF, written.getAt(i).intValue());
+        }
+        assertEquals(ByteString.copyFrom(data), ByteString.copyFrom(written));
+        rawOutput = ByteString.newOutput();
+        output = CodedOutputStream.newInstance(rawOutput);
+        output.writeBytesNoTag(text);
+        output.writeBytesNoTag(bytes);
+        output.flush();
+        assertArrayEquals(data, rawOutput.toByteString().toByteArray());
+
+        // Without aliasing, the bytes are copied into a typed array of their own
+        input = CodedInputStream.newInstance(array);
+        ByteString copy = input.readBytes();
+        assertEquals(literal, copy);
+        assertNotSame(array.buffer, copy.asUint8Array().buffer);
+        assertSame(copy.asUint8Array(), copy.asUint8Array());
+
+        // Other byte strings return a copy of their bytes
+        Uint8Array literalArray = literal.asUint8Array();
+        assertNotSame(literalArray, literal.asUint8Array());
+        assertEquals(literal, ByteString.copyFrom(literalArray));
+    }
+
+    public void testReadBytesAliasingMutableTypedArray() throws Exception {
+        ByteString.Output rawOutput = ByteString.newOutput();
+        CodedOutputStream output = CodedOutputStream.newInstance(rawOutput);
+        output.writeBytesNoTag(ByteString.copyFromUtf8("hello"));
+        output.flush();
+        byte[] data = rawOutput.toByteString().toByteArray();
+
+        // The caller may still change a Uint8Array input, so even with aliasing the bytes are copied
+        Uint8Array array = toUint8Array(data, 0);
+        CodedInputStream input = CodedInputStream.newInstance(array);
+        input.enableAliasing(true);
+        ByteString bytes = input.readBytes();
+        array.setAt(1, (double) 'j');
+        assertEquals("hello", bytes.toStringUtf8());
+        assertNotSame(array.buffer, bytes.asUint8Array().buffer);
+
+        // A typed array byte string can't change, so reading from it aliases its bytes
+        ByteString typedSource = ByteString.copyFrom(toUint8Array(data, 0));
+        input = typedSource.newCodedInput();
+        input.enableAliasing(true);
+        assertSame(typedSource.asUint8Array().buffer, input.readBytes().asUint8Array().buffer);
+    }
+
     /** Test decodeZigZag32() and decodeZigZag64(). */
     public void testDecodeZigZag() throws Exception {
         assertEquals(CodedInputStream.decodeZigZag32(0), 0);
@@ -927,6 +1276,57 @@ public class CodedInputStreamTest extends GWTTestCase {
         }
     }
 
+    /**
+     * Tests reading strings long enough to be decoded by the platform rather than char by char,
+     * including a leading byte order mark, which must be kept.
+     */
+    public void testReadLongNonAsciiString() throws Exception {
+        StringBuilder builder = new StringBuilder("\ufeff");
+        while (builder.length() < 200) {
+            builder.append("a\u00e9\u4e2d\ud83d\ude00 ");
+        }
+        String text = builder.toString();
+        byte[] bytes = text.getBytes("UTF-8");
+        ByteString.Output rawOutput = ByteString.newOutput();
+        CodedOutputStream output = CodedOutputStream.newInstance(rawOutput);
+        output.writeUInt32NoTag(bytes.length);
+        output.writeRawBytes(bytes);
+        output.writeUInt32NoTag(bytes.length);
+        output.writeRawBytes(bytes);
+        output.flush();
+
+        byte[] rawInput = rawOutput.toByteString().toByteArray();
+        for (InputType inputType : InputType.values()) {
+            CodedInputStream input = inputType.newDecoder(rawInput);
+            assertEquals(inputType.name(), text, input.readString());
+            assertEquals(inputType.name(), text, input.readStringRequireUtf8());
+            assertTrue(inputType.name(), input.isAtEnd());
+        }
+    }
+
+    /** As testReadStringRequireUtf8InvalidUtf8, but long enough to be decoded by the platform. */
+    public void testReadLongStringRequireUtf8InvalidUtf8() throws Exception {
+        byte[] bytes = new byte[100];
+        Arrays.fill(bytes, (byte) 'a');
+        bytes[50] = (byte) 0x80;
+        ByteString.Output rawOutput = ByteString.newOutput();
+        CodedOutputStream output = CodedOutputStream.newInstance(rawOutput);
+        output.writeUInt32NoTag(bytes.length);
+        output.writeRawBytes(bytes);
+        output.flush();
+
+        byte[] rawInput = rawOutput.toByteString().toByteArray();
+        for (InputType inputType : InputType.values()) {
+            CodedInputStream input = inputType.newDecoder(rawInput);
+            try {
+                input.readStringRequireUtf8();
+                fail(inputType.name() + ": Expected invalid UTF-8 exception.");
+            } catch (InvalidProtocolBufferException expected) {
+                // success
+            }
+        }
+    }
+
     // This case fails in GWT
 //    /**
 //     * Tests that if we readString invalid UTF-8 bytes, no exception is thrown. Instead, the invalid
@@ -994,6 +1394,19 @@ public class CodedInputStreamTest extends GWTTestCase {
         assertEquals(in.getTotalBytesRead(), 5);
     }
 
+    public void testReadFromArrayBufferSlice() throws Exception {
+        ArrayBuffer buffer = toUint8Array(bytes(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), 0).buffer;
+        CodedInputStream in = CodedInputStream.newInstance(buffer, 3, 5);
+        assertEquals(in.getTotalBytesRead(), 0);
+        for (int i = 3; i < 8; i++) {
+            assertEquals(in.readRawByte(), i);
+            assertEquals(in.getTotalBytesRead(), i - 2);
+        }
+        // eof
+        assertEquals(in.readTag(), 0);
+        assertEquals(in.getTotalBytesRead(), 5);
+    }
+
     public void testInvalidTag() throws Exception {
         // Any tag number which corresponds to field number zero is invalid and
         // should throw InvalidProtocolBufferException.
@@ -1222,6 +1635,50 @@ public class CodedInputStreamTest extends GWTTestCase {
         }
     }
 
+    public void testIterableByteBufferReadsLazily() throws Exception {
+        final List<ByteBuffer> chunks = new ArrayList<>();
+        byte[][] data = {bytes(0x96), bytes(0x01, 0x02), bytes(0x03, 0x80), bytes(0x01)};
+        for (byte[] chunk : data) {
+            ByteBuffer rb = ByteBuffer.allocateDirect(chunk.length);
+            rb.put(chunk);
+            rb.flip();
+            chunks.add(rb);
+        }
+        final int[] taken = new int[1];
+        Iterable<ByteBuffer> input = () -> new Iterator<ByteBuffer>() {
+            private final Iterator<ByteBuffer> delegate = chunks.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public ByteBuffer next() {
+                taken[0]++;
+                return delegate.next();
+            }
+        };
+        CodedInputStream decoder = CodedInputStream.newInstance(input);
+        assertEquals(0, taken[0]);
+
+        // Each value straddles two buffers, which are only taken when they are needed
+        assertEquals(150, decoder.readRawVarint32());
+        assertEquals(2, taken[0]);
+        assertEquals(2, decoder.readRawByte());
+        assertEquals(2, taken[0]);
+        assertEquals(3, decoder.readRawByte());
+        assertEquals(3, taken[0]);
+        assertEquals(128, decoder.readRawVarint32());
+        assertEquals(4, taken[0]);
+        assertTrue(decoder.isAtEnd());
+        assertEquals(6, decoder.getTotalBytesRead());
+
+        for (ByteBuffer chunk : chunks) {
+            assertEquals(0, chunk.position());
+        }
+    }
+
     public void testIterableByteBufferInputStreamReadBytesWithAlias() throws Exception {
         ByteArrayOutputStream byteArrayStream = new ByteArrayOutputStream();
         CodedOutputStream output = CodedOutputStream.newInstance(byteArrayStream);
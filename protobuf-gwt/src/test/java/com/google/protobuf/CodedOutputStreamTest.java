@@ -0,0 +1,455 @@
+package com.google.protobuf;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.protobuf.gwt.LongBits;
+import com.google.protobuf.gwt.Uint8ArrayOutput;
+import elemental2.core.Float64Array;
+import elemental2.core.Uint8Array;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import jsinterop.base.Js;
+
+public class CodedOutputStreamTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "com.vertispan.protobuf.ProtobufTest";
+    }
+
+    private enum OutputType {
+        ARRAY {
+            @Override
+            byte[] writeString(String value) throws IOException {
+                byte[] result = new byte[CodedOutputStream.computeStringSizeNoTag(value)];
+                CodedOutputStream output = CodedOutputStream.newInstance(result);
+                output.writeStringNoTag(value);
+                output.checkNoSpaceLeft();
+                return result;
+            }
+        },
+        BYTE_OUTPUT {
+            @Override
+            byte[] writeString(String value) throws IOException {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                CodedOutputStream output = CodedOutputStream.newInstance(new ByteOutput() {
+                    @Override
+                    public void write(byte value) {
+                        bytes.write(value);
+                    }
+
+                    @Override
+                    public void write(byte[] value, int offset, int length) {
+                        bytes.write(value, offset, length);
+                    }
+
+                    @Override
+                    public void writeLazy(byte[] value, int offset, int length) {
+                        bytes.write(value, offset, length);
+                    }
+
+                    @Override
+                    public void write(ByteBuffer value) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public void writeLazy(ByteBuffer value) {
+                        throw new UnsupportedOperationException();
+                    }
+                }, 4096);
+                output.writeStringNoTag(value);
+                output.flush();
+                return bytes.toByteArray();
+            }
+        },
+        STREAM {
+            @Override
+            byte[] writeString(String value) throws IOException {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                CodedOutputStream output = CodedOutputStream.newInstance(bytes, 4096);
+                output.writeStringNoTag(value);
+                output.flush();
+                return bytes.toByteArray();
+            }
+        },
+        TYPED_ARRAY {
+            @Override
+            byte[] writeString(String value) throws IOException {
+                // Offset the range into the array, to be sure the encoder respects it
+                Uint8Array result = new Uint8Array(CodedOutputStream.computeStringSizeNoTag(value) + 1);
+                CodedOutputStream output = CodedOutputStream.newInstance(result, 1, result.length - 1);
+                output.writeStringNoTag(value);
+                output.checkNoSpaceLeft();
+                return toByteArray(result, 1);
+            }
+        },
+        GROWABLE_TYPED_ARRAY {
+            @Override
+            byte[] writeString(String value) throws IOException {
+                Uint8ArrayOutput result = new Uint8ArrayOutput(1);
+                CodedOutputStream output = CodedOutputStream.newInstance(result);
+                output.writeStringNoTag(value);
+                output.flush();
+                return toByteArray(result.toUint8Array(), 0);
+            }
+        },
+        BYTE_OUTPUT_TYPED_ARRAY {
+            @Override
+            byte[] writeString(String value) throws IOException {
+                Uint8ArrayOutput result = new Uint8ArrayOutput(1);
+                CodedOutputStream output = CodedOutputStream.newInstance(result, 4096);
+                output.writeStringNoTag(value);
+                output.flush();
+                return toByteArray(result.toUint8Array(), 0);
+            }
+        };
+
+        abstract byte[] writeString(String value) throws IOException;
+    }
+
+    private static byte[] toByteArray(Uint8Array array, int offset) {
+        byte[] bytes = new byte[array.length - offset];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = array.getAt(offset + i).byteValue();
+        }
+        return bytes;
+    }
+
+    private static ListValue createList() {
+        ListValue.Builder builder = ListValue.newBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.addValues(Value.newBuilder().setStringValue("value " + i + repeat("é", i)));
+            builder.addValues(Value.newBuilder().setNumberValue(i * -1.5));
+            builder.addValues(Value.newBuilder().setBoolValue(i % 2 == 0));
+        }
+        return builder.build();
+    }
+
+    private static String repeat(String s, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+
+    private static byte[] expectedBytes(String value) throws IOException {
+        byte[] utf8 = value.getBytes(Internal.UTF_8);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(expected);
+        output.writeUInt32NoTag(utf8.length);
+        output.flush();
+        expected.write(utf8, 0, utf8.length);
+        return expected.toByteArray();
+    }
+
+    private static void assertWritesString(String value) throws Exception {
+        byte[] expected = expectedBytes(value);
+        for (OutputType outputType : OutputType.values()) {
+            byte[] actual = outputType.writeString(value);
+            assertEquals(outputType.name(), CodedOutputStream.computeStringSizeNoTag(value), actual.length);
+            assertTrue(outputType.name(), Arrays.equals(expected, actual));
+        }
+    }
+
+    public void testWriteShortString() throws Exception {
+        assertWritesString("");
+        assertWritesString("a");
+        assertWritesString("é中😀");
+    }
+
+    public void testWriteLongString() throws Exception {
+        assertWritesString(repeat("x", 300));
+        assertWritesString(repeat("é中", 50));
+        // Surrogate pairs
+        assertWritesString(repeat("😀", 100));
+        // Between 43 and 127 chars, the length varint may take one or two bytes
+        assertWritesString(repeat("中", 43));
+        assertWritesString(repeat("x", 60));
+    }
+
+    public void testWriteLongStringWithReplacementCharacter() throws Exception {
+        assertWritesString(repeat("a�", 40));
+    }
+
+    public void testWriteLongStringUnpairedSurrogate() throws Exception {
+        // Ill-formed strings fall back to String.getBytes, in the same way they are measured
+        assertWritesString(repeat("a", 40) + "\uD83D" + repeat("b", 40));
+        assertWritesString(repeat("a", 40) + "\uDE00");
+    }
+
+    public void testWriteLongStringNoSpace() throws Exception {
+        String value = repeat("é", 40);
+        CodedOutputStream output = CodedOutputStream.newInstance(new byte[value.length()]);
+        try {
+            output.writeStringNoTag(value);
+            fail("Should have thrown an exception!");
+        } catch (CodedOutputStream.OutOfSpaceException expected) {
+            // success
+        }
+    }
+
+    public void testWriteMessageToUint8Array() throws Exception {
+        ListValue expected = createList();
+        Uint8Array array = Uint8ArrayOutput.toUint8Array(expected);
+        assertEquals(expected.getSerializedSize(), array.length);
+        assertTrue(Arrays.equals(expected.toByteArray(), toByteArray(array, 0)));
+        assertEquals(expected, ListValue.parseFrom(CodedInputStream.newInstance(array)));
+    }
+
+    public void testWriteMessagesToGrowableOutput() throws Exception {
+        ListValue expected = createList();
+        Uint8ArrayOutput output = new Uint8ArrayOutput(16);
+        for (int i = 0; i < 3; i++) {
+            CodedOutputStream coded = CodedOutputStream.newInstance(output);
+            expected.writeTo(coded);
+            coded.flush();
+            assertEquals((i + 1) * expected.getSerializedSize(), output.size());
+        }
+        CodedInputStream input = CodedInputStream.newInstance(output.toUint8Array());
+        for (int i = 0; i < 3; i++) {
+            int oldLimit = input.pushLimit(expected.getSerializedSize());
+            assertEquals(expected, ListValue.parseFrom(input));
+            input.popLimit(oldLimit);
+        }
+        assertTrue(input.isAtEnd());
+
+        output.reset();
+        assertEquals(0, output.size());
+        assertEquals(0, output.toUint8Array().length);
+    }
+
+    public void testWriteToTypedArrayNoSpace() throws Exception {
+        CodedOutputStream output = CodedOutputStream.newInstance(new Uint8Array(4));
+        output.writeFixed32NoTag(1);
+        try {
+            output.write((byte) 1);
+            fail("Should have thrown an exception!");
+        } catch (CodedOutputStream.OutOfSpaceException expected) {
+            // success
+        }
+    }
+
+    private interface Writer {
+        void write(CodedOutputStream output) throws IOException;
+    }
+
+    /**
+     * Writes to a stream and to a small growable typed array, which grows in the middle of the
+     * writes, and checks that both produce the same bytes.
+     */
+    private static byte[] writeToBoth(Writer writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream stream = CodedOutputStream.newInstance(bytes, 4096);
+        writer.write(stream);
+        stream.flush();
+        Uint8ArrayOutput typed = new Uint8ArrayOutput(3);
+        CodedOutputStream coded = CodedOutputStream.newInstance(typed);
+        writer.write(coded);
+        coded.flush();
+        assertTrue(Arrays.equals(bytes.toByteArray(), toByteArray(typed.toUint8Array(), 0)));
+        return bytes.toByteArray();
+    }
+
+    public void testWriteFixedWidthToTypedArray() throws Exception {
+        byte[] bytes = writeToBoth(output -> {
+            output.writeDouble(1, 0.1);
+            output.writeDoubleNoTag(-0.0);
+            output.writeDoubleNoTag(Double.NaN);
+            output.writeFloat(2, 1.5f);
+            output.writeFloatNoTag(-Float.MAX_VALUE);
+            output.writeFixed32(3, -2);
+            output.writeSFixed64(4, Long.MIN_VALUE + 5);
+            output.writeFixed64NoTag(0x123456789ABCDEFL);
+            output.writeFixed64StringNoTag("18446744073709551615");
+        });
+        CodedInputStream input = CodedInputStream.newInstance(bytes);
+        assertEquals(WireFormat.makeTag(1, WireFormat.WIRETYPE_FIXED64), input.readTag());
+        assertEquals(0.1, input.readDouble());
+        assertEquals(Double.NEGATIVE_INFINITY, 1 / input.readDouble());
+        assertTrue(Double.isNaN(input.readDouble()));
+        assertEquals(WireFormat.makeTag(2, WireFormat.WIRETYPE_FIXED32), input.readTag());
+        assertEquals(1.5f, input.readFloat());
+        assertEquals(-Float.MAX_VALUE, input.readFloat());
+        input.readTag();
+        assertEquals(-2, input.readFixed32());
+        input.readTag();
+        assertEquals(Long.MIN_VALUE + 5, input.readSFixed64());
+        assertEquals(0x123456789ABCDEFL, input.readFixed64());
+        assertEquals(-1L, input.readFixed64());
+        assertTrue(input.isAtEnd());
+    }
+
+    public void testWritePackedTypedArray() throws Exception {
+        Float64ArrayList doubles = new Float64ArrayList();
+        Int32ArrayList ints = new Int32ArrayList();
+        Int32PairArrayList longs = new Int32PairArrayList();
+        for (int i = 0; i < 25; i++) {
+            doubles.addDouble(i / 3.0);
+            ints.addInt(-i * 1000003);
+            longs.addLong(-i * 1000000007L);
+        }
+        Float32ArrayList floats = new Float32ArrayList();
+        floats.addFloat(0.25f);
+        floats.addFloat(Float.MIN_VALUE);
+
+        byte[] expected = writeToBoth(output -> {
+            output.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(doubles.size() * 8);
+            for (int i = 0; i < doubles.size(); i++) {
+                output.writeDoubleNoTag(doubles.getDouble(i));
+            }
+            output.writeTag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(floats.size() * 4);
+            for (int i = 0; i < floats.size(); i++) {
+                output.writeFloatNoTag(floats.getFloat(i));
+            }
+            output.writeTag(3, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(ints.size() * 4);
+            for (int i = 0; i < ints.size(); i++) {
+                output.writeSFixed32NoTag(ints.getInt(i));
+            }
+            output.writeTag(4, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(longs.size() * 8);
+            for (int i = 0; i < longs.size(); i++) {
+                output.writeSFixed64NoTag(longs.getLong(i));
+            }
+        });
+        byte[] bulk = writeToBoth(output -> {
+            output.writePackedTypedArray(1, doubles.asFloat64Array());
+            output.writePackedTypedArray(2, floats.asFloat32Array());
+            output.writePackedTypedArray(3, ints.asInt32Array());
+            output.writePackedTypedArray(4, longs.asInt32Array());
+        });
+        assertTrue(Arrays.equals(expected, bulk));
+
+        // A view that starts part way into its buffer
+        Float64Array tail = Js.uncheckedCast(doubles.asFloat64Array().subarray(20));
+        byte[] bytes = writeToBoth(output -> output.writeRawTypedArray(tail));
+        assertEquals(40, bytes.length);
+        assertEquals(20 / 3.0, CodedInputStream.newInstance(bytes).readDouble());
+    }
+
+    private static final long[] LONGS = {
+            0, 1, -1, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE, 0xFFFFFFFFL, 1L << 32, (1L << 53) - 1,
+            -(1L << 53), 1234567890123456789L, -987654321098765432L, Long.MAX_VALUE, Long.MIN_VALUE
+    };
+
+    private interface LongWriter {
+        void write(CodedOutputStream output, long value) throws IOException;
+    }
+
+    private static byte[] writeAll(LongWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        for (long value : LONGS) {
+            writer.write(output, value);
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    /** Formats the value as unsigned, since GWT doesn't emulate Long.toUnsignedString(). */
+    private static String unsignedString(long value) {
+        if (value >= 0) {
+            return Long.toString(value);
+        }
+        long quotient = (value >>> 1) / 5;
+        return Long.toString(quotient) + (value - quotient * 10);
+    }
+
+    /**
+     * Returns the bits a JS number variant writes for the value rounded to a double. Long.MAX_VALUE
+     * rounds to 2^63, which is taken as unsigned rather than saturated as a cast to long would be.
+     */
+    private static long numberBits(long value) {
+        return value == Long.MAX_VALUE ? Long.MIN_VALUE : (long) (double) value;
+    }
+
+    public void testWriteJsTypeVariants() throws Exception {
+        // Each variant must produce exactly the bytes of the long write
+        assertTrue(Arrays.equals(writeAll((o, v) -> o.writeInt64(1, v)),
+                writeAll((o, v) -> o.writeInt64String(1, Long.toString(v)))));
+        assertTrue(Arrays.equals(writeAll((o, v) -> o.writeUInt64NoTag(v)),
+                writeAll((o, v) -> o.writeUInt64StringNoTag(unsignedString(v)))));
+        assertTrue(Arrays.equals(writeAll((o, v) -> o.writeSInt64(2, v)),
+                writeAll((o, v) -> o.writeSInt64String(2, Long.toString(v)))));
+        assertTrue(Arrays.equals(writeAll((o, v) -> o.writeFixed64(3, v)),
+                writeAll((o, v) -> o.writeFixed64String(3, unsignedString(v)))));
+        assertTrue(Arrays.equals(writeAll((o, v) -> o.writeSFixed64NoTag(v)),
+                writeAll((o, v) -> o.writeSFixed64StringNoTag(Long.toString(v)))));
+        assertTrue(Arrays.equals(writeAll((o, v) -> o.writeInt64NoTag(numberBits(v))),
+                writeAll((o, v) -> o.writeInt64NumberNoTag((double) v))));
+        assertTrue(Arrays.equals(writeAll((o, v) -> o.writeSInt64NoTag(numberBits(v))),
+                writeAll((o, v) -> o.writeSInt64NumberNoTag((double) v))));
+        assertTrue(Arrays.equals(writeAll((o, v) -> o.writeSFixed64(4, numberBits(v))),
+                writeAll((o, v) -> o.writeSFixed64Number(4, (double) v))));
+
+        for (long value : LONGS) {
+            String decimal = Long.toString(value);
+            assertEquals(CodedOutputStream.computeInt64Size(5, value),
+                    CodedOutputStream.computeInt64StringSize(5, decimal));
+            assertEquals(CodedOutputStream.computeUInt64SizeNoTag(value),
+                    CodedOutputStream.computeUInt64StringSizeNoTag(unsignedString(value)));
+            assertEquals(CodedOutputStream.computeSInt64SizeNoTag(value),
+                    CodedOutputStream.computeSInt64StringSizeNoTag(decimal));
+            assertEquals(CodedOutputStream.computeSInt64SizeNoTag(numberBits(value)),
+                    CodedOutputStream.computeSInt64NumberSizeNoTag((double) value));
+        }
+
+        // Unsigned numbers at and above 2^63, and fractions, which are truncated
+        assertTrue(Arrays.equals(writeAll((o, v) -> o.writeUInt64NoTag(-2048L)),
+                writeAll((o, v) -> o.writeUInt64NumberNoTag(18446744073709549568.0))));
+        assertTrue(Arrays.equals(writeAll((o, v) -> o.writeInt64NoTag(-3)),
+                writeAll((o, v) -> o.writeInt64NumberNoTag(-3.75))));
+    }
+
+    public void testReadJsTypeVariants() throws Exception {
+        byte[] bytes = writeAll((o, v) -> {
+            o.writeInt64NoTag(v);
+            o.writeSInt64NoTag(v);
+            o.writeFixed64NoTag(v);
+        });
+        CodedInputStream input = CodedInputStream.newInstance(bytes);
+        CodedInputStream numbers = CodedInputStream.newInstance(bytes);
+        for (long value : LONGS) {
+            assertEquals(Long.toString(value), input.readInt64String());
+            assertEquals(Long.toString(value), input.readSInt64String());
+            assertEquals(unsignedString(value), input.readFixed64String());
+            assertEquals((double) value, numbers.readInt64Number());
+            assertEquals((double) value, numbers.readSInt64Number());
+            assertEquals((double) value, numbers.readSFixed64Number());
+        }
+        assertTrue(input.isAtEnd());
+        assertTrue(numbers.isAtEnd());
+
+        input = CodedInputStream.newInstance(bytes);
+        assertEquals("0", input.readUInt64String());
+        input.readSInt64Number();
+        assertEquals(0.0, input.readFixed64Number());
+        input.readInt64String();
+        input.readSInt64String();
+        assertEquals("1", input.readSFixed64String());
+        assertEquals(18446744073709551615.0, input.readUInt64Number());
+    }
+
+    public void testSplitDecimalStringErrors() {
+        for (String value : Arrays.asList("", "-", "+", "1a", "1.0", " 1", "18446744073709551616",
+                "-18446744073709551616", "100000000000000000000")) {
+            try {
+                LongBits.splitDecimalString(value);
+                fail(value);
+            } catch (NumberFormatException expected) {
+            }
+        }
+        assertEquals(-1, LongBits.splitDecimalString("18446744073709551615"));
+        assertEquals(-1, LongBits.getLastHighBits());
+        assertEquals(1, LongBits.splitDecimalString("-18446744073709551615"));
+        assertEquals(0, LongBits.getLastHighBits());
+        assertEquals(0, LongBits.splitDecimalString("+000000000000000000000004294967296"));
+        assertEquals(1, LongBits.getLastHighBits());
+    }
+}
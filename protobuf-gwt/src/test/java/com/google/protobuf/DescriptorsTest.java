@@ -0,0 +1,297 @@
+package com.google.protobuf;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.Edition;
+import com.google.protobuf.DescriptorProtos.EnumDescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumValueDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FeatureSet;
+import com.google.protobuf.DescriptorProtos.FeatureSetDefaults;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldOptions;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileOptions;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+
+public class DescriptorsTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "com.vertispan.protobuf.ProtobufTest";
+    }
+
+    private static FieldDescriptorProto field(String name, int number, FieldDescriptorProto.Type type) {
+        return FieldDescriptorProto.newBuilder()
+                .setName(name)
+                .setNumber(number)
+                .setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL)
+                .setType(type)
+                .build();
+    }
+
+    /** Embeds the file the same way protoc does, as latin-1 strings. */
+    private static String[] descriptorData(FileDescriptorProto proto) {
+        String data = new String(proto.toByteArray(), Internal.ISO_8859_1);
+        int half = data.length() / 2;
+        return new String[] {data.substring(0, half), data.substring(half)};
+    }
+
+    private static FileDescriptorProto createFile() {
+        return FileDescriptorProto.newBuilder()
+                .setName("lazy.proto")
+                .setPackage("lazy")
+                .setSyntax("proto3")
+                .addDependency("google/protobuf/struct.proto")
+                .addMessageType(DescriptorProto.newBuilder()
+                        .setName("Outer")
+                        .addField(field("id", 1, FieldDescriptorProto.Type.TYPE_INT32))
+                        .addField(field("inner", 2, FieldDescriptorProto.Type.TYPE_MESSAGE).toBuilder()
+                                .setTypeName(".lazy.Outer.Inner"))
+                        .addField(field("value", 3, FieldDescriptorProto.Type.TYPE_MESSAGE).toBuilder()
+                                .setTypeName(".google.protobuf.Value"))
+                        .addNestedType(DescriptorProto.newBuilder()
+                                .setName("Inner")
+                                .addField(field("name", 1, FieldDescriptorProto.Type.TYPE_STRING))))
+                .addMessageType(DescriptorProto.newBuilder().setName("Other"))
+                .build();
+    }
+
+    private static FileDescriptor buildGeneratedFile(FileDescriptorProto proto) {
+        return FileDescriptor.internalBuildGeneratedFileFrom(
+                descriptorData(proto), new FileDescriptor[] {StructProto.getDescriptor()});
+    }
+
+    public void testLazyFileKeepsDescriptorIdentity() {
+        FileDescriptor file = buildGeneratedFile(createFile());
+        // Handed out the way generated code assigns its static descriptors, before the file is built
+        Descriptor outer = file.getMessageType(0);
+        Descriptor inner = outer.getNestedType(0);
+        Descriptor other = file.getMessageType(1);
+        assertSame(outer, file.getMessageType(0));
+        assertSame(inner, outer.getNestedType(0));
+        file.resolveAllFeaturesImmutable();
+        GeneratedMessage.FieldAccessorTable table = new GeneratedMessage.FieldAccessorTable(
+                outer, new String[] {"Id", "Inner", "Value"});
+        assertNotNull(table);
+
+        // Any other use builds the file in place
+        assertEquals("lazy.Outer.Inner", inner.getFullName());
+        assertEquals(2, file.getMessageTypeCount());
+        assertSame(outer, file.getMessageTypes().get(0));
+        assertSame(other, file.findMessageTypeByName("Other"));
+        assertSame(inner, outer.getNestedTypes().get(0));
+        assertSame(inner, outer.findFieldByName("inner").getMessageType());
+        assertSame(outer, outer.findFieldByNumber(1).getContainingType());
+        assertSame(Value.getDescriptor(), outer.findFieldByName("value").getMessageType());
+        assertSame(outer, inner.getContainingType());
+        assertSame(file, inner.getFile());
+        // Descriptors handed out before the build keep working after it
+        assertSame(inner, outer.getNestedType(0));
+        assertSame(outer, file.getMessageType(0));
+    }
+
+    public void testLazyFileBuiltFromDescriptor() {
+        FileDescriptor file = buildGeneratedFile(createFile());
+        // Nothing was handed out before the file was built
+        assertEquals("lazy", file.getPackage());
+        Descriptor outer = file.getMessageType(0);
+        assertEquals("lazy.Outer", outer.getFullName());
+        assertEquals(3, outer.getFieldCount());
+        assertEquals("lazy.Outer.Inner", outer.getNestedType(0).getFullName());
+        assertEquals(FieldDescriptor.Type.STRING, outer.getNestedType(0).getFields().get(0).getType());
+
+        DynamicMessage message = DynamicMessage.newBuilder(outer)
+                .setField(outer.findFieldByName("id"), 7)
+                .build();
+        assertEquals(7, message.getField(outer.findFieldByNumber(1)));
+    }
+
+    private static FileDescriptor buildGeneratedFile(FileDescriptorProto proto, int... linkTable) {
+        return FileDescriptor.internalBuildGeneratedFileFrom(
+                descriptorData(proto), new FileDescriptor[] {StructProto.getDescriptor()}, linkTable);
+    }
+
+    private static void assertLinked(FileDescriptor file) {
+        Descriptor outer = file.getMessageType(0);
+        assertSame(outer.getNestedType(0), outer.findFieldByName("inner").getMessageType());
+        assertSame(Value.getDescriptor(), outer.findFieldByName("value").getMessageType());
+        assertEquals(FieldDescriptor.Type.MESSAGE, outer.findFieldByName("value").getType());
+    }
+
+    public void testLinkTable() {
+        // Outer.inner is type 1 of this file, after Outer, and Outer.value is type 2 of struct.proto,
+        // after Struct and Struct.FieldsEntry
+        assertLinked(buildGeneratedFile(createFile(), 1, (1 << 20) | 2));
+        // A table that is too short, or with unresolved entries, is looked up by name instead
+        assertLinked(buildGeneratedFile(createFile(), 1));
+        assertLinked(buildGeneratedFile(createFile(), -1, -1));
+    }
+
+    public void testLinkTableMismatch() {
+        // Entries that refer to the wrong type, or to no type at all, are looked up by name instead
+        assertLinked(buildGeneratedFile(createFile(), 2, (1 << 20) | 3));
+        assertLinked(buildGeneratedFile(createFile(), 99, (5 << 20) | 2));
+    }
+
+    public void testLinkedTypeOrder() {
+        FileDescriptor struct = StructProto.getDescriptor();
+        assertSame(Struct.getDescriptor(), struct.getLinkedType(0));
+        assertSame(Struct.getDescriptor().getNestedType(0), struct.getLinkedType(1));
+        assertSame(Value.getDescriptor(), struct.getLinkedType(2));
+        assertSame(ListValue.getDescriptor(), struct.getLinkedType(3));
+        assertSame(NullValue.getDescriptor(), struct.getLinkedType(4));
+        assertNull(struct.getLinkedType(5));
+    }
+
+    public void testPrecomputedEditionDefaults() throws Exception {
+        ExtensionRegistry registry = ExtensionRegistry.newInstance();
+        registry.add(JavaFeaturesProto.java_);
+        FeatureSetDefaults parsed = FeatureSetDefaults.parseFrom(
+                JavaEditionDefaults.PROTOBUF_INTERNAL_JAVA_EDITION_DEFAULTS.getBytes(Internal.ISO_8859_1), registry);
+        for (Edition edition : new Edition[] {Edition.EDITION_PROTO2, Edition.EDITION_PROTO3,
+                Edition.EDITION_2023, Edition.EDITION_2024}) {
+            assertEquals(edition.toString(),
+                    Descriptors.getEditionDefaults(parsed, edition), Descriptors.getEditionDefaults(edition));
+        }
+        assertEquals(Edition.EDITION_PROTO2, parsed.getMinimumEdition());
+        assertEquals(Edition.EDITION_2024, parsed.getMaximumEdition());
+        try {
+            Descriptors.getEditionDefaults(Edition.EDITION_1_TEST_ONLY);
+            fail("Should have thrown an exception!");
+        } catch (IllegalArgumentException expected) {
+            // success
+        }
+        try {
+            Descriptors.getEditionDefaults(Edition.EDITION_99997_TEST_ONLY);
+            fail("Should have thrown an exception!");
+        } catch (IllegalArgumentException expected) {
+            // success
+        }
+    }
+
+    public void testFeaturesResolvedOnFirstUse() {
+        FileDescriptor file = buildGeneratedFile(createFile());
+        file.resolveAllFeaturesImmutable();
+        Descriptor outer = file.getMessageType(0);
+        FieldDescriptor id = outer.findFieldByName("id");
+        assertNull(id.features);
+        assertNull(outer.features);
+
+        // Only the field and its parents are resolved
+        assertFalse(id.hasPresence());
+        assertNotNull(id.features);
+        assertNotNull(outer.features);
+        assertNotNull(file.features);
+        assertNull(file.findMessageTypeByName("Other").features);
+        assertNull(outer.getNestedType(0).features);
+    }
+
+    public void testEditionFeaturesInherited() {
+        FileDescriptorProto proto = FileDescriptorProto.newBuilder()
+                .setName("editions.proto")
+                .setPackage("editions")
+                .setSyntax("editions")
+                .setEdition(Edition.EDITION_2023)
+                .setOptions(FileOptions.newBuilder()
+                        .setFeatures(FeatureSet.newBuilder().setFieldPresence(FeatureSet.FieldPresence.IMPLICIT)))
+                .addMessageType(DescriptorProto.newBuilder()
+                        .setName("Message")
+                        .addField(field("implicit", 1, FieldDescriptorProto.Type.TYPE_INT32))
+                        .addField(field("explicit", 2, FieldDescriptorProto.Type.TYPE_INT32).toBuilder()
+                                .setOptions(FieldOptions.newBuilder().setFeatures(FeatureSet.newBuilder()
+                                        .setFieldPresence(FeatureSet.FieldPresence.EXPLICIT)))))
+                .build();
+        FileDescriptor file = FileDescriptor.internalBuildGeneratedFileFrom(
+                descriptorData(proto), new FileDescriptor[0]);
+        file.resolveAllFeaturesImmutable();
+        Descriptor message = file.getMessageType(0);
+        assertTrue(message.findFieldByName("explicit").hasPresence());
+        assertFalse(message.findFieldByName("implicit").hasPresence());
+        assertEquals(FeatureSet.RepeatedFieldEncoding.PACKED,
+                message.findFieldByName("implicit").getFeatures().getRepeatedFieldEncoding());
+    }
+
+    private static FileDescriptor buildNumbersFile() throws Exception {
+        DescriptorProto.Builder sparse = DescriptorProto.newBuilder().setName("Sparse");
+        for (int number : new int[] {1, 2, 1000, 536870911}) {
+            sparse.addField(field("field" + number, number, FieldDescriptorProto.Type.TYPE_INT32));
+        }
+        EnumDescriptorProto.Builder values = EnumDescriptorProto.newBuilder().setName("Values");
+        for (int number : new int[] {-5, 0, 1000000}) {
+            values.addValue(EnumValueDescriptorProto.newBuilder().setName("VALUE" + (number + 5)).setNumber(number));
+        }
+        FileDescriptorProto proto = FileDescriptorProto.newBuilder()
+                .setName("numbers.proto")
+                .setPackage("numbers")
+                .addMessageType(DescriptorProto.newBuilder()
+                        .setName("Dense")
+                        .addField(field("third", 3, FieldDescriptorProto.Type.TYPE_INT32))
+                        .addField(field("first", 1, FieldDescriptorProto.Type.TYPE_INT32))
+                        .addField(field("fifth", 5, FieldDescriptorProto.Type.TYPE_INT32)))
+                .addMessageType(sparse)
+                .addEnumType(values)
+                .build();
+        return FileDescriptor.buildFrom(proto, new FileDescriptor[0]);
+    }
+
+    public void testFindFieldByNumber() throws Exception {
+        FileDescriptor file = buildNumbersFile();
+        Descriptor dense = file.findMessageTypeByName("Dense");
+        assertEquals("first", dense.findFieldByNumber(1).getName());
+        assertEquals("third", dense.findFieldByNumber(3).getName());
+        assertEquals("fifth", dense.findFieldByNumber(5).getName());
+        for (int number : new int[] {0, 2, 4, 6, -1, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+            assertNull(dense.findFieldByNumber(number));
+        }
+
+        Descriptor sparse = file.findMessageTypeByName("Sparse");
+        for (FieldDescriptor field : sparse.getFields()) {
+            assertSame(field, sparse.findFieldByNumber(field.getNumber()));
+        }
+        for (int number : new int[] {0, 3, 999, 1001, 536870910, -1, Integer.MIN_VALUE}) {
+            assertNull(sparse.findFieldByNumber(number));
+        }
+    }
+
+    public void testFindValueByNumber() throws Exception {
+        EnumDescriptor values = buildNumbersFile().findEnumTypeByName("Values");
+        for (EnumValueDescriptor value : values.getValues()) {
+            assertSame(value, values.findValueByNumber(value.getNumber()));
+        }
+        assertNull(values.findValueByNumber(1));
+        assertNull(values.findValueByNumber(-4));
+
+        // Unknown values are created once per number, however many there are
+        EnumValueDescriptor[] unknown = new EnumValueDescriptor[100];
+        for (int i = 0; i < unknown.length; i++) {
+            unknown[i] = values.findValueByNumberCreatingIfUnknown(i * 7919 + 1);
+            assertEquals(i * 7919 + 1, unknown[i].getNumber());
+        }
+        for (int i = 0; i < unknown.length; i++) {
+            assertSame(unknown[i], values.findValueByNumberCreatingIfUnknown(i * 7919 + 1));
+        }
+        assertEquals(unknown.length, values.getUnknownEnumValueDescriptorCount());
+        assertSame(values.findValueByNumber(0), values.findValueByNumberCreatingIfUnknown(0));
+    }
+
+    public void testLazyFileValidatedOnFirstUse() {
+        FileDescriptorProto invalid = createFile().toBuilder()
+                .setMessageType(1, DescriptorProto.newBuilder()
+                        .setName("Other")
+                        .addField(field("first", 1, FieldDescriptorProto.Type.TYPE_INT32))
+                        .addField(field("second", 1, FieldDescriptorProto.Type.TYPE_INT32)))
+                .build();
+        FileDescriptor file = buildGeneratedFile(invalid);
+        Descriptor other = file.getMessageType(1);
+        try {
+            other.getFields();
+            fail("Should have thrown an exception!");
+        } catch (IllegalArgumentException expected) {
+            // success
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.google.protobuf;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumDescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumValueDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldOptions;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.OneofDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.gwt.Uint8ArrayOutput;
+import elemental2.core.Uint8Array;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+public class DynamicMessageTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "com.vertispan.protobuf.ProtobufTest";
+    }
+
+    private static FieldDescriptorProto.Builder field(
+            String name, int number, FieldDescriptorProto.Type type, FieldDescriptorProto.Label label) {
+        return FieldDescriptorProto.newBuilder()
+                .setName(name)
+                .setNumber(number)
+                .setType(type)
+                .setLabel(label);
+    }
+
+    private static FieldDescriptorProto.Builder optional(String name, int number, FieldDescriptorProto.Type type) {
+        return field(name, number, type, FieldDescriptorProto.Label.LABEL_OPTIONAL);
+    }
+
+    private static FieldDescriptorProto.Builder repeated(String name, int number, FieldDescriptorProto.Type type) {
+        return field(name, number, type, FieldDescriptorProto.Label.LABEL_REPEATED);
+    }
+
+    private static FileDescriptor buildFile(String syntax) throws Exception {
+        FileDescriptorProto proto = FileDescriptorProto.newBuilder()
+                .setName(syntax + ".proto")
+                .setPackage(syntax)
+                .setSyntax(syntax)
+                .addEnumType(EnumDescriptorProto.newBuilder()
+                        .setName("Color")
+                        .addValue(EnumValueDescriptorProto.newBuilder().setName("RED").setNumber(0))
+                        .addValue(EnumValueDescriptorProto.newBuilder().setName("GREEN").setNumber(1)))
+                .addMessageType(DescriptorProto.newBuilder()
+                        .setName("Inner")
+                        .addField(optional("a", 1, FieldDescriptorProto.Type.TYPE_INT32))
+                        .addField(optional("b", 2, FieldDescriptorProto.Type.TYPE_STRING)))
+                .addMessageType(DescriptorProto.newBuilder()
+                        .setName("Outer")
+                        .addField(optional("count", 1, FieldDescriptorProto.Type.TYPE_INT32))
+                        .addField(optional("name", 2, FieldDescriptorProto.Type.TYPE_STRING))
+                        .addField(repeated("packed", 3, FieldDescriptorProto.Type.TYPE_SINT64)
+                                .setOptions(FieldOptions.newBuilder().setPacked(true)))
+                        .addField(repeated("fixed", 4, FieldDescriptorProto.Type.TYPE_FIXED32)
+                                .setOptions(FieldOptions.newBuilder().setPacked(false)))
+                        .addField(optional("color", 5, FieldDescriptorProto.Type.TYPE_ENUM)
+                                .setTypeName("." + syntax + ".Color"))
+                        .addField(optional("inner", 6, FieldDescriptorProto.Type.TYPE_MESSAGE)
+                                .setTypeName("." + syntax + ".Inner"))
+                        .addField(optional("text", 7, FieldDescriptorProto.Type.TYPE_STRING).setOneofIndex(0))
+                        .addField(optional("number", 8, FieldDescriptorProto.Type.TYPE_DOUBLE).setOneofIndex(0))
+                        .addField(repeated("doubles", 100000, FieldDescriptorProto.Type.TYPE_DOUBLE))
+                        .addOneofDecl(OneofDescriptorProto.newBuilder().setName("choice")))
+                .build();
+        return FileDescriptor.buildFrom(proto, new FileDescriptor[0]);
+    }
+
+    private static byte[] encode(Writer writer) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        writer.write(output);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private interface Writer {
+        void write(CodedOutputStream output) throws Exception;
+    }
+
+    public void testRoundTrip() throws Exception {
+        FileDescriptor file = buildFile("proto2");
+        Descriptor outer = file.findMessageTypeByName("Outer");
+        Descriptor inner = file.findMessageTypeByName("Inner");
+        FieldDescriptor packed = outer.findFieldByName("packed");
+        FieldDescriptor fixed = outer.findFieldByName("fixed");
+        FieldDescriptor doubles = outer.findFieldByName("doubles");
+        DynamicMessage message = DynamicMessage.newBuilder(outer)
+                .setField(outer.findFieldByName("count"), 0)
+                .setField(outer.findFieldByName("name"), "héllo")
+                .addRepeatedField(packed, -1L)
+                .addRepeatedField(packed, Long.MAX_VALUE)
+                .addRepeatedField(fixed, 7)
+                .addRepeatedField(fixed, -7)
+                .setField(outer.findFieldByName("color"), file.findEnumTypeByName("Color").findValueByNumber(1))
+                .setField(outer.findFieldByName("inner"), DynamicMessage.newBuilder(inner)
+                        .setField(inner.findFieldByName("a"), 3)
+                        .build())
+                .setField(outer.findFieldByName("number"), 2.5)
+                .addRepeatedField(doubles, 1.5)
+                .addRepeatedField(doubles, -0.0)
+                .build();
+
+        byte[] bytes = message.toByteArray();
+        assertEquals(bytes.length, message.getSerializedSize());
+        byte[] expected = encode(output -> {
+            output.writeInt32(1, 0);
+            output.writeString(2, "héllo");
+            output.writeTag(3, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(CodedOutputStream.computeSInt64SizeNoTag(-1L)
+                    + CodedOutputStream.computeSInt64SizeNoTag(Long.MAX_VALUE));
+            output.writeSInt64NoTag(-1L);
+            output.writeSInt64NoTag(Long.MAX_VALUE);
+            output.writeFixed32(4, 7);
+            output.writeFixed32(4, -7);
+            output.writeEnum(5, 1);
+            output.writeTag(6, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(2);
+            output.writeInt32(1, 3);
+            output.writeDouble(8, 2.5);
+            output.writeDouble(100000, 1.5);
+            output.writeDouble(100000, -0.0);
+        });
+        assertTrue(Arrays.equals(expected, bytes));
+
+        DynamicMessage parsed = DynamicMessage.parseFrom(outer, bytes);
+        assertEquals(message, parsed);
+        assertTrue(parsed.hasField(outer.findFieldByName("count")));
+        assertEquals(Arrays.asList(-1L, Long.MAX_VALUE), parsed.getField(packed));
+        assertEquals(Arrays.asList(7, -7), parsed.getField(fixed));
+        // Repeated integer and floating point values are kept in typed arrays
+        assertEquals(2, ((Int32ArrayList) parsed.getField(fixed)).asInt32Array().length);
+        assertEquals("9223372036854775807", ((Int32PairArrayList) parsed.getField(packed)).getDecimalString(1));
+        assertEquals(1.5, ((Float64ArrayList) parsed.getField(doubles)).asFloat64Array().getAt(0));
+        assertTrue(parsed.getUnknownFields().asMap().isEmpty());
+    }
+
+    public void testMergeOnParse() throws Exception {
+        Descriptor outer = buildFile("proto2").findMessageTypeByName("Outer");
+        Descriptor inner = outer.findFieldByName("inner").getMessageType();
+        FieldDescriptor packed = outer.findFieldByName("packed");
+        byte[] bytes = encode(output -> {
+            // Packed fields also accept values one at a time
+            output.writeSInt64(3, 1L);
+            output.writeTag(3, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(1);
+            output.writeSInt64NoTag(2L);
+            // Repeated occurrences of a message field are merged
+            output.writeTag(6, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(2);
+            output.writeInt32(1, 3);
+            output.writeTag(6, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(3);
+            output.writeString(2, "b");
+            // The last member of a oneof wins
+            output.writeString(7, "text");
+            output.writeDouble(8, 1.0);
+        });
+        DynamicMessage parsed = DynamicMessage.parseFrom(outer, bytes);
+        assertEquals(Arrays.asList(1L, 2L), parsed.getField(packed));
+        DynamicMessage innerValue = (DynamicMessage) parsed.getField(outer.findFieldByName("inner"));
+        assertEquals(3, innerValue.getField(inner.findFieldByName("a")));
+        assertEquals("b", innerValue.getField(inner.findFieldByName("b")));
+        assertFalse(parsed.hasField(outer.findFieldByName("text")));
+        assertEquals(outer.findFieldByName("number"),
+                parsed.getOneofFieldDescriptor(outer.getOneofs().get(0)));
+
+        // Parsing into an existing builder keeps what it already has
+        DynamicMessage merged = parsed.toBuilder().mergeFrom(bytes).build();
+        assertEquals(Arrays.asList(1L, 2L, 1L, 2L), merged.getField(packed));
+    }
+
+    public void testUnknownFields() throws Exception {
+        Descriptor outer = buildFile("proto2").findMessageTypeByName("Outer");
+        byte[] bytes = encode(output -> {
+            output.writeInt32(1, 1);
+            // Not a field of Outer
+            output.writeInt32(9, 9);
+            // Not the wire type of count
+            output.writeString(1, "x");
+            // Not a value of the closed enum
+            output.writeEnum(5, 42);
+        });
+        DynamicMessage parsed = DynamicMessage.parseFrom(outer, bytes);
+        assertEquals(1, parsed.getField(outer.findFieldByName("count")));
+        assertFalse(parsed.hasField(outer.findFieldByName("color")));
+        UnknownFieldSet unknownFields = parsed.getUnknownFields();
+        assertEquals(Arrays.asList(9L), unknownFields.getField(9).getVarintList());
+        assertEquals(Arrays.asList(ByteString.copyFromUtf8("x")),
+                unknownFields.getField(1).getLengthDelimitedList());
+        assertEquals(Arrays.asList(42L), unknownFields.getField(5).getVarintList());
+        assertEquals(bytes.length, parsed.getSerializedSize());
+
+        CodedInputStream input = CodedInputStream.newInstance(bytes);
+        input.discardUnknownFields();
+        DynamicMessage discarded = DynamicMessage.newBuilder(outer).mergeFrom(input).build();
+        assertTrue(discarded.getUnknownFields().asMap().isEmpty());
+    }
+
+    public void testProto3() throws Exception {
+        FileDescriptor file = buildFile("proto3");
+        Descriptor outer = file.findMessageTypeByName("Outer");
+        EnumDescriptor color = file.findEnumTypeByName("Color");
+        byte[] bytes = encode(output -> {
+            // Default values of fields without presence are dropped
+            output.writeInt32(1, 0);
+            output.writeString(2, "");
+            // Open enums keep numbers they don't recognize
+            output.writeEnum(5, 42);
+            // Repeated scalars are packed by default, but also accept values one at a time
+            output.writeDouble(100000, 1.0);
+        });
+        DynamicMessage parsed = DynamicMessage.parseFrom(outer, bytes);
+        assertFalse(parsed.hasField(outer.findFieldByName("count")));
+        assertFalse(parsed.hasField(outer.findFieldByName("name")));
+        assertEquals(color.findValueByNumberCreatingIfUnknown(42), parsed.getField(outer.findFieldByName("color")));
+        assertTrue(parsed.getUnknownFields().asMap().isEmpty());
+
+        // Packed doubles are read into the typed array in one go
+        byte[] packed = encode(output -> {
+            output.writeTag(100000, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(16);
+            output.writeDoubleNoTag(2.0);
+            output.writeDoubleNoTag(3.0);
+            output.writeTag(100000, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(0);
+        });
+        DynamicMessage merged = parsed.toBuilder().mergeFrom(packed).build();
+        assertEquals(Arrays.asList(1.0, 2.0, 3.0), merged.getField(outer.findFieldByName("doubles")));
+        assertFalse(DynamicMessage.parseFrom(outer, new byte[] {(byte) 0x82, (byte) 0xea, 0x30, 0})
+                .getAllFields().containsKey(outer.findFieldByName("doubles")));
+
+        byte[] expected = encode(output -> {
+            output.writeEnum(5, 42);
+            output.writeTag(100000, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(8);
+            output.writeDoubleNoTag(1.0);
+        });
+        assertTrue(Arrays.equals(expected, parsed.toByteArray()));
+        assertEquals(expected.length, parsed.getSerializedSize());
+
+        // Written to a typed array, the packed doubles are copied in one go
+        Uint8Array array = Uint8ArrayOutput.toUint8Array(merged);
+        assertEquals(merged.getSerializedSize(), array.length);
+        assertEquals(merged, DynamicMessage.parseFrom(outer, CodedInputStream.newInstance(array)));
+    }
+
+    public void testWideMessage() throws Exception {
+        DescriptorProto.Builder wide = DescriptorProto.newBuilder().setName("Wide");
+        for (int i = 1; i <= 200; i++) {
+            FieldDescriptorProto.Type type = i % 3 == 0 ? FieldDescriptorProto.Type.TYPE_INT64
+                    : i % 3 == 1 ? FieldDescriptorProto.Type.TYPE_BOOL : FieldDescriptorProto.Type.TYPE_FLOAT;
+            wide.addField(optional("f" + i, i, type));
+        }
+        FileDescriptor file = FileDescriptor.buildFrom(FileDescriptorProto.newBuilder()
+                .setName("wide.proto")
+                .addMessageType(wide)
+                .build(), new FileDescriptor[0]);
+        Descriptor type = file.findMessageTypeByName("Wide");
+
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(type);
+        for (FieldDescriptor field : type.getFields()) {
+            if (field.getNumber() % 7 != 0) {
+                continue;
+            }
+            switch (field.getJavaType()) {
+                case LONG:
+                    builder.setField(field, (long) -field.getNumber());
+                    break;
+                case BOOLEAN:
+                    builder.setField(field, false);
+                    break;
+                default:
+                    builder.setField(field, field.getNumber() / 2f);
+                    break;
+            }
+        }
+        DynamicMessage message = builder.build();
+        assertEquals(28, message.getAllFields().size());
+        assertFalse(message.hasField(type.findFieldByNumber(199)));
+        assertEquals(false, message.getField(type.findFieldByNumber(196)));
+        assertEquals(-63L, message.getField(type.findFieldByNumber(63)));
+        assertEquals(7f, message.getField(type.findFieldByNumber(14)));
+
+        DynamicMessage parsed = DynamicMessage.parseFrom(type, message.toByteArray());
+        assertEquals(message, parsed);
+        assertEquals(message.getSerializedSize(), parsed.toByteArray().length);
+    }
+
+    public void testOneofSharesSlot() throws Exception {
+        Descriptor outer = buildFile("proto2").findMessageTypeByName("Outer");
+        FieldDescriptor text = outer.findFieldByName("text");
+        FieldDescriptor number = outer.findFieldByName("number");
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(outer).setField(text, "a");
+        builder.setField(number, 1.0);
+        assertFalse(builder.hasField(text));
+        assertEquals("", builder.getField(text));
+        assertEquals(1.0, builder.getField(number));
+
+        // Clearing the member that isn't set leaves the other one alone
+        builder.clearField(text);
+        assertEquals(number, builder.getOneofFieldDescriptor(outer.getOneofs().get(0)));
+        assertEquals(1.0, builder.build().getField(number));
+
+        builder.clearOneof(outer.getOneofs().get(0));
+        assertFalse(builder.hasOneof(outer.getOneofs().get(0)));
+        assertFalse(builder.hasField(number));
+    }
+
+    public void testBuilderCopyOnWrite() throws Exception {
+        Descriptor outer = buildFile("proto2").findMessageTypeByName("Outer");
+        FieldDescriptor count = outer.findFieldByName("count");
+        FieldDescriptor fixed = outer.findFieldByName("fixed");
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(outer)
+                .setField(count, 1)
+                .addRepeatedField(fixed, 1);
+        DynamicMessage first = builder.build();
+        builder.setField(count, 2).addRepeatedField(fixed, 2);
+        DynamicMessage second = builder.build();
+        assertEquals(1, first.getField(count));
+        assertEquals(Arrays.asList(1), first.getField(fixed));
+        assertEquals(2, second.getField(count));
+        assertEquals(Arrays.asList(1, 2), second.getField(fixed));
+
+        DynamicMessage.Builder copy = second.toBuilder().clearField(fixed);
+        DynamicMessage.Builder clone = copy.clone().addRepeatedField(fixed, 3);
+        assertEquals(Arrays.asList(1, 2), second.getField(fixed));
+        assertEquals(0, copy.getRepeatedFieldCount(fixed));
+        assertEquals(Arrays.asList(3), clone.build().getField(fixed));
+
+        try {
+            first.getRepeatedField(count, 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            builder.setField(count, 1L);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testNestedBuilder() throws Exception {
+        Descriptor outer = buildFile("proto2").findMessageTypeByName("Outer");
+        FieldDescriptor innerField = outer.findFieldByName("inner");
+        FieldDescriptor a = innerField.getMessageType().findFieldByName("a");
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(outer);
+        Message.Builder inner = builder.getFieldBuilder(innerField).setField(a, 1);
+        DynamicMessage first = builder.build();
+        inner.setField(a, 2);
+        DynamicMessage second = builder.build();
+        assertEquals(1, ((Message) first.getField(innerField)).getField(a));
+        assertEquals(2, ((Message) second.getField(innerField)).getField(a));
+        assertEquals(2, ((Message) builder.getField(innerField)).getField(a));
+
+        // A nested builder is also the one that parsing merges into
+        builder.mergeFrom(encode(output -> {
+            output.writeTag(6, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(3);
+            output.writeString(2, "b");
+        }));
+        assertEquals("b", inner.getField(innerField.getMessageType().findFieldByName("b")));
+        assertEquals(2, inner.getField(a));
+    }
+
+    public void testCodecCachedOnDescriptor() throws Exception {
+        Descriptor outer = buildFile("proto2").findMessageTypeByName("Outer");
+        assertSame(DynamicMessageCodec.forType(outer), DynamicMessageCodec.forType(outer));
+        assertNotSame(DynamicMessageCodec.forType(outer),
+                DynamicMessageCodec.forType(outer.findFieldByName("inner").getMessageType()));
+    }
+}
@@ -0,0 +1,328 @@
+package com.google.protobuf;
+
+import static com.google.protobuf.gwt.TestTypedArrays.toUint8Array;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import elemental2.core.Float32Array;
+import elemental2.core.Float64Array;
+import elemental2.core.Int32Array;
+import elemental2.core.Uint8Array;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TypedArrayListTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "com.vertispan.protobuf.ProtobufTest";
+    }
+
+    private interface Writer {
+        void write(CodedOutputStream output) throws Exception;
+    }
+
+    private static byte[] encode(Writer writer) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        writer.write(output);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    public void testListOperations() {
+        Int32ArrayList list = new Int32ArrayList();
+        for (int i = 0; i < 100; i++) {
+            list.addInt(i);
+        }
+        list.add(0, -1);
+        assertEquals(101, list.size());
+        assertEquals(-1, list.getInt(0));
+        assertEquals(99, list.getInt(100));
+        assertEquals(Integer.valueOf(0), list.remove(1));
+        assertEquals(5, list.setInt(5, Integer.MIN_VALUE));
+        assertEquals(Integer.MIN_VALUE, list.getInt(5));
+        list.subList(10, 99).clear();
+        assertEquals(Arrays.asList(-1, 1, 2, 3, 4, Integer.MIN_VALUE, 6, 7, 8, 9, 99), list);
+
+        try {
+            list.getInt(11);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+
+        Int32ArrayList copy = (Int32ArrayList) list.mutableCopyWithCapacity(20);
+        copy.addAll(list);
+        assertEquals(22, copy.size());
+        assertEquals(11, list.size());
+
+        list.makeImmutable();
+        try {
+            list.addInt(1);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        assertFalse(Int32ArrayList.emptyList().isModifiable());
+    }
+
+    public void testEqualsAndHashCode() {
+        Float64ArrayList doubles = new Float64ArrayList();
+        doubles.addDouble(1.5);
+        doubles.addDouble(Double.NaN);
+        doubles.addDouble(-0.0);
+        List<Double> boxed = new ArrayList<>(Arrays.asList(1.5, Double.NaN, -0.0));
+        DoubleArrayList primitive = new DoubleArrayList();
+        primitive.addAll(boxed);
+        assertEquals(boxed, doubles);
+        assertEquals(doubles, primitive);
+        assertEquals(primitive.hashCode(), doubles.hashCode());
+        Float64ArrayList copy = (Float64ArrayList) doubles.mutableCopyWithCapacity(3);
+        assertEquals(doubles, copy);
+        copy.setDouble(2, 0.0);
+        assertFalse(doubles.equals(copy));
+
+        Float32ArrayList floats = new Float32ArrayList();
+        floats.addFloat(0.1f);
+        floats.addFloat(Float.NaN);
+        FloatArrayList primitiveFloats = new FloatArrayList();
+        primitiveFloats.addAll(Arrays.asList(0.1f, Float.NaN));
+        assertEquals(primitiveFloats, floats);
+        assertEquals(primitiveFloats.hashCode(), floats.hashCode());
+        assertEquals(0.1f, floats.getFloat(0));
+
+        Int32ArrayList ints = new Int32ArrayList();
+        ints.addInt(-7);
+        assertEquals(Arrays.asList(-7).hashCode(), ints.hashCode());
+    }
+
+    public void testExportSharesStorage() {
+        Float64ArrayList list = new Float64ArrayList();
+        list.addDouble(1);
+        list.addDouble(2);
+        Float64Array view = list.asFloat64Array();
+        assertEquals(2, view.length);
+        list.setDouble(1, 3);
+        assertEquals(3.0, view.getAt(1));
+        view.setAt(0, 4.0);
+        assertEquals(4.0, list.getDouble(0));
+    }
+
+    public void testAddAllPacked() throws Exception {
+        byte[] bytes = encode(output -> {
+            output.writeUInt32NoTag(8);
+            output.writeFixed32NoTag(-1);
+            output.writeFixed32NoTag(0x12345678);
+            output.writeUInt32NoTag(3);
+            output.writeSInt32NoTag(-1);
+            output.writeSInt32NoTag(100);
+            output.writeUInt32NoTag(16);
+            output.writeDoubleNoTag(0.5);
+            output.writeDoubleNoTag(-1e300);
+            output.writeUInt32NoTag(4);
+            output.writeFloatNoTag(2.5f);
+            output.writeInt32NoTag(42);
+        });
+        for (CodedInputStream input : Arrays.asList(
+                CodedInputStream.newInstance(bytes), CodedInputStream.newInstance(toUint8Array(bytes, 1)))) {
+            Int32ArrayList ints = new Int32ArrayList();
+            ints.addInt(7);
+            ints.addAllPacked(input, WireFormat.FieldType.SFIXED32);
+            ints.addAllPacked(input, WireFormat.FieldType.SINT32);
+            assertEquals(Arrays.asList(7, -1, 0x12345678, -1, 100), ints);
+
+            Float64ArrayList doubles = new Float64ArrayList();
+            doubles.addAllPacked(input);
+            assertEquals(Arrays.asList(0.5, -1e300), doubles);
+
+            Float32ArrayList floats = new Float32ArrayList();
+            floats.addAllPacked(input);
+            assertEquals(Arrays.asList(2.5f), floats);
+
+            // The limit is restored after each run
+            assertEquals(42, input.readInt32());
+            assertTrue(input.isAtEnd());
+        }
+
+        try {
+            new Float64ArrayList().addAllPacked(CodedInputStream.newInstance(new byte[] {4, 0, 0, 0, 0}));
+            fail();
+        } catch (InvalidProtocolBufferException expected) {
+        }
+    }
+
+    public void testReadRawFixed32s() throws Exception {
+        byte[] bytes = encode(output -> {
+            output.writeFixed32NoTag(1);
+            output.writeFixed32NoTag(-2);
+        });
+        Int32Array dest = new Int32Array(3);
+        CodedInputStream.newInstance(toUint8Array(bytes, 1)).readRawFixed32s(dest, 1, 2);
+        assertEquals(0.0, dest.getAt(0));
+        assertEquals(1.0, dest.getAt(1));
+        assertEquals(-2.0, dest.getAt(2));
+
+        try {
+            CodedInputStream.newInstance(toUint8Array(bytes, 1)).readRawFixed32s(dest, 0, 3);
+            fail();
+        } catch (InvalidProtocolBufferException expected) {
+        }
+    }
+
+    public void testFloat32View() {
+        Float32ArrayList list = new Float32ArrayList();
+        for (int i = 0; i < 20; i++) {
+            list.addFloat(i / 4f);
+        }
+        Float32Array view = list.asFloat32Array();
+        assertEquals(20, view.length);
+        assertEquals(4.75, view.getAt(19));
+    }
+
+    private static final long[] LONGS = {
+            0, 1, -1, 42, Integer.MAX_VALUE, Integer.MIN_VALUE, 0xFFFFFFFFL, 1L << 32, (1L << 53) - 1, 1L << 53,
+            -(1L << 53), 1234567890123456789L, -987654321098765432L, Long.MAX_VALUE, Long.MIN_VALUE,
+            0x8000000000000001L, 10_000_000_000_000_000L, 99_999_999_999_999_999L
+    };
+
+    /** LONGS as unsigned decimals, since GWT doesn't emulate Long.toUnsignedString(). */
+    private static final String[] UNSIGNED_DECIMALS = {
+            "0", "1", "18446744073709551615", "42", "2147483647", "18446744071562067968", "4294967295", "4294967296",
+            "9007199254740991", "9007199254740992", "18437736874454810624", "1234567890123456789",
+            "17459089752610786184", "9223372036854775807", "9223372036854775808", "9223372036854775809",
+            "10000000000000000", "99999999999999999"
+    };
+
+    public void testInt32PairArrayList() {
+        Int32PairArrayList list = new Int32PairArrayList();
+        for (long value : LONGS) {
+            list.addLong(value);
+        }
+        for (int i = 0; i < LONGS.length; i++) {
+            long value = LONGS[i];
+            assertEquals(value, list.getLong(i));
+            assertEquals((int) value, list.getLowBits(i));
+            assertEquals((int) (value >>> 32), list.getHighBits(i));
+            assertEquals((double) value, list.getNumber(i));
+            assertEquals(Long.toString(value), list.getDecimalString(i));
+            assertEquals(UNSIGNED_DECIMALS[i], list.getUnsignedDecimalString(i));
+        }
+        assertEquals(18446744073709551615.0, list.getUnsignedNumber(2));
+
+        List<Long> boxed = new ArrayList<>();
+        for (long value : LONGS) {
+            boxed.add(value);
+        }
+        assertEquals(boxed, list);
+        assertEquals(boxed.hashCode(), list.hashCode());
+
+        list.add(1, 7L);
+        assertEquals(Long.valueOf(7), list.remove(1));
+        list.subList(2, LONGS.length).clear();
+        assertEquals(Arrays.asList(0L, 1L), list);
+        assertEquals(4, list.asInt32Array().length);
+
+        Int32PairArrayList copy = (Int32PairArrayList) list.mutableCopyWithCapacity(2);
+        copy.setLong(1, -2L);
+        copy.addAll(list);
+        assertEquals(Arrays.asList(0L, -2L, 0L, 1L), copy);
+    }
+
+    public void testInt32PairAddAllPacked() throws Exception {
+        byte[] bytes = encode(output -> {
+            output.writeUInt32NoTag(16);
+            output.writeFixed64NoTag(Long.MIN_VALUE);
+            output.writeFixed64NoTag(0x123456789L);
+            int size = 0;
+            for (long value : LONGS) {
+                size += CodedOutputStream.computeInt64SizeNoTag(value);
+            }
+            output.writeUInt32NoTag(size);
+            for (long value : LONGS) {
+                output.writeInt64NoTag(value);
+            }
+            size = 0;
+            for (long value : LONGS) {
+                size += CodedOutputStream.computeSInt64SizeNoTag(value);
+            }
+            output.writeUInt32NoTag(size);
+            for (long value : LONGS) {
+                output.writeSInt64NoTag(value);
+            }
+        });
+        for (CodedInputStream input : Arrays.asList(
+                CodedInputStream.newInstance(bytes), CodedInputStream.newInstance(toUint8Array(bytes, 1)))) {
+            Int32PairArrayList fixed = new Int32PairArrayList();
+            fixed.addAllPacked(input, WireFormat.FieldType.SFIXED64);
+            assertEquals(Arrays.asList(Long.MIN_VALUE, 0x123456789L), fixed);
+
+            Int32PairArrayList varints = new Int32PairArrayList();
+            varints.addAllPacked(input, WireFormat.FieldType.INT64);
+            Int32PairArrayList zigZag = new Int32PairArrayList();
+            zigZag.addAllPacked(input, WireFormat.FieldType.SINT64);
+            for (int i = 0; i < LONGS.length; i++) {
+                assertEquals(LONGS[i], varints.getLong(i));
+                assertEquals(LONGS[i], zigZag.getLong(i));
+            }
+            assertTrue(input.isAtEnd());
+        }
+    }
+
+    public void testAddAllPackedAliased() throws Exception {
+        byte[] bytes = encode(output -> {
+            output.writeUInt32NoTag(16);
+            output.writeDoubleNoTag(0.5);
+            output.writeDoubleNoTag(-1e300);
+            output.writeUInt32NoTag(8);
+            output.writeFixed32NoTag(1);
+            output.writeFixed32NoTag(2);
+        });
+        // Seven bytes into the buffer, after the length prefix, the doubles are 8-byte aligned
+        Uint8Array array = toUint8Array(bytes, 7);
+        CodedInputStream input = CodedInputStream.newInstance(array);
+        input.enableAliasing(true);
+        Float64ArrayList doubles = new Float64ArrayList();
+        doubles.addAllPacked(input);
+        assertEquals(Arrays.asList(0.5, -1e300), doubles);
+        Float64Array view = doubles.asFloat64Array();
+        assertSame(array.buffer, view.buffer);
+
+        // A list that already has elements copies the new ones in
+        Int32ArrayList ints = new Int32ArrayList();
+        ints.addInt(0);
+        ints.addAllPacked(input, WireFormat.FieldType.FIXED32);
+        assertEquals(Arrays.asList(0, 1, 2), ints);
+        assertNotSame(array.buffer, ints.asInt32Array().buffer);
+        assertTrue(input.isAtEnd());
+
+        // The first change copies the elements out, leaving the input as it was
+        doubles.setDouble(0, 2.0);
+        assertEquals(0.5, view.getAt(0));
+        assertNotSame(array.buffer, doubles.asFloat64Array().buffer);
+        assertEquals(Arrays.asList(2.0, -1e300), doubles);
+
+        bytes = encode(output -> {
+            output.writeUInt32NoTag(16);
+            output.writeSFixed64NoTag(-1);
+            output.writeSFixed64NoTag(Long.MAX_VALUE);
+        });
+        array = toUint8Array(bytes, 3);
+        input = CodedInputStream.newInstance(array);
+        input.enableAliasing(true);
+        Int32PairArrayList longs = new Int32PairArrayList();
+        longs.addAllPacked(input, WireFormat.FieldType.SFIXED64);
+        assertEquals(Arrays.asList(-1L, Long.MAX_VALUE), longs);
+        assertSame(array.buffer, longs.asInt32Array().buffer);
+        longs.addLong(3);
+        assertNotSame(array.buffer, longs.asInt32Array().buffer);
+        assertEquals(Arrays.asList(-1L, Long.MAX_VALUE, 3L), longs);
+
+        // Unaligned values are copied
+        input = CodedInputStream.newInstance(toUint8Array(bytes, 1));
+        input.enableAliasing(true);
+        longs = new Int32PairArrayList();
+        longs.addAllPacked(input, WireFormat.FieldType.FIXED64);
+        assertEquals(Arrays.asList(-1L, Long.MAX_VALUE), longs);
+    }
+}
@@ -0,0 +1,132 @@
+package com.google.protobuf.gwt;
+
+import static com.google.protobuf.gwt.TestTypedArrays.toUint8Array;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.StringValue;
+import elemental2.core.Uint8Array;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DelimitedMessageDecoderTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "com.vertispan.protobuf.ProtobufTest";
+    }
+
+    private static final String[] VALUES = {"", "a", "hello world", repeat('x', 300), "é中"};
+
+    private static String repeat(char c, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static byte[] writeDelimited(String... values) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (String value : values) {
+            StringValue.of(value).writeDelimitedTo(output);
+        }
+        return output.toByteArray();
+    }
+
+    public void testChunkSizes() throws Exception {
+        byte[] data = writeDelimited(VALUES);
+        for (int chunkSize = 1; chunkSize <= data.length; chunkSize++) {
+            List<String> decoded = new ArrayList<>();
+            DelimitedMessageDecoder<StringValue> decoder =
+                    new DelimitedMessageDecoder<>(StringValue.parser(), m -> decoded.add(m.getValue()));
+            for (int i = 0; i < data.length; i += chunkSize) {
+                decoder.push(toUint8Array(data, i, Math.min(data.length, i + chunkSize)));
+            }
+            decoder.end();
+            assertEquals("chunk size " + chunkSize, VALUES.length, decoded.size());
+            for (int i = 0; i < VALUES.length; i++) {
+                assertEquals("chunk size " + chunkSize, VALUES[i], decoded.get(i));
+            }
+        }
+    }
+
+    public void testMessageEmittedWhenComplete() throws Exception {
+        byte[] data = writeDelimited("first", "second");
+        int firstLength = data[0] + 1;
+        List<String> decoded = new ArrayList<>();
+        DelimitedMessageDecoder<StringValue> decoder =
+                new DelimitedMessageDecoder<>(StringValue.parser(), m -> decoded.add(m.getValue()));
+
+        decoder.push(toUint8Array(data, 0, firstLength - 1));
+        assertTrue(decoded.isEmpty());
+        assertFalse(decoder.isAtMessageBoundary());
+
+        decoder.push(toUint8Array(data, firstLength - 1, firstLength + 1));
+        assertEquals(1, decoded.size());
+        assertEquals("first", decoded.get(0));
+        assertFalse(decoder.isAtMessageBoundary());
+
+        decoder.push(toUint8Array(data, firstLength + 1, data.length));
+        assertEquals(2, decoded.size());
+        assertEquals("second", decoded.get(1));
+        assertTrue(decoder.isAtMessageBoundary());
+    }
+
+    public void testTruncatedStream() throws Exception {
+        byte[] data = writeDelimited("hello");
+        DelimitedMessageDecoder<StringValue> decoder =
+                new DelimitedMessageDecoder<>(StringValue.parser(), m -> fail("Unexpected message"));
+        decoder.push(toUint8Array(data, 0, data.length - 1));
+        try {
+            decoder.end();
+            fail("Should have thrown an exception!");
+        } catch (InvalidProtocolBufferException expected) {
+            // success
+        }
+    }
+
+    public void testSizeLimit() throws Exception {
+        byte[] data = writeDelimited(repeat('x', 300));
+        DelimitedMessageDecoder<StringValue> decoder =
+                new DelimitedMessageDecoder<>(StringValue.parser(), m -> fail("Unexpected message"));
+        decoder.setSizeLimit(100);
+        try {
+            decoder.push(toUint8Array(data, 0, 2));
+            fail("Should have thrown an exception!");
+        } catch (InvalidProtocolBufferException expected) {
+            // success
+        }
+    }
+
+    public void testDefaultSizeLimit() throws Exception {
+        DelimitedMessageDecoder<StringValue> decoder =
+                new DelimitedMessageDecoder<>(StringValue.parser(), m -> fail("Unexpected message"));
+        // A length prefix of DEFAULT_SIZE_LIMIT + 1, with none of the message following it
+        byte[] prefix = {(byte) 0x81, (byte) 0x80, (byte) 0x80, 0x20};
+        try {
+            decoder.push(toUint8Array(prefix, 0, prefix.length));
+            fail("Should have thrown an exception!");
+        } catch (InvalidProtocolBufferException expected) {
+            // success
+        }
+
+        decoder = new DelimitedMessageDecoder<>(StringValue.parser(), m -> fail("Unexpected message"));
+        decoder.setSizeLimit(DelimitedMessageDecoder.DEFAULT_SIZE_LIMIT + 1);
+        decoder.push(toUint8Array(prefix, 0, prefix.length));
+        assertFalse(decoder.isAtMessageBoundary());
+    }
+
+    public void testMalformedLength() throws Exception {
+        DelimitedMessageDecoder<StringValue> decoder =
+                new DelimitedMessageDecoder<>(StringValue.parser(), m -> fail("Unexpected message"));
+        try {
+            decoder.push(toUint8Array(new byte[] {-1, -1, -1, -1, -1, 1}, 0, 6));
+            fail("Should have thrown an exception!");
+        } catch (InvalidProtocolBufferException expected) {
+            // success
+        }
+    }
+}
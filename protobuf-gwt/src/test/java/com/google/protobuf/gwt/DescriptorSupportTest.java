@@ -0,0 +1,83 @@
+package com.google.protobuf.gwt;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.protobuf.DescriptorProtos.UninterpretedOption;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.UninitializedMessageException;
+import com.google.protobuf.Value;
+
+public class DescriptorSupportTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "com.vertispan.protobuf.ProtobufBinaryOnlyTest";
+    }
+
+    private static Struct createStruct() {
+        return Struct.newBuilder()
+                .putFields("a", Value.newBuilder().setStringValue("b").build())
+                .putFields("list", Value.newBuilder()
+                        .setListValue(ListValue.newBuilder()
+                                .addValues(Value.newBuilder().setNumberValue(1))
+                                .addValues(Value.newBuilder().setBoolValue(true)))
+                        .build())
+                .build();
+    }
+
+    public void testDisabled() {
+        assertFalse(DescriptorSupport.ENABLED);
+    }
+
+    public void testRoundTrip() throws Exception {
+        Struct struct = createStruct();
+        Struct parsed = Struct.parseFrom(struct.toByteArray());
+        assertEquals(struct, parsed);
+        assertEquals(struct.hashCode(), parsed.hashCode());
+        assertEquals("b", parsed.getFieldsOrThrow("a").getStringValue());
+        assertEquals(2, parsed.getFieldsOrThrow("list").getListValue().getValuesCount());
+        assertFalse(struct.equals(Struct.getDefaultInstance()));
+
+        Timestamp timestamp = Timestamp.newBuilder().setSeconds(1234567890123L).setNanos(5).build();
+        assertEquals(timestamp, Timestamp.parseFrom(timestamp.toByteString()));
+        assertEquals(timestamp, timestamp.toBuilder().build());
+    }
+
+    public void testToString() {
+        // Text format isn't available, so only the type is printed
+        String string = createStruct().toString();
+        assertTrue(string, string.startsWith(Struct.class.getName()));
+    }
+
+    public void testMissingRequiredFields() throws Exception {
+        try {
+            UninterpretedOption.NamePart.newBuilder().setNamePart("a").build();
+            fail("Should have thrown an exception!");
+        } catch (UninitializedMessageException expected) {
+            // success
+        }
+        UninterpretedOption.NamePart part = UninterpretedOption.NamePart.newBuilder()
+                .setNamePart("a")
+                .setIsExtension(true)
+                .build();
+        assertEquals(part, UninterpretedOption.NamePart.parseFrom(part.toByteArray()));
+    }
+
+    public void testDescriptorsUnsupported() {
+        // The descriptor objects can still be handed out and compared, but not read
+        assertSame(Struct.getDescriptor(), Struct.getDescriptor());
+        try {
+            Struct.getDescriptor().getFields();
+            fail("Should have thrown an exception!");
+        } catch (UnsupportedOperationException expected) {
+            // success
+        }
+        try {
+            createStruct().getAllFields();
+            fail("Should have thrown an exception!");
+        } catch (UnsupportedOperationException expected) {
+            // success
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.google.protobuf.gwt;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+public class LiteMessageSchemaTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "com.vertispan.protobuf.ProtobufTest";
+    }
+
+    private static TestLiteMessage.Child child(int number) {
+        return TestLiteMessage.Child.newBuilder().setNumber(number).build();
+    }
+
+    private static TestLiteMessage createMessage() {
+        return TestLiteMessage.newBuilder()
+                .setId(150)
+                .setName("név")
+                .setDelta(-3L)
+                .setScore(1.5)
+                .setChild(child(3))
+                .addValues(1)
+                .addValues(-1)
+                .addValues(300)
+                .addChildren(child(4))
+                .addChildren(child(5))
+                .setKind(TestLiteMessage.Kind.LARGE)
+                .putCounts("a", 7L)
+                .setText("t")
+                .build();
+    }
+
+    /** Writes the fields of {@link #createMessage()} in field number order, by hand. */
+    private static byte[] expectedBytes() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        output.writeInt32(1, 150);
+        output.writeString(2, "név");
+        output.writeSInt64(3, -3L);
+        output.writeDouble(4, 1.5);
+        writeChild(output, 5, 3);
+        output.writeTag(6, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(CodedOutputStream.computeInt32SizeNoTag(1)
+                + CodedOutputStream.computeInt32SizeNoTag(-1)
+                + CodedOutputStream.computeInt32SizeNoTag(300));
+        output.writeInt32NoTag(1);
+        output.writeInt32NoTag(-1);
+        output.writeInt32NoTag(300);
+        writeChild(output, 7, 4);
+        writeChild(output, 7, 5);
+        output.writeEnum(8, 2);
+        output.writeTag(9, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(CodedOutputStream.computeStringSize(1, "a")
+                + CodedOutputStream.computeInt64Size(2, 7L));
+        output.writeString(1, "a");
+        output.writeInt64(2, 7L);
+        output.writeString(10, "t");
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeChild(CodedOutputStream output, int fieldNumber, int number) throws Exception {
+        output.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(CodedOutputStream.computeInt32Size(1, number));
+        output.writeInt32(1, number);
+    }
+
+    public void testSerialize() throws Exception {
+        TestLiteMessage message = createMessage();
+        byte[] expected = expectedBytes();
+        assertEquals(expected.length, message.getSerializedSize());
+        assertTrue(Arrays.equals(expected, message.toByteArray()));
+    }
+
+    public void testParseFromArray() throws Exception {
+        TestLiteMessage message = TestLiteMessage.parseFrom(expectedBytes());
+        assertEquals(150, message.getId());
+        assertEquals("név", message.getName());
+        assertEquals(-3L, message.getDelta());
+        assertEquals(1.5, message.getScore());
+        assertEquals(3, message.getChild().getNumber());
+        assertEquals(Arrays.asList(1, -1, 300), message.getValuesList());
+        assertEquals(2, message.getChildrenList().size());
+        assertEquals(5, message.getChildrenList().get(1).getNumber());
+        assertEquals(TestLiteMessage.Kind.LARGE, message.getKind());
+        assertEquals(Long.valueOf(7L), message.getCountsMap().get("a"));
+        assertEquals(10, message.getValueCase());
+        assertEquals("t", message.getText());
+
+        assertEquals(createMessage(), message);
+        assertEquals(createMessage().hashCode(), message.hashCode());
+    }
+
+    public void testParseFromStream() throws Exception {
+        // Anything other than a byte[] is parsed through a CodedInputStreamReader
+        TestLiteMessage message = TestLiteMessage.parseFrom(CodedInputStream.newInstance(expectedBytes()));
+        assertEquals(createMessage(), message);
+    }
+
+    public void testParseUnpackedAsPacked() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        output.writeInt32(6, 1);
+        output.writeInt32(6, 2);
+        output.writeMessage(11, child(9));
+        output.flush();
+
+        for (TestLiteMessage message : new TestLiteMessage[] {
+                TestLiteMessage.parseFrom(bytes.toByteArray()),
+                TestLiteMessage.parseFrom(CodedInputStream.newInstance(bytes.toByteArray()))}) {
+            assertEquals(Arrays.asList(1, 2), message.getValuesList());
+            assertEquals(11, message.getValueCase());
+            assertEquals(9, message.getNested().getNumber());
+        }
+    }
+
+    public void testUnknownFieldsAndEnumValues() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        // Kind is a closed enum, so this value is kept as an unknown field
+        output.writeEnum(8, 7);
+        output.writeInt64(99, 5L);
+        output.writeString(100, "unknown");
+        output.flush();
+        byte[] data = bytes.toByteArray();
+
+        for (TestLiteMessage message : new TestLiteMessage[] {
+                TestLiteMessage.parseFrom(data),
+                TestLiteMessage.parseFrom(CodedInputStream.newInstance(data))}) {
+            assertFalse(message.hasKind());
+            assertEquals(TestLiteMessage.Kind.NONE, message.getKind());
+            assertEquals(data.length, message.getSerializedSize());
+            assertTrue(Arrays.equals(data, message.toByteArray()));
+        }
+    }
+
+    public void testDefaultInstance() throws Exception {
+        TestLiteMessage empty = TestLiteMessage.getDefaultInstance();
+        assertEquals(0, empty.getSerializedSize());
+        assertEquals(0, empty.toByteArray().length);
+        assertEquals(empty, TestLiteMessage.parseFrom(new byte[0]));
+        assertTrue(empty.isInitialized());
+        assertFalse(empty.equals(createMessage()));
+    }
+
+    public void testMerge() throws Exception {
+        TestLiteMessage other = TestLiteMessage.newBuilder()
+                .setId(7)
+                .addValues(2)
+                .addChildren(child(6))
+                .putCounts("b", 1L)
+                .setNested(child(8))
+                .build();
+        TestLiteMessage merged = createMessage().toBuilder().mergeFrom(other).build();
+        assertEquals(7, merged.getId());
+        assertEquals("név", merged.getName());
+        assertEquals(Arrays.asList(1, -1, 300, 2), merged.getValuesList());
+        assertEquals(3, merged.getChildrenList().size());
+        assertEquals(2, merged.getCountsMap().size());
+        assertEquals(11, merged.getValueCase());
+        assertEquals(8, merged.getNested().getNumber());
+
+        // Parsing a second message into the same builder merges in the same way
+        TestLiteMessage parsed = createMessage().toBuilder().mergeFrom(other.toByteArray()).build();
+        assertEquals(merged, parsed);
+        assertTrue(Arrays.equals(merged.toByteArray(), parsed.toByteArray()));
+    }
+
+    public void testTruncated() throws Exception {
+        byte[] data = expectedBytes();
+        try {
+            TestLiteMessage.parseFrom(Arrays.copyOf(data, data.length - 1));
+            fail("Should have thrown an exception!");
+        } catch (com.google.protobuf.InvalidProtocolBufferException expected) {
+            // success
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.google.protobuf.gwt;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.OneofDescriptor;
+import com.google.protobuf.Duration;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.MapEntry;
+import com.google.protobuf.Message;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class MessageReflectionAccessorTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "com.vertispan.protobuf.ProtobufTest";
+    }
+
+    private static FieldDescriptor valueField(String name) {
+        return Value.getDescriptor().findFieldByName(name);
+    }
+
+    public void testGetAllFields() {
+        Value first = Value.newBuilder().setStringValue("a").build();
+        Value second = Value.newBuilder().setBoolValue(true).build();
+        ListValue list = ListValue.newBuilder().addValues(first).addValues(second).build();
+
+        Map<FieldDescriptor, Object> fields = list.getAllFields();
+        assertEquals(1, fields.size());
+        FieldDescriptor values = ListValue.getDescriptor().findFieldByName("values");
+        assertEquals(Arrays.asList(first, second), fields.get(values));
+        assertEquals(2, list.getRepeatedFieldCount(values));
+        assertEquals(second, list.getRepeatedField(values, 1));
+
+        assertEquals(1, first.getAllFields().size());
+        assertEquals("a", first.getAllFields().get(valueField("string_value")));
+        assertTrue(ListValue.getDefaultInstance().getAllFields().isEmpty());
+    }
+
+    public void testOneof() {
+        OneofDescriptor kind = Value.getDescriptor().getOneofs().get(0);
+        Value value = Value.newBuilder().setNumberValue(2.5).build();
+        assertTrue(value.hasOneof(kind));
+        assertEquals(valueField("number_value"), value.getOneofFieldDescriptor(kind));
+        assertTrue(value.hasField(valueField("number_value")));
+        assertFalse(value.hasField(valueField("string_value")));
+        assertEquals(2.5, value.getField(valueField("number_value")));
+
+        Value.Builder builder = value.toBuilder().clearOneof(kind);
+        assertFalse(builder.hasOneof(kind));
+        assertNull(builder.getOneofFieldDescriptor(kind));
+    }
+
+    public void testBuilderSetField() {
+        Value.Builder builder = Value.newBuilder();
+        builder.setField(valueField("null_value"), NullValue.NULL_VALUE.getValueDescriptor());
+        assertEquals(Value.KindCase.NULL_VALUE, builder.getKindCase());
+        assertEquals(NullValue.NULL_VALUE.getValueDescriptor(), builder.getField(valueField("null_value")));
+
+        builder.setField(valueField("string_value"), "b");
+        assertEquals("b", builder.build().getStringValue());
+        builder.clearField(valueField("string_value"));
+        assertEquals(Value.KindCase.KIND_NOT_SET, builder.getKindCase());
+
+        FieldDescriptor values = ListValue.getDescriptor().findFieldByName("values");
+        ListValue.Builder listBuilder = ListValue.newBuilder();
+        listBuilder.addRepeatedField(values, Value.newBuilder().setBoolValue(false).build());
+        listBuilder.addRepeatedField(values, Value.newBuilder().setBoolValue(true).build());
+        listBuilder.setRepeatedField(values, 0, Value.newBuilder().setStringValue("c").build());
+        assertEquals(2, listBuilder.getRepeatedFieldCount(values));
+        assertEquals("c", listBuilder.build().getValues(0).getStringValue());
+    }
+
+    public void testRepeatedFieldHasField() {
+        FieldDescriptor values = ListValue.getDescriptor().findFieldByName("values");
+        try {
+            ListValue.getDefaultInstance().hasField(values);
+            fail("Should have thrown an exception!");
+        } catch (UnsupportedOperationException expected) {
+            // success
+        }
+    }
+
+    public void testMapField() {
+        FieldDescriptor fields = Struct.getDescriptor().findFieldByName("fields");
+        Struct struct = Struct.newBuilder().putFields("a", Value.newBuilder().setBoolValue(true).build()).build();
+        assertEquals(1, struct.getRepeatedFieldCount(fields));
+        Message entry = (Message) struct.getRepeatedField(fields, 0);
+        assertEquals("a", entry.getField(entry.getDescriptorForType().findFieldByName("key")));
+        assertEquals(1, ((List<?>) struct.getField(fields)).size());
+
+        Struct.Builder builder = struct.toBuilder();
+        @SuppressWarnings("unchecked")
+        MapEntry.Builder<String, Value> entryBuilder =
+                (MapEntry.Builder<String, Value>) builder.newBuilderForField(fields);
+        entryBuilder.setKey("b").setValue(Value.newBuilder().setStringValue("c").build());
+        builder.addRepeatedField(fields, entryBuilder.build());
+        assertEquals("c", builder.build().getFieldsOrThrow("b").getStringValue());
+
+        builder.clearField(fields);
+        assertEquals(0, builder.getFieldsCount());
+    }
+
+    public void testClosedEnumField() {
+        FieldDescriptor label = FieldDescriptorProto.getDescriptor().findFieldByName("label");
+        FieldDescriptorProto.Builder builder = FieldDescriptorProto.newBuilder();
+        assertFalse(builder.hasField(label));
+        builder.setField(label, FieldDescriptorProto.Label.LABEL_REPEATED.getValueDescriptor());
+        assertTrue(builder.hasField(label));
+        assertEquals(FieldDescriptorProto.Label.LABEL_REPEATED, builder.getLabel());
+        assertEquals(FieldDescriptorProto.Label.LABEL_REPEATED.getValueDescriptor(), builder.build().getField(label));
+    }
+
+    public void testRepeatedPrimitiveField() {
+        FieldDescriptor publicDependency = FileDescriptorProto.getDescriptor().findFieldByName("public_dependency");
+        FileDescriptorProto.Builder builder = FileDescriptorProto.newBuilder();
+        builder.addRepeatedField(publicDependency, 1);
+        builder.addRepeatedField(publicDependency, 3);
+        builder.setRepeatedField(publicDependency, 0, 2);
+        assertEquals(Arrays.asList(2, 3), builder.build().getField(publicDependency));
+        assertEquals(3, builder.getRepeatedField(publicDependency, 1));
+    }
+
+    public void testImplicitPresence() {
+        FieldDescriptor seconds = Duration.getDescriptor().findFieldByName("seconds");
+        assertFalse(Duration.getDefaultInstance().hasField(seconds));
+        Duration duration = Duration.newBuilder().setSeconds(5).build();
+        assertTrue(duration.hasField(seconds));
+        assertEquals(5L, duration.getField(seconds));
+        assertEquals(Collections.singletonMap(seconds, 5L), duration.getAllFields());
+    }
+}
@@ -0,0 +1,581 @@
+package com.google.protobuf.gwt;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.GeneratedMessageLite;
+import com.google.protobuf.Internal;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MapEntryLite;
+import com.google.protobuf.MapFieldLite;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.google.protobuf.WireFormat;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Written to match what protoc's lite generator emits for the message below, along with the
+ * {@link MessageFieldAccessor} that is expected to be generated next to it.
+ * <pre>
+ * syntax = "proto2";
+ * message TestLiteMessage {
+ *   message Child {
+ *     optional int32 number = 1;
+ *   }
+ *   enum Kind {
+ *     NONE = 0;
+ *     SMALL = 1;
+ *     LARGE = 2;
+ *   }
+ *   optional int32 id = 1;
+ *   optional string name = 2;
+ *   optional sint64 delta = 3;
+ *   optional double score = 4;
+ *   optional Child child = 5;
+ *   repeated int32 values = 6 [packed = true];
+ *   repeated Child children = 7;
+ *   optional Kind kind = 8;
+ *   map&lt;string, int64&gt; counts = 9;
+ *   oneof value {
+ *     string text = 10;
+ *     Child nested = 11;
+ *   }
+ * }
+ * </pre>
+ */
+public final class TestLiteMessage extends GeneratedMessageLite<TestLiteMessage, TestLiteMessage.Builder> {
+
+    public enum Kind implements Internal.EnumLite {
+        NONE(0),
+        SMALL(1),
+        LARGE(2);
+
+        private final int value;
+
+        Kind(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int getNumber() {
+            return value;
+        }
+
+        public static Kind forNumber(int value) {
+            switch (value) {
+                case 0:
+                    return NONE;
+                case 1:
+                    return SMALL;
+                case 2:
+                    return LARGE;
+                default:
+                    return null;
+            }
+        }
+
+        public static Internal.EnumVerifier internalGetVerifier() {
+            return KindVerifier.INSTANCE;
+        }
+
+        private static final class KindVerifier implements Internal.EnumVerifier {
+            static final Internal.EnumVerifier INSTANCE = new KindVerifier();
+
+            @Override
+            public boolean isInRange(int number) {
+                return Kind.forNumber(number) != null;
+            }
+        }
+    }
+
+    public static final class Child extends GeneratedMessageLite<Child, Child.Builder> {
+        private int bitField0_;
+        private int number_;
+
+        private Child() {
+        }
+
+        public boolean hasNumber() {
+            return (bitField0_ & 0x00000001) != 0;
+        }
+
+        public int getNumber() {
+            return number_;
+        }
+
+        public static Child parseFrom(byte[] data) throws InvalidProtocolBufferException {
+            return GeneratedMessageLite.parseFrom(DEFAULT_INSTANCE, data);
+        }
+
+        public static Builder newBuilder() {
+            return DEFAULT_INSTANCE.createBuilder();
+        }
+
+        public static final class Builder extends GeneratedMessageLite.Builder<Child, Builder> {
+            private Builder() {
+                super(DEFAULT_INSTANCE);
+            }
+
+            public Builder setNumber(int value) {
+                copyOnWrite();
+                instance.bitField0_ |= 0x00000001;
+                instance.number_ = value;
+                return this;
+            }
+        }
+
+        @Override
+        protected Object dynamicMethod(MethodToInvoke method, Object arg0, Object arg1) {
+            switch (method) {
+                case NEW_MUTABLE_INSTANCE:
+                    return new Child();
+                case NEW_BUILDER:
+                    return new Builder();
+                case BUILD_MESSAGE_INFO: {
+                    Object[] objects = new Object[] {
+                            "bitField0_",
+                            "number_",
+                    };
+                    String info = "\u0001\u0001\u0000\u0001\u0001\u0001\u0001\u0000\u0000\u0000\u0001င\u0000";
+                    return newMessageInfo(DEFAULT_INSTANCE, info, objects);
+                }
+                case GET_DEFAULT_INSTANCE:
+                    return DEFAULT_INSTANCE;
+                case GET_PARSER:
+                    return PARSER;
+                case GET_MEMOIZED_IS_INITIALIZED:
+                    return (byte) 1;
+                case SET_MEMOIZED_IS_INITIALIZED:
+                    return null;
+            }
+            throw new UnsupportedOperationException();
+        }
+
+        private static final Child DEFAULT_INSTANCE;
+        private static final Parser<Child> PARSER;
+
+        static {
+            Child defaultInstance = new Child();
+            DEFAULT_INSTANCE = defaultInstance;
+            GeneratedMessageLite.registerDefaultInstance(Child.class, defaultInstance);
+            PARSER = new DefaultInstanceBasedParser<>(DEFAULT_INSTANCE);
+            MessageFieldAccessor.register(Child.class, new FieldAccessor());
+        }
+
+        public static Child getDefaultInstance() {
+            return DEFAULT_INSTANCE;
+        }
+
+        private static final class FieldAccessor extends MessageFieldAccessor<Child> {
+            FieldAccessor() {
+                super("bitField0_", "number_");
+            }
+
+            @Override
+            public int getInt(Child message, int slot) {
+                switch (slot) {
+                    case 0:
+                        return message.bitField0_;
+                    case 1:
+                        return message.number_;
+                    default:
+                        return super.getInt(message, slot);
+                }
+            }
+
+            @Override
+            public void setInt(Child message, int slot, int value) {
+                switch (slot) {
+                    case 0:
+                        message.bitField0_ = value;
+                        break;
+                    case 1:
+                        message.number_ = value;
+                        break;
+                    default:
+                        super.setInt(message, slot, value);
+                }
+            }
+        }
+    }
+
+    private static final class CountsDefaultEntryHolder {
+        static final MapEntryLite<String, Long> defaultEntry = MapEntryLite.newDefaultInstance(
+                WireFormat.FieldType.STRING, "", WireFormat.FieldType.INT64, 0L);
+    }
+
+    private int bitField0_;
+    private int valueCase_ = 0;
+    private Object value_;
+    private int id_;
+    private String name_ = "";
+    private long delta_;
+    private double score_;
+    private Child child_;
+    private Internal.IntList values_ = emptyIntList();
+    private Internal.ProtobufList<Child> children_ = emptyProtobufList();
+    private int kind_;
+    private MapFieldLite<String, Long> counts_ = MapFieldLite.emptyMapField();
+
+    private TestLiteMessage() {
+    }
+
+    public boolean hasId() {
+        return (bitField0_ & 0x00000001) != 0;
+    }
+
+    public int getId() {
+        return id_;
+    }
+
+    public boolean hasName() {
+        return (bitField0_ & 0x00000002) != 0;
+    }
+
+    public String getName() {
+        return name_;
+    }
+
+    public long getDelta() {
+        return delta_;
+    }
+
+    public double getScore() {
+        return score_;
+    }
+
+    public boolean hasChild() {
+        return (bitField0_ & 0x00000010) != 0;
+    }
+
+    public Child getChild() {
+        return child_ == null ? Child.getDefaultInstance() : child_;
+    }
+
+    public List<Integer> getValuesList() {
+        return values_;
+    }
+
+    public List<Child> getChildrenList() {
+        return children_;
+    }
+
+    public boolean hasKind() {
+        return (bitField0_ & 0x00000020) != 0;
+    }
+
+    public Kind getKind() {
+        Kind result = Kind.forNumber(kind_);
+        return result == null ? Kind.NONE : result;
+    }
+
+    public Map<String, Long> getCountsMap() {
+        return counts_;
+    }
+
+    public int getValueCase() {
+        return valueCase_;
+    }
+
+    public String getText() {
+        return valueCase_ == 10 ? (String) value_ : "";
+    }
+
+    public Child getNested() {
+        return valueCase_ == 11 ? (Child) value_ : Child.getDefaultInstance();
+    }
+
+    public static TestLiteMessage parseFrom(byte[] data) throws InvalidProtocolBufferException {
+        return GeneratedMessageLite.parseFrom(DEFAULT_INSTANCE, data);
+    }
+
+    public static TestLiteMessage parseFrom(CodedInputStream input) throws java.io.IOException {
+        return GeneratedMessageLite.parseFrom(DEFAULT_INSTANCE, input);
+    }
+
+    public static Builder newBuilder() {
+        return DEFAULT_INSTANCE.createBuilder();
+    }
+
+    public static final class Builder extends GeneratedMessageLite.Builder<TestLiteMessage, Builder> {
+        private Builder() {
+            super(DEFAULT_INSTANCE);
+        }
+
+        public Builder setId(int value) {
+            copyOnWrite();
+            instance.bitField0_ |= 0x00000001;
+            instance.id_ = value;
+            return this;
+        }
+
+        public Builder setName(String value) {
+            copyOnWrite();
+            instance.bitField0_ |= 0x00000002;
+            instance.name_ = value;
+            return this;
+        }
+
+        public Builder setDelta(long value) {
+            copyOnWrite();
+            instance.bitField0_ |= 0x00000004;
+            instance.delta_ = value;
+            return this;
+        }
+
+        public Builder setScore(double value) {
+            copyOnWrite();
+            instance.bitField0_ |= 0x00000008;
+            instance.score_ = value;
+            return this;
+        }
+
+        public Builder setChild(Child value) {
+            copyOnWrite();
+            instance.child_ = value;
+            instance.bitField0_ |= 0x00000010;
+            return this;
+        }
+
+        public Builder addValues(int value) {
+            copyOnWrite();
+            if (!instance.values_.isModifiable()) {
+                instance.values_ = mutableCopy(instance.values_);
+            }
+            instance.values_.addInt(value);
+            return this;
+        }
+
+        public Builder addChildren(Child value) {
+            copyOnWrite();
+            if (!instance.children_.isModifiable()) {
+                instance.children_ = mutableCopy(instance.children_);
+            }
+            instance.children_.add(value);
+            return this;
+        }
+
+        public Builder setKind(Kind value) {
+            copyOnWrite();
+            instance.kind_ = value.getNumber();
+            instance.bitField0_ |= 0x00000020;
+            return this;
+        }
+
+        public Builder putCounts(String key, long value) {
+            copyOnWrite();
+            if (!instance.counts_.isMutable()) {
+                instance.counts_ = instance.counts_.mutableCopy();
+            }
+            instance.counts_.put(key, value);
+            return this;
+        }
+
+        public Builder setText(String value) {
+            copyOnWrite();
+            instance.valueCase_ = 10;
+            instance.value_ = value;
+            return this;
+        }
+
+        public Builder setNested(Child value) {
+            copyOnWrite();
+            instance.valueCase_ = 11;
+            instance.value_ = value;
+            return this;
+        }
+    }
+
+    @Override
+    protected Object dynamicMethod(MethodToInvoke method, Object arg0, Object arg1) {
+        switch (method) {
+            case NEW_MUTABLE_INSTANCE:
+                return new TestLiteMessage();
+            case NEW_BUILDER:
+                return new Builder();
+            case BUILD_MESSAGE_INFO: {
+                Object[] objects = new Object[] {
+                        "value_",
+                        "valueCase_",
+                        "bitField0_",
+                        "id_",
+                        "name_",
+                        "delta_",
+                        "score_",
+                        "child_",
+                        "values_",
+                        "children_",
+                        Child.class,
+                        "kind_",
+                        Kind.internalGetVerifier(),
+                        "counts_",
+                        CountsDefaultEntryHolder.defaultEntry,
+                        Child.class,
+                };
+                String info = "\u0001\u000b\u0001\u0001\u0001\u000b\u000b\u0001\u0002\u0000"
+                        + "\u0001င\u0000\u0002ဈ\u0001\u0003တ\u0002\u0004က\u0003"
+                        + "\u0005ဉ\u0004\u0006'\u0007\u001b\b᠌\u0005\t2"
+                        + "\n;\u0000\u000b<\u0000";
+                return newMessageInfo(DEFAULT_INSTANCE, info, objects);
+            }
+            case GET_DEFAULT_INSTANCE:
+                return DEFAULT_INSTANCE;
+            case GET_PARSER:
+                return PARSER;
+            case GET_MEMOIZED_IS_INITIALIZED:
+                return (byte) 1;
+            case SET_MEMOIZED_IS_INITIALIZED:
+                return null;
+        }
+        throw new UnsupportedOperationException();
+    }
+
+    private static final TestLiteMessage DEFAULT_INSTANCE;
+    private static final Parser<TestLiteMessage> PARSER;
+
+    static {
+        TestLiteMessage defaultInstance = new TestLiteMessage();
+        DEFAULT_INSTANCE = defaultInstance;
+        GeneratedMessageLite.registerDefaultInstance(TestLiteMessage.class, defaultInstance);
+        PARSER = new DefaultInstanceBasedParser<>(DEFAULT_INSTANCE);
+        MessageFieldAccessor.register(TestLiteMessage.class, new FieldAccessor());
+    }
+
+    public static TestLiteMessage getDefaultInstance() {
+        return DEFAULT_INSTANCE;
+    }
+
+    public static Parser<TestLiteMessage> parser() {
+        return PARSER;
+    }
+
+    private static final class FieldAccessor extends MessageFieldAccessor<TestLiteMessage> {
+        FieldAccessor() {
+            super("value_", "valueCase_", "bitField0_", "id_", "name_", "delta_", "score_", "child_",
+                    "values_", "children_", "kind_", "counts_");
+        }
+
+        @Override
+        public int getInt(TestLiteMessage message, int slot) {
+            switch (slot) {
+                case 1:
+                    return message.valueCase_;
+                case 2:
+                    return message.bitField0_;
+                case 3:
+                    return message.id_;
+                case 10:
+                    return message.kind_;
+                default:
+                    return super.getInt(message, slot);
+            }
+        }
+
+        @Override
+        public void setInt(TestLiteMessage message, int slot, int value) {
+            switch (slot) {
+                case 1:
+                    message.valueCase_ = value;
+                    break;
+                case 2:
+                    message.bitField0_ = value;
+                    break;
+                case 3:
+                    message.id_ = value;
+                    break;
+                case 10:
+                    message.kind_ = value;
+                    break;
+                default:
+                    super.setInt(message, slot, value);
+            }
+        }
+
+        @Override
+        public long getLong(TestLiteMessage message, int slot) {
+            return slot == 5 ? message.delta_ : super.getLong(message, slot);
+        }
+
+        @Override
+        public void setLong(TestLiteMessage message, int slot, long value) {
+            if (slot == 5) {
+                message.delta_ = value;
+            } else {
+                super.setLong(message, slot, value);
+            }
+        }
+
+        @Override
+        public double getDouble(TestLiteMessage message, int slot) {
+            return slot == 6 ? message.score_ : super.getDouble(message, slot);
+        }
+
+        @Override
+        public void setDouble(TestLiteMessage message, int slot, double value) {
+            if (slot == 6) {
+                message.score_ = value;
+            } else {
+                super.setDouble(message, slot, value);
+            }
+        }
+
+        @Override
+        public Object getObject(TestLiteMessage message, int slot) {
+            switch (slot) {
+                case 0:
+                    return message.value_;
+                case 4:
+                    return message.name_;
+                case 7:
+                    return message.child_;
+                case 8:
+                    return message.values_;
+                case 9:
+                    return message.children_;
+                case 11:
+                    return message.counts_;
+                default:
+                    return super.getObject(message, slot);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void setObject(TestLiteMessage message, int slot, Object value) {
+            switch (slot) {
+                case 0:
+                    message.value_ = value;
+                    break;
+                case 4:
+                    message.name_ = (String) value;
+                    break;
+                case 7:
+                    message.child_ = (Child) value;
+                    break;
+                case 8:
+                    message.values_ = (Internal.IntList) value;
+                    break;
+                case 9:
+                    message.children_ = (Internal.ProtobufList<Child>) value;
+                    break;
+                case 11:
+                    message.counts_ = (MapFieldLite<String, Long>) value;
+                    break;
+                default:
+                    super.setObject(message, slot, value);
+            }
+        }
+
+        @Override
+        public MessageLite getMessageDefaultInstance(int fieldNumber) {
+            switch (fieldNumber) {
+                case 5:
+                case 7:
+                case 11:
+                    return Child.getDefaultInstance();
+                default:
+                    return super.getMessageDefaultInstance(fieldNumber);
+            }
+        }
+    }
+}
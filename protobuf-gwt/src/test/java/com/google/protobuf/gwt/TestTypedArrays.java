@@ -0,0 +1,34 @@
+package com.google.protobuf.gwt;
+
+import elemental2.core.ArrayBuffer;
+import elemental2.core.Uint8Array;
+
+/**
+ * Typed array helpers shared by the tests.
+ */
+public final class TestTypedArrays {
+
+    private TestTypedArrays() {
+    }
+
+    /**
+     * Copies the given bytes into a new Uint8Array, which is a view starting {@code offset} bytes
+     * into a larger ArrayBuffer, with as many spare bytes after it.
+     */
+    public static Uint8Array toUint8Array(byte[] data, int offset) {
+        ArrayBuffer buffer = new ArrayBuffer(data.length + 2 * offset);
+        return copy(data, 0, data.length, new Uint8Array(buffer, offset, data.length));
+    }
+
+    /** Copies the bytes from {@code from} up to {@code to} into a new Uint8Array of their own. */
+    public static Uint8Array toUint8Array(byte[] data, int from, int to) {
+        return copy(data, from, to, new Uint8Array(to - from));
+    }
+
+    private static Uint8Array copy(byte[] data, int from, int to, Uint8Array array) {
+        for (int i = from; i < to; i++) {
+            array.setAt(i - from, (double) (data[i] & 0xff));
+        }
+        return array;
+    }
+}
@@ -0,0 +1,135 @@
+package com.google.protobuf.gwt;
+
+import static com.google.protobuf.gwt.TestTypedArrays.toUint8Array;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.protobuf.AbstractParser;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Value;
+import elemental2.core.Uint8Array;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TimeSlicedParserTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "com.vertispan.protobuf.ProtobufTest";
+    }
+
+    /** Queues slices to be run by the test, so each yield can be observed. */
+    private static class QueueScheduler implements TimeSlicedParser.Scheduler {
+        private final List<Runnable> queue = new ArrayList<>();
+        private int scheduled;
+
+        @Override
+        public void schedule(Runnable task) {
+            scheduled++;
+            queue.add(task);
+        }
+
+        void runAll() {
+            while (!queue.isEmpty()) {
+                queue.remove(0).run();
+            }
+        }
+    }
+
+    private static class ResultCallback<T> implements TimeSlicedParser.Callback<T> {
+        private T message;
+        private InvalidProtocolBufferException failure;
+
+        @Override
+        public void onSuccess(T message) {
+            assertNull(this.message);
+            this.message = message;
+        }
+
+        @Override
+        public void onFailure(InvalidProtocolBufferException e) {
+            assertNull(failure);
+            failure = e;
+        }
+    }
+
+    private static ListValue createList() {
+        ListValue.Builder builder = ListValue.newBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.addValues(Value.newBuilder().setStringValue("value " + i));
+            builder.addValues(Value.newBuilder().setNumberValue(i));
+        }
+        return builder.build();
+    }
+
+    public void testParseInSlices() throws Exception {
+        ListValue expected = createList();
+        byte[] data = expected.toByteArray();
+
+        TimeSlicedParser<ListValue> parser = new TimeSlicedParser<>(ListValue.parser());
+        QueueScheduler scheduler = new QueueScheduler();
+        parser.setScheduler(scheduler);
+        parser.setSliceSize(100);
+        ResultCallback<ListValue> callback = new ResultCallback<>();
+        parser.parseFrom(toUint8Array(data, 0, data.length), callback);
+
+        // Nothing happens until the first slice runs
+        assertNull(callback.message);
+        scheduler.runAll();
+
+        assertNull(callback.failure);
+        assertEquals(expected, callback.message);
+        assertTrue(scheduler.scheduled >= data.length / 100);
+    }
+
+    public void testParseEmpty() throws Exception {
+        TimeSlicedParser<ListValue> parser = new TimeSlicedParser<>(ListValue.parser());
+        QueueScheduler scheduler = new QueueScheduler();
+        parser.setScheduler(scheduler);
+        ResultCallback<ListValue> callback = new ResultCallback<>();
+        parser.parseFrom(new Uint8Array(0), callback);
+        scheduler.runAll();
+
+        assertNull(callback.failure);
+        assertEquals(ListValue.getDefaultInstance(), callback.message);
+        assertEquals(1, scheduler.scheduled);
+    }
+
+    public void testTruncatedInput() throws Exception {
+        byte[] data = createList().toByteArray();
+
+        TimeSlicedParser<ListValue> parser = new TimeSlicedParser<>(ListValue.parser());
+        QueueScheduler scheduler = new QueueScheduler();
+        parser.setScheduler(scheduler);
+        parser.setSliceSize(100);
+        ResultCallback<ListValue> callback = new ResultCallback<>();
+        parser.parseFrom(toUint8Array(data, 0, data.length - 1), callback);
+        scheduler.runAll();
+
+        assertNull(callback.message);
+        assertNotNull(callback.failure);
+    }
+
+    public void testParserThrowsRuntimeException() throws Exception {
+        byte[] data = createList().toByteArray();
+        IllegalStateException thrown = new IllegalStateException("parser failed");
+
+        TimeSlicedParser<ListValue> parser = new TimeSlicedParser<>(new AbstractParser<ListValue>() {
+            @Override
+            public ListValue parsePartialFrom(CodedInputStream input, ExtensionRegistryLite registry) {
+                throw thrown;
+            }
+        });
+        QueueScheduler scheduler = new QueueScheduler();
+        parser.setScheduler(scheduler);
+        ResultCallback<ListValue> callback = new ResultCallback<>();
+        parser.parseFrom(toUint8Array(data, 0, data.length), callback);
+        scheduler.runAll();
+
+        assertNull(callback.message);
+        assertSame(thrown, callback.failure.getCause());
+    }
+}
@@ -2,7 +2,17 @@ package com.vertispan.protobuf;
 
 import com.google.gwt.core.shared.GwtIncompatible;
 import com.google.gwt.junit.tools.GWTTestSuite;
+import com.google.protobuf.AbstractMessageTest;
 import com.google.protobuf.CodedInputStreamTest;
+import com.google.protobuf.CodedOutputStreamTest;
+import com.google.protobuf.DescriptorsTest;
+import com.google.protobuf.DynamicMessageTest;
+import com.google.protobuf.TypedArrayListTest;
+import com.google.protobuf.gwt.DelimitedMessageDecoderTest;
+import com.google.protobuf.gwt.DescriptorSupportTest;
+import com.google.protobuf.gwt.LiteMessageSchemaTest;
+import com.google.protobuf.gwt.MessageReflectionAccessorTest;
+import com.google.protobuf.gwt.TimeSlicedParserTest;
 import com.vertispan.protobuf.client.MessageTest;
 import junit.framework.Test;
 
@@ -12,6 +22,16 @@ public class ProtobufSuite {
         GWTTestSuite suite = new GWTTestSuite("Protobuf emulation tests");
         suite.addTestSuite(MessageTest.class);
         suite.addTestSuite(CodedInputStreamTest.class);
+        suite.addTestSuite(CodedOutputStreamTest.class);
+        suite.addTestSuite(DelimitedMessageDecoderTest.class);
+        suite.addTestSuite(TimeSlicedParserTest.class);
+        suite.addTestSuite(LiteMessageSchemaTest.class);
+        suite.addTestSuite(MessageReflectionAccessorTest.class);
+        suite.addTestSuite(AbstractMessageTest.class);
+        suite.addTestSuite(DescriptorsTest.class);
+        suite.addTestSuite(DescriptorSupportTest.class);
+        suite.addTestSuite(DynamicMessageTest.class);
+        suite.addTestSuite(TypedArrayListTest.class);
 
         return suite;
     }